@@ -16,7 +16,10 @@ import org.slf4j.LoggerFactory;
 
 import com.incomb.server.config.Config;
 import com.incomb.server.content.NewsGrouperThread;
+import com.incomb.server.content.grouping.MinHashNewsFinder;
+import com.incomb.server.content.dedup.NewsDedupIndex;
 import com.incomb.server.content.loader.ContentLoaderManager;
+import com.incomb.server.content.retention.RetentionJob;
 import com.incomb.server.db.DBConnectionProvider;
 import com.incomb.server.indexing.IndexManager;
 import com.incomb.server.model.News;
@@ -38,8 +41,8 @@ public class InCombServlet extends HttpServlet {
 
 	/**
 	 * Sets the doc base at {@link ConfigUtil#setDocBase(String)},
-	 * initializes the logger, starts the {@link ContentLoaderManager} and the
-	 * {@link NewsGrouperThread}.
+	 * initializes the logger, loads the {@link NewsDedupIndex}, starts the {@link ContentLoaderManager},
+	 * loads the {@link MinHashNewsFinder}, starts the {@link NewsGrouperThread} and the {@link RetentionJob}.
 	 */
 	@Override
 	public void init() throws ServletException {
@@ -49,6 +52,8 @@ public class InCombServlet extends HttpServlet {
 		ConfigUtil.initLogger();
 		LOGGER.info("Logger initialized successfully!");
 
+		NewsDedupIndex.getInstance().loadAsync();
+
 		if(Config.getDefault().getBooleanProperty("contentLoader.run")) {
 			final ContentLoaderManager loadingManager = ContentLoaderManager.getInstance();
 			loadingManager.loadContentSources();
@@ -62,10 +67,19 @@ public class InCombServlet extends HttpServlet {
 		indexNotIndexedNews();
 		LOGGER.info("Not indexed news added to indexer.");
 
+		try {
+			MinHashNewsFinder.getInstance().load();
+		}
+		catch(final Exception e) {
+			LOGGER.error("Can't load the signatures of the recent news.", e);
+		}
+
 		final NewsGrouperThread newsGrouper = NewsGrouperThread.getInstance();
 		newsGrouper.start();
 		addUngroupedNewsToGrouper();
 		LOGGER.info("NewsGrouperThread initialized.");
+
+		RetentionJob.getInstance().start();
 	}
 
 	/**
@@ -105,8 +119,8 @@ public class InCombServlet extends HttpServlet {
 	}
 
 	/**
-	 * Shutdowns the system. Stops the {@link ContentLoaderManager}, {@link IndexManager}
-	 * and the {@link NewsGrouperThread}.
+	 * Shutdowns the system. Stops the {@link ContentLoaderManager}, {@link IndexManager},
+	 * the {@link NewsGrouperThread}, the {@link RetentionJob} and closes the database connection pool.
 	 */
 	@Override
 	public void destroy() {
@@ -116,6 +130,8 @@ public class InCombServlet extends HttpServlet {
 		ContentLoaderManager.getInstance().shutdown();
 		IndexManager.getInstance().shutdown();
 		NewsGrouperThread.getInstance().shutdown();
+		RetentionJob.getInstance().shutdown();
+		DBConnectionProvider.getInstance().shutdown();
 	}
 
 	/**
@@ -79,21 +79,29 @@ public class CategoryIndexType implements IIndexTypeConf {
 	}
 
 	/**
-	 * Returns all {@link Category}s. For each {@link Category} and {@link Locale} a
+	 * {@inheritDoc}
+	 * Categories are only indexed when they are saved.
+	 */
+	@Override
+	public boolean isInsertRecoverable() {
+		return false;
+	}
+
+	/**
+	 * Returns the {@link Category}s sorted by id. For each {@link Category} and {@link Locale} a
 	 * {@link CategoryIndexElement} is returned.
 	 *
 	 * {@link CategoryIndexElement#getOperation()} returns {@link EOperation#INSERT}.
 	 */
 	@Override
-	public List<? extends IIndexElement> getElements(final Connection con, int start, int amount) {
+	public List<? extends IIndexElement> getElements(final Connection con, final long afterId, final int amount) {
 		final List<Locale> locales = LocaleUtil.getAllLocales();
 
-		// divide start because we want to return for each category and locale an element.
-		start = start / locales.size();
-		amount = amount / locales.size();
+		// divide amount because we want to return for each category and locale an element.
+		final int categoriesAmount = Math.max(1, amount / locales.size());
 
 		final List<CategoryIndexElement> elements = new ArrayList<>();
-		final List<Category> records = new CategoryDao(con).getCategories(start, amount);
+		final List<Category> records = new CategoryDao(con).getCategoriesAfter((int) afterId, categoriesAmount);
 
 		for (final Category record : records) {
 			for(final Locale locale : locales) {
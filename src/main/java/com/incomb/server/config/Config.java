@@ -106,6 +106,18 @@ public class Config {
 		return getProperty(propertyKey, Integer.class);
 	}
 
+	/**
+	 * Wrapper method for getProperty to return an int or the given default value
+	 * if the property doesn't exist.
+	 * @param propertyKey
+	 * @param defaultValue the value to return if the property doesn't exist
+	 * @return
+	 */
+	public int getIntProperty(final String propertyKey, final int defaultValue) {
+		final Integer value = getProperty(propertyKey, Integer.class);
+		return value == null ? defaultValue : value;
+	}
+
 	/**
 	 * Wrapper method for getProperty to always return a double
 	 * @param propertyKey
@@ -124,6 +136,18 @@ public class Config {
 		return getProperty(propertyKey, Boolean.class);
 	}
 
+	/**
+	 * Wrapper method for getProperty to return a boolean or the given default value
+	 * if the property doesn't exist.
+	 * @param propertyKey
+	 * @param defaultValue the value to return if the property doesn't exist
+	 * @return
+	 */
+	public boolean getBooleanProperty(final String propertyKey, final boolean defaultValue) {
+		final Boolean value = getProperty(propertyKey, Boolean.class);
+		return value == null ? defaultValue : value;
+	}
+
 	/**
 	 * Check if a property exists
 	 * <b>Warning</b> does not work if the property is null
@@ -0,0 +1,117 @@
+package com.incomb.server.content;
+
+import com.incomb.server.model.News;
+
+/**
+ * A snapshot of a {@link News} which the {@link NewsGrouperThread} couldn't group.
+ * @see NewsGrouperThread#getDeadLetters()
+ */
+public class GroupingDeadLetter {
+
+	/**
+	 * The id of the {@link News}.
+	 */
+	private final long newsId;
+
+	/**
+	 * The locale of the {@link News}.
+	 */
+	private final String locale;
+
+	/**
+	 * The category id of the {@link News}.
+	 */
+	private final int categoryId;
+
+	/**
+	 * Amount of failed attempts to group the {@link News}.
+	 */
+	private final int attempts;
+
+	/**
+	 * The last exception which was thrown during grouping or <code>null</code>.
+	 */
+	private final String lastError;
+
+	/**
+	 * Time in milliseconds when the {@link News} was added to the grouper.
+	 */
+	private final long addedAt;
+
+	/**
+	 * Time in milliseconds when the {@link News} was moved to the dead letters.
+	 */
+	private final long deadAt;
+
+	/**
+	 * Creates a new instance with all properties.
+	 */
+	GroupingDeadLetter(final long newsId, final String locale, final int categoryId, final int attempts,
+			final String lastError, final long addedAt, final long deadAt) {
+		this.newsId = newsId;
+		this.locale = locale;
+		this.categoryId = categoryId;
+		this.attempts = attempts;
+		this.lastError = lastError;
+		this.addedAt = addedAt;
+		this.deadAt = deadAt;
+	}
+
+	/**
+	 * @return the id of the {@link News}.
+	 */
+	public long getNewsId() {
+		return newsId;
+	}
+
+	/**
+	 * @return the locale of the {@link News}.
+	 */
+	public String getLocale() {
+		return locale;
+	}
+
+	/**
+	 * @return the category id of the {@link News}.
+	 */
+	public int getCategoryId() {
+		return categoryId;
+	}
+
+	/**
+	 * @return the amount of failed attempts to group the {@link News}.
+	 */
+	public int getAttempts() {
+		return attempts;
+	}
+
+	/**
+	 * @return the last exception which was thrown during grouping or <code>null</code>.
+	 */
+	public String getLastError() {
+		return lastError;
+	}
+
+	/**
+	 * @return the time in milliseconds when the {@link News} was added to the grouper.
+	 */
+	public long getAddedAt() {
+		return addedAt;
+	}
+
+	/**
+	 * @return the time in milliseconds when the {@link News} was moved to the dead letters.
+	 */
+	public long getDeadAt() {
+		return deadAt;
+	}
+
+	/**
+	 * Returns the dead letter in a human readable format.
+	 */
+	@Override
+	public String toString() {
+		return "News " + newsId + " (" + locale + ", category " + categoryId + ") failed " + attempts
+				+ " times: " + lastError;
+	}
+}
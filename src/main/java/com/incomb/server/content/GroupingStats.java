@@ -0,0 +1,164 @@
+package com.incomb.server.content;
+
+import com.incomb.server.model.News;
+
+/**
+ * A snapshot of the statistics of the {@link NewsGrouperThread} since startup.
+ * @see NewsGrouperThread#getStats()
+ */
+public class GroupingStats {
+
+	/**
+	 * Amount of workers which group the {@link News}.
+	 */
+	private final int workers;
+
+	/**
+	 * Amount of {@link News} which are waiting to be passed to a worker.
+	 */
+	private final int queued;
+
+	/**
+	 * Amount of {@link News} which are waiting in the queues of the workers.
+	 */
+	private final int pending;
+
+	/**
+	 * Amount of {@link News} which are waiting for a retry.
+	 */
+	private final int retrying;
+
+	/**
+	 * Amount of {@link News} which couldn't be grouped.
+	 */
+	private final int deadLetters;
+
+	/**
+	 * Amount of grouped {@link News}.
+	 */
+	private final long grouped;
+
+	/**
+	 * Amount of failed groupings.
+	 */
+	private final long failed;
+
+	/**
+	 * Total time in milliseconds from adding to grouping of all grouped {@link News}.
+	 */
+	private final long totalLag;
+
+	/**
+	 * Time in milliseconds from adding to grouping of the last grouped {@link News}.
+	 */
+	private final long lastLag;
+
+	/**
+	 * Longest time in milliseconds from adding to grouping of a {@link News}.
+	 */
+	private final long maxLag;
+
+	/**
+	 * Creates a new instance with all properties.
+	 */
+	GroupingStats(final int workers, final int queued, final int pending, final int retrying, final int deadLetters,
+			final long grouped, final long failed, final long totalLag, final long lastLag, final long maxLag) {
+		this.workers = workers;
+		this.queued = queued;
+		this.pending = pending;
+		this.retrying = retrying;
+		this.deadLetters = deadLetters;
+		this.grouped = grouped;
+		this.failed = failed;
+		this.totalLag = totalLag;
+		this.lastLag = lastLag;
+		this.maxLag = maxLag;
+	}
+
+	/**
+	 * @return the amount of workers which group the {@link News}.
+	 */
+	public int getWorkers() {
+		return workers;
+	}
+
+	/**
+	 * @return the amount of {@link News} which are waiting to be passed to a worker.
+	 */
+	public int getQueued() {
+		return queued;
+	}
+
+	/**
+	 * @return the amount of {@link News} which are waiting in the queues of the workers.
+	 */
+	public int getPending() {
+		return pending;
+	}
+
+	/**
+	 * @return the amount of {@link News} which are waiting to be grouped.
+	 */
+	public int getDepth() {
+		return queued + pending;
+	}
+
+	/**
+	 * @return the amount of {@link News} which are waiting for a retry.
+	 */
+	public int getRetrying() {
+		return retrying;
+	}
+
+	/**
+	 * @return the amount of {@link News} which couldn't be grouped.
+	 */
+	public int getDeadLetters() {
+		return deadLetters;
+	}
+
+	/**
+	 * @return the amount of grouped {@link News}.
+	 */
+	public long getGrouped() {
+		return grouped;
+	}
+
+	/**
+	 * @return the amount of failed groupings.
+	 */
+	public long getFailed() {
+		return failed;
+	}
+
+	/**
+	 * @return the average time in milliseconds from adding to grouping of a {@link News}.
+	 */
+	public double getAverageLag() {
+		return grouped == 0 ? 0 : (double) totalLag / grouped;
+	}
+
+	/**
+	 * @return the time in milliseconds from adding to grouping of the last grouped {@link News}.
+	 */
+	public long getLastLag() {
+		return lastLag;
+	}
+
+	/**
+	 * @return the longest time in milliseconds from adding to grouping of a {@link News}.
+	 */
+	public long getMaxLag() {
+		return maxLag;
+	}
+
+	/**
+	 * Returns the statistics in a human readable format.
+	 */
+	@Override
+	public String toString() {
+		return String.format("Grouping with %d workers: %d queued, %d pending, %d retrying, %d dead, %d grouped, "
+				+ "%d failed, lag avg %.1f ms, last %d ms, max %d ms.", workers, queued, pending, retrying, deadLetters,
+				grouped, failed, getAverageLag(), lastLag, maxLag);
+	}
+}
@@ -3,23 +3,50 @@ package com.incomb.server.content;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.incomb.server.config.Config;
+import com.incomb.server.content.grouping.MinHashNewsFinder;
+import com.incomb.server.content.grouping.NewsGroupCache;
 import com.incomb.server.db.DBConnectionProvider;
 import com.incomb.server.model.News;
 import com.incomb.server.model.dao.NewsDao;
+import com.incomb.server.pipeline.EOverflowPolicy;
+import com.incomb.server.pipeline.StageQueue;
 
 /**
  * Searches for similar {@link News} for another {@link News}
  * and sets to them the same news group id.
+ * The similar {@link News} are found by the {@link SimilarNewsFinder} or if grouper.engine is
+ * {@link com.incomb.server.content.grouping.EGroupingEngine#MIN_HASH} by the {@link MinHashNewsFinder}.
  *
- * <p>If an error occurred during grouping of a {@link News} we will retry it after {@value #RETRY_TIME}ms.</p>
+ * <p>This thread only dispatches the {@link News} to a pool of grouper.threads workers. The work is
+ * partitioned by locale and category: the {@link SimilarNewsFinder} only finds {@link News} of the same
+ * locale and category, so all {@link News} of a partition are grouped one after another by the same worker
+ * and different partitions are grouped concurrently without racing for the same news group.</p>
+ *
+ * <p>If an error occurred during grouping of a {@link News} it's retried by one scheduler thread with an
+ * exponential backoff beginning with grouper.retry.initialDelay seconds up to grouper.retry.maxDelay seconds.
+ * After grouper.retry.maxAttempts attempts or if more than grouper.retry.maxPending retries are waiting,
+ * the {@link News} is moved to the dead letters, see {@link #getDeadLetters()}.</p>
+ *
+ * <p>If the queue is full new {@link News} are dropped, so the indexer never waits for the grouper.
+ * They stay ungrouped until they are added again at the next startup.</p>
  */
 public class NewsGrouperThread extends Thread {
 
@@ -36,21 +63,121 @@ public class NewsGrouperThread extends Thread {
 	private static final NewsGrouperThread INSTANCE = new NewsGrouperThread();
 
 	/**
-	 * Time in milliseconds to wait until a failed {@link News} should be added again to the {@link #QUEUE}.
+	 * Default seconds to wait until a failed {@link News} is added again to the {@link #QUEUE} the first time.
+	 */
+	private static final int DEFAULT_RETRY_INITIAL_DELAY = 60;
+
+	/**
+	 * Default maximal seconds to wait until a failed {@link News} is added again to the {@link #QUEUE}.
+	 */
+	private static final int DEFAULT_RETRY_MAX_DELAY = 30 * 60;
+
+	/**
+	 * Default amount of attempts to group a {@link News} until it's moved to the dead letters.
+	 */
+	private static final int DEFAULT_RETRY_MAX_ATTEMPTS = 5;
+
+	/**
+	 * Default maximal amount of {@link News} which are waiting for a retry.
 	 */
-	private static final long RETRY_TIME = 60*1000;
+	private static final int DEFAULT_RETRY_MAX_PENDING = 1000;
 
 	/**
-	 * Contains all {@link Thread} which are sleeping to add a {@link News} to the {@link #QUEUE} again.
-	 * @see #waitAddToQueue(News)
+	 * Default maximal amount of dead letters which are kept.
 	 */
-	private static final List<Thread> WAIT_ADD_THREADS = new ArrayList<>();
+	private static final int DEFAULT_DEAD_LETTERS = 1000;
+
+	/**
+	 * Default maximal amount of {@link News} which are waiting in the {@link #QUEUE}.
+	 */
+	private static final int DEFAULT_QUEUE_CAPACITY = 10000;
+
+	/**
+	 * Default amount of workers which group the {@link News}.
+	 */
+	private static final int DEFAULT_WORKERS = 4;
+
+	/**
+	 * Default maximal amount of {@link News} which are waiting for one worker.
+	 */
+	private static final int DEFAULT_WORKER_QUEUE_CAPACITY = 1000;
 
 	/**
 	 * All {@link News} which will be grouped.
 	 * First in, first grouped.
 	 */
-	private static final Queue<News> QUEUE = new ConcurrentLinkedDeque<>();
+	private static final StageQueue<GroupTask> QUEUE = new StageQueue<>("group", DEFAULT_QUEUE_CAPACITY,
+			EOverflowPolicy.DROP_NEWEST, 0);
+
+	/**
+	 * The workers which group the {@link News} of their partitions.
+	 */
+	private final GroupingWorker[] workers;
+
+	/**
+	 * Adds the failed {@link News} again to the {@link #QUEUE} after their delay.
+	 */
+	private final ScheduledThreadPoolExecutor retryExecutor;
+
+	/**
+	 * Amount of {@link News} which are waiting for a retry.
+	 */
+	private final AtomicInteger pendingRetries = new AtomicInteger();
+
+	/**
+	 * The {@link News} which couldn't be grouped, the oldest first.
+	 */
+	private final Deque<GroupTask> deadLetters = new ArrayDeque<>();
+
+	/**
+	 * Seconds to wait until a failed {@link News} is added again the first time.
+	 */
+	private final long retryInitialDelay;
+
+	/**
+	 * Maximal seconds to wait until a failed {@link News} is added again.
+	 */
+	private final long retryMaxDelay;
+
+	/**
+	 * Amount of attempts to group a {@link News} until it's moved to the dead letters.
+	 */
+	private final int retryMaxAttempts;
+
+	/**
+	 * Maximal amount of {@link News} which are waiting for a retry.
+	 */
+	private final int retryMaxPending;
+
+	/**
+	 * Maximal amount of dead letters which are kept.
+	 */
+	private final int deadLettersCapacity;
+
+	/**
+	 * Amount of grouped {@link News} since startup.
+	 */
+	private final AtomicLong grouped = new AtomicLong();
+
+	/**
+	 * Amount of failed groupings since startup.
+	 */
+	private final AtomicLong failed = new AtomicLong();
+
+	/**
+	 * Total time in milliseconds from adding to grouping of all grouped {@link News}.
+	 */
+	private final AtomicLong totalLag = new AtomicLong();
+
+	/**
+	 * Time in milliseconds from adding to grouping of the last grouped {@link News}.
+	 */
+	private volatile long lastLag = 0;
+
+	/**
+	 * Longest time in milliseconds from adding to grouping of a {@link News}.
+	 */
+	private volatile long maxLag = 0;
 
 	/**
 	 * This class uses the singleton pattern.
@@ -67,58 +194,66 @@ public class NewsGrouperThread extends Thread {
 	protected NewsGrouperThread() {
 		setName("NewsGrouperThread");
 		setPriority(MIN_PRIORITY);
+
+		final Config config = Config.getDefault();
+		final int workerCount = Math.max(1, config.getIntProperty("grouper.threads", DEFAULT_WORKERS));
+		final int workerCapacity = Math.max(1, config.getIntProperty("grouper.workerQueueSize",
+				DEFAULT_WORKER_QUEUE_CAPACITY));
+
+		workers = new GroupingWorker[workerCount];
+		for (int i = 0; i < workers.length; i++) {
+			workers[i] = new GroupingWorker(i, workerCapacity);
+		}
+
+		retryInitialDelay = Math.max(1, config.getIntProperty("grouper.retry.initialDelay", DEFAULT_RETRY_INITIAL_DELAY));
+		retryMaxDelay = Math.max(retryInitialDelay, config.getIntProperty("grouper.retry.maxDelay", DEFAULT_RETRY_MAX_DELAY));
+		retryMaxAttempts = Math.max(1, config.getIntProperty("grouper.retry.maxAttempts", DEFAULT_RETRY_MAX_ATTEMPTS));
+		retryMaxPending = Math.max(0, config.getIntProperty("grouper.retry.maxPending", DEFAULT_RETRY_MAX_PENDING));
+		deadLettersCapacity = Math.max(0, config.getIntProperty("grouper.retry.deadLetters", DEFAULT_DEAD_LETTERS));
+
+		retryExecutor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable r) {
+				final Thread thread = new Thread(r, "NewsGrouperRetry");
+				thread.setDaemon(true);
+				thread.setPriority(MIN_PRIORITY);
+				return thread;
+			}
+		});
+		retryExecutor.setRemoveOnCancelPolicy(true);
 	}
 
 	/**
 	 * Adds a {@link News} to the {@link #QUEUE} so it will grouped with other {@link News}.
+	 * If the {@link #QUEUE} is full the {@link News} is dropped, it's grouped at the next startup
+	 * because it's still not grouped yet.
 	 * @param news the {@link News} to group.
 	 */
 	public void addNews(final News news) {
-		QUEUE.add(news);
-
-		synchronized (this) {
-			if(getState() == State.WAITING) {
-				notify();
-			}
-		}
+		QUEUE.put(new GroupTask(news));
 	}
 
 	/**
-	 * Waits until a {@link News} is in the {@link #QUEUE} and calls {@link #groupNews(News)}.
+	 * Starts the workers, waits until a {@link News} is in the {@link #QUEUE} and passes it
+	 * to the worker of its partition. If the worker is busy it waits, so the {@link #QUEUE} fills up.
 	 */
 	@Override
 	public void run() {
 		super.run();
 
-		LOGGER.info("NewsGrouperThread started.");
+		for (final GroupingWorker worker : workers) {
+			worker.start();
+		}
+
+		LOGGER.info("NewsGrouperThread started with {} workers.", workers.length);
 
 		while (!isInterrupted()) {
 			try {
-				if(QUEUE.isEmpty()) {
-					try {
-						synchronized (this) {
-							wait();
-						}
-					} catch (final InterruptedException e) {
-						// exit
-						break;
-					}
-				}
-
-				final News news = QUEUE.poll();
-				if(news != null) {
-					try {
-						LOGGER.debug("Start grouping news {}.", news.getId());
-						groupNews(news);
-					}
-					catch(final Exception e) {
-						LOGGER.error("An exception was thrown during grouping news (id={}). "
-								+ "Retrying later.", news.getId(), e);
-
-						// add to queue again so we can try it later again.
-						waitAddToQueue(news);
-					}
-				}
+				final GroupTask task = QUEUE.take();
+				workers[getPartition(task.news)].queue.put(task);
+			} catch (final InterruptedException e) {
+				// exit
+				break;
 			}
 			// catch any Throwable that the Thread never stops.
 			catch(final Throwable t) {
@@ -126,9 +261,158 @@ public class NewsGrouperThread extends Thread {
 			}
 		}
 
+		for (final GroupingWorker worker : workers) {
+			worker.interrupt();
+		}
+
 		LOGGER.info("NewsGrouperThread stopped.");
 	}
 
+	/**
+	 * Returns the index of the worker which groups the {@link News} of the locale and category of the given {@link News}.
+	 */
+	private int getPartition(final News news) {
+		return Math.floorMod(Objects.hash(news.getLocale(), news.getCategoryId()), workers.length);
+	}
+
+	/**
+	 * Groups the {@link News} of the given {@link GroupTask} and records the lag.
+	 * If it fails the {@link News} is retried later or moved to the dead letters.
+	 */
+	private void group(final GroupTask task) {
+		try {
+			LOGGER.debug("Start grouping news {}.", task.news.getId());
+			groupNews(task.news);
+
+			final long lag = System.currentTimeMillis() - task.addedAt;
+			grouped.incrementAndGet();
+			totalLag.addAndGet(lag);
+			lastLag = lag;
+			if (lag > maxLag) {
+				maxLag = lag;
+			}
+		}
+		catch(final Exception e) {
+			failed.incrementAndGet();
+			task.attempts++;
+			task.lastError = e.toString();
+			LOGGER.error("An exception was thrown during grouping news (id={}, attempt {}).",
+					task.news.getId(), task.attempts, e);
+
+			retry(task);
+		}
+	}
+
+	/**
+	 * Schedules the given failed {@link GroupTask} to be added again to the {@link #QUEUE} after
+	 * grouper.retry.initialDelay * 2^(attempts - 1) seconds, but at most grouper.retry.maxDelay seconds.
+	 * If it has no attempts left, too many retries are waiting or the {@link #QUEUE} is full when it's added again,
+	 * it's moved to the dead letters.
+	 */
+	private void retry(final GroupTask task) {
+		if(task.attempts >= retryMaxAttempts) {
+			addDeadLetter(task, "No attempts left.");
+			return;
+		}
+
+		if(pendingRetries.incrementAndGet() > retryMaxPending) {
+			pendingRetries.decrementAndGet();
+			addDeadLetter(task, "Too many news are waiting for a retry.");
+			return;
+		}
+
+		final long delay = Math.min(retryMaxDelay, retryInitialDelay << Math.min(task.attempts - 1, 20));
+		try {
+			retryExecutor.schedule(new Runnable() {
+				@Override
+				public void run() {
+					pendingRetries.decrementAndGet();
+					if(!QUEUE.put(task)) {
+						addDeadLetter(task, "The queue was full.");
+					}
+				}
+			}, delay, TimeUnit.SECONDS);
+			LOGGER.info("Retrying grouping of news {} in {} s.", task.news.getId(), delay);
+		}
+		catch(final RejectedExecutionException e) {
+			// shutting down
+			pendingRetries.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Adds the given {@link GroupTask} to the dead letters and removes the oldest one if there are too many.
+	 */
+	private void addDeadLetter(final GroupTask task, final String reason) {
+		LOGGER.error("Giving up grouping news {} after {} attempts: {}", task.news.getId(), task.attempts, reason);
+
+		task.deadAt = System.currentTimeMillis();
+		synchronized (deadLetters) {
+			deadLetters.addLast(task);
+			while(deadLetters.size() > deadLettersCapacity) {
+				deadLetters.removeFirst();
+			}
+		}
+	}
+
+	/**
+	 * Returns the {@link News} which couldn't be grouped, the oldest first.
+	 * @return snapshots of the dead letters.
+	 */
+	public List<GroupingDeadLetter> getDeadLetters() {
+		final List<GroupingDeadLetter> result = new ArrayList<>();
+		synchronized (deadLetters) {
+			for (final GroupTask task : deadLetters) {
+				result.add(new GroupingDeadLetter(task.news.getId(), String.valueOf(task.news.getLocale()), task.news.getCategoryId(),
+						task.attempts, task.lastError, task.addedAt, task.deadAt));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Removes all dead letters and adds their {@link News} again to the {@link #QUEUE} with new attempts.
+	 * The dead letters which don't fit into the {@link #QUEUE} stay dead letters.
+	 * @return the amount of {@link News} which were added again.
+	 */
+	public int retryDeadLetters() {
+		final List<GroupTask> tasks;
+		synchronized (deadLetters) {
+			tasks = new ArrayList<>(deadLetters);
+			deadLetters.clear();
+		}
+
+		int added = 0;
+		for (final GroupTask task : tasks) {
+			if(QUEUE.put(new GroupTask(task.news))) {
+				added++;
+			}
+			else {
+				addDeadLetter(task, "The queue was full.");
+			}
+		}
+		return added;
+	}
+
+	/**
+	 * Returns a snapshot of the statistics of the grouping.
+	 * @return the current {@link GroupingStats}.
+	 */
+	public GroupingStats getStats() {
+		int pending = 0;
+		for (final GroupingWorker worker : workers) {
+			pending += worker.queue.size();
+		}
+
+		final int dead;
+		synchronized (deadLetters) {
+			dead = deadLetters.size();
+		}
+
+		return new GroupingStats(workers.length, QUEUE.size(), pending, pendingRetries.get(), dead,
+				grouped.get(), failed.get(), totalLag.get(), lastLag, maxLag);
+	}
+
 	/**
 	 * Searches for similar {@link News} and sets the news group id of a similar news or
 	 * takes a new one. At the end it saves all changed {@link News}.
@@ -138,8 +422,9 @@ public class NewsGrouperThread extends Thread {
 	 */
 	protected void groupNews(final News news) throws Exception {
 		// find similar news.
-		final SimilarNewsFinder finder = new SimilarNewsFinder(news);
-		final List<News> similarNews = finder.getSimilar();
+		final MinHashNewsFinder minHashFinder = MinHashNewsFinder.getInstance();
+		final List<News> similarNews = minHashFinder.isEnabled() ? minHashFinder.getSimilar(news) :
+			new SimilarNewsFinder(news).getSimilar();
 
 		// if no similar news was found -> return
 		if(similarNews.isEmpty()) {
@@ -206,6 +491,11 @@ public class NewsGrouperThread extends Thread {
 			}
 
 			con.commit();
+
+			final NewsGroupCache groupCache = NewsGroupCache.getInstance();
+			for (final News news : newsToSave) {
+				groupCache.update(news);
+			}
 		} catch (final SQLException e) {
 			LOGGER.error("Can't commit connection with grouped news.", e);
 			throw e;
@@ -216,50 +506,92 @@ public class NewsGrouperThread extends Thread {
 	}
 
 	/**
-	 * Adds the given {@link News} again to the {@link #QUEUE} after {@value #RETRY_TIME}.
-	 * @param news the {@link News} to add again.
+	 * Stops the {@link Thread}, the workers and the retries.
 	 */
-	private void waitAddToQueue(final News news) {
-		if(QUEUE.size() > 10) {
-			LOGGER.error("More than 10 news couldn't been indexed!");
+	public void shutdown() {
+		interrupt();
+
+		for (final GroupingWorker worker : workers) {
+			worker.interrupt();
 		}
 
-		final Thread thread = new Thread() {
-			@Override
-			public void run() {
-				synchronized (WAIT_ADD_THREADS) {
-					WAIT_ADD_THREADS.add(this);
-				}
+		retryExecutor.shutdownNow();
+	}
+
+	/**
+	 * Groups the {@link News} of the partitions which are assigned to it one after another.
+	 */
+	private class GroupingWorker extends Thread {
+
+		/**
+		 * The {@link News} of the partitions of this worker which are waiting.
+		 */
+		private final BlockingQueue<GroupTask> queue;
+
+		/**
+		 * Creates a new worker with the given index and queue capacity.
+		 */
+		private GroupingWorker(final int index, final int capacity) {
+			queue = new LinkedBlockingQueue<>(capacity);
+			setName("NewsGrouperWorker-" + index);
+			setPriority(MIN_PRIORITY);
+		}
 
+		/**
+		 * Groups the waiting {@link News} until the worker is interrupted.
+		 */
+		@Override
+		public void run() {
+			while (!isInterrupted()) {
 				try {
-					sleep(RETRY_TIME); // wait
-					QUEUE.add(news);
+					group(queue.take());
+				} catch (final InterruptedException e) {
+					// exit
+					break;
 				}
-				catch (final InterruptedException e) {
-					return; // exit
-				}
-				finally {
-					synchronized (WAIT_ADD_THREADS) {
-						WAIT_ADD_THREADS.remove(this);
-					}
+				// catch any Throwable that the worker never stops.
+				catch(final Throwable t) {
+					LOGGER.error("During execution of {} a throwable was thrown.", getName(), t);
 				}
 			}
-		};
-
-		thread.setName("Wait Add To Queue for News " + news.getId());
-		thread.start();
+		}
 	}
 
 	/**
-	 * Stops the {@link Thread} and all "try again threads".
+	 * A {@link News} to group with the time it was added and its failed attempts.
 	 */
-	public void shutdown() {
-		interrupt();
-
-		synchronized (WAIT_ADD_THREADS) {
-			for (final Thread thread : WAIT_ADD_THREADS) {
-				thread.interrupt();
-			}
+	private static class GroupTask {
+
+		/**
+		 * The {@link News} to group.
+		 */
+		private final News news;
+
+		/**
+		 * Time in milliseconds when the {@link News} was added.
+		 */
+		private final long addedAt = System.currentTimeMillis();
+
+		/**
+		 * Amount of failed attempts to group the {@link News}.
+		 */
+		private int attempts = 0;
+
+		/**
+		 * The last exception which was thrown during grouping or <code>null</code>.
+		 */
+		private String lastError;
+
+		/**
+		 * Time in milliseconds when the {@link News} was moved to the dead letters.
+		 */
+		private long deadAt;
+
+		/**
+		 * Creates a new instance.
+		 */
+		private GroupTask(final News news) {
+			this.news = news;
 		}
 	}
 }
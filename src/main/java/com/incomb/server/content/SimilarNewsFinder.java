@@ -3,13 +3,17 @@ package com.incomb.server.content;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.lucene.document.Document;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.queries.mlt.MoreLikeThis;
 import org.apache.lucene.search.BooleanClause.Occur;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.NumericRangeQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TermQuery;
@@ -17,10 +21,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.incomb.server.content.indexing.NewsIndexType;
-import com.incomb.server.indexing.DocumentsSearchResult;
+import com.incomb.server.indexing.IHitVisitor;
 import com.incomb.server.indexing.IIndexElement;
 import com.incomb.server.indexing.IndexSearch;
-import com.incomb.server.indexing.SearchOptions;
 import com.incomb.server.indexing.util.QueryUtil;
 import com.incomb.server.model.News;
 import com.incomb.server.utils.ObjectUtil;
@@ -53,13 +56,29 @@ public class SimilarNewsFinder {
 	 */
 	private final News news;
 
+	/**
+	 * The ids of the only {@link News} which may be similar or <code>null</code> to search all {@link News}.
+	 */
+	private final Collection<Long> candidateIds;
+
 	/**
 	 * Creates a new {@link SimilarNewsFinder} with the {@link News} to group.
 	 * @param news the {@link News} to group.
 	 */
 	public SimilarNewsFinder(final News news) {
+		this(news, null);
+	}
+
+	/**
+	 * Creates a new {@link SimilarNewsFinder} which checks only the given candidates.
+	 * @param news the {@link News} to group.
+	 * @param candidateIds the ids of the only {@link News} which may be similar
+	 * 		or <code>null</code> to search all {@link News}.
+	 */
+	public SimilarNewsFinder(final News news, final Collection<Long> candidateIds) {
 		ObjectUtil.assertNotNull(news, "News may not be null.");
 		this.news = news;
+		this.candidateIds = candidateIds;
 	}
 
 	/**
@@ -68,19 +87,6 @@ public class SimilarNewsFinder {
 	 * 		The more similar the more top is the {@link News} in the {@link List}.
 	 */
 	public List<News> getSimilar() {
-		final int docId = IndexSearch.getInstance().getDocIdForId(
-				NewsIndexType.getInstance(), String.valueOf(news.getId()));
-
-		// configure "more like this"
-		final MoreLikeThis moreLikeThis = IndexSearch.getInstance().newMoreLikeThis(news.getLocale());
-		moreLikeThis.setMinWordLen(3);
-		moreLikeThis.setBoost(true);
-		moreLikeThis.setBoostFactor(10);
-		moreLikeThis.setFieldNames(new String[] {
-				NewsIndexType.FIELD_TITLE,
-				NewsIndexType.FIELD_DESCRIPTION
-		});
-
 		try {
 			final BooleanQuery query = new BooleanQuery();
 
@@ -98,29 +104,40 @@ public class SimilarNewsFinder {
 					NewsIndexType.FIELD_CATEGORYID, news.getCategoryId(), news.getCategoryId(), true, true);
 			query.add(categoryQuery, Occur.MUST);
 
-			final Query moreQuery = moreLikeThis.like(docId);
-			query.add(moreQuery, Occur.MUST);
+			query.add(buildMoreLikeThisQuery(), Occur.MUST);
 
 			// not the same news
 			query.add(new TermQuery(new Term(IIndexElement.FIELD_ID, String.valueOf(news.getId()))), Occur.MUST_NOT);
 
-			// execute query
-			final DocumentsSearchResult result = IndexSearch.getInstance().search(query, new SearchOptions());
+			// only the candidates
+			if(candidateIds != null) {
+				final BooleanQuery candidatesQuery = new BooleanQuery();
+				for (final Long candidateId : candidateIds) {
+					candidatesQuery.add(new TermQuery(new Term(IIndexElement.FIELD_ID, String.valueOf(candidateId))),
+							Occur.SHOULD);
+				}
+				query.add(candidatesQuery, Occur.MUST);
+			}
 
+			// execute query, only news with a sufficient score are loaded.
 			final List<Document> resultDocs = new ArrayList<>();
-			for (final Document doc : result.getResults()) {
-				final float score = result.getScore(doc);
-
-				// use only news with a sufficient score.
-				if(score >= MIN_SCORE) {
-					resultDocs.add(doc);
-					LOGGER.debug("News {} is similar to news {}.", doc.get(IIndexElement.FIELD_ID), news.getId());
+			final Map<Document, Float> scores = new IdentityHashMap<>();
+			IndexSearch.getInstance().scan(query, NewsIndexType.NEWS_FIELDS, new IHitVisitor() {
+				@Override
+				public boolean accept(final float score) {
+					return score >= MIN_SCORE;
 				}
-				else {
-					LOGGER.debug("News {} has not a sufficient score to be similar to news {}.",
-							doc.get(IIndexElement.FIELD_ID), news.getId());
+
+				@Override
+				public void visit(final Document document, final float score) {
+					LOGGER.debug("News {} is similar to news {}.", document.get(IIndexElement.FIELD_ID), news.getId());
+					resultDocs.add(document);
+					scores.put(document, score);
 				}
-			}
+			});
+
+			// the more similar the more top
+			resultDocs.sort((doc1, doc2) -> Float.compare(scores.get(doc2), scores.get(doc1)));
 
 			// convert the Documents to News.
 			return NewsIndexType.docsToNews(resultDocs);
@@ -132,6 +149,37 @@ public class SimilarNewsFinder {
 		return null;
 	}
 
+	/**
+	 * Builds the {@link MoreLikeThis} {@link Query} for the title and description of the {@link News}.
+	 * The document id of the {@link News} is only valid for one {@link IndexSearcher}, so the
+	 * {@link IndexSearcher} is held until the {@link Query} is built.
+	 * @throws IOException if the {@link Query} couldn't be built.
+	 */
+	private Query buildMoreLikeThisQuery() throws IOException {
+		final IndexSearch indexSearch = IndexSearch.getInstance();
+		final IndexSearcher searcher = indexSearch.acquireSearcher();
+
+		try {
+			final int docId = indexSearch.getDocIdForId(searcher,
+					NewsIndexType.getInstance(), String.valueOf(news.getId()));
+
+			// configure "more like this"
+			final MoreLikeThis moreLikeThis = indexSearch.newMoreLikeThis(searcher, news.getLocale());
+			moreLikeThis.setMinWordLen(3);
+			moreLikeThis.setBoost(true);
+			moreLikeThis.setBoostFactor(10);
+			moreLikeThis.setFieldNames(new String[] {
+					NewsIndexType.FIELD_TITLE,
+					NewsIndexType.FIELD_DESCRIPTION
+			});
+
+			return moreLikeThis.like(docId);
+		}
+		finally {
+			indexSearch.releaseSearcher(searcher);
+		}
+	}
+
 	/**
 	 * Builds the timestamp by adding the given hours to the publish date.
 	 */
@@ -0,0 +1,79 @@
+package com.incomb.server.content.dedup;
+
+/**
+ * A Bloom filter of <code>long</code> keys.
+ * {@link #mightContain(long)} never returns false for an added key, but may return true
+ * for a key which wasn't added. The rate of these false positives depends on the bits per key.
+ */
+class BloomFilter {
+
+	/**
+	 * The bits of the filter.
+	 */
+	private final long[] bits;
+
+	/**
+	 * Amount of bits of the filter.
+	 */
+	private final long bitCount;
+
+	/**
+	 * Amount of bits which are set per key.
+	 */
+	private final int hashCount;
+
+	/**
+	 * Creates an empty filter.
+	 * @param expectedKeys the amount of keys which will be added.
+	 * @param bitsPerKey the amount of bits per key. 10 bits lead to about 1% false positives.
+	 */
+	BloomFilter(final int expectedKeys, final int bitsPerKey) {
+		final long size = Math.max(64, (long) Math.max(1, expectedKeys) * Math.max(1, bitsPerKey));
+		bits = new long[(int) ((size + 63) / 64)];
+		bitCount = bits.length * 64L;
+		hashCount = Math.max(1, (int) Math.round(bitsPerKey * Math.log(2)));
+	}
+
+	/**
+	 * Adds the given key.
+	 * @param key the key to add.
+	 */
+	synchronized void add(final long key) {
+		final long hash1 = mix(key);
+		final long hash2 = mix(hash1) | 1;
+
+		for (int i = 0; i < hashCount; i++) {
+			final long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+			bits[(int) (bit >>> 6)] |= 1L << bit;
+		}
+	}
+
+	/**
+	 * @param key the key to check.
+	 * @return false if the key was never added, true if it was probably added.
+	 */
+	synchronized boolean mightContain(final long key) {
+		final long hash1 = mix(key);
+		final long hash2 = mix(hash1) | 1;
+
+		for (int i = 0; i < hashCount; i++) {
+			final long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+			if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Spreads the bits of the given value (finalizer of MurmurHash3).
+	 */
+	private static long mix(long value) {
+		value ^= value >>> 33;
+		value *= 0xff51afd7ed558ccdL;
+		value ^= value >>> 33;
+		value *= 0xc4ceb9fe1a85ec53L;
+		value ^= value >>> 33;
+		return value;
+	}
+}
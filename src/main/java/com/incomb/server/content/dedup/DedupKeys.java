@@ -0,0 +1,164 @@
+package com.incomb.server.content.dedup;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.Locale;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.incomb.server.model.Content;
+import com.incomb.server.model.News;
+
+/**
+ * Calculates the keys which are used to find an already saved {@link News} again.
+ *
+ * <p>The link is normalized before it's hashed, so e.g. http and https, "www." or tracking
+ * parameters don't lead to a new {@link News}. The title is reduced to its letters and digits.
+ * All keys are never <code>0</code>, because it marks a not calculated key in the database.
+ * A {@link News} without link gets {@link #NO_LINK_HASH}, so it's only compared by its title.</p>
+ */
+public final class DedupKeys {
+
+	/**
+	 * The link hash of a {@link News} with a blank link. It's never returned for a link.
+	 */
+	public static final long NO_LINK_HASH = -1;
+
+	/**
+	 * Query parameters which are only used for tracking and don't change the article.
+	 */
+	private static final String[] TRACKING_PARAMS = { "utm_", "fbclid", "gclid", "wt_mc", "wt.mc_id" };
+
+	/**
+	 * Not instantiable.
+	 */
+	private DedupKeys() { }
+
+	/**
+	 * Sets the title hash and the link hash on the given {@link News}.
+	 * @param news the {@link News} to calculate the keys of.
+	 */
+	public static void apply(final News news) {
+		news.setLinkHash(linkHash(news.getLink()));
+		news.setTitleHash(titleHash(news.getTitle()));
+	}
+
+	/**
+	 * @param link the link of a {@link News}.
+	 * @return the hash of the normalized link or {@link #NO_LINK_HASH} if the link is blank.
+	 */
+	public static long linkHash(final String link) {
+		final String normalizedLink = normalizeLink(link);
+		return normalizedLink.isEmpty() ? NO_LINK_HASH : hash(normalizedLink);
+	}
+
+	/**
+	 * @param title the title of a {@link Content}.
+	 * @return the hash of the normalized title.
+	 */
+	public static long titleHash(final String title) {
+		return hash(normalizeTitle(title));
+	}
+
+	/**
+	 * Returns the link without scheme, "www.", default port, trailing slash, fragment and tracking parameters.
+	 * Links which can't be parsed are only trimmed and lower cased.
+	 * @param link the link to normalize.
+	 * @return the normalized link.
+	 */
+	static String normalizeLink(final String link) {
+		if (StringUtils.isBlank(link)) {
+			return "";
+		}
+
+		final String trimmed = link.trim();
+		final URI uri;
+		try {
+			uri = new URI(trimmed);
+		} catch (final URISyntaxException e) {
+			return trimmed.toLowerCase(Locale.ROOT);
+		}
+
+		if (uri.getHost() == null) {
+			return trimmed.toLowerCase(Locale.ROOT);
+		}
+
+		final StringBuilder builder = new StringBuilder();
+		builder.append(StringUtils.removeStart(uri.getHost().toLowerCase(Locale.ROOT), "www."));
+
+		if (uri.getPort() != -1 && uri.getPort() != 80 && uri.getPort() != 443) {
+			builder.append(':').append(uri.getPort());
+		}
+
+		builder.append(StringUtils.removeEnd(StringUtils.defaultString(uri.getRawPath()), "/"));
+
+		if (uri.getRawQuery() != null) {
+			char separator = '?';
+			for (final String param : uri.getRawQuery().split("&")) {
+				if (!param.isEmpty() && !isTrackingParam(param)) {
+					builder.append(separator).append(param);
+					separator = '&';
+				}
+			}
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * Returns true if the given query parameter is only used for tracking.
+	 */
+	private static boolean isTrackingParam(final String param) {
+		final String lowerParam = param.toLowerCase(Locale.ROOT);
+		for (final String trackingParam : TRACKING_PARAMS) {
+			if (lowerParam.startsWith(trackingParam)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the lower cased letters and digits of the title without accents,
+	 * separated by single spaces.
+	 * @param title the title to normalize.
+	 * @return the normalized title.
+	 */
+	static String normalizeTitle(final String title) {
+		if (title == null) {
+			return "";
+		}
+
+		return Normalizer.normalize(title, Normalizer.Form.NFKD).
+				replaceAll("\\p{M}+", "").
+				toLowerCase(Locale.ROOT).
+				replaceAll("[^\\p{L}\\p{N}]+", " ").
+				trim();
+	}
+
+	/**
+	 * Returns the first 8 bytes of the MD5 of the given value.
+	 * Never returns <code>0</code> or {@link #NO_LINK_HASH}.
+	 * @param value the value to hash.
+	 * @return the hash.
+	 */
+	static long hash(final String value) {
+		final byte[] digest;
+		try {
+			digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException("MD5 isn't supported.", e);
+		}
+
+		long hash = 0;
+		for (int i = 0; i < 8; i++) {
+			hash = (hash << 8) | (digest[i] & 0xFF);
+		}
+
+		return hash == 0 || hash == NO_LINK_HASH ? 1 : hash;
+	}
+}
@@ -0,0 +1,19 @@
+package com.incomb.server.content.dedup;
+
+import com.incomb.server.model.News;
+
+/**
+ * Receives the dedup keys of saved {@link News}.
+ * @see DedupKeys
+ */
+@FunctionalInterface
+public interface IDedupKeyHandler {
+
+	/**
+	 * Handles the keys of one saved {@link News}.
+	 * @param linkHash the hash of the normalized link.
+	 * @param providerId the id of the provider of the {@link News}.
+	 * @param titleHash the hash of the normalized title.
+	 */
+	void handle(long linkHash, int providerId, long titleHash);
+}
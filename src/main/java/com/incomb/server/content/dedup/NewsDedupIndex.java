@@ -0,0 +1,311 @@
+package com.incomb.server.content.dedup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.incomb.server.config.Config;
+import com.incomb.server.db.DBConnectionProvider;
+import com.incomb.server.model.News;
+import com.incomb.server.model.dao.NewsDao;
+
+/**
+ * Knows which {@link News} are already saved, so {@link NewsDao#saveNews(java.util.List)}
+ * doesn't have to ask the database for every {@link News} of a feed.
+ *
+ * <p>Two Bloom filters contain the link hashes and the title hashes (per provider) of all
+ * saved {@link News}. If neither contains a {@link News} it's new and can be inserted without
+ * a lookup. A LRU cache remembers the state of the recently committed {@link News}, so a
+ * {@link News} which is seen again unchanged in the next fetch isn't queried or saved at all.</p>
+ *
+ * <p>The filters are filled by {@link #loadAsync()} at startup, which also calculates the keys
+ * of older {@link News} which were saved without them. Until then every {@link News} is looked up.</p>
+ */
+public class NewsDedupIndex {
+
+	/**
+	 * <p>The {@link Logger} for this class.</p>
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(NewsDedupIndex.class);
+
+	/**
+	 * Default amount of {@link News} the filters are sized for.
+	 */
+	private static final int DEFAULT_EXPECTED_NEWS = 1000000;
+
+	/**
+	 * Default amount of filter bits per {@link News}.
+	 */
+	private static final int DEFAULT_BITS_PER_NEWS = 10;
+
+	/**
+	 * Default amount of recently committed {@link News} which are remembered.
+	 */
+	private static final int DEFAULT_CACHE_SIZE = 20000;
+
+	/**
+	 * Default amount of {@link News} whose keys are calculated per transaction at startup.
+	 */
+	private static final int DEFAULT_BACKFILL_CHUNK_SIZE = 500;
+
+	/**
+	 * The single instance.
+	 */
+	private static NewsDedupIndex instance;
+
+	/**
+	 * Contains the link hashes of all saved {@link News}.
+	 */
+	private final BloomFilter links;
+
+	/**
+	 * Contains the title hashes combined with the provider ids of all saved {@link News}.
+	 */
+	private final BloomFilter titles;
+
+	/**
+	 * The recently committed {@link News} by link hash in access order. Guarded by itself.
+	 */
+	private final Map<Long, CacheEntry> recent;
+
+	/**
+	 * True as soon as the filters contain all saved {@link News}.
+	 */
+	private volatile boolean loaded = false;
+
+	/**
+	 * Creates the empty filters and the cache with the configured sizes.
+	 */
+	private NewsDedupIndex() {
+		final Config config = Config.getDefault();
+		final int expectedNews = config.getIntProperty("dedup.bloom.expectedNews", DEFAULT_EXPECTED_NEWS);
+		final int bitsPerNews = config.getIntProperty("dedup.bloom.bitsPerNews", DEFAULT_BITS_PER_NEWS);
+		final int cacheSize = config.getIntProperty("dedup.cacheSize", DEFAULT_CACHE_SIZE);
+
+		links = new BloomFilter(expectedNews, bitsPerNews);
+		titles = new BloomFilter(expectedNews, bitsPerNews);
+
+		recent = new LinkedHashMap<Long, CacheEntry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Entry<Long, CacheEntry> eldest) {
+				return size() > cacheSize;
+			}
+		};
+	}
+
+	/**
+	 * Returns the single instance and creates it if it doesn't exist.
+	 * @return the single {@link NewsDedupIndex}
+	 */
+	public static synchronized NewsDedupIndex getInstance() {
+		if (instance == null) {
+			instance = new NewsDedupIndex();
+		}
+		return instance;
+	}
+
+	/**
+	 * Calculates the missing keys of saved {@link News} and fills the filters with the keys
+	 * of all saved {@link News} in a background thread.
+	 */
+	public void loadAsync() {
+		final Thread thread = new Thread("NewsDedupIndexLoader") {
+			@Override
+			public void run() {
+				try {
+					load();
+				}
+				catch (final Exception e) {
+					LOGGER.error("Can't load the keys of the saved news, all news will be looked up.", e);
+				}
+			}
+		};
+
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Calculates the missing keys chunk by chunk and reads all keys into the filters.
+	 * @throws SQLException if the keys can't be committed.
+	 */
+	private void load() throws SQLException {
+		final int chunkSize = Config.getDefault().getIntProperty("dedup.backfillChunkSize", DEFAULT_BACKFILL_CHUNK_SIZE);
+		final long start = System.currentTimeMillis();
+
+		final Connection con = DBConnectionProvider.getInstance().acquire();
+		try {
+			final NewsDao dao = new NewsDao(con);
+
+			long lastId = 0;
+			while ((lastId = dao.fillDedupKeys(lastId, chunkSize)) > 0) {
+				con.commit();
+				LOGGER.debug("Calculated the missing dedup keys of the news until id {}.", lastId);
+			}
+
+			final int[] count = { 0 };
+			dao.forEachDedupKey((linkHash, providerId, titleHash) -> {
+				addKeys(linkHash, providerId, titleHash);
+				count[0]++;
+			});
+
+			loaded = true;
+			LOGGER.info("Loaded the dedup keys of {} news in {} ms.", count[0], System.currentTimeMillis() - start);
+		}
+		finally {
+			DBConnectionProvider.getInstance().release(con);
+		}
+	}
+
+	/**
+	 * Adds the keys of a saved {@link News} to the filters.
+	 * @param linkHash the hash of the normalized link.
+	 * @param providerId the id of the provider of the {@link News}.
+	 * @param titleHash the hash of the normalized title.
+	 */
+	public void addKeys(final long linkHash, final int providerId, final long titleHash) {
+		if (linkHash != DedupKeys.NO_LINK_HASH) {
+			links.add(linkHash);
+		}
+		titles.add(titleKey(providerId, titleHash));
+	}
+
+	/**
+	 * @return true as soon as the filters contain the keys of all saved {@link News}
+	 * 			and the keys of all saved {@link News} are calculated.
+	 */
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+	/**
+	 * Returns false if no {@link News} with the same link or the same title and provider was saved.
+	 * The keys must be set on the given {@link News}, see {@link DedupKeys#apply(News)}.
+	 * @param news the {@link News} to check.
+	 * @return false if the {@link News} is new, true if it might be saved already
+	 * 			or the filters aren't loaded yet.
+	 */
+	public boolean mightExist(final News news) {
+		return !loaded || news.getLinkHash() != DedupKeys.NO_LINK_HASH && links.mightContain(news.getLinkHash()) ||
+				titles.mightContain(titleKey(news.getProviderId(), news.getTitleHash()));
+	}
+
+	/**
+	 * Checks if the given {@link News} was committed recently with the same content.
+	 * In this case saving it wouldn't change anything, so the id and the image size
+	 * of the saved {@link News} are set on the given one.
+	 * @param news the {@link News} to check. The link hash must be set.
+	 * @return true if the {@link News} is unchanged, false if it has no link.
+	 */
+	public boolean resolveUnchanged(final News news) {
+		if (news.getLinkHash() == DedupKeys.NO_LINK_HASH) {
+			return false;
+		}
+
+		final CacheEntry entry;
+		synchronized (recent) {
+			entry = recent.get(news.getLinkHash());
+		}
+
+		if (entry == null || entry.stateHash != stateHash(news) ||
+				news.getNewsGroupId() != News.NEWSGROUPID_NOT_GROUPED_YET) {
+			return false;
+		}
+
+		final boolean noImageSize = news.getImageWidth() == 0 && news.getImageHeight() == 0;
+		if (!noImageSize && (news.getImageWidth() != entry.imageWidth || news.getImageHeight() != entry.imageHeight)) {
+			return false;
+		}
+
+		news.setId(entry.id);
+		news.setImageWidth(entry.imageWidth);
+		news.setImageHeight(entry.imageHeight);
+		return true;
+	}
+
+	/**
+	 * Remembers the state of the given {@link News}. It must only be called after
+	 * the {@link News} was committed.
+	 * @param news the committed {@link News}.
+	 */
+	public void remember(final News news) {
+		if (news.getId() == 0 || news.getLinkHash() == 0 || news.getLinkHash() == DedupKeys.NO_LINK_HASH) {
+			return;
+		}
+
+		final CacheEntry entry = new CacheEntry(news.getId(), stateHash(news), news.getImageWidth(), news.getImageHeight());
+		synchronized (recent) {
+			recent.put(news.getLinkHash(), entry);
+		}
+	}
+
+	/**
+	 * Forgets the state of the given deleted {@link News}, so it isn't resolved as unchanged
+	 * if it's seen again. Its keys stay in the filters, so it's looked up in this case.
+	 * @param news the deleted {@link News}.
+	 */
+	public void forget(final News news) {
+		synchronized (recent) {
+			recent.remove(news.getLinkHash());
+		}
+	}
+
+	/**
+	 * Returns the key of the title filter.
+	 */
+	private static long titleKey(final int providerId, final long titleHash) {
+		return titleHash * 31 + providerId;
+	}
+
+	/**
+	 * Returns a hash of all fields which are compared when a {@link News} is saved again.
+	 */
+	private static long stateHash(final News news) {
+		return DedupKeys.hash(StringUtils.join(new Object[] { news.getLink(), news.getTitle(), news.getText(),
+				news.getImageUrl(), news.getProviderId() }, '\u0000'));
+	}
+
+	/**
+	 * The state of a recently committed {@link News}.
+	 */
+	private static class CacheEntry {
+
+		/**
+		 * The id of the {@link News}.
+		 */
+		private final long id;
+
+		/**
+		 * The hash of the compared fields.
+		 */
+		private final long stateHash;
+
+		/**
+		 * The saved width of the image.
+		 */
+		private final int imageWidth;
+
+		/**
+		 * The saved height of the image.
+		 */
+		private final int imageHeight;
+
+		/**
+		 * Creates a new instance.
+		 */
+		private CacheEntry(final long id, final long stateHash, final int imageWidth, final int imageHeight) {
+			this.id = id;
+			this.stateHash = stateHash;
+			this.imageWidth = imageWidth;
+			this.imageHeight = imageHeight;
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package com.incomb.server.content.grouping;
+
+import com.incomb.server.content.SimilarNewsFinder;
+
+/**
+ * How the similar news of a news are found for grouping. Configured with grouper.engine.
+ */
+public enum EGroupingEngine {
+
+	/**
+	 * A MoreLikeThis query is searched in the index for every news, see {@link SimilarNewsFinder}.
+	 */
+	MORE_LIKE_THIS,
+
+	/**
+	 * The candidates are looked up in the in-memory MinHash buckets, see {@link MinHashNewsFinder}.
+	 */
+	MIN_HASH;
+}
@@ -0,0 +1,182 @@
+package com.incomb.server.content.grouping;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+import org.apache.lucene.analysis.de.GermanAnalyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.util.CharArraySet;
+
+/**
+ * Calculates MinHash signatures of texts.
+ *
+ * <p>The texts are split into words of letters and digits. Words shorter than {@value #MIN_WORD_LENGTH}
+ * characters and the stop words of the locale are ignored, the other words are lower cased and cut after
+ * {@value #PREFIX_LENGTH} characters, which is a cheap stemming. The signature contains the minimum of
+ * every hash function over all words, so the share of equal values of two signatures estimates the
+ * Jaccard similarity of their word sets.</p>
+ */
+class MinHash {
+
+	/**
+	 * Minimal length of a word, like the MoreLikeThis query of the {@link com.incomb.server.content.SimilarNewsFinder}.
+	 */
+	static final int MIN_WORD_LENGTH = 3;
+
+	/**
+	 * Amount of characters of a word which are used.
+	 */
+	static final int PREFIX_LENGTH = 6;
+
+	/**
+	 * Seed of the hash functions, so the signatures are the same after a restart.
+	 */
+	private static final long SEED = 0x5f3759dfL;
+
+	/**
+	 * Stop words of the languages which have an analyzer in the index.
+	 */
+	private static final CharArraySet GERMAN_STOP_WORDS = GermanAnalyzer.getDefaultStopSet();
+
+	/**
+	 * Stop words of the languages which have an analyzer in the index.
+	 */
+	private static final CharArraySet ENGLISH_STOP_WORDS = EnglishAnalyzer.getDefaultStopSet();
+
+	/**
+	 * The seed of each hash function.
+	 */
+	private final int[] seeds;
+
+	/**
+	 * Creates hash functions for signatures of the given length.
+	 * @param hashCount the amount of values of a signature.
+	 */
+	MinHash(final int hashCount) {
+		final Random random = new Random(SEED);
+		seeds = new int[Math.max(1, hashCount)];
+		for (int i = 0; i < seeds.length; i++) {
+			seeds[i] = random.nextInt();
+		}
+	}
+
+	/**
+	 * @return the amount of values of a signature.
+	 */
+	int getHashCount() {
+		return seeds.length;
+	}
+
+	/**
+	 * Calculates the signature of the words of the given texts.
+	 * @param locale the {@link Locale} of the texts to choose the stop words. Can be <code>null</code>.
+	 * @param texts the texts. <code>null</code> texts are ignored.
+	 * @return the signature or <code>null</code> if the texts contain no word.
+	 */
+	int[] sign(final Locale locale, final String... texts) {
+		final CharArraySet stopWords = getStopWords(locale);
+		final int[] signature = new int[seeds.length];
+		Arrays.fill(signature, Integer.MAX_VALUE);
+
+		final char[] word = new char[PREFIX_LENGTH];
+		boolean empty = true;
+
+		for (final String text : texts) {
+			if(text == null) {
+				continue;
+			}
+
+			int length = 0;
+			int wordLength = 0;
+			for (int i = 0; i <= text.length(); i++) {
+				final char c = i < text.length() ? text.charAt(i) : ' ';
+				if(Character.isLetterOrDigit(c)) {
+					if(length < PREFIX_LENGTH) {
+						word[length++] = Character.toLowerCase(c);
+					}
+					wordLength++;
+					continue;
+				}
+
+				if(wordLength >= MIN_WORD_LENGTH && (stopWords == null || wordLength > PREFIX_LENGTH ||
+						!stopWords.contains(word, 0, length))) {
+					addWord(signature, hash(word, length));
+					empty = false;
+				}
+				length = 0;
+				wordLength = 0;
+			}
+		}
+
+		return empty ? null : signature;
+	}
+
+	/**
+	 * Sets every value of the signature to the hash of the word if it's smaller.
+	 */
+	private void addWord(final int[] signature, final int wordHash) {
+		for (int i = 0; i < seeds.length; i++) {
+			final int value = mix(wordHash ^ seeds[i]);
+			if(value < signature[i]) {
+				signature[i] = value;
+			}
+		}
+	}
+
+	/**
+	 * Estimates the Jaccard similarity of the word sets of two signatures of the same length.
+	 * @return the share of equal values between 0 and 1.
+	 */
+	static double similarity(final int[] signature1, final int[] signature2) {
+		int equal = 0;
+		for (int i = 0; i < signature1.length; i++) {
+			if(signature1[i] == signature2[i]) {
+				equal++;
+			}
+		}
+		return (double) equal / signature1.length;
+	}
+
+	/**
+	 * Returns the stop words of the given {@link Locale} or <code>null</code> if it has none.
+	 */
+	private static CharArraySet getStopWords(final Locale locale) {
+		if(locale == null) {
+			return null;
+		}
+
+		switch (locale.getLanguage()) {
+			case "de":
+				return GERMAN_STOP_WORDS;
+			case "en":
+				return ENGLISH_STOP_WORDS;
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * Hashes the first characters of the word (FNV-1a).
+	 */
+	private static int hash(final char[] word, final int length) {
+		int hash = 0x811c9dc5;
+		for (int i = 0; i < length; i++) {
+			hash ^= word[i];
+			hash *= 0x01000193;
+		}
+		return hash;
+	}
+
+	/**
+	 * Spreads the bits of the given value (finalizer of MurmurHash3).
+	 */
+	private static int mix(int value) {
+		value ^= value >>> 16;
+		value *= 0x85ebca6b;
+		value ^= value >>> 13;
+		value *= 0xc2b2ae35;
+		value ^= value >>> 16;
+		return value;
+	}
+}
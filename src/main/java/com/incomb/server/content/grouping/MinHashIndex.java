@@ -0,0 +1,251 @@
+package com.incomb.server.content.grouping;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Finds the entries with similar MinHash signatures without comparing all of them (locality sensitive hashing).
+ *
+ * <p>A signature is split into bands of some rows. Entries with the same values in one band are in the same
+ * bucket, so entries with a similarity s are found with a probability of 1 - (1 - s^rows)^bands.
+ * The buckets are separated by locale and category. All methods are synchronized.</p>
+ */
+class MinHashIndex {
+
+	/**
+	 * Amount of bands of a signature.
+	 */
+	private final int bands;
+
+	/**
+	 * Amount of values per band.
+	 */
+	private final int rows;
+
+	/**
+	 * All entries by id.
+	 */
+	private final Map<Long, Entry> entries = new HashMap<>();
+
+	/**
+	 * The entries by the key of their buckets.
+	 */
+	private final Map<Long, List<Entry>> buckets = new HashMap<>();
+
+	/**
+	 * Creates an empty index for signatures of bands * rows values.
+	 * @param bands the amount of bands of a signature.
+	 * @param rows the amount of values per band.
+	 */
+	MinHashIndex(final int bands, final int rows) {
+		this.bands = Math.max(1, bands);
+		this.rows = Math.max(1, rows);
+	}
+
+	/**
+	 * Adds an entry or replaces the entry with the same id.
+	 * @param id the id of the entry.
+	 * @param locale the locale of the entry.
+	 * @param categoryId the category of the entry.
+	 * @param time the time of the entry in milliseconds, e.g. the publish date.
+	 * @param signature the signature with bands * rows values.
+	 */
+	synchronized void add(final long id, final String locale, final int categoryId, final long time,
+			final int[] signature) {
+		remove(id);
+
+		final Entry entry = new Entry(id, locale, categoryId, time, signature);
+		entries.put(id, entry);
+		for (int band = 0; band < bands; band++) {
+			final long key = getBucketKey(entry, band);
+			List<Entry> bucket = buckets.get(key);
+			if(bucket == null) {
+				bucket = new ArrayList<>(2);
+				buckets.put(key, bucket);
+			}
+			bucket.add(entry);
+		}
+	}
+
+	/**
+	 * Removes the entry with the given id.
+	 * @param id the id of the entry.
+	 * @return true if the entry existed.
+	 */
+	synchronized boolean remove(final long id) {
+		final Entry entry = entries.remove(id);
+		if(entry == null) {
+			return false;
+		}
+
+		for (int band = 0; band < bands; band++) {
+			final long key = getBucketKey(entry, band);
+			final List<Entry> bucket = buckets.get(key);
+			if(bucket != null) {
+				bucket.remove(entry);
+				if(bucket.isEmpty()) {
+					buckets.remove(key);
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Removes all entries with a time before the given one.
+	 * @param time the time in milliseconds.
+	 * @return the amount of removed entries.
+	 */
+	synchronized int removeBefore(final long time) {
+		final List<Long> ids = new ArrayList<>();
+		for (final Entry entry : entries.values()) {
+			if(entry.time < time) {
+				ids.add(entry.id);
+			}
+		}
+
+		for (final Long id : ids) {
+			remove(id);
+		}
+		return ids.size();
+	}
+
+	/**
+	 * Returns the entries of the same locale and category whose time differs at most the given
+	 * delta and whose estimated similarity is at least the given one. The entry with the given id is skipped.
+	 * @param id the id of the entry to find similar ones for.
+	 * @param locale the locale of the entry.
+	 * @param categoryId the category of the entry.
+	 * @param time the time of the entry in milliseconds.
+	 * @param signature the signature of the entry.
+	 * @param maxTimeDelta the maximal difference of the time in milliseconds.
+	 * @param minSimilarity the minimal similarity between 0 and 1.
+	 * @return the found {@link Candidate}s, the most similar first.
+	 */
+	synchronized List<Candidate> find(final long id, final String locale, final int categoryId, final long time,
+			final int[] signature, final long maxTimeDelta, final double minSimilarity) {
+		final Entry query = new Entry(id, locale, categoryId, time, signature);
+		final Set<Long> seen = new HashSet<>();
+		final List<Candidate> candidates = new ArrayList<>();
+
+		for (int band = 0; band < bands; band++) {
+			final List<Entry> bucket = buckets.get(getBucketKey(query, band));
+			if(bucket == null) {
+				continue;
+			}
+
+			for (final Entry entry : bucket) {
+				if(entry.id == id || !seen.add(entry.id) || entry.categoryId != categoryId ||
+						!Objects.equals(entry.locale, locale) || Math.abs(entry.time - time) > maxTimeDelta) {
+					continue;
+				}
+
+				final double similarity = MinHash.similarity(signature, entry.signature);
+				if(similarity >= minSimilarity) {
+					candidates.add(new Candidate(entry.id, similarity));
+				}
+			}
+		}
+
+		Collections.sort(candidates, new Comparator<Candidate>() {
+			@Override
+			public int compare(final Candidate candidate1, final Candidate candidate2) {
+				return Double.compare(candidate2.similarity, candidate1.similarity);
+			}
+		});
+		return candidates;
+	}
+
+	/**
+	 * @return the amount of entries.
+	 */
+	synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns the key of the bucket of the given band of the entry. It contains the hash of the locale
+	 * and category, so equal bands of different categories are mostly in different buckets.
+	 */
+	private long getBucketKey(final Entry entry, final int band) {
+		int hash = band;
+		for (int row = band * rows; row < (band + 1) * rows; row++) {
+			hash = 31 * hash + entry.signature[row];
+		}
+		return ((long) Objects.hash(entry.locale, entry.categoryId) << 32) | (hash & 0xffffffffL);
+	}
+
+	/**
+	 * A similar entry which was found by {@link MinHashIndex#find(long, String, int, long, int[], long, double)}.
+	 */
+	static class Candidate {
+
+		/**
+		 * The id of the entry.
+		 */
+		final long id;
+
+		/**
+		 * The estimated similarity between 0 and 1.
+		 */
+		final double similarity;
+
+		/**
+		 * Creates a new instance.
+		 */
+		Candidate(final long id, final double similarity) {
+			this.id = id;
+			this.similarity = similarity;
+		}
+	}
+
+	/**
+	 * An entry with its signature.
+	 */
+	private static class Entry {
+
+		/**
+		 * The id of the entry.
+		 */
+		private final long id;
+
+		/**
+		 * The locale of the entry.
+		 */
+		private final String locale;
+
+		/**
+		 * The category of the entry.
+		 */
+		private final int categoryId;
+
+		/**
+		 * The time of the entry in milliseconds.
+		 */
+		private final long time;
+
+		/**
+		 * The MinHash signature.
+		 */
+		private final int[] signature;
+
+		/**
+		 * Creates a new instance.
+		 */
+		private Entry(final long id, final String locale, final int categoryId, final long time,
+				final int[] signature) {
+			this.id = id;
+			this.locale = locale;
+			this.categoryId = categoryId;
+			this.time = time;
+			this.signature = signature;
+		}
+	}
+}
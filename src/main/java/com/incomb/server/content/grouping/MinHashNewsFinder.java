@@ -0,0 +1,310 @@
+package com.incomb.server.content.grouping;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.incomb.server.config.Config;
+import com.incomb.server.content.SimilarNewsFinder;
+import com.incomb.server.model.News;
+import com.incomb.server.model.dao.NewsDao;
+
+/**
+ * Finds similar {@link News} with MinHash signatures of their title and description instead of
+ * searching a MoreLikeThis query in the index.
+ *
+ * <p>The signature of a {@link News} is calculated when it's indexed and kept in memory in the buckets
+ * of a {@link MinHashIndex} for grouper.minHash.keepHours hours after its publish date. A signature has
+ * grouper.minHash.bands bands of grouper.minHash.rows values. Candidates are the {@link News} of the same
+ * locale and category which share a band, were published at most {@value SimilarNewsFinder#PUBLISH_DATE_DELTA}
+ * hours before or later and have an estimated similarity of grouper.minHash.minSimilarity.</p>
+ *
+ * <p>If grouper.minHash.verify is true the candidates are checked with the MoreLikeThis query of the
+ * {@link SimilarNewsFinder}, otherwise they're loaded from the database. Only {@link News} with candidates
+ * are searched or loaded at all. The finder is only filled if grouper.engine is {@link EGroupingEngine#MIN_HASH}.</p>
+ */
+public class MinHashNewsFinder {
+
+	/**
+	 * <p>The {@link Logger} for this class.</p>
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(MinHashNewsFinder.class);
+
+	/**
+	 * Default amount of bands of a signature.
+	 */
+	private static final int DEFAULT_BANDS = 16;
+
+	/**
+	 * Default amount of values per band.
+	 */
+	private static final int DEFAULT_ROWS = 2;
+
+	/**
+	 * Default minimal estimated similarity in percent of a candidate.
+	 */
+	private static final int DEFAULT_MIN_SIMILARITY = 25;
+
+	/**
+	 * Default maximal amount of candidates per {@link News}.
+	 */
+	private static final int DEFAULT_MAX_CANDIDATES = 100;
+
+	/**
+	 * Default hours after the publish date until a signature is removed.
+	 */
+	private static final int DEFAULT_KEEP_HOURS = 48;
+
+	/**
+	 * Amount of {@link News} which are loaded per query at startup.
+	 */
+	private static final int LOAD_CHUNK_SIZE = 1000;
+
+	/**
+	 * Milliseconds between two removals of the old signatures.
+	 */
+	private static final long SWEEP_INTERVAL = TimeUnit.MINUTES.toMillis(10);
+
+	/**
+	 * The single instance.
+	 */
+	private static MinHashNewsFinder instance;
+
+	/**
+	 * The configured engine.
+	 */
+	private final EGroupingEngine engine;
+
+	/**
+	 * Calculates the signatures.
+	 */
+	private final MinHash minHash;
+
+	/**
+	 * The buckets of the signatures.
+	 */
+	private final MinHashIndex index;
+
+	/**
+	 * Minimal estimated similarity of a candidate.
+	 */
+	private final double minSimilarity;
+
+	/**
+	 * Maximal amount of candidates per {@link News}.
+	 */
+	private final int maxCandidates;
+
+	/**
+	 * Milliseconds after the publish date until a signature is removed.
+	 */
+	private final long keepTime;
+
+	/**
+	 * True if the candidates are checked with the MoreLikeThis query.
+	 */
+	private final boolean verify;
+
+	/**
+	 * Time in milliseconds when the old signatures were removed last.
+	 */
+	private volatile long lastSweep = System.currentTimeMillis();
+
+	/**
+	 * Creates the empty finder with the configured sizes.
+	 */
+	private MinHashNewsFinder() {
+		final Config config = Config.getDefault();
+		final int bands = Math.max(1, config.getIntProperty("grouper.minHash.bands", DEFAULT_BANDS));
+		final int rows = Math.max(1, config.getIntProperty("grouper.minHash.rows", DEFAULT_ROWS));
+
+		engine = getEngine(config.getStringProperty("grouper.engine"));
+		minHash = new MinHash(bands * rows);
+		index = new MinHashIndex(bands, rows);
+		minSimilarity = config.getIntProperty("grouper.minHash.minSimilarity", DEFAULT_MIN_SIMILARITY) / 100.0;
+		maxCandidates = Math.max(1, config.getIntProperty("grouper.minHash.maxCandidates", DEFAULT_MAX_CANDIDATES));
+		keepTime = TimeUnit.HOURS.toMillis(Math.max(SimilarNewsFinder.PUBLISH_DATE_DELTA,
+				config.getIntProperty("grouper.minHash.keepHours", DEFAULT_KEEP_HOURS)));
+		verify = config.getBooleanProperty("grouper.minHash.verify", false);
+	}
+
+	/**
+	 * Returns the single instance and creates it if it doesn't exist.
+	 * @return the single {@link MinHashNewsFinder}
+	 */
+	public static synchronized MinHashNewsFinder getInstance() {
+		if (instance == null) {
+			instance = new MinHashNewsFinder();
+		}
+		return instance;
+	}
+
+	/**
+	 * Returns the {@link EGroupingEngine} with the given name or {@link EGroupingEngine#MORE_LIKE_THIS}.
+	 */
+	private static EGroupingEngine getEngine(final String engineName) {
+		if (StringUtils.isBlank(engineName)) {
+			return EGroupingEngine.MORE_LIKE_THIS;
+		}
+
+		try {
+			return EGroupingEngine.valueOf(engineName.trim().toUpperCase(Locale.ROOT));
+		} catch (final IllegalArgumentException e) {
+			LOGGER.warn("Unknown grouping engine {}, using {}.", engineName, EGroupingEngine.MORE_LIKE_THIS);
+			return EGroupingEngine.MORE_LIKE_THIS;
+		}
+	}
+
+	/**
+	 * @return the configured {@link EGroupingEngine}.
+	 */
+	public EGroupingEngine getEngine() {
+		return engine;
+	}
+
+	/**
+	 * @return true if grouper.engine is {@link EGroupingEngine#MIN_HASH}.
+	 */
+	public boolean isEnabled() {
+		return engine == EGroupingEngine.MIN_HASH;
+	}
+
+	/**
+	 * Adds the signatures of the {@link News} published in the last grouper.minHash.keepHours hours chunk by chunk,
+	 * so the {@link News} which are grouped after a restart find the older ones.
+	 * It should be called before the grouping starts.
+	 */
+	public void load() {
+		if(!isEnabled()) {
+			return;
+		}
+
+		final long start = System.currentTimeMillis();
+		final Timestamp from = new Timestamp(start - keepTime);
+		final Timestamp to = new Timestamp(start + keepTime);
+		final NewsDao dao = new NewsDao(null);
+
+		long lastId = 0;
+		while(true) {
+			final List<News> chunk = dao.getNewsPublishedBetween(lastId, from, to, LOAD_CHUNK_SIZE);
+			if(chunk.isEmpty()) {
+				break;
+			}
+
+			for (final News news : chunk) {
+				add(news);
+			}
+			lastId = chunk.get(chunk.size() - 1).getId();
+		}
+
+		LOGGER.info("Loaded {} news signatures in {} ms.", index.size(), System.currentTimeMillis() - start);
+	}
+
+	/**
+	 * Calculates the signature of the given {@link News} and adds it or replaces the old one.
+	 * Removes the old signatures every {@value #SWEEP_INTERVAL} milliseconds.
+	 * @param news the indexed {@link News}.
+	 */
+	public void add(final News news) {
+		if(!isEnabled() || news.getPublishDate() == null) {
+			return;
+		}
+
+		final int[] signature = sign(news);
+		if(signature == null) {
+			index.remove(news.getId());
+		}
+		else {
+			index.add(news.getId(), String.valueOf(news.getLocale()), news.getCategoryId(),
+					news.getPublishDate().getTime(), signature);
+		}
+
+		final long now = System.currentTimeMillis();
+		if(now - lastSweep > SWEEP_INTERVAL) {
+			lastSweep = now;
+			final int removed = index.removeBefore(now - keepTime);
+			LOGGER.debug("Removed {} old news signatures, {} remaining.", removed, index.size());
+		}
+	}
+
+	/**
+	 * Removes the signature of the given deleted {@link News}.
+	 * @param news the deleted {@link News}.
+	 */
+	public void forget(final News news) {
+		if(isEnabled()) {
+			index.remove(news.getId());
+		}
+	}
+
+	/**
+	 * Searches for similar {@link News}.
+	 * @param news the {@link News} to group.
+	 * @return a {@link List} with the similar {@link News}. Can be empty.
+	 * 		The more similar the more top is the {@link News} in the {@link List}.
+	 */
+	public List<News> getSimilar(final News news) {
+		final List<Long> candidateIds = getCandidateIds(news);
+		if(candidateIds.isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		if(verify) {
+			return new SimilarNewsFinder(news, candidateIds).getSimilar();
+		}
+
+		final Map<Long, News> candidates = new HashMap<>();
+		for (final News candidate : new NewsDao(null).getNews(candidateIds)) {
+			candidates.put(candidate.getId(), candidate);
+		}
+
+		final List<News> similarNews = new ArrayList<>();
+		for (final Long candidateId : candidateIds) {
+			final News candidate = candidates.get(candidateId);
+			if(candidate != null) {
+				similarNews.add(candidate);
+			}
+		}
+		return similarNews;
+	}
+
+	/**
+	 * Returns the ids of the candidates of the given {@link News}, the most similar first.
+	 */
+	List<Long> getCandidateIds(final News news) {
+		final int[] signature = sign(news);
+		final List<Long> candidateIds = new ArrayList<>();
+		if(signature == null || news.getPublishDate() == null) {
+			return candidateIds;
+		}
+
+		final List<MinHashIndex.Candidate> candidates = index.find(news.getId(), String.valueOf(news.getLocale()),
+				news.getCategoryId(), news.getPublishDate().getTime(), signature,
+				TimeUnit.HOURS.toMillis(SimilarNewsFinder.PUBLISH_DATE_DELTA), minSimilarity);
+
+		for (final MinHashIndex.Candidate candidate : candidates) {
+			if(candidateIds.size() >= maxCandidates) {
+				break;
+			}
+			candidateIds.add(candidate.id);
+			LOGGER.debug("News {} is a candidate for news {} with similarity {}.", candidate.id, news.getId(),
+					candidate.similarity);
+		}
+		return candidateIds;
+	}
+
+	/**
+	 * Calculates the signature of the title and the description of the given {@link News}.
+	 */
+	private int[] sign(final News news) {
+		return minHash.sign(news.getLocale(), news.getTitle(), news.getText());
+	}
+}
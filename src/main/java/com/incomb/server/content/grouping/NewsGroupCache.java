@@ -0,0 +1,371 @@
+package com.incomb.server.content.grouping;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.incomb.server.config.Config;
+import com.incomb.server.model.News;
+import com.incomb.server.model.dao.NewsDao;
+
+/**
+ * Knows the members of the recently used news groups, so a news group can be expanded
+ * without searching its {@link News}.
+ *
+ * <p>The members of a news group are kept as primitive arrays of ids and publish dates sorted
+ * by publish date, the newest first. A news group is loaded from the database when it's requested
+ * the first time. Up to grouper.groupCacheSize news groups are kept in LRU order. The grouper and the
+ * indexer update the cached news groups, so they stay up to date without reloading them.
+ * Updates of a news group which is being loaded are recorded and applied to the loaded members.</p>
+ */
+public class NewsGroupCache {
+
+	/**
+	 * Default amount of news groups which are kept.
+	 */
+	private static final int DEFAULT_SIZE = 10000;
+
+	/**
+	 * The single instance.
+	 */
+	private static NewsGroupCache instance;
+
+	/**
+	 * The members by news group id in access order. Guarded by itself.
+	 */
+	private final Map<Long, Members> groups;
+
+	/**
+	 * The news groups which are being loaded by id. Guarded by {@link #groups}.
+	 */
+	private final Map<Long, Loading> loading = new HashMap<>();
+
+	/**
+	 * Creates the empty cache with the configured size.
+	 */
+	private NewsGroupCache() {
+		final int size = Math.max(1, Config.getDefault().getIntProperty("grouper.groupCacheSize", DEFAULT_SIZE));
+
+		groups = new LinkedHashMap<Long, Members>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Entry<Long, Members> eldest) {
+				return size() > size;
+			}
+		};
+	}
+
+	/**
+	 * Returns the single instance and creates it if it doesn't exist.
+	 * @return the single {@link NewsGroupCache}
+	 */
+	public static synchronized NewsGroupCache getInstance() {
+		if (instance == null) {
+			instance = new NewsGroupCache();
+		}
+		return instance;
+	}
+
+	/**
+	 * Returns the ids of the members of the given news groups sorted by publish date, the newest first.
+	 * The news groups which aren't cached are loaded with one query.
+	 * @param newsGroupIds the ids of the news groups.
+	 * @param dao the {@link NewsDao} to load the missing news groups.
+	 * @return the ids of the members by news group id. The arrays must not be changed.
+	 */
+	public Map<Long, long[]> getMembers(final Collection<Long> newsGroupIds, final NewsDao dao) {
+		final Map<Long, long[]> result = new HashMap<>();
+		final List<Long> missing = new ArrayList<>();
+
+		synchronized (groups) {
+			for (final Long newsGroupId : newsGroupIds) {
+				final Members members = groups.get(newsGroupId);
+				if(members == null) {
+					missing.add(newsGroupId);
+				}
+				else {
+					result.put(newsGroupId, members.ids);
+				}
+			}
+
+			startLoading(missing);
+		}
+
+		if(missing.isEmpty()) {
+			return result;
+		}
+
+		List<News> loadedNews = null;
+		try {
+			loadedNews = dao.getMembersOfNewsGroups(missing);
+		}
+		finally {
+			result.putAll(finishLoading(missing, loadedNews));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Marks the given news groups as loading, so changes of them are recorded until
+	 * {@link #finishLoading(Collection, List)} is called.
+	 * @param newsGroupIds the ids of the news groups which are loaded.
+	 */
+	void startLoading(final Collection<Long> newsGroupIds) {
+		synchronized (groups) {
+			for (final Long newsGroupId : newsGroupIds) {
+				Loading pending = loading.get(newsGroupId);
+				if(pending == null) {
+					pending = new Loading();
+					loading.put(newsGroupId, pending);
+				}
+				pending.loaders++;
+			}
+		}
+	}
+
+	/**
+	 * Caches the given loaded members of the news groups which were marked with {@link #startLoading(Collection)}.
+	 * The changes which happened during the load are applied to them, so they aren't lost.
+	 * If a news group was cached by another load in the meantime, the cached members are kept.
+	 * @param newsGroupIds the ids of the loaded news groups.
+	 * @param loadedNews the loaded members or <code>null</code> if the load failed.
+	 * @return the ids of the members by news group id. Empty if the load failed.
+	 */
+	Map<Long, long[]> finishLoading(final Collection<Long> newsGroupIds, final List<News> loadedNews) {
+		final Map<Long, long[]> result = new HashMap<>();
+
+		Map<Long, Members> loaded = null;
+		if(loadedNews != null) {
+			loaded = new HashMap<>();
+			for (final Long newsGroupId : newsGroupIds) {
+				loaded.put(newsGroupId, Members.EMPTY);
+			}
+			for (final News news : loadedNews) {
+				loaded.put(news.getNewsGroupId(), loaded.get(news.getNewsGroupId()).with(news.getId(),
+						news.getPublishDate().getTime()));
+			}
+		}
+
+		synchronized (groups) {
+			for (final Long newsGroupId : newsGroupIds) {
+				final Loading pending = loading.get(newsGroupId);
+				if(pending != null && --pending.loaders == 0) {
+					loading.remove(newsGroupId);
+				}
+
+				if(loaded == null) {
+					continue;
+				}
+
+				// another load was faster, the cached members got all changes since then.
+				Members members = groups.get(newsGroupId);
+				if(members == null) {
+					members = loaded.get(newsGroupId);
+					if(pending != null) {
+						for (final Change change : pending.changes) {
+							members = change.applyTo(members);
+						}
+					}
+					groups.put(newsGroupId, members);
+				}
+				result.put(newsGroupId, members.ids);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Adds the given {@link News} to its cached news group or updates its publish date.
+	 * Nothing happens if the news group isn't cached, it will be loaded when it's needed.
+	 * If it's being loaded the change is applied after the load.
+	 * @param news the grouped or updated {@link News}.
+	 */
+	public void update(final News news) {
+		if(news.getNewsGroupId() <= 0 || news.getPublishDate() == null) {
+			return;
+		}
+
+		change(news.getNewsGroupId(), new Change(news.getId(), news.getPublishDate().getTime()));
+	}
+
+	/**
+	 * Removes the given deleted {@link News} from its cached news group.
+	 * If it's being loaded the change is applied after the load.
+	 * @param news the deleted {@link News}.
+	 */
+	public void remove(final News news) {
+		if(news.getNewsGroupId() <= 0) {
+			return;
+		}
+
+		change(news.getNewsGroupId(), new Change(news.getId()));
+	}
+
+	/**
+	 * Applies the given {@link Change} to the cached news group or records it if the news group is being loaded.
+	 */
+	private void change(final long newsGroupId, final Change change) {
+		synchronized (groups) {
+			final Members members = groups.get(newsGroupId);
+			if(members != null) {
+				groups.put(newsGroupId, change.applyTo(members));
+			}
+
+			final Loading pending = loading.get(newsGroupId);
+			if(pending != null) {
+				pending.changes.add(change);
+			}
+		}
+	}
+
+	/**
+	 * A news group which is being loaded with the changes which happened since the load started.
+	 */
+	private static class Loading {
+
+		/**
+		 * Amount of loads of the news group which aren't finished yet.
+		 */
+		private int loaders = 0;
+
+		/**
+		 * The changes in the order they happened.
+		 */
+		private final List<Change> changes = new ArrayList<>();
+	}
+
+	/**
+	 * An added, updated or removed member of a news group.
+	 */
+	private static class Change {
+
+		/**
+		 * The id of the member.
+		 */
+		private final long id;
+
+		/**
+		 * The publish date of the member. Only used if {@link #removed} is false.
+		 */
+		private final long publishDate;
+
+		/**
+		 * True if the member was removed.
+		 */
+		private final boolean removed;
+
+		/**
+		 * Creates an added or updated member.
+		 */
+		private Change(final long id, final long publishDate) {
+			this.id = id;
+			this.publishDate = publishDate;
+			this.removed = false;
+		}
+
+		/**
+		 * Creates a removed member.
+		 */
+		private Change(final long id) {
+			this.id = id;
+			this.publishDate = 0;
+			this.removed = true;
+		}
+
+		/**
+		 * Returns the given {@link Members} with this change.
+		 */
+		private Members applyTo(final Members members) {
+			return removed ? members.without(id) : members.with(id, publishDate);
+		}
+	}
+
+	/**
+	 * The members of a news group. The arrays are never changed, a change creates new {@link Members}.
+	 */
+	static class Members {
+
+		/**
+		 * A news group without members.
+		 */
+		static final Members EMPTY = new Members(new long[0], new long[0]);
+
+		/**
+		 * The ids of the members sorted by publish date, the newest first.
+		 */
+		final long[] ids;
+
+		/**
+		 * The publish dates of the members in the same order as {@link #ids}.
+		 */
+		final long[] publishDates;
+
+		/**
+		 * Creates a new instance.
+		 */
+		private Members(final long[] ids, final long[] publishDates) {
+			this.ids = ids;
+			this.publishDates = publishDates;
+		}
+
+		/**
+		 * Returns new {@link Members} which contain the given member at the position of its publish date.
+		 * If the member is already contained it's moved.
+		 */
+		Members with(final long id, final long publishDate) {
+			final Members others = without(id);
+			final int length = others.ids.length;
+
+			int pos = 0;
+			while(pos < length && (others.publishDates[pos] > publishDate ||
+					(others.publishDates[pos] == publishDate && others.ids[pos] > id))) {
+				pos++;
+			}
+
+			final long[] ids = new long[length + 1];
+			final long[] publishDates = new long[length + 1];
+			System.arraycopy(others.ids, 0, ids, 0, pos);
+			System.arraycopy(others.publishDates, 0, publishDates, 0, pos);
+			ids[pos] = id;
+			publishDates[pos] = publishDate;
+			System.arraycopy(others.ids, pos, ids, pos + 1, length - pos);
+			System.arraycopy(others.publishDates, pos, publishDates, pos + 1, length - pos);
+
+			return new Members(ids, publishDates);
+		}
+
+		/**
+		 * Returns new {@link Members} without the given member or these if it isn't contained.
+		 */
+		Members without(final long id) {
+			for (int i = 0; i < ids.length; i++) {
+				if(ids[i] == id) {
+					final long[] newIds = new long[ids.length - 1];
+					final long[] newPublishDates = new long[ids.length - 1];
+					System.arraycopy(ids, 0, newIds, 0, i);
+					System.arraycopy(publishDates, 0, newPublishDates, 0, i);
+					System.arraycopy(ids, i + 1, newIds, i, ids.length - i - 1);
+					System.arraycopy(publishDates, i + 1, newPublishDates, i, ids.length - i - 1);
+					return new Members(newIds, newPublishDates);
+				}
+			}
+			return this;
+		}
+
+		/**
+		 * Returns the members in a human readable format.
+		 */
+		@Override
+		public String toString() {
+			return Arrays.toString(ids);
+		}
+	}
+}
@@ -0,0 +1,242 @@
+package com.incomb.server.content.images;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * Reads the size of an image from its header without decoding the pixels.
+ * JPEG, PNG, GIF and WebP are read directly. Other formats are read with the
+ * {@link ImageReader} of {@link ImageIO} which only reads the header too.
+ */
+class ImageHeaderReader {
+
+	/**
+	 * Amount of bytes which are needed to detect the format and read PNG, GIF and WebP.
+	 */
+	private static final int MAGIC_LENGTH = 30;
+
+	/**
+	 * The signature of a PNG file.
+	 */
+	private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+
+	/**
+	 * Maximal amount of bytes which are read to find the size.
+	 */
+	private final int maxBytes;
+
+	/**
+	 * Creates a new instance.
+	 * @param maxBytes the maximal amount of bytes which are read to find the size.
+	 */
+	ImageHeaderReader(final int maxBytes) {
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Reads the size of the image in the given {@link InputStream}.
+	 * The stream is only read until the size is found.
+	 * @param stream the image.
+	 * @return the {@link ImageSize} or {@link ImageSize#UNKNOWN} if it can't be read.
+	 * @throws IOException if the stream can't be read.
+	 */
+	ImageSize read(final InputStream stream) throws IOException {
+		final BufferedInputStream in = new BufferedInputStream(stream);
+
+		in.mark(MAGIC_LENGTH);
+		final byte[] magic = new byte[MAGIC_LENGTH];
+		final int length = readFully(in, magic);
+		in.reset();
+
+		if (length >= 4 && (magic[0] & 0xFF) == 0xFF && (magic[1] & 0xFF) == 0xD8) {
+			return readJpeg(new DataInputStream(in));
+		}
+		if (length >= 24 && startsWith(magic, PNG_SIGNATURE)) {
+			return new ImageSize(readIntBE(magic, 16), readIntBE(magic, 20));
+		}
+		if (length >= 10 && startsWith(magic, "GIF8".getBytes("ASCII"))) {
+			return new ImageSize(readShortLE(magic, 6), readShortLE(magic, 8));
+		}
+		if (length >= 30 && startsWith(magic, "RIFF".getBytes("ASCII")) && matches(magic, 8, "WEBP")) {
+			return readWebP(magic);
+		}
+
+		return readWithImageIO(in);
+	}
+
+	/**
+	 * Reads the size from the start of frame segment of a JPEG.
+	 * All segments before are skipped.
+	 */
+	private ImageSize readJpeg(final DataInputStream in) throws IOException {
+		in.skipBytes(2); // SOI
+		long position = 2;
+
+		while (position < maxBytes) {
+			int marker = in.readUnsignedByte();
+			if (marker != 0xFF) {
+				return ImageSize.UNKNOWN; // corrupt
+			}
+
+			// markers may be padded with 0xFF
+			do {
+				marker = in.readUnsignedByte();
+				position++;
+			} while (marker == 0xFF);
+			position++;
+
+			// standalone markers without a length
+			if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD8)) {
+				continue;
+			}
+			if (marker == 0xD9 || marker == 0xDA) {
+				return ImageSize.UNKNOWN; // end of image or start of scan before a frame
+			}
+
+			final int segmentLength = in.readUnsignedShort();
+			if (isStartOfFrame(marker)) {
+				in.readUnsignedByte(); // precision
+				final int height = in.readUnsignedShort();
+				final int width = in.readUnsignedShort();
+				return new ImageSize(width, height);
+			}
+
+			skipFully(in, segmentLength - 2);
+			position += segmentLength;
+		}
+
+		return ImageSize.UNKNOWN;
+	}
+
+	/**
+	 * Returns true if the given JPEG marker starts a frame. DHT (C4), JPG (C8) and DAC (CC) don't.
+	 */
+	private static boolean isStartOfFrame(final int marker) {
+		return marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+	}
+
+	/**
+	 * Reads the size of a lossy, lossless or extended WebP from the first chunk.
+	 */
+	private ImageSize readWebP(final byte[] header) {
+		if (matches(header, 12, "VP8 ")) {
+			return new ImageSize(readShortLE(header, 26) & 0x3FFF, readShortLE(header, 28) & 0x3FFF);
+		}
+		if (matches(header, 12, "VP8L")) {
+			final int bits = readIntLE(header, 21);
+			return new ImageSize(1 + (bits & 0x3FFF), 1 + ((bits >> 14) & 0x3FFF));
+		}
+		if (matches(header, 12, "VP8X")) {
+			return new ImageSize(1 + readInt24LE(header, 24), 1 + readInt24LE(header, 27));
+		}
+
+		return ImageSize.UNKNOWN;
+	}
+
+	/**
+	 * Reads the size with the first {@link ImageReader} which supports the format.
+	 */
+	private ImageSize readWithImageIO(final InputStream in) throws IOException {
+		final ImageInputStream imageStream = ImageIO.createImageInputStream(in);
+		if (imageStream == null) {
+			return ImageSize.UNKNOWN;
+		}
+
+		try {
+			final Iterator<ImageReader> readers = ImageIO.getImageReaders(imageStream);
+			if (!readers.hasNext()) {
+				return ImageSize.UNKNOWN;
+			}
+
+			final ImageReader reader = readers.next();
+			try {
+				reader.setInput(imageStream, true, true);
+				return new ImageSize(reader.getWidth(0), reader.getHeight(0));
+			}
+			finally {
+				reader.dispose();
+			}
+		}
+		finally {
+			imageStream.close();
+		}
+	}
+
+	/**
+	 * Reads into the buffer until it's full or the stream ends.
+	 * @return the amount of read bytes.
+	 */
+	private static int readFully(final InputStream in, final byte[] buffer) throws IOException {
+		int length = 0;
+		while (length < buffer.length) {
+			final int read = in.read(buffer, length, buffer.length - length);
+			if (read < 0) {
+				break;
+			}
+			length += read;
+		}
+		return length;
+	}
+
+	/**
+	 * Skips exactly the given amount of bytes.
+	 */
+	private static void skipFully(final InputStream in, final int amount) throws IOException {
+		long remaining = amount;
+		while (remaining > 0) {
+			final long skipped = in.skip(remaining);
+			if (skipped <= 0) {
+				if (in.read() < 0) {
+					throw new EOFException();
+				}
+				remaining--;
+			}
+			else {
+				remaining -= skipped;
+			}
+		}
+	}
+
+	private static boolean startsWith(final byte[] data, final byte[] prefix) {
+		for (int i = 0; i < prefix.length; i++) {
+			if (data[i] != prefix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean matches(final byte[] data, final int offset, final String ascii) {
+		for (int i = 0; i < ascii.length(); i++) {
+			if (data[offset + i] != ascii.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int readIntBE(final byte[] data, final int offset) {
+		return (data[offset] & 0xFF) << 24 | (data[offset + 1] & 0xFF) << 16
+				| (data[offset + 2] & 0xFF) << 8 | (data[offset + 3] & 0xFF);
+	}
+
+	private static int readIntLE(final byte[] data, final int offset) {
+		return (data[offset + 3] & 0xFF) << 24 | readInt24LE(data, offset);
+	}
+
+	private static int readInt24LE(final byte[] data, final int offset) {
+		return (data[offset + 2] & 0xFF) << 16 | readShortLE(data, offset);
+	}
+
+	private static int readShortLE(final byte[] data, final int offset) {
+		return (data[offset + 1] & 0xFF) << 8 | (data[offset] & 0xFF);
+	}
+}
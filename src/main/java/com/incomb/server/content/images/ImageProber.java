@@ -0,0 +1,363 @@
+package com.incomb.server.content.images;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import javax.imageio.IIOException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.incomb.server.config.Config;
+import com.incomb.server.utils.CloseUtil;
+
+/**
+ * Finds out the size of images in the background.
+ *
+ * <p>Only the first bytes of an image are requested with a range request and read until
+ * the size is found in the header (see {@link ImageHeaderReader}). The probes run on an own
+ * bounded pool (images.probe.threads, images.probe.queueSize), if it's full the probe is dropped.
+ * The results are kept in a LRU cache with a time to live (images.probe.cacheSize,
+ * images.probe.cacheTtl), so the same image of several feeds or fetches is only probed once.
+ * If the image couldn't be requested because of a timeout, a network error or a server error,
+ * the unknown size is only cached for images.probe.failureTtl, so it's probed again soon.</p>
+ */
+public class ImageProber {
+
+	/**
+	 * <p>The {@link Logger} for this class.</p>
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(ImageProber.class);
+
+	/**
+	 * Default amount of threads which probe images.
+	 */
+	private static final int DEFAULT_THREADS = 2;
+
+	/**
+	 * Default amount of images which may wait for a probe.
+	 */
+	private static final int DEFAULT_QUEUE_SIZE = 500;
+
+	/**
+	 * Default maximal amount of cached sizes.
+	 */
+	private static final int DEFAULT_CACHE_SIZE = 10000;
+
+	/**
+	 * Default time in milliseconds a cached size is valid.
+	 */
+	private static final int DEFAULT_CACHE_TTL = 24 * 60 * 60 * 1000;
+
+	/**
+	 * Default time in milliseconds the unknown size of an image which couldn't be requested is cached.
+	 */
+	private static final int DEFAULT_FAILURE_TTL = 5 * 60 * 1000;
+
+	/**
+	 * Default maximal amount of bytes which are read of an image.
+	 */
+	private static final int DEFAULT_MAX_BYTES = 256 * 1024;
+
+	/**
+	 * The status code of a response if the client sent too many requests.
+	 */
+	private static final int TOO_MANY_REQUESTS = 429;
+
+	/**
+	 * Timeout in milliseconds to connect to a host.
+	 */
+	private static final int CONNECT_TIMEOUT = 2000;
+
+	/**
+	 * Timeout in milliseconds to wait for data.
+	 */
+	private static final int READ_TIMEOUT = 10000;
+
+	/**
+	 * The single instance or <code>null</code> if it wasn't created yet or was shut down.
+	 */
+	private static ImageProber instance;
+
+	/**
+	 * The threads which probe the images.
+	 */
+	private final ThreadPoolExecutor executor;
+
+	/**
+	 * The client which requests the images.
+	 */
+	private final CloseableHttpClient httpClient;
+
+	/**
+	 * Reads the sizes from the headers.
+	 */
+	private final ImageHeaderReader headerReader;
+
+	/**
+	 * Maximal amount of bytes which are read of an image.
+	 */
+	private final int maxBytes;
+
+	/**
+	 * Maximal amount of cached sizes.
+	 */
+	private final int cacheSize;
+
+	/**
+	 * Time in milliseconds a cached size is valid.
+	 */
+	private final long cacheTtl;
+
+	/**
+	 * Time in milliseconds the unknown size of an image which couldn't be requested is cached.
+	 */
+	private final long failureTtl;
+
+	/**
+	 * The cached sizes by url in access order. Guarded by itself.
+	 */
+	private final Map<String, CacheEntry> cache;
+
+	/**
+	 * The callbacks of the images which are probed right now by url. Guarded by itself.
+	 */
+	private final Map<String, List<Consumer<ImageSize>>> pending = new LinkedHashMap<>();
+
+	/**
+	 * Creates the pool, the http client and the cache with the configured sizes.
+	 */
+	private ImageProber() {
+		final Config config = Config.getDefault();
+		final int threads = Math.max(1, config.getIntProperty("images.probe.threads", DEFAULT_THREADS));
+
+		maxBytes = config.getIntProperty("images.probe.maxBytes", DEFAULT_MAX_BYTES);
+		cacheSize = config.getIntProperty("images.probe.cacheSize", DEFAULT_CACHE_SIZE);
+		cacheTtl = config.getIntProperty("images.probe.cacheTtl", DEFAULT_CACHE_TTL);
+		failureTtl = config.getIntProperty("images.probe.failureTtl", DEFAULT_FAILURE_TTL);
+		headerReader = new ImageHeaderReader(maxBytes);
+
+		cache = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Entry<String, CacheEntry> eldest) {
+				return size() > cacheSize;
+			}
+		};
+
+		executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(config.getIntProperty("images.probe.queueSize", DEFAULT_QUEUE_SIZE)));
+
+		httpClient = HttpClients.custom().
+				setDefaultRequestConfig(RequestConfig.custom().
+						setConnectTimeout(CONNECT_TIMEOUT).
+						setSocketTimeout(READ_TIMEOUT).
+						build()).
+				setMaxConnPerRoute(threads).
+				setMaxConnTotal(threads).
+				build();
+	}
+
+	/**
+	 * Returns the single instance and creates it if it doesn't exist.
+	 * @return the single {@link ImageProber}
+	 */
+	public static synchronized ImageProber getInstance() {
+		if (instance == null) {
+			instance = new ImageProber();
+		}
+		return instance;
+	}
+
+	/**
+	 * Stops the probes and closes the http client. {@link #getInstance()} will create a new one.
+	 */
+	public static synchronized void shutdown() {
+		if (instance != null) {
+			instance.executor.shutdownNow();
+			CloseUtil.close(instance.httpClient);
+			instance = null;
+		}
+	}
+
+	/**
+	 * Returns the cached size of the image with the given url.
+	 * @param url the url of the image.
+	 * @return the {@link ImageSize} or <code>null</code> if the image wasn't probed yet
+	 * 			or the cached size has expired.
+	 */
+	public ImageSize getCached(final String url) {
+		if (StringUtils.isBlank(url)) {
+			return null;
+		}
+
+		synchronized (cache) {
+			final CacheEntry entry = cache.get(url);
+			if (entry == null) {
+				return null;
+			}
+
+			if (entry.expiresAt < System.currentTimeMillis()) {
+				cache.remove(url);
+				return null;
+			}
+
+			return entry.size;
+		}
+	}
+
+	/**
+	 * Finds out the size of the image with the given url in the background.
+	 * The callback is called on a probe thread with the size or {@link ImageSize#UNKNOWN} if it
+	 * can't be read. It's called at once if the size is cached. If the image is already being probed,
+	 * the callback is called with the result of this probe. If the pool is full the callback isn't called.
+	 * @param url the url of the image.
+	 * @param callback receives the {@link ImageSize}.
+	 */
+	public void probe(final String url, final Consumer<ImageSize> callback) {
+		final ImageSize cached = getCached(url);
+		if (cached != null) {
+			callback.accept(cached);
+			return;
+		}
+
+		synchronized (pending) {
+			final List<Consumer<ImageSize>> callbacks = pending.get(url);
+			if (callbacks != null) {
+				callbacks.add(callback);
+				return;
+			}
+
+			final List<Consumer<ImageSize>> newCallbacks = new ArrayList<>();
+			newCallbacks.add(callback);
+			pending.put(url, newCallbacks);
+		}
+
+		try {
+			executor.execute(() -> complete(url, probe(url)));
+		} catch (final RejectedExecutionException e) {
+			LOGGER.debug("Probe queue is full, skipped image {}.", url);
+
+			synchronized (pending) {
+				pending.remove(url);
+			}
+		}
+	}
+
+	/**
+	 * Caches the size and calls all callbacks which are waiting for the image.
+	 * @param probedSize the {@link ImageSize} or <code>null</code> if the image couldn't be requested,
+	 * 			then {@link ImageSize#UNKNOWN} is cached for a short time.
+	 */
+	private void complete(final String url, final ImageSize probedSize) {
+		final ImageSize size = probedSize == null ? ImageSize.UNKNOWN : probedSize;
+		final long ttl = probedSize == null ? failureTtl : cacheTtl;
+
+		synchronized (cache) {
+			cache.put(url, new CacheEntry(size, System.currentTimeMillis() + ttl));
+		}
+
+		final List<Consumer<ImageSize>> callbacks;
+		synchronized (pending) {
+			callbacks = pending.remove(url);
+		}
+
+		for (final Consumer<ImageSize> callback : callbacks) {
+			try {
+				callback.accept(size);
+			} catch (final RuntimeException e) {
+				LOGGER.error("Can't handle size {} of image {}.", size, url, e);
+			}
+		}
+	}
+
+	/**
+	 * Requests the first bytes of the image and reads its size.
+	 * @return the {@link ImageSize}, {@link ImageSize#UNKNOWN} if it isn't an image or the header can't be read
+	 * 			or <code>null</code> if it couldn't be requested, which may work later.
+	 */
+	private ImageSize probe(final String url) {
+		final HttpGet request = new HttpGet(toAbsoluteUrl(url));
+		request.setHeader(HttpHeaders.RANGE, "bytes=0-" + (maxBytes - 1));
+
+		try (final CloseableHttpResponse response = httpClient.execute(request)) {
+			final int status = response.getStatusLine().getStatusCode();
+			if (status >= HttpStatus.SC_INTERNAL_SERVER_ERROR || status == TOO_MANY_REQUESTS) {
+				LOGGER.info("Can't request image {} for now, status {}.", url, status);
+				return null;
+			}
+			if ((status != HttpStatus.SC_OK && status != HttpStatus.SC_PARTIAL_CONTENT) || response.getEntity() == null) {
+				LOGGER.info("Can't calculate image sizes for image {}, status {}.", url, status);
+				return ImageSize.UNKNOWN;
+			}
+
+			try {
+				return headerReader.read(response.getEntity().getContent());
+			}
+			catch (final EOFException | IIOException e) {
+				LOGGER.info("Can't calculate image sizes for image {}, the header is incomplete or invalid.", url);
+				return ImageSize.UNKNOWN;
+			}
+			finally {
+				// the rest of the image isn't needed, don't wait for it.
+				request.abort();
+			}
+		} catch (final IOException e) {
+			LOGGER.info("Can't request image {} for now.", url, e);
+			return null;
+		} catch (final RuntimeException e) {
+			LOGGER.info("Can't calculate image sizes for image {}.", url, e);
+			return ImageSize.UNKNOWN;
+		}
+	}
+
+	/**
+	 * Adds the http scheme to protocol relative urls.
+	 */
+	private static String toAbsoluteUrl(final String url) {
+		return url.startsWith("//") ? "http:" + url : url;
+	}
+
+	/**
+	 * A cached {@link ImageSize} with its expiry time.
+	 */
+	private static class CacheEntry {
+
+		/**
+		 * The cached size.
+		 */
+		private final ImageSize size;
+
+		/**
+		 * Time in milliseconds when this entry expires.
+		 */
+		private final long expiresAt;
+
+		/**
+		 * Creates a new instance.
+		 */
+		private CacheEntry(final ImageSize size, final long expiresAt) {
+			this.size = size;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package com.incomb.server.content.images;
+
+/**
+ * The width and height of an image in pixels.
+ */
+public class ImageSize {
+
+	/**
+	 * The size of an image which couldn't be read.
+	 */
+	public static final ImageSize UNKNOWN = new ImageSize(0, 0);
+
+	/**
+	 * The width in pixels.
+	 */
+	private final int width;
+
+	/**
+	 * The height in pixels.
+	 */
+	private final int height;
+
+	/**
+	 * Creates a new instance.
+	 * @param width the width in pixels.
+	 * @param height the height in pixels.
+	 */
+	public ImageSize(final int width, final int height) {
+		this.width = width;
+		this.height = height;
+	}
+
+	/**
+	 * @return the width in pixels.
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * @return the height in pixels.
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * @return true if the width and the height are known.
+	 */
+	public boolean isKnown() {
+		return width > 0 && height > 0;
+	}
+
+	/**
+	 * @return the size in the format "widthxheight".
+	 */
+	@Override
+	public String toString() {
+		return width + "x" + height;
+	}
+}
@@ -0,0 +1,121 @@
+package com.incomb.server.content.indexing;
+
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import com.incomb.server.model.ContentComment;
+import com.incomb.server.model.ContentVote;
+import com.incomb.server.model.News;
+import com.incomb.server.model.dao.ContentCommentDao;
+import com.incomb.server.model.dao.ContentVoteDao;
+
+/**
+ * A snapshot of the votes and comments of a {@link News} which are indexed by {@link NewsIndexElement}.
+ * Use {@link #load(Connection, Collection)} to load the snapshots of many {@link News} at once.
+ */
+public class NewsEngagement {
+
+	/**
+	 * The ids of all users who gave an "in".
+	 */
+	private final Set<Long> inUserIds = new HashSet<>();
+
+	/**
+	 * The ids of all users who gave a "comb".
+	 */
+	private final Set<Long> combUserIds = new HashSet<>();
+
+	/**
+	 * The ids of all users who wrote a {@link ContentComment}.
+	 */
+	private final Set<Long> commentUserIds = new HashSet<>();
+
+	/**
+	 * The amount of "ins".
+	 */
+	private int insAmount = 0;
+
+	/**
+	 * The amount of {@link ContentComment}s.
+	 */
+	private int commentsAmount = 0;
+
+	/**
+	 * Loads the votes and comments of all given content ids with two queries.
+	 * The returned {@link Map} contains a {@link NewsEngagement} for every given content id,
+	 * also for those without any votes or comments.
+	 * @param con the {@link Connection} to load the data or <code>null</code> to acquire one for each query.
+	 * @param contentIds the ids of the {@link News}.
+	 * @return the {@link NewsEngagement}s by content id.
+	 */
+	public static Map<Long, NewsEngagement> load(final Connection con, final Collection<Long> contentIds) {
+		final Map<Long, NewsEngagement> engagements = new HashMap<>();
+		for (final Long contentId : contentIds) {
+			engagements.put(contentId, new NewsEngagement());
+		}
+
+		for (final ContentVote vote : new ContentVoteDao(con).getVotesByContentIds(contentIds)) {
+			final NewsEngagement engagement = engagements.get(vote.getContentId());
+
+			if(vote.getUp()) {
+				engagement.inUserIds.add(vote.getUserId());
+				engagement.insAmount++;
+			}
+			else {
+				engagement.combUserIds.add(vote.getUserId());
+			}
+		}
+
+		for (final Entry<Long, Map<Long, Integer>> contentEntry :
+				new ContentCommentDao(con).getCommentAmountsOfUsersByContentIds(contentIds).entrySet()) {
+
+			final NewsEngagement engagement = engagements.get(contentEntry.getKey());
+			for (final Entry<Long, Integer> userEntry : contentEntry.getValue().entrySet()) {
+				engagement.commentUserIds.add(userEntry.getKey());
+				engagement.commentsAmount += userEntry.getValue();
+			}
+		}
+
+		return engagements;
+	}
+
+	/**
+	 * @return the ids of all users who gave an "in".
+	 */
+	public Set<Long> getInUserIds() {
+		return inUserIds;
+	}
+
+	/**
+	 * @return the ids of all users who gave a "comb".
+	 */
+	public Set<Long> getCombUserIds() {
+		return combUserIds;
+	}
+
+	/**
+	 * @return the ids of all users who wrote a {@link ContentComment}.
+	 */
+	public Set<Long> getCommentUserIds() {
+		return commentUserIds;
+	}
+
+	/**
+	 * @return the amount of "ins".
+	 */
+	public int getInsAmount() {
+		return insAmount;
+	}
+
+	/**
+	 * @return the amount of {@link ContentComment}s.
+	 */
+	public int getCommentsAmount() {
+		return commentsAmount;
+	}
+}
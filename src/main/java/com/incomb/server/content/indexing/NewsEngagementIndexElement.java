@@ -0,0 +1,81 @@
+package com.incomb.server.content.indexing;
+
+import java.util.Locale;
+
+import com.incomb.server.indexing.IIndexElement;
+import com.incomb.server.indexing.conf.EOperation;
+import com.incomb.server.model.News;
+
+/**
+ * Represents a {@link News} of which only the counters of the votes and comments changed.
+ * The counters are updated in place with {@link EOperation#UPDATE_DOC_VALUES}.
+ */
+public class NewsEngagementIndexElement implements IIndexElement {
+
+	/**
+	 * The id of the {@link News}.
+	 */
+	private final long newsId;
+
+	/**
+	 * The current votes and comments of the {@link News}.
+	 */
+	private final NewsEngagement engagement;
+
+	/**
+	 * Creates a new instance with all needed properties.
+	 * @param newsId the id of the {@link News}.
+	 * @param engagement the current votes and comments of the {@link News}.
+	 */
+	public NewsEngagementIndexElement(final long newsId, final NewsEngagement engagement) {
+		this.newsId = newsId;
+		this.engagement = engagement;
+	}
+
+	/**
+	 * @return {@link EOperation#UPDATE_DOC_VALUES}
+	 */
+	@Override
+	public EOperation getOperation() {
+		return EOperation.UPDATE_DOC_VALUES;
+	}
+
+	/**
+	 * @return the id of the {@link News}.
+	 */
+	@Override
+	public String getId() {
+		return String.valueOf(newsId);
+	}
+
+	/**
+	 * @return null because it's not needed to update the counters.
+	 */
+	@Override
+	public Locale getLocale() {
+		return null;
+	}
+
+	/**
+	 * Returns the content of the field.
+	 *
+	 * Available fields:
+	 * <ul>
+	 *  <li>{@link NewsIndexType#FIELD_INS_AMOUNT}</li>
+	 *  <li>{@link NewsIndexType#FIELD_COMMENTS_AMOUNT}</li>
+	 * </ul>
+	 *
+	 * All other fields return null, because they didn't change.
+	 */
+	@Override
+	public Object getContent(final String fieldName) {
+		switch (fieldName) {
+			case NewsIndexType.FIELD_INS_AMOUNT:
+				return engagement.getInsAmount();
+			case NewsIndexType.FIELD_COMMENTS_AMOUNT:
+				return engagement.getCommentsAmount();
+			default:
+				return null;
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package com.incomb.server.content.indexing;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.apache.lucene.index.AtomicReader;
+import org.apache.lucene.index.AtomicReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.queries.function.FunctionValues;
+import org.apache.lucene.queries.function.ValueSource;
+import org.apache.lucene.queries.function.docvalues.LongDocValues;
+import org.apache.lucene.search.FieldCache;
+import org.apache.lucene.util.Bits;
+
+import com.incomb.server.model.News;
+
+/**
+ * Returns the group of a {@link News} document to collapse the hits of a search by news group.
+ *
+ * <p>A grouped {@link News} returns its news group id. A {@link News} without a news group returns
+ * a negative value which is unique for its document, so it counts as its own group.</p>
+ *
+ * <p>The news group ids are read from {@link NewsIndexType#FIELD_NEWSGROUPID_VALUES}. Documents which were
+ * indexed before this field existed fall back to the {@link FieldCache} of {@link NewsIndexType#FIELD_NEWSGROUPID}.</p>
+ */
+public class NewsGroupValueSource extends ValueSource {
+
+	/**
+	 * {@inheritDoc}
+	 * @see NewsGroupValueSource
+	 */
+	@Override
+	public FunctionValues getValues(@SuppressWarnings("rawtypes") final Map context,
+			final AtomicReaderContext readerContext) throws IOException {
+		final AtomicReader reader = readerContext.reader();
+		final int docBase = readerContext.docBase;
+
+		final NumericDocValues docValues = reader.getNumericDocValues(NewsIndexType.FIELD_NEWSGROUPID_VALUES);
+		final Bits docsWithValue = reader.getDocsWithField(NewsIndexType.FIELD_NEWSGROUPID_VALUES);
+
+		// the field cache is only needed if not all documents of the segment have doc values
+		final FieldCache.Longs cachedValues = docsWithValue instanceof Bits.MatchAllBits ? null :
+				FieldCache.DEFAULT.getLongs(reader, NewsIndexType.FIELD_NEWSGROUPID,
+						FieldCache.NUMERIC_UTILS_LONG_PARSER, false);
+
+		return new LongDocValues(this) {
+			@Override
+			public long longVal(final int doc) {
+				final long newsGroupId = cachedValues == null || docsWithValue != null && docsWithValue.get(doc) ?
+						docValues.get(doc) : cachedValues.get(doc);
+				if(newsGroupId > 0) {
+					return newsGroupId;
+				}
+
+				// a unique group for each news without news group
+				return -(docBase + doc + 1L);
+			}
+		};
+	}
+
+	/**
+	 * All instances are equal.
+	 */
+	@Override
+	public boolean equals(final Object obj) {
+		return obj instanceof NewsGroupValueSource;
+	}
+
+	/**
+	 * All instances have the same hash code.
+	 */
+	@Override
+	public int hashCode() {
+		return NewsGroupValueSource.class.hashCode();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String description() {
+		return "newsGroup(" + NewsIndexType.FIELD_NEWSGROUPID_VALUES + ")";
+	}
+}
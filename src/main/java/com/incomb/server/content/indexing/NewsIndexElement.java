@@ -28,14 +28,33 @@ public class NewsIndexElement implements IIndexElement {
 	 */
 	private final EOperation operation;
 
+	/**
+	 * The preloaded votes and comments of the {@link News}.
+	 * If null they are loaded for each field on their own.
+	 */
+	private final NewsEngagement engagement;
+
 	/**
 	 * Creates a new instance with all needed properties.
+	 * The votes and comments will be loaded when the fields are read.
 	 * @param news the {@link News} to index.
 	 * @param operation the operation of the element
 	 */
 	public NewsIndexElement(final News news, final EOperation operation) {
+		this(news, operation, null);
+	}
+
+	/**
+	 * Creates a new instance with preloaded votes and comments.
+	 * @param news the {@link News} to index.
+	 * @param operation the operation of the element
+	 * @param engagement the votes and comments of the {@link News} or null to load them for each field.
+	 * @see NewsEngagement#load(java.sql.Connection, java.util.Collection)
+	 */
+	public NewsIndexElement(final News news, final EOperation operation, final NewsEngagement engagement) {
 		this.news = news;
 		this.operation = operation;
+		this.engagement = engagement;
 	}
 
 	/**
@@ -79,6 +98,7 @@ public class NewsIndexElement implements IIndexElement {
 	 *  <li>{@link NewsIndexType#FIELD_IMAGE_WIDTH}</li>
 	 *  <li>{@link NewsIndexType#FIELD_IMAGE_HEIGHT}</li>
 	 *  <li>{@link NewsIndexType#FIELD_NEWSGROUPID}</li>
+	 *  <li>{@link NewsIndexType#FIELD_NEWSGROUPID_VALUES}</li>
 	 *  <li>{@link NewsIndexType#FIELD_PUBLISH_DATE}</li>
 	 *  <li>{@link NewsIndexType#FIELD_IN}</li>
 	 *  <li>{@link NewsIndexType#FIELD_INS_AMOUNT}</li>
@@ -112,18 +132,34 @@ public class NewsIndexElement implements IIndexElement {
 			case NewsIndexType.FIELD_IMAGE_HEIGHT:
 				return news.getImageHeight();
 			case NewsIndexType.FIELD_NEWSGROUPID:
+			case NewsIndexType.FIELD_NEWSGROUPID_VALUES:
 				return news.getNewsGroupId();
 			case NewsIndexType.FIELD_PUBLISH_DATE:
 				return news.getPublishDate();
 			case NewsIndexType.FIELD_IN:
+				if(engagement != null) {
+					return engagement.getInUserIds();
+				}
 				return getUserIdsOfVotes(new ContentVoteDao().getInVotes(news.getId()));
 			case NewsIndexType.FIELD_INS_AMOUNT:
+				if(engagement != null) {
+					return engagement.getInsAmount();
+				}
 				return new ContentVoteDao().getInsAmountByContentId(news.getId());
 			case NewsIndexType.FIELD_COMB:
+				if(engagement != null) {
+					return engagement.getCombUserIds();
+				}
 				return getUserIdsOfVotes(new ContentVoteDao().getCombVotes(news.getId()));
 			case NewsIndexType.FIELD_COMMENT_OF:
+				if(engagement != null) {
+					return engagement.getCommentUserIds();
+				}
 				return getUserIdsOfComments(new ContentCommentDao().getCommentsByContentId(news.getId()));
 			case NewsIndexType.FIELD_COMMENTS_AMOUNT:
+				if(engagement != null) {
+					return engagement.getCommentsAmount();
+				}
 				return new ContentCommentDao().getCommentsAmountForContentId(news.getId());
 			default:
 				throw new IllegalArgumentException("Field name " + fieldName + " is unknown.");
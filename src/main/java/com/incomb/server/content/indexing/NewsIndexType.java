@@ -4,13 +4,21 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.lucene.document.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.incomb.server.content.NewsGrouperThread;
+import com.incomb.server.content.grouping.MinHashNewsFinder;
+import com.incomb.server.content.grouping.NewsGroupCache;
 import com.incomb.server.db.DBConnectionProvider;
 import com.incomb.server.indexing.DocumentsSearchResult;
 import com.incomb.server.indexing.IIndexData;
@@ -24,6 +32,7 @@ import com.incomb.server.indexing.conf.fields.IIndexFieldConf;
 import com.incomb.server.indexing.conf.fields.IntegerIndexFieldConf;
 import com.incomb.server.indexing.conf.fields.LongIndexFieldConf;
 import com.incomb.server.indexing.conf.fields.NotIndexedIndexFieldConf;
+import com.incomb.server.indexing.conf.fields.NumericDocValuesIndexFieldConf;
 import com.incomb.server.indexing.conf.fields.StringIndexFieldConf;
 import com.incomb.server.indexing.conf.fields.TextIndexFieldConf;
 import com.incomb.server.model.News;
@@ -113,6 +122,12 @@ public class NewsIndexType implements IIndexTypeConf {
 	 */
 	public static final String FIELD_NEWSGROUPID = "newsGroupId";
 
+	/**
+	 * The news group id of the {@link News} as DocValues.
+	 * It can only be used for sorting and grouping.
+	 */
+	public static final String FIELD_NEWSGROUPID_VALUES = "newsGroupIdValues";
+
 	/**
 	 * Contains the publish date of the {@link News}.
 	 */
@@ -126,6 +141,7 @@ public class NewsIndexType implements IIndexTypeConf {
 
 	/**
 	 * The amount of users who gave an "in" to the {@link News}.
+	 * It can only be used for sorting.
 	 */
 	public static final String FIELD_INS_AMOUNT = "insAmount";
 
@@ -142,10 +158,19 @@ public class NewsIndexType implements IIndexTypeConf {
 	public static final String FIELD_COMMENT_OF = "commentOf";
 
 	/**
-	 * The amount of users who gave wrote a comment to the {@link News}.
+	 * The amount of comments which were written to the {@link News}.
+	 * It can only be used for sorting.
 	 */
 	public static final String FIELD_COMMENTS_AMOUNT = "commentsAmount";
 
+	/**
+	 * The stored fields which are needed by {@link #docsToNews(List)}.
+	 */
+	public static final Set<String> NEWS_FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+			IIndexElement.FIELD_ID, IIndexElement.FIELD_LOCALE, FIELD_TITLE, FIELD_DESCRIPTION, FIELD_PUBLISH_DATE,
+			FIELD_PROVIDERID, FIELD_CATEGORYID, FIELD_LINK, FIELD_IMAGE_URL, FIELD_IMAGE_WIDTH, FIELD_IMAGE_HEIGHT,
+			FIELD_NEWSGROUPID)));
+
 	/**
 	 * The constructor is only accessible for this class and subclasses.
 	 */
@@ -186,6 +211,7 @@ public class NewsIndexType implements IIndexTypeConf {
 	 *  <li>{@link NewsIndexType#FIELD_IMAGE_WIDTH}</li>
 	 *  <li>{@link NewsIndexType#FIELD_IMAGE_HEIGHT}</li>
 	 *  <li>{@link NewsIndexType#FIELD_NEWSGROUPID}</li>
+	 *  <li>{@link NewsIndexType#FIELD_NEWSGROUPID_VALUES}</li>
 	 *  <li>{@link NewsIndexType#FIELD_PUBLISH_DATE}</li>
 	 *  <li>{@link NewsIndexType#FIELD_IN}</li>
 	 *  <li>{@link NewsIndexType#FIELD_INS_AMOUNT}</li>
@@ -210,27 +236,48 @@ public class NewsIndexType implements IIndexTypeConf {
 		fields.add(new NotIndexedIndexFieldConf(FIELD_IMAGE_WIDTH));
 		fields.add(new NotIndexedIndexFieldConf(FIELD_IMAGE_HEIGHT));
 		fields.add(new LongIndexFieldConf(FIELD_NEWSGROUPID, true));
+		fields.add(new NumericDocValuesIndexFieldConf(FIELD_NEWSGROUPID_VALUES));
 		fields.add(new DateIndexFieldConf(FIELD_PUBLISH_DATE, true));
 		fields.add(new LongIndexFieldConf(FIELD_IN, false)); // multiple values
-		fields.add(new IntegerIndexFieldConf(FIELD_INS_AMOUNT, false));
+		fields.add(new NumericDocValuesIndexFieldConf(FIELD_INS_AMOUNT)); // updated in place
 		fields.add(new LongIndexFieldConf(FIELD_COMB, false)); // multiple values
 		fields.add(new LongIndexFieldConf(FIELD_COMMENT_OF, false)); // multiple values
-		fields.add(new IntegerIndexFieldConf(FIELD_COMMENTS_AMOUNT, false));
+		fields.add(new NumericDocValuesIndexFieldConf(FIELD_COMMENTS_AMOUNT)); // updated in place
 
 		return fields;
 	}
 
 	/**
-	 * Returns all {@link News}s. For each {@link News} a {@link NewsIndexElement} is returned.
+	 * Returns the {@link News}s sorted by id. For each {@link News} a {@link NewsIndexElement} is returned.
 	 * {@link NewsIndexElement#getOperation()} returns {@link EOperation#INSERT}.
+	 * The votes and comments of the whole chunk are loaded at once.
 	 */
 	@Override
-	public List<? extends IIndexElement> getElements(final Connection con, final int start, final int amount) {
-		final List<NewsIndexElement> elements = new ArrayList<>();
-		final List<News> records = new NewsDao(con).getNews(start, amount);
+	public List<? extends IIndexElement> getElements(final Connection con, final long afterId, final int amount) {
+		return toElements(con, new NewsDao(con).getNewsAfter(afterId, amount), EOperation.INSERT);
+	}
+
+	/**
+	 * Creates a {@link NewsIndexElement} for each given {@link News} with the given operation.
+	 * The votes and comments of all {@link News} are loaded at once with {@link NewsEngagement#load(Connection, Collection)}.
+	 * @param con the {@link Connection} to load the votes and comments or <code>null</code>.
+	 * @param news the {@link News} to index.
+	 * @param operation the operation of the elements.
+	 * @return the {@link NewsIndexElement}s in the same order.
+	 */
+	public static List<NewsIndexElement> toElements(final Connection con, final List<News> news,
+			final EOperation operation) {
 
-		for (final News record : records) {
-			elements.add(new NewsIndexElement(record, EOperation.INSERT));
+		final List<Long> contentIds = new ArrayList<>();
+		for (final News oneNews : news) {
+			contentIds.add(oneNews.getId());
+		}
+
+		final Map<Long, NewsEngagement> engagements = NewsEngagement.load(con, contentIds);
+
+		final List<NewsIndexElement> elements = new ArrayList<>();
+		for (final News oneNews : news) {
+			elements.add(new NewsIndexElement(oneNews, operation, engagements.get(oneNews.getId())));
 		}
 
 		return elements;
@@ -282,15 +329,31 @@ public class NewsIndexType implements IIndexTypeConf {
 	}
 
 	/**
-	 * Groups all inserted {@link News} if they weren't indexed yet.
+	 * {@inheritDoc}
+	 * The news which aren't marked as indexed are indexed at the next startup, see {@link NewsDao#indexNotIndexedNews()}.
+	 */
+	@Override
+	public boolean isInsertRecoverable() {
+		return true;
+	}
+
+	/**
+	 * Sets the indexed flag of the inserted and updated {@link News} and groups all
+	 * inserted {@link News} if they weren't grouped yet. Deleted {@link News} are skipped.
 	 */
 	@Override
 	public void afterIndexing(final IIndexData indexData) {
 		for (final IIndexElement element : indexData.getElements()) {
-			if(element instanceof NewsIndexElement) {
+			if(element instanceof NewsIndexElement && element.getOperation() != EOperation.DELETE) {
 				final NewsIndexElement newsElement = (NewsIndexElement) element;
 				final News news = newsElement.getNews();
 
+				// the signature is needed for grouping, so it's updated first.
+				MinHashNewsFinder.getInstance().add(news);
+
+				// a cached news group gets the new member or publish date.
+				NewsGroupCache.getInstance().update(news);
+
 				final Connection con = DBConnectionProvider.getInstance().acquire();
 				try {
 					new NewsDao(con).setIndexed(news);
@@ -0,0 +1,329 @@
+package com.incomb.server.content.loader;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.incomb.server.config.Config;
+import com.incomb.server.model.ContentSource;
+import com.incomb.server.model.FetchHistory;
+import com.incomb.server.model.dao.FetchHistoryDao;
+
+/**
+ * Learns how often each {@link ContentSource} yields new contents at each hour of the day
+ * and calculates the interval until its next fetch from it.
+ *
+ * <p>The new contents of a feed are assumed to appear randomly with a rate which depends
+ * on the hour of the day. The rate is estimated from the share of fetches which read new
+ * contents and the average time between the fetches. The interval is chosen so that
+ * contentLoader.scheduler.adaptive.targetYield percent of the fetches read new contents,
+ * so busy feeds are fetched more often and dormant ones less often. The adapted interval is always between
+ * the configured minimal and maximal interval.</p>
+ *
+ * <p>At startup the counts are read from the fetch history of the last days and then updated
+ * with every fetch. Failed fetches are counted in neither case. If there are too few fetches
+ * of a {@link ContentSource} the interval of the {@link ContentSource} is used.</p>
+ */
+class AdaptiveIntervals {
+
+	/**
+	 * <p>The {@link Logger} for this class.</p>
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(AdaptiveIntervals.class);
+
+	/**
+	 * Default minimal interval in seconds.
+	 */
+	private static final int DEFAULT_MIN_INTERVAL = 120;
+
+	/**
+	 * Default maximal interval in seconds.
+	 */
+	private static final int DEFAULT_MAX_INTERVAL = 2 * 60 * 60;
+
+	/**
+	 * Default amount of days of the fetch history which are read at startup.
+	 */
+	private static final int DEFAULT_HISTORY_DAYS = 14;
+
+	/**
+	 * Default amount of fetches which are needed before the interval is adapted.
+	 */
+	private static final int DEFAULT_MIN_SAMPLES = 6;
+
+	/**
+	 * Default percentage of fetches which should read new contents.
+	 */
+	private static final int DEFAULT_TARGET_YIELD = 50;
+
+	/**
+	 * Amount of fetches of an hour after which the counts of the hour are halved,
+	 * so recent fetches weigh more than old ones.
+	 */
+	private static final int MAX_SAMPLES = 1000;
+
+	/**
+	 * The estimated share of fetches which read new contents is kept between this value and 1 minus it,
+	 * because a share of 0 or 1 doesn't tell how much the interval has to change.
+	 */
+	private static final double MIN_YIELD_SHARE = 0.02;
+
+	/**
+	 * Milliseconds of a day.
+	 */
+	private static final long DAY = 24 * 60 * 60 * 1000L;
+
+	/**
+	 * Hours of a day.
+	 */
+	private static final int HOURS = 24;
+
+	/**
+	 * True if the intervals are adapted.
+	 */
+	private final boolean enabled;
+
+	/**
+	 * Minimal interval in seconds.
+	 */
+	private final int minInterval;
+
+	/**
+	 * Maximal interval in seconds.
+	 */
+	private final int maxInterval;
+
+	/**
+	 * Amount of days of the fetch history which are read at startup.
+	 */
+	private final int historyDays;
+
+	/**
+	 * Amount of fetches which are needed before the interval is adapted.
+	 */
+	private final int minSamples;
+
+	/**
+	 * <code>ln(1 - targetYield)</code>, see {@link #getInterval(ContentSource, long)}.
+	 */
+	private final double logTargetMiss;
+
+	/**
+	 * The counts of each {@link ContentSource} by id.
+	 */
+	private final ConcurrentMap<Integer, SourceCounts> counts = new ConcurrentHashMap<Integer, SourceCounts>();
+
+	/**
+	 * Reads the configuration from contentLoader.scheduler.adaptive.
+	 */
+	AdaptiveIntervals() {
+		this(Config.getDefault().getBooleanProperty("contentLoader.scheduler.adaptive.enabled", false),
+				Config.getDefault().getIntProperty("contentLoader.scheduler.adaptive.minInterval", DEFAULT_MIN_INTERVAL),
+				Config.getDefault().getIntProperty("contentLoader.scheduler.adaptive.maxInterval", DEFAULT_MAX_INTERVAL),
+				Config.getDefault().getIntProperty("contentLoader.scheduler.adaptive.historyDays", DEFAULT_HISTORY_DAYS),
+				Config.getDefault().getIntProperty("contentLoader.scheduler.adaptive.minSamples", DEFAULT_MIN_SAMPLES),
+				Config.getDefault().getIntProperty("contentLoader.scheduler.adaptive.targetYield", DEFAULT_TARGET_YIELD));
+	}
+
+	/**
+	 * Creates an instance with the given configuration.
+	 * @param enabled true if the intervals are adapted.
+	 * @param minInterval the minimal interval in seconds.
+	 * @param maxInterval the maximal interval in seconds.
+	 * @param historyDays the amount of days of the fetch history which are read at startup.
+	 * @param minSamples the amount of fetches which are needed before the interval is adapted.
+	 * @param targetYield the percentage of fetches which should read new contents.
+	 */
+	AdaptiveIntervals(final boolean enabled, final int minInterval, final int maxInterval, final int historyDays,
+			final int minSamples, final int targetYield) {
+		this.enabled = enabled;
+		this.minInterval = Math.max(1, minInterval);
+		this.maxInterval = Math.max(this.minInterval, maxInterval);
+		this.historyDays = Math.max(1, historyDays);
+		this.minSamples = Math.max(1, minSamples);
+		this.logTargetMiss = Math.log(1 - clampShare(targetYield / 100.0));
+	}
+
+	/**
+	 * @return true if the intervals are adapted.
+	 */
+	boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Reads the counts of the fetches of the last days from the database.
+	 * @param connection the {@link Connection} to use or <code>null</code>.
+	 */
+	void load(final Connection connection) {
+		if (!enabled) {
+			return;
+		}
+
+		final long now = System.currentTimeMillis();
+		final Timestamp since = new Timestamp(now - historyDays * DAY);
+
+		new FetchHistoryDao(connection).forEachFetchCount(since, (contentSourceId, hour, fetches, yields, firstFetch) -> {
+			// the hour was covered once a day since the first fetch in it
+			final long days = Math.min(historyDays, Math.max(1, (now - firstFetch.getTime() + DAY - 1) / DAY));
+			getCounts(contentSourceId).add(hour, fetches, yields, days * 60 * 60);
+		});
+
+		LOGGER.info("Loaded the fetch counts of {} content sources of the last {} days.", counts.size(), historyDays);
+	}
+
+	/**
+	 * Counts a fetch of the given {@link ContentSource}. Failed fetches aren't counted.
+	 * @param source the fetched {@link ContentSource}.
+	 * @param history the {@link FetchHistory} of the fetch with its result.
+	 * @param interval the interval in seconds which was used for the fetch.
+	 */
+	void record(final ContentSource source, final FetchHistory history, final int interval) {
+		if (!enabled || history.isFailed()) {
+			return;
+		}
+
+		final long fetchTime = history.getFetchTime().getTime();
+		getCounts(source.getId()).record(getHour(fetchTime), fetchTime, interval, maxInterval, history.getResult());
+	}
+
+	/**
+	 * Returns the interval until the next fetch of the given {@link ContentSource}.
+	 *
+	 * <p>If new contents appear with the rate <code>r</code>, a fetch after <code>t</code> seconds
+	 * reads new contents with the probability <code>1 - e^(-r * t)</code>. So <code>r</code> is
+	 * <code>-ln(1 - yieldShare) / averageGap</code> and the interval for the target yield is
+	 * <code>averageGap * ln(1 - targetYield) / ln(1 - yieldShare)</code>.</p>
+	 *
+	 * @param source the {@link ContentSource}.
+	 * @param at the time in milliseconds from which the interval starts.
+	 * @return the interval in seconds or the interval of the {@link ContentSource} if it has too few fetches.
+	 */
+	int getInterval(final ContentSource source, final long at) {
+		if (!enabled) {
+			return source.getInterval();
+		}
+
+		final SourceCounts sourceCounts = counts.get(source.getId());
+		final double[] hourCounts = sourceCounts == null ? null : sourceCounts.get(getHour(at), minSamples);
+		if (hourCounts == null) {
+			return source.getInterval();
+		}
+
+		final double averageGap = hourCounts[2] / hourCounts[0];
+		final double yieldShare = clampShare(hourCounts[1] / hourCounts[0]);
+		final double interval = averageGap * logTargetMiss / Math.log(1 - yieldShare);
+
+		return (int) Math.min(maxInterval, Math.max(minInterval, Math.round(interval)));
+	}
+
+	/**
+	 * Returns the counts of the given {@link ContentSource} and creates them if they don't exist.
+	 */
+	private SourceCounts getCounts(final int contentSourceId) {
+		SourceCounts sourceCounts = counts.get(contentSourceId);
+		if (sourceCounts == null) {
+			final SourceCounts newCounts = new SourceCounts();
+			sourceCounts = counts.putIfAbsent(contentSourceId, newCounts);
+
+			if (sourceCounts == null) {
+				sourceCounts = newCounts;
+			}
+		}
+
+		return sourceCounts;
+	}
+
+	/**
+	 * Returns the hour of the day of the given time in the default time zone.
+	 */
+	private static int getHour(final long time) {
+		final Calendar calendar = Calendar.getInstance();
+		calendar.setTimeInMillis(time);
+		return calendar.get(Calendar.HOUR_OF_DAY);
+	}
+
+	/**
+	 * Keeps the given share between {@link #MIN_YIELD_SHARE} and <code>1 - MIN_YIELD_SHARE</code>.
+	 */
+	private static double clampShare(final double share) {
+		return Math.min(1 - MIN_YIELD_SHARE, Math.max(MIN_YIELD_SHARE, share));
+	}
+
+	/**
+	 * The counts of the fetches of one {@link ContentSource} per hour of the day.
+	 */
+	private static class SourceCounts {
+
+		/**
+		 * Amount of fetches per hour.
+		 */
+		private final double[] fetches = new double[HOURS];
+
+		/**
+		 * Amount of fetches which read new contents per hour.
+		 */
+		private final double[] yields = new double[HOURS];
+
+		/**
+		 * Sum of the seconds between the fetches per hour.
+		 */
+		private final double[] gaps = new double[HOURS];
+
+		/**
+		 * Time in milliseconds of the last counted fetch or <code>0</code>.
+		 */
+		private long lastFetch;
+
+		/**
+		 * Adds counts to an hour.
+		 */
+		synchronized void add(final int hour, final double hourFetches, final double hourYields, final double hourGaps) {
+			fetches[hour] += hourFetches;
+			yields[hour] += hourYields;
+			gaps[hour] += hourGaps;
+
+			if (fetches[hour] > MAX_SAMPLES) {
+				fetches[hour] /= 2;
+				yields[hour] /= 2;
+				gaps[hour] /= 2;
+			}
+		}
+
+		/**
+		 * Counts one fetch. The gap to the last fetch is at most <code>maxGap</code> seconds,
+		 * so a downtime doesn't count as a long interval.
+		 */
+		synchronized void record(final int hour, final long fetchTime, final int interval, final int maxGap,
+				final boolean yielded) {
+			final double gap = lastFetch == 0 || fetchTime <= lastFetch ? interval : (fetchTime - lastFetch) / 1000.0;
+			lastFetch = fetchTime;
+			add(hour, 1, yielded ? 1 : 0, Math.max(1, Math.min(maxGap, gap)));
+		}
+
+		/**
+		 * Returns the fetches, yields and gaps of the given hour or of the whole day if the hour
+		 * has too few fetches.
+		 * @return the counts or <code>null</code> if there are too few fetches.
+		 */
+		synchronized double[] get(final int hour, final int minSamples) {
+			if (fetches[hour] >= minSamples) {
+				return new double[] { fetches[hour], yields[hour], gaps[hour] };
+			}
+
+			final double[] total = new double[3];
+			for (int i = 0; i < HOURS; i++) {
+				total[0] += fetches[i];
+				total[1] += yields[i];
+				total[2] += gaps[i];
+			}
+
+			return total[0] >= minSamples ? total : null;
+		}
+	}
+}
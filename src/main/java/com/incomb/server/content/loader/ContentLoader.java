@@ -1,8 +1,11 @@
 package com.incomb.server.content.loader;
 
+import java.sql.Timestamp;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.incomb.server.model.Content;
 import com.incomb.server.model.ContentSource;
 import com.incomb.server.model.FetchHistory;
 import com.incomb.server.utils.ObjectUtil;
@@ -37,15 +40,23 @@ public class ContentLoader implements Runnable {
 
 	/**
 	 * Reads the Content and joins the back the the {@link ContentLoaderManager}.
+	 * It joins back even if the read failed, so the {@link ContentSource} is scheduled again.
 	 */
 	@Override
 	public void run() {
+		final long start = System.currentTimeMillis();
+		final FetchHistory fetch = new FetchHistory(contentSource.getId(), new Timestamp(start), false);
+		Content[] contents = new Content[0];
+
 		try {
-			manager.joinThread(this, contentReader.read(lastFetch));
+			contents = contentReader.read(lastFetch, fetch);
 		}
 		catch(final Throwable t) {
 			LOGGER.error("An error occurred during reading new contents from content source {}.", contentSource.getId(), t);
+			fetch.setFailed(true);
 		}
+
+		manager.joinThread(this, fetch, System.currentTimeMillis() - start, contents);
 	}
 
 	/**
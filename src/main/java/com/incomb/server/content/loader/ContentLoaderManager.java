@@ -3,20 +3,37 @@ package com.incomb.server.content.loader;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.SortedSet;
-import java.util.TreeSet;
-import java.util.concurrent.BlockingQueue;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.commons.lang3.StringUtils;
+import org.jooq.exception.DataAccessException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.incomb.server.config.Config;
 import com.incomb.server.content.EContentSourceDaoType;
+import com.incomb.server.content.dedup.NewsDedupIndex;
+import com.incomb.server.content.images.ImageProber;
+import com.incomb.server.content.images.ImageSize;
+import com.incomb.server.content.parsing.rss.RssDateParser;
 import com.incomb.server.db.DBConnectionProvider;
 import com.incomb.server.model.Content;
 import com.incomb.server.model.ContentSource;
@@ -25,7 +42,9 @@ import com.incomb.server.model.News;
 import com.incomb.server.model.dao.FetchHistoryDao;
 import com.incomb.server.model.dao.IFinder;
 import com.incomb.server.model.dao.NewsDao;
-import com.incomb.server.utils.CloseUtil;
+import com.incomb.server.model.dao.NewsDao.PendingChanges;
+import com.incomb.server.pipeline.EOverflowPolicy;
+import com.incomb.server.pipeline.StageQueue;
 
 /**
  * This class is used for content loading. It runs as a single thread with a own thread pool.<br>
@@ -49,45 +68,107 @@ public class ContentLoaderManager extends Thread {
 	private static final Logger LOGGER = LoggerFactory.getLogger(ContentLoaderManager.class);
 
 	/**
-	 * Minimal count of threads running in the thread pool.
+	 * Default count of threads running in the thread pool.
 	 */
-	private static final int THREAD_COUNT_MIN = 2;
+	private static final int DEFAULT_THREAD_COUNT = 5;
 
 	/**
-	 * Maximal count of threads running in the thread pool.
+	 * Keep alive time of an thread in seconds.
 	 */
-	private static final int THREAD_COUNT_MAX = 5;
+	private static final int THREAD_KEEP_ALIVE = 3;
 
 	/**
-	 * Keep alive time of an thread in seconds.
+	 * Default time in milliseconds over which the {@link ContentSource}s which are due at startup are spread.
 	 */
-	private static final int THREAD_KEEP_ALIVE = 3;
+	private static final int DEFAULT_START_JITTER = 30000;
+
+	/**
+	 * Default maximal time in milliseconds between two reads of a failing {@link ContentSource}.
+	 */
+	private static final int DEFAULT_MAX_BACKOFF = 6 * 60 * 60 * 1000;
+
+	/**
+	 * Default maximal amount of {@link ContentSource}s of the same host which are read at the same time.
+	 */
+	private static final int DEFAULT_MAX_PER_HOST = 2;
+
+	/**
+	 * Time in milliseconds after which a {@link ContentSource} is tried again if its host is busy.
+	 */
+	private static final int HOST_RETRY_DELAY = 1000;
+
+	/**
+	 * Minimal time in milliseconds between two reads of a {@link ContentSource}.
+	 */
+	private static final int MIN_INTERVAL = 1000;
+
+	/**
+	 * Default maximal amount of {@link News} which are saved and committed together.
+	 */
+	private static final int DEFAULT_SAVE_BATCH_SIZE = 100;
+
+	/**
+	 * Default maximal amount of {@link Content}s which are waiting to be saved.
+	 */
+	private static final int DEFAULT_SAVE_CAPACITY = 5000;
 
 	/**
-	 * A {@link TreeSet} with every {@link ContentSource} which should be loaded, parsed and saved.
+	 * Every {@link ContentSource} which should be loaded, parsed and saved. The head is the next one to read.
 	 */
-	protected static final SortedSet<ContentSourceExecutionInfo> CONTENT_SOURCES = new TreeSet<ContentSourceExecutionInfo>();
+	protected static final DelayQueue<ContentSourceExecutionInfo> CONTENT_SOURCES = new DelayQueue<ContentSourceExecutionInfo>();
 
 	/**
 	 * Queue for the {@link ContentSavingThread}. Every Object which is ready to save into the database goes here.
+	 * If it's full the {@link ContentLoader}s wait, so they don't read more than can be saved.
+	 */
+	private static final StageQueue<Content> SAVE_QUEUE = new StageQueue<Content>("save", DEFAULT_SAVE_CAPACITY,
+			EOverflowPolicy.BLOCK, 0);
+
+	/**
+	 * This {@link ThreadPoolExecutor} executes our {@link ContentLoader}s. Its size is set by contentLoader.threads.
+	 */
+	private final ThreadPoolExecutor executor;
+
+	/**
+	 * The schedule state of each {@link ContentSource} by id.
+	 */
+	private final ConcurrentMap<Integer, SourceState> states = new ConcurrentHashMap<Integer, SourceState>();
+
+	/**
+	 * Amount of {@link ContentSource}s which are read right now by host. Guarded by itself.
+	 */
+	private final Map<String, Integer> runningPerHost = new HashMap<String, Integer>();
+
+	/**
+	 * Time in milliseconds over which the {@link ContentSource}s which are due at startup are spread.
 	 */
-	private static final List<Content> SAVE_QUEUE = new ArrayList<Content>();
+	private final int startJitter;
 
 	/**
-	 * In this queue goes every object which is ready getting loaded by a {@link ContentLoader} thread.
+	 * Maximal time in milliseconds between two reads of a failing {@link ContentSource}.
 	 */
-	private static final BlockingQueue<Runnable> LOAD_QUEUE = new LinkedBlockingQueue<Runnable>();
+	private final int maxBackoff;
 
 	/**
-	 * This {@link ThreadPoolExecutor} executes our ContentLoader. It will use the <code>LOAD_QUEUE</code> for starting new tasks.
+	 * Maximal amount of {@link ContentSource}s of the same host which are read at the same time.
 	 */
-	private static final ThreadPoolExecutor EXECUTOR   = new ThreadPoolExecutor(THREAD_COUNT_MIN, THREAD_COUNT_MAX, THREAD_KEEP_ALIVE, TimeUnit.SECONDS, LOAD_QUEUE);
+	private final int maxPerHost;
+
+	/**
+	 * Calculates the intervals of the {@link ContentSource}s from their fetch history if enabled.
+	 */
+	private final AdaptiveIntervals adaptiveIntervals;
 
     /**
      * Thread which is saving all content-objects into the database.
      */
 	private final ContentSavingThread SAVING_THREAD = new ContentSavingThread(this);
 
+	/**
+	 * Saves the {@link FetchHistory}s of the {@link ContentLoader}s in the background.
+	 */
+	private final FetchHistoryWriter historyWriter = new FetchHistoryWriter();
+
 	/**
 	 * Used for shutting down this and all its threads.
 	 */
@@ -98,6 +179,17 @@ public class ContentLoaderManager extends Thread {
 	 */
 	protected ContentLoaderManager() {
 		setName("ContentLoaderManager");
+
+		final Config config = Config.getDefault();
+		final int threads = Math.max(1, config.getIntProperty("contentLoader.threads", DEFAULT_THREAD_COUNT));
+		startJitter = config.getIntProperty("contentLoader.scheduler.startJitter", DEFAULT_START_JITTER);
+		maxBackoff = config.getIntProperty("contentLoader.scheduler.maxBackoff", DEFAULT_MAX_BACKOFF);
+		maxPerHost = Math.max(1, config.getIntProperty("contentLoader.scheduler.maxPerHost", DEFAULT_MAX_PER_HOST));
+		adaptiveIntervals = new AdaptiveIntervals();
+
+		executor = new ThreadPoolExecutor(threads, threads, THREAD_KEEP_ALIVE, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>());
+		executor.allowCoreThreadTimeOut(true);
 	}
 
 	/**
@@ -120,20 +212,26 @@ public class ContentLoaderManager extends Thread {
 
 	/**
 	 * This method loads all {@link ContentSource}s from the database into the
-	 * <code>CONTENT_SOURCES</code> {@link ArrayList}. The {@link ArrayList}
-	 * will be sorted according the fetch time of each {@link ContentSource}
-	 * object.
+	 * <code>CONTENT_SOURCES</code> queue. The queue is ordered by the next fetch
+	 * time of each {@link ContentSource} object. The latest fetches of all {@link ContentSource}s
+	 * are read with one query before. If the intervals are adapted, the fetch history of the last
+	 * days is read too.
 	 */
 	public void loadContentSources() {
 		final Connection connection = DBConnectionProvider.getInstance().acquire();
 
 		try {
+			new FetchHistoryDao(connection).preloadLastFetches();
+			adaptiveIntervals.load(connection);
+
 			final EContentSourceDaoType[] availableTypes = EContentSourceDaoType.values();
 			for (final EContentSourceDaoType type : availableTypes) {
 				final IFinder<? extends ContentSource> c = EContentSourceDaoType.getDaoAsInstance(connection, type);
 
 				for (final ContentSource o : c.findAll()) {
-					CONTENT_SOURCES.add(new ContentSourceExecutionInfo(o, o.getLastFetch(connection)));
+					final FetchHistory lastFetch = o.getLastFetch(connection);
+					final int interval = adaptiveIntervals.getInterval(o, System.currentTimeMillis());
+					schedule(o, lastFetch, getFirstRunAt(lastFetch, interval), interval);
 				}
 			}
 		} finally {
@@ -144,31 +242,166 @@ public class ContentLoaderManager extends Thread {
 	/**
 	 * Adds a new ContentSource to the queue.
 	 * @param source {@link ContentSource}
-	 * @return <code>true</code> if this set did not already contain the specified element
+	 * @return <code>true</code> if the queue did not already contain the specified element
 	 */
 	public boolean addContentSource(final ContentSource source) {
-		return CONTENT_SOURCES.add(new ContentSourceExecutionInfo(source, source.getLastFetch(null)));
+		final FetchHistory lastFetch = source.getLastFetch(null);
+		final int interval = adaptiveIntervals.getInterval(source, System.currentTimeMillis());
+		return schedule(source, lastFetch, getFirstRunAt(lastFetch, interval), interval);
 	}
 
 	/**
 	 * Removes the given contentSource from the queue.
 	 * @param contentSource {@link ContentSource}
-	 * @return <code>true</code> if this set contained the specified element
+	 * @return <code>true</code> if the queue contained the specified element
 	 */
 	public boolean removeContentSource(final ContentSource contentSource){
-		for (final ContentSourceExecutionInfo info : CONTENT_SOURCES) {
-			if (info.getContentSource() == contentSource) {
-				return CONTENT_SOURCES.remove(info);
+		synchronized (CONTENT_SOURCES) {
+			for (final ContentSourceExecutionInfo info : CONTENT_SOURCES) {
+				if (info.getContentSource() == contentSource) {
+					states.remove(contentSource.getId());
+					FetchHistoryDao.forgetLastFetch(contentSource.getId());
+					RssDateParser.forget(contentSource.getId());
+					return CONTENT_SOURCES.remove(info);
+				}
 			}
 		}
 		return false;
 	}
 
 	/**
-	 * This methods starts the content saving thread and also pre starts the core threads of the internal {@link ThreadPoolExecutor}.
-	 * If this thread isn't interrupted or the {@link ContentLoaderManager} isnin't shutting down, the
-	 * thread will wait till a {@link ContentSource} can be added to the <code>LOAD_QUEUE</code>. It the
-	 * item gets added, it gets removed from the <code>CONTENT_SOURCES</code> list.
+	 * Returns a snapshot of the schedules of all {@link ContentSource}s.
+	 * @return the {@link ContentSourceSchedule}s
+	 */
+	public List<ContentSourceSchedule> getSchedules() {
+		final List<ContentSourceSchedule> schedules = new ArrayList<ContentSourceSchedule>();
+		for (final Entry<Integer, SourceState> entry : states.entrySet()) {
+			schedules.add(entry.getValue().toSchedule(entry.getKey()));
+		}
+		return schedules;
+	}
+
+	/**
+	 * Adds the given {@link ContentSource} to the queue if it isn't in it.
+	 * @param source the {@link ContentSource} to read.
+	 * @param lastFetch the last fetch of the {@link ContentSource} or <code>null</code>.
+	 * @param runAt the time in milliseconds when the {@link ContentSource} should be read.
+	 * @param interval the interval in seconds which was used to calculate <code>runAt</code>.
+	 * @return <code>true</code> if the queue did not already contain the {@link ContentSource}
+	 */
+	private boolean schedule(final ContentSource source, final FetchHistory lastFetch, final long runAt,
+			final int interval) {
+		synchronized (CONTENT_SOURCES) {
+			for (final ContentSourceExecutionInfo info : CONTENT_SOURCES) {
+				if (info.getContentSource() == source) {
+					return false;
+				}
+			}
+
+			getState(source).scheduled(runAt, interval);
+			return CONTENT_SOURCES.add(new ContentSourceExecutionInfo(source, lastFetch, runAt));
+		}
+	}
+
+	/**
+	 * Returns the time when the {@link ContentSource} should be read the first time after startup.
+	 * {@link ContentSource}s which are due are spread randomly over the start jitter, so they
+	 * aren't all read at once after a restart.
+	 */
+	private long getFirstRunAt(final FetchHistory lastFetch, final int interval) {
+		final long now = System.currentTimeMillis();
+		final long dueAt = lastFetch == null ? now : lastFetch.getFetchTime().getTime() + interval * 1000L;
+
+		if (dueAt > now) {
+			return dueAt;
+		}
+
+		return now + (startJitter > 0 ? ThreadLocalRandom.current().nextInt(startJitter) : 0);
+	}
+
+	/**
+	 * Returns the time in milliseconds until the next read of a {@link ContentSource}.
+	 * The interval in seconds is doubled for each failed read in a row up to the maximal backoff.
+	 */
+	private long getNextDelay(final int intervalSeconds, final int consecutiveFailures) {
+		final long interval = Math.max(MIN_INTERVAL, intervalSeconds * 1000L);
+		if (consecutiveFailures == 0) {
+			return interval;
+		}
+
+		final long backoff = interval << Math.min(consecutiveFailures, 20);
+		return Math.min(backoff, Math.max(interval, maxBackoff));
+	}
+
+	/**
+	 * Returns the {@link SourceState} of the given {@link ContentSource} and creates it if it doesn't exist.
+	 */
+	private SourceState getState(final ContentSource source) {
+		SourceState state = states.get(source.getId());
+		if (state == null) {
+			final SourceState newState = new SourceState(getHost(source));
+			state = states.putIfAbsent(source.getId(), newState);
+
+			if (state == null) {
+				state = newState;
+			}
+		}
+
+		return state;
+	}
+
+	/**
+	 * Returns the lower cased host of the url of the given {@link ContentSource} or the url if it has no host.
+	 */
+	private static String getHost(final ContentSource source) {
+		final String url = StringUtils.defaultString(source.getUrl());
+		try {
+			final String host = new URI(url).getHost();
+			if (host != null) {
+				return host.toLowerCase(Locale.ROOT);
+			}
+		} catch (final URISyntaxException e) { /* use the url */ }
+
+		return url;
+	}
+
+	/**
+	 * Counts a read of the given host if the maximal amount of reads of the host isn't reached.
+	 * @return <code>true</code> if the read may start.
+	 */
+	private boolean acquireHost(final String host) {
+		synchronized (runningPerHost) {
+			final Integer running = runningPerHost.get(host);
+			if (running != null && running >= maxPerHost) {
+				return false;
+			}
+
+			runningPerHost.put(host, running == null ? 1 : running + 1);
+			return true;
+		}
+	}
+
+	/**
+	 * Counts a finished read of the given host.
+	 */
+	private void releaseHost(final String host) {
+		synchronized (runningPerHost) {
+			final Integer running = runningPerHost.get(host);
+			if (running == null || running <= 1) {
+				runningPerHost.remove(host);
+			}
+			else {
+				runningPerHost.put(host, running - 1);
+			}
+		}
+	}
+
+	/**
+	 * This methods starts the content saving thread.
+	 * If this thread isn't interrupted or the {@link ContentLoaderManager} isn't shutting down, the
+	 * thread waits till the next {@link ContentSource} of the <code>CONTENT_SOURCES</code> queue is due
+	 * and submits a {@link ContentLoader} for it to the {@link ThreadPoolExecutor}. If already
+	 * contentLoader.scheduler.maxPerHost {@link ContentSource}s of its host are read, it's tried again later.
 	 */
 	@Override
 	public void run() {
@@ -176,35 +409,54 @@ public class ContentLoaderManager extends Thread {
 
 		shuttingDown = false;
 		SAVING_THREAD.start();
-		EXECUTOR.prestartCoreThread();
+		historyWriter.start();
 
 		while (!isInterrupted() && !shuttingDown) {
+			final ContentSourceExecutionInfo loadObject;
+			try {
+				loadObject = CONTENT_SOURCES.take();
+			} catch (final InterruptedException e) {
+				break; // shutting down
+			}
 
-			if (!CONTENT_SOURCES.isEmpty()) {
-				final ContentSourceExecutionInfo loadObject = CONTENT_SOURCES.first();
+			final ContentSource source = loadObject.getContentSource();
+			final String host = getHost(source);
 
-				final long waitTime = loadObject.getExecuteAt()-System.currentTimeMillis();
+			if (!acquireHost(host)) {
+				// too many reads of this host are running, try again later.
+				CONTENT_SOURCES.add(new ContentSourceExecutionInfo(source, loadObject.getLastFetch(),
+						System.currentTimeMillis() + HOST_RETRY_DELAY));
+				continue;
+			}
 
-				if (waitTime > 0) {
-					try {
-						sleep(waitTime); /*If thread a other content-source cold be added with a smaller waiting time*/
-					} catch (final InterruptedException e) { /* no one cares */ }
-				}
+			try {
+				final ContentLoader loader = new ContentLoader(this, source, loadObject.getLastFetch());
+				getState(source).started();
+				executor.execute(loader);
 
-				CONTENT_SOURCES.remove(loadObject);
-				LOAD_QUEUE.add(new ContentLoader(this, loadObject.getContentSource(), loadObject.lastFetch));
+			} catch (final RejectedExecutionException e) {
+				releaseHost(host);
+				LOGGER.debug("Content source {} wasn't read because the loader is shutting down.", source.getId());
+
+			} catch (final RuntimeException e) {
+				releaseHost(host);
+				LOGGER.error("Can't read content source {}, it's removed from the queue.", source.getId(), e);
 			}
 		}
 	}
 
 	/**
-	 * This method shuts down the thread and the {@link ThreadPoolExecutor}.
+	 * This method shuts down the thread, the {@link ThreadPoolExecutor}, the {@link FeedHttpClient}
+	 * and the {@link ImageProber}.
 	 */
 	public void shutdown() {
-		EXECUTOR.shutdown();
+		shuttingDown = true;
+		executor.shutdownNow(); // interrupts the loaders which are waiting for the save queue
+		FeedHttpClient.shutdown();
+		ImageProber.shutdown();
 		SAVING_THREAD.interrupt();
+		historyWriter.interrupt();
 		interrupt();
-		shuttingDown = true;
 	}
 
 	/**
@@ -226,44 +478,52 @@ public class ContentLoaderManager extends Thread {
 	public boolean isShuttingDown() { return shuttingDown; }
 
 	/**
-	 * Adds the <code>readContent</code> to the <code>SAVE_QUEUE</code> and creates and saves a new {@link FetchHistory}.
+	 * Adds the <code>readContent</code> to the <code>SAVE_QUEUE</code>, queues the {@link FetchHistory}
+	 * for saving and schedules the next read of the {@link ContentSource}.
 	 *
 	 * @param contentLoader {@link ContentLoader} which read the content.
+	 * @param history the {@link FetchHistory} of the fetch. The result will be set.
+	 * @param duration the time in milliseconds the read took.
 	 * @param readContent Content read.
 	 */
-	protected void joinThread(final ContentLoader contentLoader, final Content... readContent) {
-		synchronized (SAVE_QUEUE) {
-			SAVE_QUEUE.addAll(Arrays.asList(readContent));
-		}
-
-		synchronized (SAVING_THREAD) {
-			if(SAVING_THREAD.getState().equals(State.WAITING)) {
-				SAVING_THREAD.notify();
-			}
+	protected void joinThread(final ContentLoader contentLoader, final FetchHistory history, final long duration,
+			final Content... readContent) {
+		for (final Content content : readContent) {
+			SAVE_QUEUE.put(content);
 		}
 
 		LOGGER.debug("Read {} contents from content source {}.", readContent.length, contentLoader.getContentSource().getId());
 
-		final Connection con = DBConnectionProvider.getInstance().acquire();
+		history.setResult(readContent.length > 0);
+		historyWriter.add(history);
 
-		FetchHistory history = null;
-		try {
-			history = new FetchHistory(contentLoader.getContentSource().getId(), new Timestamp(System.currentTimeMillis()), readContent.length > 0 ? true : false);
-			new FetchHistoryDao(con).addFetchHistory(history);
+		scheduleNext(contentLoader.getContentSource(), history, duration);
+	}
 
-			// fetch ContentSource again from the database because config may has chaged.
-			//final ContentSourceDao dao = new ContentSourceDao(con);
-			//addContentSource(dao.findContentSourceById(contentLoader.getContentSource().getId()));
-			addContentSource(contentLoader.getContentSource());
-			con.commit();
+	/**
+	 * Schedules the next read of the given {@link ContentSource} after its interval,
+	 * which is adapted to its fetch history if enabled.
+	 * If the read failed, the interval is doubled for each failed read in a row.
+	 * @param source the read {@link ContentSource}.
+	 * @param history the {@link FetchHistory} of the read.
+	 * @param duration the time in milliseconds the read took.
+	 */
+	private void scheduleNext(final ContentSource source, final FetchHistory history, final long duration) {
+		releaseHost(getHost(source));
 
-		} catch (final SQLException e) {
-			LOGGER.error("SQLException occurred while saving FetchHistory and fetching ContentSource {}",
-					history != null ? history.toString() : "history is null", e);
+		final SourceState state = getState(source);
+		adaptiveIntervals.record(source, history, state.getInterval());
 
-		} finally {
-			DBConnectionProvider.getInstance().release(con);
+		final int interval = adaptiveIntervals.getInterval(source, System.currentTimeMillis());
+		final int consecutiveFailures = state.finished(history.getFetchTime().getTime(), duration, history.isFailed());
+		final long delay = getNextDelay(interval, consecutiveFailures);
+
+		if (consecutiveFailures > 0) {
+			LOGGER.info("Reading content source {} failed {} times in a row, next try in {} s.",
+					source.getId(), consecutiveFailures, delay / 1000);
 		}
+
+		schedule(source, history, System.currentTimeMillis() + delay, interval);
 	}
 
 	/**
@@ -273,6 +533,12 @@ public class ContentLoaderManager extends Thread {
 		private final List<Content> list = new ArrayList<Content>();
 		ContentLoaderManager manager;
 
+		/**
+		 * Maximal amount of {@link News} which are saved and committed together.
+		 */
+		private final int batchSize = Math.max(1, Config.getDefault().getIntProperty("contentLoader.saveBatchSize",
+				DEFAULT_SAVE_BATCH_SIZE));
+
 		/**
 		 * Creates a new {@link ContentSavingThread} and sets its name to <b>ContentSavingThread</b>.
 		 * @param manager
@@ -284,7 +550,7 @@ public class ContentLoaderManager extends Thread {
 
 		/**
 		 * Saves all {@link Content} objects into the database while the server isn't shutting down.
-		 * An object which will be saved gets removed from the <code>SAVE_QUEUE</code> list.
+		 * It waits for the next object in the <code>SAVE_QUEUE</code> and saves it together with all other waiting ones.
 		 */
 		@Override
 		public void run() {
@@ -292,108 +558,350 @@ public class ContentLoaderManager extends Thread {
 
 			while (!manager.isShuttingDown()) {
 				try {
-					boolean wait = false;
-					synchronized (SAVE_QUEUE) {
-						list.addAll(SAVE_QUEUE);
-						SAVE_QUEUE.clear();
-
-						wait = list.isEmpty();
+					try {
+						list.add(SAVE_QUEUE.take());
+					} catch (final InterruptedException e) {
+						break; // exit
 					}
 
+					SAVE_QUEUE.drainTo(list, Integer.MAX_VALUE);
+
 					if(list.size() > 50) {
 						LOGGER.warn("Now starting to save {} contents.", list.size());
 					}
 
-					if(wait) {
-						synchronized (this) {
-							try {
-								wait();
-								continue; // take new news.
-							} catch (final InterruptedException e) {
-								break; // exit
+					final Connection con = DBConnectionProvider.getInstance().acquire();
+					try {
+						final NewsDao dao = new NewsDao(con);
+
+						for (int i = 0; i < list.size(); i += batchSize) {
+							final List<News> batch = new ArrayList<News>();
+							for (final Content e : list.subList(i, Math.min(i + batchSize, list.size()))) {
+								batch.add((News) e);
 							}
-						}
-					}
 
-					final Connection con = DBConnectionProvider.getInstance().acquire();
-					final NewsDao dao = new NewsDao(con);
-
-					for (final Content e : list) {
-						try {
-							dao.saveNews((News) e);
-							con.commit();
-						} catch (final SQLException e1) {
-							LOGGER.error("Failed commiting news obj: {}", e, e1);
+							saveBatch(con, dao, batch);
+
+							for (final News news : batch) {
+								probeImageSize(news);
+							}
 						}
-					}
 
-					list.clear();
-					CloseUtil.close(con);
+						list.clear();
+					} finally {
+						DBConnectionProvider.getInstance().release(con);
+					}
 				}
 				catch(final Throwable t) {
 					LOGGER.error("An error occurred during saving contents.", t);
 				}
 			}
 		}
+
+		/**
+		 * Saves the given {@link News} and commits them at once. If the batch fails it's rolled back
+		 * and its {@link News} are saved one by one, so a single broken {@link News} doesn't discard the others.
+		 * The {@link News} are restored to their state before the failed batch and the index and the
+		 * {@link NewsDedupIndex} are only changed after the commit.
+		 * @param con the {@link Connection} of the dao.
+		 * @param dao the {@link NewsDao} to save the news with.
+		 * @param batch the {@link News} to save.
+		 */
+		private void saveBatch(final Connection con, final NewsDao dao, final List<News> batch) {
+			final List<NewsState> states = new ArrayList<>();
+			for (final News news : batch) {
+				states.add(new NewsState(news));
+			}
+
+			final PendingChanges changes;
+			try {
+				changes = dao.saveNews(batch);
+				con.commit();
+			} catch (final SQLException | DataAccessException e) {
+				rollback(con);
+
+				for (final NewsState state : states) {
+					state.restore();
+				}
+
+				if(batch.size() == 1) {
+					LOGGER.error("Failed commiting news obj: {}", batch.get(0), e);
+					return;
+				}
+
+				LOGGER.warn("Failed commiting {} news together, saving them one by one.", batch.size(), e);
+				for (final News news : batch) {
+					saveBatch(con, dao, Collections.singletonList(news));
+				}
+				return;
+			}
+
+			changes.apply();
+			for (final News news : batch) {
+				NewsDedupIndex.getInstance().remember(news);
+			}
+		}
+
+		/**
+		 * Rolls back the uncommitted changes of the given {@link Connection}.
+		 */
+		private void rollback(final Connection con) {
+			try {
+				con.rollback();
+			} catch (final SQLException e) {
+				LOGGER.error("Can't roll back the news.", e);
+			}
+		}
+	}
+
+	/**
+	 * The fields of a {@link News} which are changed by {@link NewsDao#saveNews(List)}.
+	 * They are restored if the transaction was rolled back, so the {@link News} can be saved again
+	 * without the ids of the rolled back records or the publish date which was set while saving.
+	 */
+	private static class NewsState {
+
+		/**
+		 * The {@link News} whose state this is.
+		 */
+		private final News news;
+
+		/**
+		 * The id before saving.
+		 */
+		private final long id;
+
+		/**
+		 * The publish date before saving, null if it should be set while saving.
+		 */
+		private final Timestamp publishDate;
+
+		/**
+		 * The news group id before saving.
+		 */
+		private final long newsGroupId;
+
+		/**
+		 * The image width before saving.
+		 */
+		private final int imageWidth;
+
+		/**
+		 * The image height before saving.
+		 */
+		private final int imageHeight;
+
+		/**
+		 * Remembers the current state of the given {@link News}.
+		 * @param news the {@link News} which will be saved.
+		 */
+		private NewsState(final News news) {
+			this.news = news;
+			this.id = news.getId();
+			this.publishDate = news.getPublishDate();
+			this.newsGroupId = news.getNewsGroupId();
+			this.imageWidth = news.getImageWidth();
+			this.imageHeight = news.getImageHeight();
+		}
+
+		/**
+		 * Sets the remembered state on the {@link News} again.
+		 */
+		private void restore() {
+			news.setId(id);
+			news.setPublishDate(publishDate);
+			news.setNewsGroupId(newsGroupId);
+			news.setImageWidth(imageWidth);
+			news.setImageHeight(imageHeight);
+		}
 	}
 
 
 	/**
-	 * This tiny class is used for saving content-source and it's last fetch-history.
-	 *
+	 * Probes the size of the image of the saved {@link News} in the background if it's not known yet.
+	 * The {@link News} is updated when the size was found.
+	 * @param news the saved {@link News}.
+	 */
+	private static void probeImageSize(final News news) {
+		if (news.getId() == 0 || StringUtils.isBlank(news.getImageUrl())
+				|| news.getImageWidth() > 0 || news.getImageHeight() > 0) {
+			return;
+		}
+
+		ImageProber.getInstance().probe(news.getImageUrl(), size -> saveImageSize(news, size));
+	}
+
+	/**
+	 * Saves the probed size of the image of the given {@link News}.
+	 * @param news the saved {@link News}.
+	 * @param size the {@link ImageSize} of its image.
 	 */
-	protected static class ContentSourceExecutionInfo implements Comparable<ContentSourceExecutionInfo> {
+	private static void saveImageSize(final News news, final ImageSize size) {
+		if (!size.isKnown()) {
+			return;
+		}
+
+		final Connection con = DBConnectionProvider.getInstance().acquire();
+		try {
+			final PendingChanges changes = new NewsDao(con).setImageSize(news, size.getWidth(), size.getHeight());
+			con.commit();
+			changes.apply();
+			NewsDedupIndex.getInstance().remember(news);
+
+		} catch (final SQLException e) {
+			LOGGER.error("Can't save image size of news {}.", news.getId(), e);
+
+		} finally {
+			DBConnectionProvider.getInstance().release(con);
+		}
+	}
+
+	/**
+	 * The schedule state of one {@link ContentSource}.
+	 */
+	private static class SourceState {
+
+		/**
+		 * The host of the url of the {@link ContentSource}.
+		 */
+		private final String host;
+
+		/**
+		 * Time in milliseconds of the next read or <code>0</code> if it's read right now.
+		 */
+		private long nextRunAt;
+
+		/**
+		 * The interval in seconds which was used to schedule the read.
+		 */
+		private int interval;
+
+		/**
+		 * Time in milliseconds of the last read.
+		 */
+		private long lastRunAt;
+
+		/**
+		 * Duration in milliseconds of the last read.
+		 */
+		private long lastDuration;
+
+		/**
+		 * Amount of failed reads in a row.
+		 */
+		private int consecutiveFailures;
+
+		/**
+		 * Creates a new instance.
+		 */
+		private SourceState(final String host) {
+			this.host = host;
+		}
+
+		/**
+		 * Sets the time of the next read and the interval which was used to calculate it.
+		 */
+		synchronized void scheduled(final long runAt, final int interval) {
+			this.nextRunAt = runAt;
+			this.interval = interval;
+		}
+
+		/**
+		 * Returns the interval in seconds which was used to schedule the read.
+		 */
+		synchronized int getInterval() {
+			return interval;
+		}
+
+		/**
+		 * Marks the {@link ContentSource} as being read.
+		 */
+		synchronized void started() {
+			nextRunAt = 0;
+		}
+
+		/**
+		 * Records a finished read.
+		 * @return the amount of failed reads in a row.
+		 */
+		synchronized int finished(final long runAt, final long duration, final boolean failed) {
+			lastRunAt = runAt;
+			lastDuration = duration;
+			consecutiveFailures = failed ? consecutiveFailures + 1 : 0;
+			return consecutiveFailures;
+		}
+
+		/**
+		 * Returns a snapshot of the state.
+		 */
+		synchronized ContentSourceSchedule toSchedule(final int contentSourceId) {
+			return new ContentSourceSchedule(contentSourceId, host, interval, nextRunAt, lastRunAt, lastDuration, consecutiveFailures);
+		}
+	}
+
+	/**
+	 * This tiny class is used for saving content-source, it's last fetch-history and the time of its next read.
+	 * The {@link ContentSource}s are ordered by this time and then by the order in which they were scheduled.
+	 */
+	protected static class ContentSourceExecutionInfo implements Delayed {
+
+		/**
+		 * Counts the scheduled {@link ContentSource}s to order the ones with the same time.
+		 */
+		private static final AtomicLong SEQUENCE = new AtomicLong();
 
 		private final ContentSource contentSource;
 		private final FetchHistory  lastFetch;
 		private final long          executeAt;
+		private final long          sequence;
 
 		/**
 		 * Creates a new {@link ContentSourceExecutionInfo}
 		 * @param contentSource {@link ContentSource}
 		 * @param lastFetch {@link FetchHistory} - Latest fetch from the ContentSource.
+		 * @param executeAt the time in milliseconds when the {@link ContentSource} should be read.
 		 */
-		public ContentSourceExecutionInfo(final ContentSource contentSource, final FetchHistory lastFetch) {
+		public ContentSourceExecutionInfo(final ContentSource contentSource, final FetchHistory lastFetch, final long executeAt) {
 			this.contentSource = contentSource;
 			this.lastFetch = lastFetch;
-
-			if (lastFetch != null) {
-				executeAt = lastFetch.getFetchTime().getTime() + contentSource.getInterval() * 1000;
-
-			} else {
-				executeAt = System.currentTimeMillis();
-			}
+			this.executeAt = executeAt;
+			this.sequence = SEQUENCE.incrementAndGet();
 		}
 
 		public ContentSource getContentSource() { return contentSource; }
 
 		/**
-		 * Returns the remaining time till the {@link ContentSource} should be loaded.
-		 * @return Long remaining time.
+		 * Returns the latest fetch of the {@link ContentSource}.
+		 * @return the {@link FetchHistory} or <code>null</code> if it wasn't fetched yet.
+		 */
+		public FetchHistory getLastFetch() { return lastFetch; }
+
+		/**
+		 * Returns the time when the {@link ContentSource} should be loaded.
+		 * @return time in milliseconds.
 		 */
 		public long getExecuteAt() { return executeAt; }
 
+		/**
+		 * @see java.util.concurrent.Delayed#getDelay(java.util.concurrent.TimeUnit)
+		 */
+		@Override
+		public long getDelay(final TimeUnit unit) {
+			return unit.convert(executeAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+		}
+
 		/**
 		 * @see java.lang.Comparable#compareTo(java.lang.Object)
 		 */
 		@Override
-		public int compareTo(final ContentSourceExecutionInfo other) {
-			if (lastFetch == null && other.lastFetch != null) {
-				return -1;
-			}
-			if (other.lastFetch == null && lastFetch != null) {
-				return  1;
+		public int compareTo(final Delayed other) {
+			if (other instanceof ContentSourceExecutionInfo) {
+				final ContentSourceExecutionInfo otherInfo = (ContentSourceExecutionInfo) other;
+				final int result = Long.compare(executeAt, otherInfo.executeAt);
+				return result != 0 ? result : Long.compare(sequence, otherInfo.sequence);
 			}
 
-			if (getExecuteAt() - other.getExecuteAt() < 0) {
-				return -1;
-			}
-			if (getExecuteAt() - other.getExecuteAt() == 0) {
-				if (getContentSource().getInterval() - other.getContentSource().getInterval() <= 0) {
-					return 0;
-				}
-			}
-			return 1;
+			return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
 		}
 	}
 
@@ -0,0 +1,120 @@
+package com.incomb.server.content.loader;
+
+import com.incomb.server.model.ContentSource;
+
+/**
+ * A snapshot of the schedule of one {@link ContentSource}.
+ * @see ContentLoaderManager#getSchedules()
+ */
+public class ContentSourceSchedule {
+
+	/**
+	 * The id of the {@link ContentSource}.
+	 */
+	private final int contentSourceId;
+
+	/**
+	 * The host of the url of the {@link ContentSource}.
+	 */
+	private final String host;
+
+	/**
+	 * The interval in seconds which was used to schedule the next read.
+	 */
+	private final int interval;
+
+	/**
+	 * Time in milliseconds when the {@link ContentSource} will be read next or <code>0</code> if it's read right now.
+	 */
+	private final long nextRunAt;
+
+	/**
+	 * Time in milliseconds when the {@link ContentSource} was read last or <code>0</code> if it wasn't read since startup.
+	 */
+	private final long lastRunAt;
+
+	/**
+	 * Duration in milliseconds of the last read.
+	 */
+	private final long lastDuration;
+
+	/**
+	 * Amount of failed reads in a row.
+	 */
+	private final int consecutiveFailures;
+
+	/**
+	 * Creates a new instance with all properties.
+	 */
+	ContentSourceSchedule(final int contentSourceId, final String host, final int interval, final long nextRunAt,
+			final long lastRunAt, final long lastDuration, final int consecutiveFailures) {
+		this.contentSourceId = contentSourceId;
+		this.host = host;
+		this.interval = interval;
+		this.nextRunAt = nextRunAt;
+		this.lastRunAt = lastRunAt;
+		this.lastDuration = lastDuration;
+		this.consecutiveFailures = consecutiveFailures;
+	}
+
+	/**
+	 * @return the id of the {@link ContentSource}.
+	 */
+	public int getContentSourceId() {
+		return contentSourceId;
+	}
+
+	/**
+	 * @return the host of the url of the {@link ContentSource}.
+	 */
+	public String getHost() {
+		return host;
+	}
+
+	/**
+	 * @return the interval in seconds which was used to schedule the next read.
+	 * 			It's adapted to the fetch history if contentLoader.scheduler.adaptive.enabled is set.
+	 */
+	public int getInterval() {
+		return interval;
+	}
+
+	/**
+	 * @return the time in milliseconds when the {@link ContentSource} will be read next
+	 * 			or <code>0</code> if it's read right now.
+	 */
+	public long getNextRunAt() {
+		return nextRunAt;
+	}
+
+	/**
+	 * @return the time in milliseconds when the {@link ContentSource} was read last
+	 * 			or <code>0</code> if it wasn't read since startup.
+	 */
+	public long getLastRunAt() {
+		return lastRunAt;
+	}
+
+	/**
+	 * @return the duration in milliseconds of the last read.
+	 */
+	public long getLastDuration() {
+		return lastDuration;
+	}
+
+	/**
+	 * @return the amount of failed reads in a row.
+	 */
+	public int getConsecutiveFailures() {
+		return consecutiveFailures;
+	}
+
+	/**
+	 * Returns the schedule in a human readable format.
+	 */
+	@Override
+	public String toString() {
+		return String.format("Content source %d (%s): interval %d s, next run at %d, last run at %d took %d ms, %d failures in a row.",
+				contentSourceId, host, interval, nextRunAt, lastRunAt, lastDuration, consecutiveFailures);
+	}
+}
@@ -0,0 +1,288 @@
+package com.incomb.server.content.loader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.incomb.server.config.Config;
+import com.incomb.server.model.ContentSource;
+import com.incomb.server.model.FetchHistory;
+import com.incomb.server.utils.CloseUtil;
+
+/**
+ * The http client which is shared by all {@link IContentReader}s.
+ *
+ * <p>The connections are pooled and limited per host (contentLoader.http.maxConnectionsPerHost), so
+ * loader threads reuse open connections and a single slow host can't take all of them.
+ * Requests are sent conditionally with the ETag and Last-Modified of the last {@link FetchHistory}
+ * and accept gzip and deflate compressed responses.</p>
+ */
+public class FeedHttpClient implements Closeable {
+
+	/**
+	 * <p>The {@link Logger} for this class.</p>
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(FeedHttpClient.class);
+
+	/**
+	 * Default maximal amount of open connections.
+	 */
+	private static final int DEFAULT_MAX_CONNECTIONS = 20;
+
+	/**
+	 * Default maximal amount of open connections to the same host.
+	 */
+	private static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 2;
+
+	/**
+	 * Default timeout in milliseconds to connect to a host.
+	 */
+	private static final int DEFAULT_CONNECT_TIMEOUT = 2000;
+
+	/**
+	 * Default timeout in milliseconds to wait for data and for a free connection.
+	 */
+	private static final int DEFAULT_READ_TIMEOUT = 30000;
+
+	/**
+	 * The compressions which are accepted.
+	 */
+	private static final String ACCEPT_ENCODING = "gzip, deflate";
+
+	/**
+	 * The single instance or <code>null</code> if it wasn't created yet or was shut down.
+	 */
+	private static FeedHttpClient instance;
+
+	/**
+	 * The pool of the connections.
+	 */
+	private final PoolingHttpClientConnectionManager connectionManager;
+
+	/**
+	 * The client which sends the requests.
+	 */
+	private final CloseableHttpClient httpClient;
+
+	/**
+	 * The statistics by content source id.
+	 */
+	private final ConcurrentMap<Integer, FetchCounter> counters = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates the connection pool and the client with the configured limits and timeouts.
+	 */
+	private FeedHttpClient() {
+		final Config config = Config.getDefault();
+		final int readTimeout = config.getIntProperty("contentLoader.http.readTimeout", DEFAULT_READ_TIMEOUT);
+
+		connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(config.getIntProperty("contentLoader.http.maxConnections", DEFAULT_MAX_CONNECTIONS));
+		connectionManager.setDefaultMaxPerRoute(config.getIntProperty("contentLoader.http.maxConnectionsPerHost",
+				DEFAULT_MAX_CONNECTIONS_PER_HOST));
+
+		final RequestConfig requestConfig = RequestConfig.custom().
+				setConnectTimeout(config.getIntProperty("contentLoader.http.connectTimeout", DEFAULT_CONNECT_TIMEOUT)).
+				setSocketTimeout(readTimeout).
+				setConnectionRequestTimeout(readTimeout).
+				build();
+
+		// the body is decompressed by FeedResponse to count the transferred bytes.
+		httpClient = HttpClients.custom().
+				setConnectionManager(connectionManager).
+				setDefaultRequestConfig(requestConfig).
+				disableContentCompression().
+				build();
+	}
+
+	/**
+	 * Returns the single instance and creates it if it doesn't exist.
+	 * @return the single {@link FeedHttpClient}
+	 */
+	public static synchronized FeedHttpClient getInstance() {
+		if (instance == null) {
+			instance = new FeedHttpClient();
+		}
+		return instance;
+	}
+
+	/**
+	 * Closes the single instance and all its connections. {@link #getInstance()} will create a new one.
+	 */
+	public static synchronized void shutdown() {
+		if (instance != null) {
+			CloseUtil.close(instance);
+			instance = null;
+		}
+	}
+
+	/**
+	 * Sends a GET request to the url of the given {@link ContentSource}.
+	 * If the last fetch has an ETag or Last-Modified they are sent as If-None-Match and If-Modified-Since.
+	 * The returned {@link FeedResponse} must be closed.
+	 * @param contentSource the {@link ContentSource} to read.
+	 * @param lastFetch the last fetch of the {@link ContentSource} or <code>null</code> if it wasn't fetched yet.
+	 * @return the {@link FeedResponse}
+	 * @throws IOException if the request failed.
+	 */
+	public FeedResponse get(final ContentSource contentSource, final FetchHistory lastFetch) throws IOException {
+		final HttpGet request = new HttpGet(contentSource.getUrl());
+		request.setHeader(HttpHeaders.ACCEPT_ENCODING, ACCEPT_ENCODING);
+
+		if (lastFetch != null) {
+			if (lastFetch.getEtag() != null) {
+				request.setHeader(HttpHeaders.IF_NONE_MATCH, lastFetch.getEtag());
+			}
+
+			if (lastFetch.getLastModified() != null) {
+				request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, lastFetch.getLastModified());
+			}
+
+			getCounter(contentSource.getId()).initLastBytes(lastFetch.getBytes());
+		}
+
+		return new FeedResponse(this, contentSource.getId(), httpClient.execute(request));
+	}
+
+	/**
+	 * Records a completed request.
+	 * @param contentSourceId the id of the requested {@link ContentSource}.
+	 * @param notModified true if the server answered with "304 Not Modified".
+	 * @param bytes the amount of transferred bytes.
+	 */
+	void record(final int contentSourceId, final boolean notModified, final long bytes) {
+		getCounter(contentSourceId).record(notModified, bytes);
+
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug("{}", getStats(contentSourceId));
+		}
+	}
+
+	/**
+	 * Returns the {@link FetchCounter} of the given content source id and creates it if it doesn't exist.
+	 */
+	private FetchCounter getCounter(final int contentSourceId) {
+		FetchCounter counter = counters.get(contentSourceId);
+		if (counter == null) {
+			final FetchCounter newCounter = new FetchCounter();
+			counter = counters.putIfAbsent(contentSourceId, newCounter);
+
+			if (counter == null) {
+				counter = newCounter;
+			}
+		}
+
+		return counter;
+	}
+
+	/**
+	 * Returns a snapshot of the statistics of the given {@link ContentSource}.
+	 * @param contentSourceId the id of the {@link ContentSource}.
+	 * @return the {@link FetchStats} or <code>null</code> if it wasn't requested since startup.
+	 */
+	public FetchStats getStats(final int contentSourceId) {
+		final FetchCounter counter = counters.get(contentSourceId);
+		return counter == null ? null : counter.toStats(contentSourceId);
+	}
+
+	/**
+	 * Returns a snapshot of the statistics of all {@link ContentSource}s which were requested since startup.
+	 * @return the {@link FetchStats}
+	 */
+	public List<FetchStats> getStats() {
+		final List<FetchStats> stats = new ArrayList<>();
+		for (final Entry<Integer, FetchCounter> entry : counters.entrySet()) {
+			stats.add(entry.getValue().toStats(entry.getKey()));
+		}
+
+		return stats;
+	}
+
+	/**
+	 * Closes the client and all pooled connections.
+	 */
+	@Override
+	public void close() throws IOException {
+		httpClient.close();
+		connectionManager.shutdown();
+	}
+
+	/**
+	 * The statistics of one {@link ContentSource}.
+	 */
+	private static class FetchCounter {
+
+		/**
+		 * Amount of completed requests.
+		 */
+		private long requests;
+
+		/**
+		 * Amount of "304 Not Modified" responses.
+		 */
+		private long notModified;
+
+		/**
+		 * Amount of transferred bytes.
+		 */
+		private long bytes;
+
+		/**
+		 * Estimated amount of bytes saved by "304 Not Modified" responses.
+		 */
+		private long bytesSaved;
+
+		/**
+		 * Amount of bytes of the last full response.
+		 */
+		private long lastBytes;
+
+		/**
+		 * Sets the size of the last full response if it's not known yet, e.g. from the last {@link FetchHistory}.
+		 */
+		synchronized void initLastBytes(final long bytes) {
+			if (lastBytes == 0) {
+				lastBytes = bytes;
+			}
+		}
+
+		/**
+		 * Records a completed request.
+		 */
+		synchronized void record(final boolean notModified, final long bytes) {
+			requests++;
+
+			if (notModified) {
+				this.notModified++;
+				bytesSaved += lastBytes;
+			}
+			else {
+				this.bytes += bytes;
+
+				if (bytes > 0) {
+					lastBytes = bytes;
+				}
+			}
+		}
+
+		/**
+		 * Returns a snapshot of the statistics.
+		 */
+		synchronized FetchStats toStats(final int contentSourceId) {
+			return new FetchStats(contentSourceId, requests, notModified, bytes, bytesSaved);
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package com.incomb.server.content.loader;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.entity.DeflateInputStream;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.util.EntityUtils;
+
+import com.incomb.server.model.ContentSource;
+import com.incomb.server.utils.CloseUtil;
+
+/**
+ * The response of a request sent by {@link FeedHttpClient}.
+ * It must be closed to give the connection back to the pool.
+ */
+public class FeedResponse implements Closeable {
+
+	/**
+	 * The {@link FeedHttpClient} which sent the request. It records the statistics on {@link #close()}.
+	 */
+	private final FeedHttpClient client;
+
+	/**
+	 * The id of the requested {@link ContentSource}.
+	 */
+	private final int contentSourceId;
+
+	/**
+	 * The response of the http client.
+	 */
+	private final CloseableHttpResponse response;
+
+	/**
+	 * Counts the compressed bytes of the body. <code>null</code> until {@link #getContent()} was called.
+	 */
+	private CountingInputStream countingStream;
+
+	/**
+	 * True if {@link #close()} was called.
+	 */
+	private boolean closed = false;
+
+	/**
+	 * Creates a new instance.
+	 * @param client the {@link FeedHttpClient} which sent the request.
+	 * @param contentSourceId the id of the requested {@link ContentSource}.
+	 * @param response the response of the http client.
+	 */
+	FeedResponse(final FeedHttpClient client, final int contentSourceId, final CloseableHttpResponse response) {
+		this.client = client;
+		this.contentSourceId = contentSourceId;
+		this.response = response;
+	}
+
+	/**
+	 * @return the http status code.
+	 */
+	public int getStatusCode() {
+		return response.getStatusLine().getStatusCode();
+	}
+
+	/**
+	 * @return true if the server answered with "304 Not Modified".
+	 */
+	public boolean isNotModified() {
+		return getStatusCode() == HttpStatus.SC_NOT_MODIFIED;
+	}
+
+	/**
+	 * @return true if the server answered with a 2xx status code.
+	 */
+	public boolean isSuccessful() {
+		return getStatusCode() >= 200 && getStatusCode() < 300;
+	}
+
+	/**
+	 * @return the ETag header or <code>null</code> if the server didn't send one.
+	 */
+	public String getEtag() {
+		return getHeader(HttpHeaders.ETAG);
+	}
+
+	/**
+	 * @return the Last-Modified header or <code>null</code> if the server didn't send one.
+	 */
+	public String getLastModified() {
+		return getHeader(HttpHeaders.LAST_MODIFIED);
+	}
+
+	/**
+	 * Returns the value of the first header with the given name or <code>null</code>.
+	 */
+	private String getHeader(final String name) {
+		final Header header = response.getFirstHeader(name);
+		return header == null ? null : header.getValue();
+	}
+
+	/**
+	 * Returns the body of the response. A gzip or deflate compressed body is decompressed.
+	 * This method must only be called once.
+	 * @return the uncompressed body.
+	 * @throws IOException if the body can't be read.
+	 */
+	public InputStream getContent() throws IOException {
+		final HttpEntity entity = response.getEntity();
+		if (entity == null) {
+			return new ByteArrayInputStream(new byte[0]);
+		}
+
+		countingStream = new CountingInputStream(entity.getContent());
+
+		final Header encoding = entity.getContentEncoding();
+		if (encoding != null) {
+			switch (encoding.getValue().trim().toLowerCase()) {
+				case "gzip":
+				case "x-gzip":
+					return new GZIPInputStream(countingStream);
+
+				case "deflate":
+					return new DeflateInputStream(countingStream);
+
+				default:
+					break;
+			}
+		}
+
+		return countingStream;
+	}
+
+	/**
+	 * @return the amount of bytes of the body read until now as they were transferred.
+	 */
+	public long getBytes() {
+		return countingStream == null ? 0 : countingStream.getByteCount();
+	}
+
+	/**
+	 * Records the statistics and gives the connection back to the pool.
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+
+		closed = true;
+		client.record(contentSourceId, isNotModified(), getBytes());
+
+		EntityUtils.consumeQuietly(response.getEntity());
+		CloseUtil.close(response);
+	}
+}
@@ -0,0 +1,145 @@
+package com.incomb.server.content.loader;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jooq.exception.DataAccessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.incomb.server.config.Config;
+import com.incomb.server.db.DBConnectionProvider;
+import com.incomb.server.model.FetchHistory;
+import com.incomb.server.model.dao.FetchHistoryDao;
+import com.incomb.server.pipeline.EOverflowPolicy;
+import com.incomb.server.pipeline.StageQueue;
+
+/**
+ * Saves the {@link FetchHistory}s of the {@link ContentLoader}s in the background,
+ * so the loaders don't need a database connection to record a fetch.
+ *
+ * <p>All {@link FetchHistory}s which are waiting are inserted with one batch, but at most
+ * contentLoader.fetchHistory.batchSize at once. The latest fetch of each source is updated
+ * in the {@link FetchHistoryDao} at once when it's added, so the scheduler doesn't wait for the insert.
+ * The waiting {@link FetchHistory}s are saved before the {@link Thread} stops.</p>
+ */
+class FetchHistoryWriter extends Thread {
+
+	/**
+	 * <p>The {@link Logger} for this class.</p>
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(FetchHistoryWriter.class);
+
+	/**
+	 * Default maximal amount of {@link FetchHistory}s which are inserted together.
+	 */
+	private static final int DEFAULT_BATCH_SIZE = 200;
+
+	/**
+	 * Default maximal amount of {@link FetchHistory}s which are waiting to be saved.
+	 */
+	private static final int DEFAULT_CAPACITY = 10000;
+
+	/**
+	 * The {@link FetchHistory}s which are waiting to be saved.
+	 */
+	private final StageQueue<FetchHistory> queue = new StageQueue<>("fetchHistory", DEFAULT_CAPACITY,
+			EOverflowPolicy.DROP_OLDEST, 0);
+
+	/**
+	 * Maximal amount of {@link FetchHistory}s which are inserted together.
+	 */
+	private final int batchSize = Math.max(1, Config.getDefault().getIntProperty("contentLoader.fetchHistory.batchSize",
+			DEFAULT_BATCH_SIZE));
+
+	/**
+	 * Creates a new instance and sets the name to "FetchHistoryWriter".
+	 */
+	FetchHistoryWriter() {
+		setName("FetchHistoryWriter");
+	}
+
+	/**
+	 * Sets the given {@link FetchHistory} as latest fetch of its source and queues it for saving.
+	 * @param history the {@link FetchHistory} to save.
+	 */
+	void add(final FetchHistory history) {
+		FetchHistoryDao.updateLastFetch(history);
+		queue.put(history);
+	}
+
+	/**
+	 * Waits for {@link FetchHistory}s and saves them until the {@link Thread} is interrupted.
+	 * Then the remaining {@link FetchHistory}s are saved.
+	 */
+	@Override
+	public void run() {
+		while (!isInterrupted()) {
+			final List<FetchHistory> batch = new ArrayList<>();
+			try {
+				batch.add(queue.take());
+			} catch (final InterruptedException e) {
+				break; // exit
+			}
+
+			queue.drainTo(batch, batchSize - 1);
+			save(batch);
+		}
+
+		final List<FetchHistory> remaining = new ArrayList<>();
+		while (queue.drainTo(remaining, batchSize) > 0) {
+			save(remaining);
+			remaining.clear();
+		}
+	}
+
+	/**
+	 * Inserts the given {@link FetchHistory}s and commits them at once. If this fails they're
+	 * rolled back and inserted one by one, so a single broken {@link FetchHistory} doesn't discard the others.
+	 * Any other failure, e.g. if no {@link Connection} can be acquired, is logged and the batch is lost.
+	 * @param batch the {@link FetchHistory}s to save.
+	 */
+	private void save(final List<FetchHistory> batch) {
+		try {
+			final Connection con = DBConnectionProvider.getInstance().acquire();
+			try {
+				saveBatch(con, batch);
+			} finally {
+				DBConnectionProvider.getInstance().release(con);
+			}
+		}
+		// catch any Throwable that the Thread never stops.
+		catch (final Throwable t) {
+			LOGGER.error("Can't save {} fetch histories, they're lost: {}", batch.size(), batch, t);
+		}
+	}
+
+	/**
+	 * Inserts and commits the given {@link FetchHistory}s with the given {@link Connection}.
+	 */
+	private void saveBatch(final Connection con, final List<FetchHistory> batch) {
+		try {
+			new FetchHistoryDao(con).addFetchHistories(batch);
+			con.commit();
+		} catch (final SQLException | DataAccessException e) {
+			try {
+				con.rollback();
+			} catch (final SQLException e1) {
+				LOGGER.error("Can't roll back the fetch histories.", e1);
+			}
+
+			if (batch.size() == 1) {
+				LOGGER.error("SQLException occurred while saving FetchHistory {}", batch.get(0), e);
+				return;
+			}
+
+			LOGGER.warn("Failed saving {} fetch histories together, saving them one by one.", batch.size(), e);
+			for (final FetchHistory history : batch) {
+				saveBatch(con, Collections.singletonList(history));
+			}
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package com.incomb.server.content.loader;
+
+import com.incomb.server.model.ContentSource;
+
+/**
+ * A snapshot of the http statistics of one {@link ContentSource} since startup.
+ * @see FeedHttpClient#getStats(int)
+ */
+public class FetchStats {
+
+	/**
+	 * The id of the {@link ContentSource}.
+	 */
+	private final int contentSourceId;
+
+	/**
+	 * Amount of completed requests.
+	 */
+	private final long requests;
+
+	/**
+	 * Amount of requests which were answered with "304 Not Modified".
+	 */
+	private final long notModified;
+
+	/**
+	 * Amount of bytes transferred from the server.
+	 */
+	private final long bytes;
+
+	/**
+	 * Estimated amount of bytes which weren't transferred because of "304 Not Modified".
+	 * Each of these responses counts with the size of the last full response.
+	 */
+	private final long bytesSaved;
+
+	/**
+	 * Creates a new instance with all properties.
+	 */
+	FetchStats(final int contentSourceId, final long requests, final long notModified, final long bytes,
+			final long bytesSaved) {
+		this.contentSourceId = contentSourceId;
+		this.requests = requests;
+		this.notModified = notModified;
+		this.bytes = bytes;
+		this.bytesSaved = bytesSaved;
+	}
+
+	/**
+	 * @return the id of the {@link ContentSource}.
+	 */
+	public int getContentSourceId() {
+		return contentSourceId;
+	}
+
+	/**
+	 * @return the amount of completed requests.
+	 */
+	public long getRequests() {
+		return requests;
+	}
+
+	/**
+	 * @return the amount of requests which were answered with "304 Not Modified".
+	 */
+	public long getNotModified() {
+		return notModified;
+	}
+
+	/**
+	 * @return the share of requests which were answered with "304 Not Modified" between 0 and 1.
+	 */
+	public double getNotModifiedRatio() {
+		return requests == 0 ? 0 : (double) notModified / requests;
+	}
+
+	/**
+	 * @return the amount of bytes transferred from the server.
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * @return the estimated amount of bytes which weren't transferred because of "304 Not Modified".
+	 */
+	public long getBytesSaved() {
+		return bytesSaved;
+	}
+
+	/**
+	 * Returns the statistics in a human readable format.
+	 */
+	@Override
+	public String toString() {
+		return String.format("Content source %d: %d requests, %d not modified (%.1f%%), %d bytes read, %d bytes saved.",
+				contentSourceId, requests, notModified, getNotModifiedRatio() * 100, bytes, bytesSaved);
+	}
+}
@@ -15,8 +15,10 @@ public interface IContentReader {
 	 * Returns the content read form content-source if it has changed since the given last fetch.
 	 * @param lastFetch the last fetch of this {@link ContentSource} or <code>null</code> if it
 	 * 			wasn't fetched yet.
+	 * @param fetch the {@link FetchHistory} of this fetch. The reader adds the details of the
+	 * 			request like the http validators to it.
 	 * @return read {@link Content}
 	 */
-	public Content[] read(FetchHistory lastFetch);
+	public Content[] read(FetchHistory lastFetch, FetchHistory fetch);
 
 }
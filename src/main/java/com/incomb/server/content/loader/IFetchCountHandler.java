@@ -0,0 +1,24 @@
+package com.incomb.server.content.loader;
+
+import java.sql.Timestamp;
+
+import com.incomb.server.model.ContentSource;
+import com.incomb.server.model.FetchHistory;
+
+/**
+ * Receives the amount of {@link FetchHistory}s of a {@link ContentSource} in one hour of the day.
+ * @see com.incomb.server.model.dao.FetchHistoryDao#forEachFetchCount(Timestamp, IFetchCountHandler)
+ */
+@FunctionalInterface
+public interface IFetchCountHandler {
+
+	/**
+	 * Handles the fetches of one {@link ContentSource} in one hour of the day.
+	 * @param contentSourceId the id of the {@link ContentSource}.
+	 * @param hour the hour of the day (0 - 23).
+	 * @param fetches the amount of fetches in this hour.
+	 * @param yields the amount of fetches in this hour which read new contents.
+	 * @param firstFetch the time of the first counted fetch in this hour.
+	 */
+	void handle(int contentSourceId, int hour, int fetches, int yields, Timestamp firstFetch);
+}
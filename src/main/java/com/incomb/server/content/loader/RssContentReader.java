@@ -1,8 +1,6 @@
 package com.incomb.server.content.loader;
 
 import java.io.IOException;
-import java.net.URL;
-import java.net.URLConnection;
 import java.util.Date;
 
 import org.slf4j.Logger;
@@ -36,39 +34,70 @@ public class RssContentReader implements IContentReader {
 	}
 
 	/**
-	 * Reads, parses and returns the content form the content-source if it has changed since the given Date.
+	 * Reads, parses and returns the content form the content-source if it has changed since the last fetch.
+	 * The request is sent conditionally with the validators of the last fetch, so an unchanged feed isn't
+	 * downloaded again. The validators are only replaced if the new feed could be parsed.
 	 * @return read content.
 	 */
 	@Override
-	public Content[] read(final FetchHistory lastFetch) {
+	public Content[] read(final FetchHistory lastFetch, final FetchHistory fetch) {
 		RssDocument doc = null;
 
 		final Date lastFetchDate = lastFetch == null ? null : lastFetch.getFetchTime();
 
-		try {
-			LOGGER.debug("Reading rss feed from '{}' of content source '{}'.", contentSource.getUrl(), contentSource.getId());
+		if (lastFetch != null) {
+			// keep the validators if this fetch fails.
+			fetch.setEtag(lastFetch.getEtag());
+			fetch.setLastModified(lastFetch.getLastModified());
+		}
 
-			final RssContentParserFactory factory = RssContentParserFactory.getInstance();
+		LOGGER.debug("Reading rss feed from '{}' of content source '{}'.", contentSource.getUrl(), contentSource.getId());
 
-			final URLConnection con = new URL(contentSource.getUrl()).openConnection();
-			con.setConnectTimeout(2000);
-			con.setReadTimeout(30000);
+		try (final FeedResponse response = FeedHttpClient.getInstance().get(contentSource, lastFetch)) {
+			if (response.isNotModified()) {
+				LOGGER.debug("RSS feed of content source {} wasn't modified since the last fetch.", contentSource.getId());
 
-			final ContentParser<RssDocument> parser = factory.get(contentSource, con.getInputStream());
+				fetch.setNotModified(true);
+				if (response.getEtag() != null) {
+					fetch.setEtag(response.getEtag());
+				}
+				return new Content[0];
+			}
 
-			if (parser.parse()) {
-				doc = parser.getParsedObject();
+			if (!response.isSuccessful()) {
+				LOGGER.warn("Reading {} failed with status {}.", contentSource.getUrl(), response.getStatusCode());
+				fetch.setFailed(true);
+				return new Content[0];
+			}
 
-				if(lastFetch != null && doc != null && !doc.hasChangedSince(lastFetchDate)) {
-					LOGGER.debug("RSS content of content source {} hasn't changed since {}.",
-							contentSource.getId(), lastFetch.getFetchTime());
+			final RssContentParserFactory factory = RssContentParserFactory.getInstance();
+			final ContentParser<RssDocument> parser = factory.get(contentSource, response.getContent());
 
-					return new Content[0];
+			try {
+				if (parser.parse()) {
+					doc = parser.getParsedObject();
+
+					fetch.setEtag(response.getEtag());
+					fetch.setLastModified(response.getLastModified());
+
+					if(lastFetch != null && doc != null && !doc.hasChangedSince(lastFetchDate)) {
+						LOGGER.debug("RSS content of content source {} hasn't changed since {}.",
+								contentSource.getId(), lastFetch.getFetchTime());
+
+						return new Content[0];
+					}
 				}
+				else {
+					fetch.setFailed(true);
+				}
+			}
+			finally {
+				fetch.setBytes(response.getBytes());
 			}
 
 		} catch (final IOException e) {
 			LOGGER.warn("Cannot connect to: {}", contentSource.getUrl(), e);
+			fetch.setFailed(true);
 		}
 		return doc != null ? doc.getContent(lastFetchDate) : new Content[0];
 	}
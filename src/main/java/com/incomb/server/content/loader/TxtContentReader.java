@@ -45,7 +45,7 @@ public class TxtContentReader implements IContentReader {
 	 * @return read {@link Content}
 	 */
 	@Override
-	public Content[] read(final FetchHistory lastFetch) {
+	public Content[] read(final FetchHistory lastFetch, final FetchHistory fetch) {
 
 		final CloseableHttpClient httpClient = HttpClients.createDefault();
 		final HttpGet httpget = new HttpGet(contentSource.getUrl());
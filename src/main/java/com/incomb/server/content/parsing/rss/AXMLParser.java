@@ -1,20 +1,15 @@
 package com.incomb.server.content.parsing.rss;
 
 import java.io.InputStream;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.Arrays;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.Stack;
+import java.util.function.Consumer;
 
-import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.events.Attribute;
-import javax.xml.stream.events.Characters;
-import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.XMLStreamReader;
 
 import org.apache.commons.lang3.time.StopWatch;
 import org.slf4j.Logger;
@@ -22,8 +17,14 @@ import org.slf4j.LoggerFactory;
 
 import com.incomb.server.content.parsing.ContentParser;
 import com.incomb.server.model.ContentSource;
-import com.incomb.server.utils.ObjectUtil;
 
+/**
+ * Base class for parsing xml feeds with a {@link XMLStreamReader}.
+ * Subclasses register a handler per element name in their constructor, the parser
+ * looks up the handler for each start and end tag in a {@link Map} and calls it directly.
+ *
+ * @param <T> Parsing Element
+ */
 public abstract class AXMLParser<T extends RssDocument> implements ContentParser<T> {
 
 	/**
@@ -31,31 +32,26 @@ public abstract class AXMLParser<T extends RssDocument> implements ContentParser
 	 * The {@link Logger} for this class.
 	 * </p>
 	 */
-	private static final Logger   LOGGER = LoggerFactory.getLogger(DefaultRssParser.class);
-
-	protected final InputStream   inputStream;
-	protected final ContentSource contentSource;
+	private static final Logger   LOGGER = LoggerFactory.getLogger(AXMLParser.class);
 
 	/**
-	 * This array contains setters which are called if start tag was found.
+	 * The factory for all parsers. It's only configured once here and afterwards only used
+	 * to create new readers which is thread-safe.
 	 */
-	protected String []           		availableSetters;
+	private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
 
-	//Special Methods for not easy to set properties
-	/**
-	 * Methods for special operations. For example creating a new item object.
-	 */
-	protected final Map<String, Method> specialMethods     = new HashMap<String, Method>();
+	protected final InputStream   inputStream;
+	protected final ContentSource contentSource;
 
 	/**
-	 * Methods for Start Tags
+	 * Handlers for Start Tags by local name.
 	 */
-	protected final Map<String, Method> startElementMethods = new HashMap<String, Method>();
+	private final Map<String, StartElementHandler> startElementHandlers = new HashMap<>();
 
 	/**
-	 * Methods for End Tags
+	 * Handlers for End Tags by local name.
 	 */
-	protected final Map<String, Method> endElementMehods   = new HashMap<String, Method>();
+	private final Map<String, Runnable> endElementHandlers = new HashMap<>();
 
 	/**
 	 * Stack with the actual Element
@@ -69,47 +65,95 @@ public abstract class AXMLParser<T extends RssDocument> implements ContentParser
 		this.contentSource = contentSource;
 	}
 
+	/**
+	 * Creates the shared {@link XMLInputFactory}. Text and CDATA are coalesced and
+	 * external entities aren't loaded.
+	 */
+	private static XMLInputFactory createInputFactory() {
+		final XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+		return factory;
+	}
+
 	// *************************************************************
-	// -------- Basic Method for reflection Stuff goes here --------
+	// -------- Registration of the handlers goes here -------------
+	// *************************************************************
+
+	/**
+	 * Registers a handler which is called for each start tag with the given local name.
+	 * A previously registered handler for the same name is replaced.
+	 */
+	protected void onStart(final String localName, final StartElementHandler handler) {
+		startElementHandlers.put(localName, handler);
+	}
+
+	/**
+	 * Registers a handler which is called for each end tag with the given local name.
+	 * A previously registered handler for the same name is replaced.
+	 */
+	protected void onEnd(final String localName, final Runnable handler) {
+		endElementHandlers.put(localName, handler);
+	}
+
+	/**
+	 * Registers an element which contains other elements. The local name is pushed on
+	 * {@link #actualElement} at the start tag and popped at the end tag.
+	 * @param localName the name of the element.
+	 * @param onOpen called after the push or <code>null</code>.
+	 */
+	protected void onContainer(final String localName, final Runnable onOpen) {
+		onStart(localName, reader -> {
+			pushElement(localName);
+
+			if (onOpen != null) {
+				onOpen.run();
+			}
+		});
+		onEnd(localName, this::popElement);
+	}
+
+	/**
+	 * Registers an element with text. The whole element is read into a {@link RssElement}
+	 * which is passed to the setter. An exception of the setter is logged and the parsing continues.
+	 */
+	protected void onElement(final String localName, final Consumer<RssElement> setter) {
+		onStart(localName, reader -> {
+			final RssElement element = readElement(reader);
+
+			try {
+				setter.accept(element);
+			} catch (final RuntimeException e) {
+				LOGGER.error("Error while setting element {} of {}.", localName,
+						contentSource != null ? contentSource.getUrl() : "unknown", e);
+			}
+		});
+	}
+
+	// *************************************************************
+	// -------- Basic Methods for the handlers goes here -----------
 	// *************************************************************
 
 	/**
 	 * Creates a new Parsing Element.
 	 */
 	@SuppressWarnings("unchecked")
-	protected void createParsingElement(final String localPart, final XMLEvent event, final XMLEventReader eventReader) {
+	protected void createParsingElement() {
 		parsingElement = (T) new RssDocument(contentSource);
 	}
 
 	/**
 	 * Pushes a element into the local stack.
-	 * <br>
-	 * <b>Attention: Reflection-Method - do not change method header</b>
-	 * @param localPart
-	 * @param event - not used
-	 * @param eventReader  - not used
+	 * @param localPart the name of the element
 	 */
-	protected void pushElementIntoMap(final String localPart, final XMLEvent event, final XMLEventReader eventReader) {
+	protected void pushElement(final String localPart) {
 		actualElement.push(localPart);
-
-		if (specialMethods.containsKey(localPart)) {
-			Method method;
-			try {
-				method = specialMethods.get(localPart);
-				method.invoke(this);
-
-			} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException | SecurityException e) {
-				LOGGER.error("Error while invoking method for local part: {}", localPart, e);
-			}
-		}
 	}
 
 	/**
 	 * Pops a element from the local stack.
-	 * <br>
-	 * <b> Attention: Reflection-Method - do not change method header</b>
 	 */
-	protected void popElementFromStack() {
+	protected void popElement() {
 		actualElement.pop();
 	}
 
@@ -122,63 +166,67 @@ public abstract class AXMLParser<T extends RssDocument> implements ContentParser
 	}
 
 	// *************************************************************
-	// -------- Basic Methods to deal with fields go here ----------
+	// ---------  Parsing Methods ----------------------------------
 	// *************************************************************
 
 	/**
-	 * This methods parses a standard element. If the <code>availableSetters</code> array
-	 * contains the <code>localPart</code>, the method <code>set + localPart()</code> will be invoked.
+	 * Reads the attributes and the text of the current element. The reader must be positioned
+	 * on the start tag and is positioned on the matching end tag afterwards.
+	 * @param reader the {@link XMLStreamReader}
+	 * @return the read {@link RssElement}
+	 * @throws XMLStreamException
 	 */
-	protected boolean parseStandardElement(final String localPart, final XMLEvent event, final XMLEventReader eventReader) {
-		final String methodName = "set" + localPart.substring(0, 1).toUpperCase() + localPart.substring(1);
-		if (!Arrays.asList(availableSetters).contains(methodName)) {
-			return false;
-		}
-
-		Method method = null;
-		try {
-			final RssElement element = new RssElement();
-			element.body = getCharacterData(event, eventReader);
-
-			@SuppressWarnings("unchecked")
-			final Iterator<Attribute> attributeIterator = event.asStartElement().getAttributes();
-			while(attributeIterator.hasNext()) {
-				final Attribute attribute = attributeIterator.next();
-				element.attributes.put(attribute.getName().getLocalPart(), attribute);
-			}
+	protected RssElement readElement(final XMLStreamReader reader) throws XMLStreamException {
+		final RssElement element = new RssElement();
 
-			method = ObjectUtil.assertNotNull(getDeclaredMethod(methodName, RssElement.class), methodName);
-			method.invoke(this, element);
-		} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException | SecurityException e) {
-			LOGGER.error("Error while invoking method: {}", methodName, e);
-			return false;
-
-		} catch (final XMLStreamException e) {
-			LOGGER.error("Exception occurred while reading Rss from {}:", contentSource != null ? contentSource.getUrl() : "unknown", methodName, e);
-			return true;
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			element.attributes.put(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
 		}
-		return true;
-	}
 
-	// *************************************************************
-	// ---------  Parsing Methods ----------------------------------
-	// *************************************************************
+		element.body = readText(reader);
+		return element;
+	}
 
 	/**
-	 * Reads the data from the {@link XMLEvent} and returns it. CData
-	 * will be handled special.
-	 * @param event {@link XMLEvent}
-	 * @param eventReader Reader for Reading {@link XMLEvent}
+	 * Reads the text of the current element until its end tag. Text and CDATA which are
+	 * reported in several events are concatenated. Text of nested elements is skipped.
+	 * @param reader {@link XMLStreamReader} positioned on the start tag
 	 * @return Character data from element
 	 * @throws XMLStreamException
 	 */
-	private String getCharacterData(XMLEvent event, final XMLEventReader eventReader) throws XMLStreamException {
-		String result = "";
-		event = eventReader.nextEvent();
-		if (event instanceof Characters) {
-			result = event.asCharacters().getData();
+	private String readText(final XMLStreamReader reader) throws XMLStreamException {
+		final StringBuilder text = new StringBuilder();
+		int depth = 0;
+
+		while (true) {
+			switch (reader.next()) {
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+				case XMLStreamConstants.SPACE:
+					if (depth == 0) {
+						text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+					}
+					break;
+
+				case XMLStreamConstants.START_ELEMENT:
+					depth++;
+					break;
+
+				case XMLStreamConstants.END_ELEMENT:
+					if (depth == 0) {
+						return text.toString();
+					}
+					depth--;
+					break;
+
+				case XMLStreamConstants.END_DOCUMENT:
+					throw new XMLStreamException("Unexpected end of document.", reader.getLocation());
+
+				default:
+					// comments and processing instructions aren't part of the text.
+					break;
+			}
 		}
-		return result;
 	}
 
 	@Override
@@ -187,45 +235,39 @@ public abstract class AXMLParser<T extends RssDocument> implements ContentParser
 		final StopWatch stopWatch = new StopWatch();
 		stopWatch.start();
 
+		XMLStreamReader reader = null;
 		try {
-			final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-			final XMLEventReader eventReader = inputFactory.createXMLEventReader(inputStream);
-
-			while (eventReader.hasNext()) {
-				final XMLEvent event = eventReader.nextEvent();
-
-				//Processing start elements
-				if (event.isStartElement()) {
-					final String localPart = event.asStartElement().getName().getLocalPart();
-
-					final Method method = startElementMethods.get(localPart);
-					if (method != null) {
-						try {
-							method.invoke(this, localPart, event, eventReader);
-						} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-							LOGGER.error("Error while invoking method: {}", method.getName(), e);
-							return false;
+			reader = INPUT_FACTORY.createXMLStreamReader(inputStream);
+
+			while (reader.hasNext()) {
+				switch (reader.next()) {
+					//Processing start elements
+					case XMLStreamConstants.START_ELEMENT:
+						final StartElementHandler startHandler = startElementHandlers.get(reader.getLocalName());
+						if (startHandler != null) {
+							startHandler.onStart(reader);
 						}
-					}
+						break;
 
-				//Processing end elements
-				} else if (event.isEndElement()) {
-					final String localPart = event.asEndElement().getName().getLocalPart();
-					final Method method = endElementMehods.get(localPart);
-					if (method != null) {
-						try {
-							method.invoke(this);
-						} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-							LOGGER.error("Error while invoking method: {}", method.getName(), e);
-							return false;
+					//Processing end elements
+					case XMLStreamConstants.END_ELEMENT:
+						final Runnable endHandler = endElementHandlers.get(reader.getLocalName());
+						if (endHandler != null) {
+							endHandler.run();
 						}
-					}
-				}
+						break;
 
+					default:
+						// everything else is read by the handlers.
+						break;
+				}
 			}
-		} catch (final XMLStreamException e) {
+		} catch (final XMLStreamException | RuntimeException e) {
 			LOGGER.error("Error while reading rss-file: {}", contentSource != null ? contentSource.getUrl() : "unknown",  e);
 			return false;
+
+		} finally {
+			close(reader);
 		}
 
 		stopWatch.stop();
@@ -234,32 +276,42 @@ public abstract class AXMLParser<T extends RssDocument> implements ContentParser
 		return true;
 	}
 
+	/**
+	 * Closes the reader without throwing an exception. The underlying {@link InputStream} stays open.
+	 */
+	private void close(final XMLStreamReader reader) {
+		if (reader != null) {
+			try {
+				reader.close();
+			} catch (final XMLStreamException e) {
+				LOGGER.warn("Can't close xml reader.", e);
+			}
+		}
+	}
+
 	@Override
 	public T getParsedObject() { return parsingElement; }
 
-	protected static class RssElement {
-		public Object body;
-		public final Map<String, Attribute> attributes = new HashMap<>();
+	/**
+	 * Handler for a start tag.
+	 */
+	@FunctionalInterface
+	protected interface StartElementHandler {
+
+		/**
+		 * Called when the reader is positioned on the start tag.
+		 * The handler may read the element until its end tag.
+		 * @param reader the {@link XMLStreamReader}
+		 * @throws XMLStreamException
+		 */
+		void onStart(XMLStreamReader reader) throws XMLStreamException;
 	}
 
 	/**
-	 * Returns the Method with the given Arguments. <code>Null</code> is return if the method is not found.
+	 * The attributes and the text of an element.
 	 */
-	protected Method getDeclaredMethod(final String name, final Class<?>... parameterTypes) {
-		Class<?> clazz = getClass();
-
-		do {
-			for (final Method m : clazz.getDeclaredMethods()) {
-				if (m.getName().contains(name)) {
-					if (Arrays.equals(m.getParameterTypes(), parameterTypes)) {
-						m.setAccessible(true);
-						return m;
-					}
-				}
-			}
-			clazz = clazz.getSuperclass();
-		} while (clazz != null );
-
-		return null;
+	protected static class RssElement {
+		public String body;
+		public final Map<String, String> attributes = new HashMap<>();
 	}
 }
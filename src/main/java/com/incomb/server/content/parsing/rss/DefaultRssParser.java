@@ -2,15 +2,7 @@ package com.incomb.server.content.parsing.rss;
 
 import java.io.InputStream;
 
-import javax.xml.stream.XMLEventReader;
-import javax.xml.stream.events.Attribute;
-import javax.xml.stream.events.XMLEvent;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import com.incomb.server.model.ContentSource;
-import com.incomb.server.utils.ObjectUtil;
 
 /**
  * A {@link DefaultRssParser} is used for parsing rss documents. It has the basic
@@ -22,12 +14,6 @@ import com.incomb.server.utils.ObjectUtil;
  */
 public class DefaultRssParser<T extends RssDocument> extends AXMLParser<T> {
 
-	/**
-	 * <p>The {@link Logger} for this class.</p>
-	 */
-	private static final Logger LOGGER = LoggerFactory.getLogger(DefaultRssParser.class);
-
-
 	//Rssfeed elements
 	/**
 	 * The RSS tag in the rss document.
@@ -101,33 +87,20 @@ public class DefaultRssParser<T extends RssDocument> extends AXMLParser<T> {
 	public DefaultRssParser(final ContentSource contentSource, final InputStream inputStream) {
 		super(contentSource, inputStream);
 
-		availableSetters = new String [] {"setTitle", "setDescription", "setLink", "setImage", "setWidth", "setHeight", "setPubDate", "setEnclosure", "setLastBuildDate"};
+		onStart(RSS,                	reader -> createParsingElement());
+		onContainer(CHANNEL,        	null);
+		onContainer(ITEM,           	this::createItemObject);
 
-		try {
-			startElementMethods.put(RSS,         	ObjectUtil.assertNotNull(getDeclaredMethod("createParsingElement", String.class, XMLEvent.class, XMLEventReader.class), RSS));
-			startElementMethods.put(CHANNEL,     	ObjectUtil.assertNotNull(getDeclaredMethod("pushElementIntoMap",   String.class, XMLEvent.class, XMLEventReader.class), CHANNEL));
-			startElementMethods.put(ITEM,        	ObjectUtil.assertNotNull(getDeclaredMethod("pushElementIntoMap",   String.class, XMLEvent.class, XMLEventReader.class), ITEM));
+		// used for the channel
+		onElement(LAST_BUILD_DATE,  	this::setLastBuildDate);
 
-			// used for the channel
-			startElementMethods.put(LAST_BUILD_DATE,	ObjectUtil.assertNotNull(getDeclaredMethod("parseStandardElement", String.class, XMLEvent.class, XMLEventReader.class), LAST_BUILD_DATE));
-
-			// used only in item
-			startElementMethods.put(TITLE,       	ObjectUtil.assertNotNull(getDeclaredMethod("parseStandardElement", String.class, XMLEvent.class, XMLEventReader.class), TITLE));
-			startElementMethods.put(LINK,        	ObjectUtil.assertNotNull(getDeclaredMethod("parseStandardElement", String.class, XMLEvent.class, XMLEventReader.class), LINK));
-			startElementMethods.put(DESCRIPTION, 	ObjectUtil.assertNotNull(getDeclaredMethod("parseStandardElement", String.class, XMLEvent.class, XMLEventReader.class), DESCRIPTION));
-			startElementMethods.put(LANGUAGE,    	ObjectUtil.assertNotNull(getDeclaredMethod("parseStandardElement", String.class, XMLEvent.class, XMLEventReader.class), LANGUAGE));
-			startElementMethods.put(PUB_DATE,    	ObjectUtil.assertNotNull(getDeclaredMethod("parseStandardElement", String.class, XMLEvent.class, XMLEventReader.class), PUB_DATE));
-			startElementMethods.put(IMAGE,       	ObjectUtil.assertNotNull(getDeclaredMethod("parseStandardElement", String.class, XMLEvent.class, XMLEventReader.class), IMAGE));
-			startElementMethods.put(ENCLOSURE,   	ObjectUtil.assertNotNull(getDeclaredMethod("parseStandardElement", String.class, XMLEvent.class, XMLEventReader.class), ENCLOSURE));
-
-			endElementMehods.put(CHANNEL,       	ObjectUtil.assertNotNull(getDeclaredMethod("popElementFromStack"), CHANNEL));
-			endElementMehods.put(ITEM,          	ObjectUtil.assertNotNull(getDeclaredMethod("popElementFromStack"), ITEM));
-
-			specialMethods.put(ITEM,            	ObjectUtil.assertNotNull(getDeclaredMethod("createItemObject"), ITEM));
-
-		} catch (final SecurityException e) {
-			LOGGER.error("Failed creating {} because", getClass(), e );
-		}
+		// used only in item
+		onElement(TITLE,            	this::setTitle);
+		onElement(LINK,             	this::setLink);
+		onElement(DESCRIPTION,      	this::setDescription);
+		onElement(PUB_DATE,         	this::setPubDate);
+		onElement(IMAGE,            	this::setImage);
+		onElement(ENCLOSURE,        	this::setEnclosure);
 	}
 
 	// *************************************************************
@@ -138,7 +111,7 @@ public class DefaultRssParser<T extends RssDocument> extends AXMLParser<T> {
 	 */
 	protected void setTitle(final RssElement element) {
 		if (actualElement.size() != 0 && actualElement.lastElement().equals(ITEM)) {
-			parsingElement.getLastItem().setTitle((String) element.body);
+			parsingElement.getLastItem().setTitle(element.body);
 		}
 	}
 
@@ -147,7 +120,7 @@ public class DefaultRssParser<T extends RssDocument> extends AXMLParser<T> {
 	 */
 	protected void setDescription(final RssElement element) {
 		if (actualElement.size() != 0 && actualElement.lastElement().equals(ITEM)) {
-			parsingElement.getLastItem().setDescription((String) element.body);
+			parsingElement.getLastItem().setDescription(element.body);
 		}
 	}
 
@@ -156,7 +129,7 @@ public class DefaultRssParser<T extends RssDocument> extends AXMLParser<T> {
 	 */
 	protected void setLink(final RssElement element) {
 		if (actualElement.size() != 0 && actualElement.lastElement().equals(ITEM)) {
-			parsingElement.getLastItem().setLink((String) element.body);
+			parsingElement.getLastItem().setLink(element.body);
 		}
 	}
 
@@ -165,7 +138,7 @@ public class DefaultRssParser<T extends RssDocument> extends AXMLParser<T> {
 	 */
 	protected void setImage(final RssElement element) {
 		if (actualElement.size() != 0 && actualElement.lastElement().equals(ITEM)) {
-			parsingElement.getLastItem().setImageUrl((String) element.body);
+			parsingElement.getLastItem().setImageUrl(element.body);
 		}
 	}
 
@@ -174,9 +147,9 @@ public class DefaultRssParser<T extends RssDocument> extends AXMLParser<T> {
 	 */
 	protected void setEnclosure(final RssElement element) {
 		if (actualElement.size() != 0 && actualElement.lastElement().equals(ITEM) && element.attributes.containsKey(ATTR_URL)) {
-			final Attribute mimeAttr = element.attributes.get(ATTR_MIME_TYPE);
-			if(mimeAttr == null || mimeAttr.getValue().startsWith("image/")) {
-				parsingElement.getLastItem().setImageUrl(element.attributes.get(ATTR_URL).getValue());
+			final String mimeType = element.attributes.get(ATTR_MIME_TYPE);
+			if(mimeType == null || mimeType.startsWith("image/")) {
+				parsingElement.getLastItem().setImageUrl(element.attributes.get(ATTR_URL));
 			}
 		}
 	}
@@ -186,7 +159,7 @@ public class DefaultRssParser<T extends RssDocument> extends AXMLParser<T> {
 	 */
 	protected void setPubDate(final RssElement element) {
 		if (actualElement.size() != 0 && actualElement.lastElement().equals(ITEM)) {
-			parsingElement.getLastItem().setPubDate(RssUtil.get2822Date((String) element.body));
+			parsingElement.getLastItem().setPubDate(RssDateParser.parse(contentSource, element.body));
 		}
 	}
 
@@ -194,6 +167,6 @@ public class DefaultRssParser<T extends RssDocument> extends AXMLParser<T> {
 	 * Basic setter
 	 */
 	protected void setLastBuildDate(final RssElement element) {
-		parsingElement.setLastBuildDate(RssUtil.get2822Date((String) element.body));
+		parsingElement.setLastBuildDate(RssDateParser.parse(contentSource, element.body));
 	}
 }
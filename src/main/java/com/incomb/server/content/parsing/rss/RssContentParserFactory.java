@@ -1,15 +1,17 @@
 package com.incomb.server.content.parsing.rss;
 
 import java.io.InputStream;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
-import java.sql.Connection;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.incomb.server.content.parsing.ContentParser;
-import com.incomb.server.db.DBConnectionProvider;
 import com.incomb.server.model.ContentSource;
 import com.incomb.server.model.Provider;
 import com.incomb.server.model.dao.ProviderDao;
@@ -18,6 +20,10 @@ import com.incomb.server.model.dao.ProviderDao;
  * {@link RssContentParserFactory} is a Singleton for creating the provider specific {@link DefaultRssParser}
  * for {@link ContentSource}s.
  *
+ * <p>The parser class of each {@link Provider} is resolved once to a constructor handle which is
+ * cached per provider id. It's resolved again when the parser class of the {@link Provider} changes.
+ * The {@link Provider}s are read from the cache of the {@link ProviderDao}, so creating a parser
+ * needs neither a database connection nor reflection.</p>
  */
 public class RssContentParserFactory {
 
@@ -26,11 +32,26 @@ public class RssContentParserFactory {
 	*/
 	private static final Logger LOGGER = LoggerFactory.getLogger(RssContentParserFactory.class);
 
+	/**
+	 * The type of the constructor handles: (ContentSource, InputStream) -> ContentParser.
+	 */
+	private static final MethodType PARSER_TYPE = MethodType.methodType(ContentParser.class, ContentSource.class, InputStream.class);
+
+	/**
+	 * The constructor handle of the {@link DefaultRssParser}.
+	 */
+	private static final MethodHandle DEFAULT_PARSER = findConstructor(DefaultRssParser.class);
+
 	/**
 	 * Singleton
 	 */
 	private static RssContentParserFactory instance;
 
+	/**
+	 * The resolved parsers by provider id.
+	 */
+	private final ConcurrentMap<Integer, RegisteredParser> parsers = new ConcurrentHashMap<>();
+
 	/**
 	 * No instances for you - woop woop!
 	 */
@@ -38,35 +59,71 @@ public class RssContentParserFactory {
 
 	/**
 	 * Returns the specified parser saved on the {@link Provider} object from the {@link ContentSource}.
-	 * If no parser is specified the {@link DefaultRssParser} is returned.
+	 * If no parser is specified or it can't be created the {@link DefaultRssParser} is returned.
 	 */
 	@SuppressWarnings("unchecked")
 	public ContentParser<RssDocument> get(final ContentSource contentSource, final InputStream stream) {
-		final Connection con = DBConnectionProvider.getInstance().acquire();
-		Provider provider = null;
+		final RegisteredParser parser = getParser(contentSource.getProviderId());
 
 		try {
-			final ProviderDao providerDao = new ProviderDao(con);
-			provider = providerDao.getProvider(contentSource.getProviderId());
+			return (ContentParser<RssDocument>) parser.constructor.invokeExact(contentSource, stream);
+		} catch (final Throwable e) {
+			LOGGER.error("Cannot instantiate parser {} for content source {}.", parser.parserClass, contentSource.getId(), e);
+			return new DefaultRssParser<RssDocument>(contentSource, stream);
+		}
+	}
+
+	/**
+	 * Returns the cached parser of the {@link Provider} with the given id and resolves it
+	 * if it wasn't resolved yet or the parser class of the {@link Provider} changed.
+	 */
+	private RegisteredParser getParser(final int providerId) {
+		final Provider provider = new ProviderDao(null).getProvider(providerId);
+		final String parserClass = provider != null ? provider.getParserClass() : null;
 
-		} finally {
-			DBConnectionProvider.getInstance().release(con);
+		final RegisteredParser cached = parsers.get(providerId);
+		if (cached != null && Objects.equals(cached.parserClass, parserClass)) {
+			return cached;
 		}
 
-		if (provider.getParserClass() ==  null) {
-			return new DefaultRssParser<RssDocument>(contentSource, stream);
+		final RegisteredParser resolved = new RegisteredParser(parserClass, resolve(provider));
+		parsers.put(providerId, resolved);
+		return resolved;
+	}
+
+	/**
+	 * Resolves the constructor handle of the parser class of the given {@link Provider}.
+	 * @return the constructor handle or the one of the {@link DefaultRssParser}
+	 * 			if the {@link Provider} has no parser class or it's invalid.
+	 */
+	private MethodHandle resolve(final Provider provider) {
+		if (provider == null || provider.getParserClass() == null) {
+			return DEFAULT_PARSER;
 		}
 
-		ContentParser<RssDocument> obj = null;
 		try {
-			final Class<ContentParser<RssDocument>> clazz = (Class<ContentParser<RssDocument>>) Class.forName(provider.getParserClass());
-			final Constructor<ContentParser<RssDocument>> constructor = clazz.getConstructor(ContentSource.class, InputStream.class);
-			obj = constructor.newInstance(contentSource, stream);
+			return findConstructor(Class.forName(provider.getParserClass()).asSubclass(ContentParser.class));
+		} catch (final ClassNotFoundException | ClassCastException | IllegalArgumentException e) {
+			LOGGER.error("Cannot resolve parser for provider: {} with id {}, using the default parser.",
+					provider.getName(), provider.getId(), e);
+			return DEFAULT_PARSER;
+		}
+	}
 
-		} catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException | ClassNotFoundException | NoSuchMethodException | SecurityException e) {
-			LOGGER.error("Cannot instantiate parser for provider: {} with id {}", provider.getName(), provider.getId(), e);
+	/**
+	 * Returns the handle of the public constructor (ContentSource, InputStream) of the given parser class.
+	 * @throws IllegalArgumentException if the class has no such constructor.
+	 */
+	@SuppressWarnings("rawtypes")
+	private static MethodHandle findConstructor(final Class<? extends ContentParser> clazz) {
+		try {
+			return MethodHandles.publicLookup().
+					findConstructor(clazz, MethodType.methodType(void.class, ContentSource.class, InputStream.class)).
+					asType(PARSER_TYPE);
+		} catch (final NoSuchMethodException | IllegalAccessException e) {
+			throw new IllegalArgumentException("Parser " + clazz.getName() + " has no public constructor "
+					+ "(ContentSource, InputStream).", e);
 		}
-		return obj;
 	}
 
 	/**
@@ -81,4 +138,28 @@ public class RssContentParserFactory {
 		}
 		return instance;
 	}
+
+	/**
+	 * The resolved parser of a {@link Provider}.
+	 */
+	private static class RegisteredParser {
+
+		/**
+		 * The parser class of the {@link Provider} when it was resolved. <code>null</code> for the default parser.
+		 */
+		private final String parserClass;
+
+		/**
+		 * The constructor handle of the parser.
+		 */
+		private final MethodHandle constructor;
+
+		/**
+		 * Creates a new instance.
+		 */
+		private RegisteredParser(final String parserClass, final MethodHandle constructor) {
+			this.parserClass = parserClass;
+			this.constructor = constructor;
+		}
+	}
 }
@@ -0,0 +1,225 @@
+package com.incomb.server.content.parsing.rss;
+
+import java.text.ParsePosition;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.TextStyle;
+import java.time.temporal.ChronoField;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.incomb.server.model.ContentSource;
+
+/**
+ * Parses the dates of RSS and Atom feeds with a chain of immutable {@link DateTimeFormatter}s.
+ *
+ * <p>The chain contains the RFC 822/2822 variants of RSS (with numeric offsets, named zones,
+ * two digit years or without zone) and the RFC 3339/ISO 8601 variants of Atom (with or without
+ * fractional seconds, offsets without colon, date only). The day of the week is ignored because
+ * many feeds send a wrong one. Dates without zone are in the default zone of the server.</p>
+ *
+ * <p>A feed uses nearly always the same format, so the format which matched last is remembered
+ * per {@link ContentSource} and tried first. The formats are thread-safe and shared by all parsers.</p>
+ */
+public class RssDateParser {
+
+	/**
+	 * <p>The {@link Logger} for this class.</p>
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(RssDateParser.class);
+
+	/**
+	 * The zone names of RFC 822 with their offsets. Other zone names are parsed by {@link DateTimeFormatter}.
+	 */
+	private static final Map<String, String> RFC_822_ZONES;
+
+	static {
+		final Map<String, String> zones = new HashMap<>();
+		zones.put("UT", "+0000");
+		zones.put("UTC", "+0000");
+		zones.put("GMT", "+0000");
+		zones.put("Z", "+0000");
+		zones.put("EST", "-0500");
+		zones.put("EDT", "-0400");
+		zones.put("CST", "-0600");
+		zones.put("CDT", "-0500");
+		zones.put("MST", "-0700");
+		zones.put("MDT", "-0600");
+		zones.put("PST", "-0800");
+		zones.put("PDT", "-0700");
+		RFC_822_ZONES = Collections.unmodifiableMap(zones);
+	}
+
+	/**
+	 * The formats in the order they are tried.
+	 */
+	private static final List<DateTimeFormatter> FORMATS = Collections.unmodifiableList(Arrays.asList(
+		// RFC 822/2822: 1 Jan 2015 10:00:00 +0100 (named RFC 822 zones are replaced by their offset)
+		rfc822("uuuu").appendOffset("+HHMM", "+0000").toFormatter(Locale.ENGLISH),
+		// RFC 822 with colon in the offset: 1 Jan 2015 10:00:00 +01:00
+		rfc822("uuuu").appendOffset("+HH:MM", "+00:00").toFormatter(Locale.ENGLISH),
+		// RFC 822 with two digit year: 1 Jan 15 10:00:00 +0100
+		rfc822("uu").appendOffset("+HHMM", "+0000").toFormatter(Locale.ENGLISH),
+		// RFC 822 with other zone names: 1 Jan 2015 10:00:00 CEST
+		rfc822("uuuu").appendZoneText(TextStyle.SHORT).toFormatter(Locale.ENGLISH),
+		// RFC 822 without zone: 1 Jan 2015 10:00:00
+		new DateTimeFormatterBuilder().parseCaseInsensitive().
+				appendPattern("d MMM uuuu HH:mm[:ss]").toFormatter(Locale.ENGLISH).withZone(ZoneId.systemDefault()),
+		// RFC 3339: 2015-01-01T10:00:00.123+01:00 or 2015-01-01T10:00:00Z
+		DateTimeFormatter.ISO_OFFSET_DATE_TIME,
+		// ISO 8601 without colon in the offset: 2015-01-01T10:00:00+0100
+		iso8601().appendOffset("+HHMM", "Z").toFormatter(Locale.ENGLISH),
+		// ISO 8601 without zone: 2015-01-01T10:00:00 or 2015-01-01 10:00:00
+		iso8601().toFormatter(Locale.ENGLISH).withZone(ZoneId.systemDefault()),
+		// ISO 8601 date only: 2015-01-01
+		new DateTimeFormatterBuilder().append(DateTimeFormatter.ISO_LOCAL_DATE).
+				parseDefaulting(ChronoField.HOUR_OF_DAY, 0).toFormatter(Locale.ENGLISH).withZone(ZoneId.systemDefault())
+	));
+
+	/**
+	 * The index in {@link #FORMATS} of the format which matched last per content source id.
+	 */
+	private static final ConcurrentMap<Integer, Integer> LAST_FORMATS = new ConcurrentHashMap<>();
+
+	/**
+	 * Not instantiable.
+	 */
+	private RssDateParser() {
+
+	}
+
+	/**
+	 * Returns the start of a RFC 822 format without day of the week with the given year pattern
+	 * and a space before the zone.
+	 */
+	private static DateTimeFormatterBuilder rfc822(final String yearPattern) {
+		return new DateTimeFormatterBuilder().parseCaseInsensitive().
+				appendPattern("d MMM " + yearPattern + " HH:mm[:ss] ");
+	}
+
+	/**
+	 * Returns the start of an ISO 8601 format with 'T' or a space between date and time
+	 * and optional seconds and fractional seconds.
+	 */
+	private static DateTimeFormatterBuilder iso8601() {
+		return new DateTimeFormatterBuilder().parseCaseInsensitive().
+				append(DateTimeFormatter.ISO_LOCAL_DATE).
+				appendPattern("['T'][ ]HH:mm[:ss]").
+				optionalStart().appendFraction(ChronoField.NANO_OF_SECOND, 1, 9, true).optionalEnd();
+	}
+
+	/**
+	 * Parses the given date of a feed of the given {@link ContentSource}.
+	 * @param contentSource the {@link ContentSource} of the feed or <code>null</code> if it's unknown.
+	 * @param text the date to parse.
+	 * @return the parsed {@link Date} or <code>null</code> if the text is empty or has an unknown format.
+	 */
+	public static Date parse(final ContentSource contentSource, final String text) {
+		if(StringUtils.isBlank(text)) {
+			return null;
+		}
+
+		final String normalized = normalize(text);
+		final Integer sourceId = contentSource == null ? null : contentSource.getId();
+
+		final Integer lastFormat = sourceId == null ? null : LAST_FORMATS.get(sourceId);
+		if(lastFormat != null) {
+			// it matches nearly always, so it's parsed at once without checking it first.
+			try {
+				return Date.from(Instant.from(FORMATS.get(lastFormat).parse(normalized)));
+			}
+			catch(final DateTimeException e) {
+				// try the other formats
+			}
+		}
+
+		for (int i = 0; i < FORMATS.size(); i++) {
+			if(lastFormat != null && lastFormat == i) {
+				continue;
+			}
+
+			final Instant instant = parse(FORMATS.get(i), normalized);
+			if(instant != null) {
+				if(sourceId != null) {
+					LAST_FORMATS.put(sourceId, i);
+				}
+				return Date.from(instant);
+			}
+		}
+
+		LOGGER.warn("Can't parse date '{}' of content source {}.", text, sourceId);
+		return null;
+	}
+
+	/**
+	 * Parses the whole text with the given {@link DateTimeFormatter}.
+	 * The text is checked first without resolving it, so a not matching format doesn't throw an exception.
+	 * @return the parsed {@link Instant} or <code>null</code> if the format doesn't match.
+	 */
+	private static Instant parse(final DateTimeFormatter format, final String text) {
+		final ParsePosition position = new ParsePosition(0);
+		if(format.parseUnresolved(text, position) == null || position.getIndex() != text.length()) {
+			return null;
+		}
+
+		try {
+			return Instant.from(format.parse(text));
+		}
+		catch(final DateTimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Removes the day of the week, collapses whitespaces and replaces a RFC 822 zone name by its offset.
+	 */
+	private static String normalize(final String text) {
+		String normalized = StringUtils.normalizeSpace(text);
+
+		final int comma = normalized.indexOf(',');
+		if(comma >= 0 && comma < 10) {
+			normalized = normalized.substring(comma + 1).trim();
+		}
+
+		final int lastSpace = normalized.lastIndexOf(' ');
+		if(lastSpace > 0) {
+			final String offset = RFC_822_ZONES.get(normalized.substring(lastSpace + 1).toUpperCase(Locale.ENGLISH));
+			if(offset != null) {
+				normalized = normalized.substring(0, lastSpace + 1) + offset;
+			}
+		}
+
+		return normalized;
+	}
+
+	/**
+	 * Returns the index of the format which matched last for the {@link ContentSource} with the given id.
+	 * @param contentSourceId the id of the {@link ContentSource}.
+	 * @return the index of the format or <code>null</code> if no date of it was parsed yet.
+	 */
+	static Integer getLastFormat(final int contentSourceId) {
+		return LAST_FORMATS.get(contentSourceId);
+	}
+
+	/**
+	 * Forgets the format which matched last for the {@link ContentSource} with the given id.
+	 * @param contentSourceId the id of the removed {@link ContentSource}.
+	 */
+	public static void forget(final int contentSourceId) {
+		LAST_FORMATS.remove(contentSourceId);
+	}
+}
@@ -1,27 +1,17 @@
 package com.incomb.server.content.parsing.rss;
 
-import java.awt.image.BufferedImage;
-import java.io.IOException;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLConnection;
 import java.sql.Timestamp;
 import java.util.Date;
 
-import javax.imageio.ImageIO;
-
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
+import com.incomb.server.config.Config;
+import com.incomb.server.content.images.ImageProber;
+import com.incomb.server.content.images.ImageSize;
 import com.incomb.server.model.ContentSource;
 import com.incomb.server.model.News;
-import com.incomb.server.utils.HtmlUtil;
+import com.incomb.server.utils.HtmlSanitizer;
 
 /**
  * This {@link RssItem} represents the item tag in a rss document.
@@ -30,13 +20,9 @@ import com.incomb.server.utils.HtmlUtil;
 public class RssItem {
 
 	/**
-	 * <p>The {@link Logger} for this class.</p>
+	 * Default maximal amount of characters of the description.
 	 */
-	private static final Logger LOGGER = LoggerFactory.getLogger(RssItem.class);
-
-	private static final int IMAGE_CONNECT_TIMEOUT = 2000;
-
-	private static final int IMAGE_READ_TIMEOUT = 30000;
+	private static final int DEFAULT_MAX_DESCRIPTION_LENGTH = 10000;
 
 	/**
 	 * Parent element
@@ -61,17 +47,21 @@ public class RssItem {
 
 	/**
 	 * Creates a new {@link News} object with its information.
+	 * The description is sanitized and if the item has no image the first image of the description is used.
 	 * @return a new {@link News} object
 	 */
 	public News createContentObj() {
 		final ContentSource src = document.getContentSource();
 
+		final HtmlSanitizer sanitizer = new HtmlSanitizer(src.getUrl(),
+				Config.getDefault().getIntProperty("contentLoader.description.maxLength", DEFAULT_MAX_DESCRIPTION_LENGTH));
+		setDescription(sanitizer.sanitize(getDescription()));
+
 		if (StringUtils.isBlank(getImageUrl())) {
-			setImageUrl(parseImage());
+			setImageUrl(sanitizer.getImageUrl());
 		}
 
 		setImageSizes();
-		filterDescription();
 
 		final Timestamp publishDate = getPubDate() != null ? new Timestamp(getPubDate().getTime()) : null;
 		return new News(0, src.getProviderId(), src.getCategoryId(), getTitle(), src.getLocale(), getDescription(),
@@ -106,63 +96,14 @@ public class RssItem {
 	public void setUpdated(final Date updated) { this.updated = updated; }
 
 	/**
-	 * Tries to parse the image url out of the description. If it fails <code>null</code> will be returned.
-	 * @return Image url in the description. <code>Null</code> if no description was found.
-	 */
-	private String parseImage() {
-		final Document doc = Jsoup.parse(getDescription());
-		final Elements imgs = doc.getElementsByTag("img");
-		for (final Element img : imgs) {
-			String src = img.attr("src");
-			if(StringUtils.isNotBlank(src)) {
-
-				if(src.startsWith("/")) {
-					try {
-						final URL feedUrl = new URL(document.getContentSource().getUrl());
-						src = "//" + feedUrl.getHost() + src;
-					} catch (final MalformedURLException e) {
-						// next
-						continue;
-					}
-				}
-
-				return src;
-			}
-		}
-
-		return null;
-	}
-
-	/**
-	 * Calculates the image size.
+	 * Sets the image size if it's already cached by the {@link ImageProber}.
+	 * Otherwise the size is probed after the {@link News} was saved.
 	 */
 	public void setImageSizes() {
-		String url = getImageUrl();
-		if(StringUtils.isNotBlank(imageUrl)) {
-			if(url.startsWith("//")) {
-				url = "http:" + url;
-			}
-
-			try {
-				final URLConnection con = new URL(url).openConnection();
-				con.setConnectTimeout(IMAGE_CONNECT_TIMEOUT);
-				con.setReadTimeout(IMAGE_READ_TIMEOUT);
-
-				final BufferedImage image = ImageIO.read(con.getInputStream());
-				if (image != null) {
-					imageWidth = image.getWidth();
-					imageHeight = image.getHeight();
-				}
-			} catch (final IOException e) {
-				LOGGER.info("Can't calculate image sizes for image {} of news.", getImageUrl(), e);
-			}
+		final ImageSize size = ImageProber.getInstance().getCached(getImageUrl());
+		if(size != null) {
+			imageWidth = size.getWidth();
+			imageHeight = size.getHeight();
 		}
 	}
-
-	/**
-	 * Trims the {@link #description} and removes all tags.
-	 */
-	public void filterDescription() {
-		setDescription(HtmlUtil.removeTags(getDescription().trim(), true));
-	}
 }
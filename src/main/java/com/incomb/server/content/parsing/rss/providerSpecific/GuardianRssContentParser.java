@@ -2,9 +2,6 @@ package com.incomb.server.content.parsing.rss.providerSpecific;
 
 import java.io.InputStream;
 
-import javax.xml.stream.XMLEventReader;
-import javax.xml.stream.events.XMLEvent;
-
 import com.incomb.server.content.parsing.rss.DefaultRssParser;
 import com.incomb.server.model.ContentSource;
 
@@ -22,14 +19,14 @@ public class GuardianRssContentParser extends DefaultRssParser<GuardianRssDocume
 	}
 	
 	@Override
-	protected void createParsingElement(final String localPart, final XMLEvent event, final XMLEventReader eventReader) {
+	protected void createParsingElement() {
 		parsingElement = new GuardianRssDocument(contentSource);
 	}
 	
 	@Override
 	protected void setDescription(final RssElement element) {
 		if (actualElement.size() != 0 && actualElement.lastElement().equals(ITEM)) {
-			String description = (String) element.body;
+			String description = element.body;
 			for (final String garbageString : garbageStrings){
 				description = description.replaceAll(garbageString, "");
 			}
@@ -41,7 +38,7 @@ public class GuardianRssContentParser extends DefaultRssParser<GuardianRssDocume
 	@Override
 	protected void setLink(final RssElement element) {
 		if (actualElement.size() != 0 && actualElement.lastElement().equals(ITEM)) {
-			parsingElement.getLastItem().setLink((String) element.body);
+			parsingElement.getLastItem().setLink(element.body);
 		}
 	}
 	
@@ -0,0 +1,281 @@
+package com.incomb.server.content.retention;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.jooq.exception.DataAccessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.incomb.server.config.Config;
+import com.incomb.server.db.DBConnectionProvider;
+import com.incomb.server.model.FetchHistory;
+import com.incomb.server.model.News;
+import com.incomb.server.model.dao.FetchHistoryDao;
+import com.incomb.server.model.dao.NewsDao;
+import com.incomb.server.model.dao.NewsDao.PendingChanges;
+
+/**
+ * Removes old data periodically, so the database and the index don't grow without bound.
+ *
+ * <p>{@link FetchHistory}s older than retention.fetchHistory.keepDays are rolled up into daily
+ * aggregates per content source, one time slice of retention.fetchHistory.sliceMinutes per transaction.
+ * {@link News} published more than retention.news.keepDays ago which have no votes, no comments
+ * and are in no comb are deleted from the database and the index in batches of retention.news.batchSize.</p>
+ *
+ * <p>The job runs every retention.interval hours in a single background thread and sleeps
+ * retention.pause milliseconds after each transaction, so it doesn't compete with the content loaders.
+ * A keepDays of 0 disables the corresponding cleanup.</p>
+ */
+public class RetentionJob {
+
+	/**
+	 * <p>The {@link Logger} for this class.</p>
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(RetentionJob.class);
+
+	/**
+	 * Default minutes after the start until the first run.
+	 */
+	private static final int DEFAULT_START_DELAY = 10;
+
+	/**
+	 * Default hours between two runs.
+	 */
+	private static final int DEFAULT_INTERVAL = 24;
+
+	/**
+	 * Default milliseconds to sleep after each transaction.
+	 */
+	private static final int DEFAULT_PAUSE = 500;
+
+	/**
+	 * Default amount of days the {@link FetchHistory}s are kept.
+	 * It must be greater than contentLoader.scheduler.adaptive.historyDays.
+	 */
+	private static final int DEFAULT_FETCH_HISTORY_KEEP_DAYS = 30;
+
+	/**
+	 * Default length in minutes of the time slice which is rolled up per transaction.
+	 */
+	private static final int DEFAULT_FETCH_HISTORY_SLICE = 60;
+
+	/**
+	 * Default amount of days the unreferenced {@link News} are kept.
+	 */
+	private static final int DEFAULT_NEWS_KEEP_DAYS = 180;
+
+	/**
+	 * Default amount of {@link News} which are deleted per transaction.
+	 */
+	private static final int DEFAULT_NEWS_BATCH_SIZE = 200;
+
+	/**
+	 * The single instance.
+	 */
+	private static final RetentionJob INSTANCE = new RetentionJob();
+
+	/**
+	 * Runs the job. <code>null</code> if the job wasn't started.
+	 */
+	private ScheduledExecutorService executor;
+
+	/**
+	 * Not instantiable from outside.
+	 */
+	private RetentionJob() { }
+
+	/**
+	 * @return the single instance.
+	 */
+	public static RetentionJob getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Schedules the job if retention.enabled is true.
+	 */
+	public synchronized void start() {
+		final Config config = Config.getDefault();
+		if(!config.getBooleanProperty("retention.enabled", false) || executor != null) {
+			return;
+		}
+
+		final int startDelay = Math.max(0, config.getIntProperty("retention.startDelay", DEFAULT_START_DELAY));
+		final int interval = Math.max(1, config.getIntProperty("retention.interval", DEFAULT_INTERVAL));
+
+		executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable r) {
+				final Thread thread = new Thread(r, "RetentionJob");
+				thread.setDaemon(true);
+				thread.setPriority(Thread.MIN_PRIORITY);
+				return thread;
+			}
+		});
+		executor.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					runOnce();
+				}
+				// catch any Throwable that the job is scheduled again.
+				catch(final Throwable t) {
+					LOGGER.error("Retention job failed.", t);
+				}
+			}
+		}, TimeUnit.MINUTES.toMillis(startDelay), TimeUnit.HOURS.toMillis(interval), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the job. A running transaction is finished or rolled back.
+	 */
+	public synchronized void shutdown() {
+		if(executor == null) {
+			return;
+		}
+
+		executor.shutdownNow();
+		try {
+			if(!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+				LOGGER.warn("Retention job didn't stop in time.");
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		executor = null;
+	}
+
+	/**
+	 * Rolls up the old {@link FetchHistory}s and deletes the old {@link News} once.
+	 */
+	private void runOnce() {
+		final long start = System.currentTimeMillis();
+		final Config config = Config.getDefault();
+		final long pause = Math.max(0, config.getIntProperty("retention.pause", DEFAULT_PAUSE));
+
+		final Connection con = DBConnectionProvider.getInstance().acquire();
+		try {
+			final int rolledUp = rollUpFetchHistories(con, pause);
+			final int deleted = deleteOldNews(con, pause);
+
+			LOGGER.info("Retention job rolled up {} fetch histories and deleted {} news in {} ms.",
+					rolledUp, deleted, System.currentTimeMillis() - start);
+		}
+		catch(final InterruptedException e) {
+			LOGGER.info("Retention job was interrupted.");
+		}
+		finally {
+			DBConnectionProvider.getInstance().release(con);
+		}
+	}
+
+	/**
+	 * Rolls up the {@link FetchHistory}s older than retention.fetchHistory.keepDays slice by slice,
+	 * beginning with the oldest one.
+	 * @return the amount of rolled up {@link FetchHistory}s.
+	 * @throws InterruptedException if the job was interrupted while pausing.
+	 */
+	private int rollUpFetchHistories(final Connection con, final long pause) throws InterruptedException {
+		final Config config = Config.getDefault();
+		final int keepDays = config.getIntProperty("retention.fetchHistory.keepDays", DEFAULT_FETCH_HISTORY_KEEP_DAYS);
+		if(keepDays <= 0) {
+			return 0;
+		}
+
+		final long slice = TimeUnit.MINUTES.toMillis(Math.max(1,
+				config.getIntProperty("retention.fetchHistory.sliceMinutes", DEFAULT_FETCH_HISTORY_SLICE)));
+		final long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(keepDays);
+		final FetchHistoryDao dao = new FetchHistoryDao(con);
+
+		int total = 0;
+		while(!Thread.currentThread().isInterrupted()) {
+			final Timestamp oldest = dao.getOldestFetchTime();
+			if(oldest == null || oldest.getTime() >= cutoff) {
+				break;
+			}
+
+			final long from = oldest.getTime() - oldest.getTime() % slice;
+			final long to = Math.min(from + slice, cutoff);
+
+			try {
+				final int amount = dao.rollUpFetchHistories(new Timestamp(from), new Timestamp(to));
+				con.commit();
+				total += amount;
+
+				if(amount == 0) {
+					break;
+				}
+			}
+			catch(final SQLException | DataAccessException e) {
+				LOGGER.error("Can't roll up the fetch histories from {} to {}.", new Timestamp(from), new Timestamp(to), e);
+				rollback(con);
+				break;
+			}
+
+			Thread.sleep(pause);
+		}
+
+		return total;
+	}
+
+	/**
+	 * Deletes the unreferenced {@link News} older than retention.news.keepDays batch by batch.
+	 * A batch which can't be deleted is skipped.
+	 * @return the amount of deleted {@link News}.
+	 * @throws InterruptedException if the job was interrupted while pausing.
+	 */
+	private int deleteOldNews(final Connection con, final long pause) throws InterruptedException {
+		final Config config = Config.getDefault();
+		final int keepDays = config.getIntProperty("retention.news.keepDays", DEFAULT_NEWS_KEEP_DAYS);
+		if(keepDays <= 0) {
+			return 0;
+		}
+
+		final int batchSize = Math.max(1, config.getIntProperty("retention.news.batchSize", DEFAULT_NEWS_BATCH_SIZE));
+		final Timestamp cutoff = new Timestamp(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(keepDays));
+		final NewsDao dao = new NewsDao(con);
+
+		int total = 0;
+		long lastId = 0;
+		while(!Thread.currentThread().isInterrupted()) {
+			final List<News> batch = dao.getUnreferencedNewsBefore(lastId, cutoff, batchSize);
+			if(batch.isEmpty()) {
+				break;
+			}
+			lastId = batch.get(batch.size() - 1).getId();
+
+			try {
+				final PendingChanges changes = dao.deleteNews(batch);
+				con.commit();
+				changes.apply();
+				total += batch.size();
+			}
+			catch(final SQLException | DataAccessException e) {
+				LOGGER.warn("Can't delete {} old news until id {}, they're skipped.", batch.size(), lastId, e);
+				rollback(con);
+			}
+
+			Thread.sleep(pause);
+		}
+
+		return total;
+	}
+
+	/**
+	 * Rollbacks the given {@link Connection} and logs if it fails.
+	 */
+	private void rollback(final Connection con) {
+		try {
+			con.rollback();
+		} catch (final SQLException e) {
+			LOGGER.error("Can't rollback the retention job.", e);
+		}
+	}
+}
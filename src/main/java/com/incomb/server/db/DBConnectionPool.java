@@ -0,0 +1,626 @@
+package com.incomb.server.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.incomb.server.utils.CloseUtil;
+
+/**
+ * A bounded pool of physical {@link Connection}s to the database.
+ *
+ * <p>Borrowed {@link Connection}s are proxies. Calling {@link Connection#close()} on them
+ * returns the physical {@link Connection} to the pool instead of closing it. Uncommitted changes
+ * are rolled back when a {@link Connection} is returned.</p>
+ *
+ * <p>A maintenance thread evicts {@link Connection}s which were idle for too long, keeps at least
+ * the minimum amount of {@link Connection}s open and logs {@link Connection}s which were borrowed
+ * for longer than the leak threshold with the stack trace of the caller which acquired it.</p>
+ *
+ * No public methods because this class is used only by the {@link DBConnectionProvider}.
+ */
+class DBConnectionPool {
+
+	/**
+	 * <p>The {@link Logger} for this class.</p>
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(DBConnectionPool.class);
+
+	/**
+	 * Interval in milliseconds in which the maintenance thread runs.
+	 */
+	private static final long MAINTENANCE_INTERVAL = 10 * 1000;
+
+	/**
+	 * Timeout in seconds for {@link Connection#isValid(int)} during validation.
+	 */
+	private static final int VALIDATION_TIMEOUT = 2;
+
+	/**
+	 * A physical {@link Connection} managed by the pool with its meta information.
+	 */
+	private class PooledConnection implements InvocationHandler {
+
+		/**
+		 * The physical {@link Connection} to the database.
+		 */
+		private final Connection physical;
+
+		/**
+		 * The proxy which is handed out to callers. It's recreated on every borrow
+		 * so that a stale reference can't use the {@link Connection} of another caller.
+		 */
+		private Connection proxy;
+
+		/**
+		 * Time in milliseconds when the {@link Connection} was borrowed the last time.
+		 */
+		private long borrowedAt;
+
+		/**
+		 * Time in milliseconds when the {@link Connection} was returned the last time.
+		 */
+		private long returnedAt;
+
+		/**
+		 * The call stack of the caller which borrowed the {@link Connection}.
+		 * Only set if leak detection is enabled.
+		 */
+		private Throwable borrowStack;
+
+		/**
+		 * <code>true</code> if the leak was already logged for the current borrow.
+		 */
+		private boolean leakReported;
+
+		/**
+		 * Creates a new instance for the given physical {@link Connection}.
+		 */
+		private PooledConnection(final Connection physical) {
+			this.physical = physical;
+			this.returnedAt = System.currentTimeMillis();
+		}
+
+		/**
+		 * Creates a new proxy and marks the {@link Connection} as borrowed.
+		 */
+		private Connection borrow() {
+			borrowedAt = System.currentTimeMillis();
+			borrowStack = leakThreshold > 0 ? new Throwable("Connection acquired here") : null;
+			leakReported = false;
+			proxy = (Connection) Proxy.newProxyInstance(DBConnectionPool.class.getClassLoader(),
+					new Class<?>[] { Connection.class }, this);
+			return proxy;
+		}
+
+		/**
+		 * Passes every call to the {@link #physical} {@link Connection} except <code>close</code>,
+		 * which returns the {@link Connection} to the pool.
+		 */
+		@Override
+		public Object invoke(final Object calledProxy, final Method method, final Object[] args) throws Throwable {
+			final boolean current = calledProxy == proxy;
+
+			switch (method.getName()) {
+				case "close":
+					if(current) {
+						giveBack(this);
+					}
+					return null;
+				case "isClosed":
+					return !current || physical.isClosed();
+				case "equals":
+					return calledProxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(calledProxy);
+				case "toString":
+					return "Pooled" + physical.toString();
+				default:
+					if(!current) {
+						throw new SQLException("Connection was already returned to the pool.");
+					}
+
+					try {
+						return method.invoke(physical, args);
+					}
+					catch(final InvocationTargetException e) {
+						throw e.getCause();
+					}
+			}
+		}
+	}
+
+	/**
+	 * The {@link DataSource} to open physical {@link Connection}s.
+	 */
+	private final DataSource dataSource;
+
+	/**
+	 * Minimal amount of open physical {@link Connection}s.
+	 */
+	private final int minSize;
+
+	/**
+	 * Maximal amount of open physical {@link Connection}s.
+	 */
+	private final int maxSize;
+
+	/**
+	 * Maximal time in milliseconds to wait for a free {@link Connection}.
+	 */
+	private final long maxWait;
+
+	/**
+	 * Time in milliseconds after which an idle {@link Connection} will be closed
+	 * if more than {@link #minSize} {@link Connection}s are open.
+	 */
+	private final long idleTimeout;
+
+	/**
+	 * Idle {@link Connection}s which were returned less than this amount of milliseconds ago
+	 * won't be validated on borrow.
+	 */
+	private final long validationInterval;
+
+	/**
+	 * Time in milliseconds after which a borrowed {@link Connection} will be logged as leaked.
+	 * <code>0</code> disables leak detection.
+	 */
+	private final long leakThreshold;
+
+	/**
+	 * Guards all fields below.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Signaled when a {@link Connection} was returned or a slot got free.
+	 */
+	private final Condition available = lock.newCondition();
+
+	/**
+	 * Idle {@link Connection}s. The most recently returned is at the head.
+	 */
+	private final Deque<PooledConnection> idle = new ArrayDeque<>();
+
+	/**
+	 * Borrowed {@link Connection}s.
+	 */
+	private final Map<PooledConnection, Boolean> active = new IdentityHashMap<>();
+
+	/**
+	 * Amount of open or currently opening physical {@link Connection}s.
+	 */
+	private int total = 0;
+
+	/**
+	 * Amount of callers waiting for a {@link Connection}.
+	 */
+	private int waiting = 0;
+
+	/**
+	 * Total amount of borrows.
+	 */
+	private long borrows = 0;
+
+	/**
+	 * Total amount of borrows which timed out.
+	 */
+	private long timeouts = 0;
+
+	/**
+	 * Total time in milliseconds callers waited for a {@link Connection}.
+	 */
+	private long totalWaitTime = 0;
+
+	/**
+	 * Longest time in milliseconds a caller waited for a {@link Connection}.
+	 */
+	private long maxWaitTime = 0;
+
+	/**
+	 * Amount of detected leaks.
+	 */
+	private long leaks = 0;
+
+	/**
+	 * Amount of {@link Connection}s which failed the validation.
+	 */
+	private long invalidated = 0;
+
+	/**
+	 * <code>true</code> after {@link #close()} was called.
+	 */
+	private boolean closed = false;
+
+	/**
+	 * Runs {@link #maintain()} periodically.
+	 */
+	private final ScheduledExecutorService maintenance;
+
+	/**
+	 * Creates a new pool and starts the maintenance thread.
+	 * The minimal amount of {@link Connection}s will be opened lazily by the first maintenance run.
+	 */
+	DBConnectionPool(final DataSource dataSource, final int minSize, final int maxSize, final long maxWait,
+			final long idleTimeout, final long validationInterval, final long leakThreshold) {
+		if(minSize < 0 || maxSize < 1 || minSize > maxSize) {
+			throw new IllegalArgumentException("Invalid pool size: min " + minSize + ", max " + maxSize + ".");
+		}
+
+		this.dataSource = dataSource;
+		this.minSize = minSize;
+		this.maxSize = maxSize;
+		this.maxWait = maxWait;
+		this.idleTimeout = idleTimeout;
+		this.validationInterval = validationInterval;
+		this.leakThreshold = leakThreshold;
+
+		maintenance = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable r) {
+				final Thread thread = new Thread(r, "DBConnectionPoolMaintenance");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		maintenance.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					maintain();
+				}
+				// catch any Throwable that the maintenance never stops.
+				catch(final Throwable t) {
+					LOGGER.error("Maintenance of the connection pool failed.", t);
+				}
+			}
+		}, 0, MAINTENANCE_INTERVAL, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Borrows a {@link Connection} from the pool. If no idle {@link Connection} exists and
+	 * the pool is not full a new one will be opened. Otherwise it waits until one will be returned.
+	 * @return a {@link Connection} with auto commit = false.
+	 * @throws SQLException if no {@link Connection} could be opened or the wait timed out.
+	 */
+	Connection borrow() throws SQLException {
+		final long start = System.currentTimeMillis();
+		final long deadline = start + maxWait;
+
+		while(true) {
+			PooledConnection pooled = null;
+			boolean create = false;
+
+			lock.lock();
+			try {
+				while(!closed && idle.isEmpty() && total >= maxSize) {
+					final long remaining = deadline - System.currentTimeMillis();
+					if(remaining <= 0) {
+						timeouts++;
+						throw new SQLException("Timed out after " + maxWait + "ms waiting for a connection. "
+								+ "Active: " + active.size() + ", max: " + maxSize + ".");
+					}
+
+					waiting++;
+					try {
+						available.await(remaining, TimeUnit.MILLISECONDS);
+					}
+					catch(final InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new SQLException("Interrupted while waiting for a connection.", e);
+					}
+					finally {
+						waiting--;
+					}
+				}
+
+				if(closed) {
+					throw new SQLException("Connection pool is closed.");
+				}
+
+				pooled = idle.pollFirst();
+				if(pooled == null) {
+					total++;
+					create = true;
+				}
+			}
+			finally {
+				lock.unlock();
+			}
+
+			if(create) {
+				pooled = open();
+			}
+			else if(!isValidForBorrow(pooled)) {
+				continue; // try the next one.
+			}
+
+			lock.lock();
+			try {
+				final long waited = System.currentTimeMillis() - start;
+				borrows++;
+				totalWaitTime += waited;
+				maxWaitTime = Math.max(maxWaitTime, waited);
+
+				active.put(pooled, Boolean.TRUE);
+				return pooled.borrow();
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Opens a new physical {@link Connection}. {@link #total} must already be incremented.
+	 * If the opening fails {@link #total} will be decremented again.
+	 */
+	private PooledConnection open() throws SQLException {
+		try {
+			final Connection con = dataSource.getConnection();
+			con.setAutoCommit(false);
+			return new PooledConnection(con);
+		}
+		catch(final SQLException | RuntimeException e) {
+			lock.lock();
+			try {
+				total--;
+				available.signal();
+			}
+			finally {
+				lock.unlock();
+			}
+
+			throw e;
+		}
+	}
+
+	/**
+	 * Validates an idle {@link Connection} before it will be borrowed.
+	 * Invalid {@link Connection}s will be destroyed.
+	 * @return <code>true</code> if the {@link Connection} can be used.
+	 */
+	private boolean isValidForBorrow(final PooledConnection pooled) {
+		if(System.currentTimeMillis() - pooled.returnedAt < validationInterval) {
+			return true;
+		}
+
+		boolean valid;
+		try {
+			valid = pooled.physical.isValid(VALIDATION_TIMEOUT);
+		}
+		catch(final SQLException e) {
+			valid = false;
+		}
+
+		if(!valid) {
+			LOGGER.info("Discarding invalid pooled connection.");
+			lock.lock();
+			try {
+				invalidated++;
+			}
+			finally {
+				lock.unlock();
+			}
+			destroy(pooled);
+		}
+
+		return valid;
+	}
+
+	/**
+	 * Returns the {@link Connection} to the pool. Pending changes will be rolled back.
+	 * If the {@link Connection} is broken it will be closed.
+	 */
+	private void giveBack(final PooledConnection pooled) {
+		lock.lock();
+		try {
+			if(active.remove(pooled) == null) {
+				return; // already returned.
+			}
+			pooled.proxy = null;
+			pooled.borrowStack = null;
+		}
+		finally {
+			lock.unlock();
+		}
+
+		boolean reusable;
+		try {
+			if(!pooled.physical.getAutoCommit()) {
+				pooled.physical.rollback();
+			}
+			else {
+				pooled.physical.setAutoCommit(false);
+			}
+			pooled.physical.clearWarnings();
+			reusable = !pooled.physical.isClosed();
+		}
+		catch(final SQLException e) {
+			LOGGER.warn("Can't reset returned connection. It will be closed.", e);
+			reusable = false;
+		}
+
+		if(!reusable) {
+			destroy(pooled);
+			return;
+		}
+
+		lock.lock();
+		try {
+			if(closed) {
+				total--;
+				CloseUtil.close(pooled.physical);
+				return;
+			}
+
+			pooled.returnedAt = System.currentTimeMillis();
+			idle.addFirst(pooled);
+			available.signal();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Closes the physical {@link Connection} and frees its slot.
+	 */
+	private void destroy(final PooledConnection pooled) {
+		CloseUtil.close(pooled.physical);
+
+		lock.lock();
+		try {
+			total--;
+			available.signal();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Evicts idle {@link Connection}s, opens {@link Connection}s up to {@link #minSize}
+	 * and logs leaked {@link Connection}s.
+	 */
+	private void maintain() {
+		final List<PooledConnection> toClose = new ArrayList<>();
+		final long now = System.currentTimeMillis();
+		int toOpen = 0;
+
+		lock.lock();
+		try {
+			if(closed) {
+				return;
+			}
+
+			// the oldest idle connections are at the tail.
+			final Iterator<PooledConnection> it = idle.descendingIterator();
+			while(it.hasNext() && total - toClose.size() > minSize) {
+				final PooledConnection pooled = it.next();
+				if(now - pooled.returnedAt > idleTimeout) {
+					it.remove();
+					toClose.add(pooled);
+				}
+			}
+			total -= toClose.size();
+
+			toOpen = Math.max(0, minSize - total);
+			total += toOpen;
+
+			if(leakThreshold > 0) {
+				for (final PooledConnection pooled : active.keySet()) {
+					if(!pooled.leakReported && now - pooled.borrowedAt > leakThreshold) {
+						pooled.leakReported = true;
+						leaks++;
+						LOGGER.warn("Connection was borrowed {}ms ago and wasn't returned yet. Possible leak.",
+								now - pooled.borrowedAt, pooled.borrowStack);
+					}
+				}
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+
+		for (final PooledConnection pooled : toClose) {
+			CloseUtil.close(pooled.physical);
+		}
+
+		for (int i = 0; i < toOpen; i++) {
+			final PooledConnection pooled;
+			try {
+				pooled = open();
+			}
+			catch(final SQLException | RuntimeException e) {
+				LOGGER.warn("Can't open connection to fill the pool up to its minimal size.", e);
+
+				lock.lock();
+				try {
+					total -= toOpen - i - 1; // open() already decremented it for the failed one.
+				}
+				finally {
+					lock.unlock();
+				}
+				break;
+			}
+
+			lock.lock();
+			try {
+				// the pool could be closed while opening, so the remaining connections aren't needed anymore.
+				if(closed) {
+					total -= toOpen - i;
+					CloseUtil.close(pooled.physical);
+					return;
+				}
+
+				idle.addLast(pooled);
+				available.signal();
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * @return a snapshot of the current statistics of the pool.
+	 */
+	DBConnectionPoolStats getStats() {
+		lock.lock();
+		try {
+			return new DBConnectionPoolStats(active.size(), idle.size(), total, minSize, maxSize,
+					waiting, borrows, timeouts, totalWaitTime, maxWaitTime, leaks, invalidated);
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Stops the maintenance thread and closes all idle {@link Connection}s.
+	 * Borrowed {@link Connection}s will be closed when they are returned.
+	 */
+	void close() {
+		maintenance.shutdownNow();
+
+		final List<PooledConnection> toClose;
+		lock.lock();
+		try {
+			closed = true;
+			toClose = new ArrayList<>(idle);
+			total -= idle.size();
+			idle.clear();
+			available.signalAll();
+		}
+		finally {
+			lock.unlock();
+		}
+
+		for (final PooledConnection pooled : toClose) {
+			CloseUtil.close(pooled.physical);
+		}
+	}
+}
@@ -0,0 +1,191 @@
+package com.incomb.server.db;
+
+import java.sql.Connection;
+
+/**
+ * A snapshot of the statistics of the connection pool behind {@link DBConnectionProvider}.
+ * @see DBConnectionProvider#getStats()
+ */
+public class DBConnectionPoolStats {
+
+	/**
+	 * Amount of currently borrowed {@link Connection}s.
+	 */
+	private final int active;
+
+	/**
+	 * Amount of currently idle {@link Connection}s.
+	 */
+	private final int idle;
+
+	/**
+	 * Amount of open physical {@link Connection}s.
+	 */
+	private final int total;
+
+	/**
+	 * Configured minimal amount of open {@link Connection}s.
+	 */
+	private final int minSize;
+
+	/**
+	 * Configured maximal amount of open {@link Connection}s.
+	 */
+	private final int maxSize;
+
+	/**
+	 * Amount of callers currently waiting for a {@link Connection}.
+	 */
+	private final int waiting;
+
+	/**
+	 * Total amount of borrowed {@link Connection}s since startup.
+	 */
+	private final long borrows;
+
+	/**
+	 * Total amount of borrows which timed out since startup.
+	 */
+	private final long timeouts;
+
+	/**
+	 * Total time in milliseconds callers waited for a {@link Connection}.
+	 */
+	private final long totalWaitTime;
+
+	/**
+	 * Longest time in milliseconds a caller waited for a {@link Connection}.
+	 */
+	private final long maxWaitTime;
+
+	/**
+	 * Amount of {@link Connection}s which were logged as possible leak.
+	 */
+	private final long leaks;
+
+	/**
+	 * Amount of {@link Connection}s which were discarded because they failed the validation.
+	 */
+	private final long invalidated;
+
+	/**
+	 * Creates a new instance with all properties.
+	 */
+	DBConnectionPoolStats(final int active, final int idle, final int total, final int minSize,
+			final int maxSize, final int waiting, final long borrows, final long timeouts,
+			final long totalWaitTime, final long maxWaitTime, final long leaks, final long invalidated) {
+		this.active = active;
+		this.idle = idle;
+		this.total = total;
+		this.minSize = minSize;
+		this.maxSize = maxSize;
+		this.waiting = waiting;
+		this.borrows = borrows;
+		this.timeouts = timeouts;
+		this.totalWaitTime = totalWaitTime;
+		this.maxWaitTime = maxWaitTime;
+		this.leaks = leaks;
+		this.invalidated = invalidated;
+	}
+
+	/**
+	 * @return the amount of currently borrowed {@link Connection}s.
+	 */
+	public int getActive() {
+		return active;
+	}
+
+	/**
+	 * @return the amount of currently idle {@link Connection}s.
+	 */
+	public int getIdle() {
+		return idle;
+	}
+
+	/**
+	 * @return the amount of open physical {@link Connection}s.
+	 */
+	public int getTotal() {
+		return total;
+	}
+
+	/**
+	 * @return the configured minimal amount of open {@link Connection}s.
+	 */
+	public int getMinSize() {
+		return minSize;
+	}
+
+	/**
+	 * @return the configured maximal amount of open {@link Connection}s.
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @return the amount of callers currently waiting for a {@link Connection}.
+	 */
+	public int getWaiting() {
+		return waiting;
+	}
+
+	/**
+	 * @return the total amount of borrowed {@link Connection}s since startup.
+	 */
+	public long getBorrows() {
+		return borrows;
+	}
+
+	/**
+	 * @return the total amount of borrows which timed out since startup.
+	 */
+	public long getTimeouts() {
+		return timeouts;
+	}
+
+	/**
+	 * @return the total time in milliseconds callers waited for a {@link Connection}.
+	 */
+	public long getTotalWaitTime() {
+		return totalWaitTime;
+	}
+
+	/**
+	 * @return the average time in milliseconds a caller waited for a {@link Connection}.
+	 */
+	public double getAverageWaitTime() {
+		return borrows == 0 ? 0 : (double) totalWaitTime / borrows;
+	}
+
+	/**
+	 * @return the longest time in milliseconds a caller waited for a {@link Connection}.
+	 */
+	public long getMaxWaitTime() {
+		return maxWaitTime;
+	}
+
+	/**
+	 * @return the amount of {@link Connection}s which were logged as possible leak.
+	 */
+	public long getLeaks() {
+		return leaks;
+	}
+
+	/**
+	 * @return the amount of {@link Connection}s which were discarded because they failed the validation.
+	 */
+	public long getInvalidated() {
+		return invalidated;
+	}
+
+	/**
+	 * Returns the statistics in a human readable format.
+	 */
+	@Override
+	public String toString() {
+		return String.format("Active %d, idle %d, total %d/%d, waiting %d, borrows %d, timeouts %d, "
+				+ "avg wait %.1f ms, max wait %d ms, leaks %d, invalidated %d.", active, idle, total, maxSize,
+				waiting, borrows, timeouts, getAverageWaitTime(), maxWaitTime, leaks, invalidated);
+	}
+}
@@ -27,6 +27,10 @@ import com.mysql.jdbc.jdbc2.optional.MysqlDataSource;
  * </code>
  *
  * <p>This class can be used as a {@link ConnectionProvider} for jooq.</p>
+ *
+ * <p>The {@link Connection}s are taken from a bounded {@link DBConnectionPool} which is configured
+ * with the properties <code>db.pool.*</code> in the default {@link Config}. Closing or releasing a
+ * {@link Connection} returns it to the pool.</p>
  */
 public class DBConnectionProvider implements ConnectionProvider {
 
@@ -43,17 +47,17 @@ public class DBConnectionProvider implements ConnectionProvider {
 	private static final Logger LOGGER = LoggerFactory.getLogger(DBConnectionProvider.class);
 
 	/**
-	 * Internal {@link MysqlDataSource} to retrieve {@link Connection}s.
+	 * Internal {@link MysqlDataSource} to open physical {@link Connection}s.
 	 */
 	private final MysqlDataSource dataSource = new MysqlDataSource();
 
 	/**
-	 * Amount of returned {@link Connection}s by {@link #acquire()}.
+	 * The pool from which {@link #acquire()} takes the {@link Connection}s.
 	 */
-	private int acquiredConnections = 0;
+	private final DBConnectionPool pool;
 
 	/**
-	 * It configures the {@link #dataSource} with properties from the default {@link Config}.
+	 * It configures the {@link #dataSource} and the {@link #pool} with properties from the default {@link Config}.
 	 * <p>The constructor is only accessible for this class and subclasses.</p>
 	 */
 	protected DBConnectionProvider() {
@@ -63,6 +67,22 @@ public class DBConnectionProvider implements ConnectionProvider {
 		dataSource.setUser(conf.getStringProperty("db.user"));
 		dataSource.setPassword(conf.getStringProperty("db.password"));
 		dataSource.setDatabaseName(conf.getStringProperty("db.name"));
+
+		pool = new DBConnectionPool(dataSource,
+				conf.getIntProperty("db.pool.minSize", 2),
+				conf.getIntProperty("db.pool.maxSize", 20),
+				conf.getIntProperty("db.pool.maxWait", 10000),
+				conf.getIntProperty("db.pool.idleTimeout", 5*60*1000),
+				conf.getIntProperty("db.pool.validationInterval", 5000),
+				conf.getIntProperty("db.pool.leakThreshold", 60*1000));
+	}
+
+	/**
+	 * Creates a provider which takes the {@link Connection}s from the given pool.
+	 * <p>Only used by tests.</p>
+	 */
+	DBConnectionProvider(final DBConnectionPool pool) {
+		this.pool = pool;
 	}
 
 	/**
@@ -74,16 +94,13 @@ public class DBConnectionProvider implements ConnectionProvider {
 	}
 
 	/**
-	 * Returns a {@link Connection} with auto commit = false.
+	 * Returns a pooled {@link Connection} with auto commit = false.
 	 * @throws RuntimeException if it couldn't retrieve a {@link Connection}.
 	 */
 	@Override
 	public Connection acquire() {
 		try {
-			final Connection con = dataSource.getConnection();
-			con.setAutoCommit(false);
-			logConnectionStats(1);
-			return con;
+			return pool.borrow();
 		} catch (final SQLException e) {
 			LOGGER.error("Couldn't get a MySQL connection!", e);
 			throw new RuntimeException("Couldn't get a MySQL connection!", e);
@@ -91,22 +108,28 @@ public class DBConnectionProvider implements ConnectionProvider {
 	}
 
 	/**
-	 * Closes the given {@link Connection}.
+	 * Returns the given {@link Connection} to the pool.
 	 * After that call it can't be used anymore.
-	 * Please do a commit or rollback before calling this method.
+	 * Please do a commit before calling this method, uncommitted changes will be rolled back.
 	 */
 	@Override
 	public void release(final Connection connection) {
 		CloseUtil.close(connection);
-		logConnectionStats(-1);
 	}
 
 	/**
-	 * Logs the the new amount of returned {@link Connection}s.
-	 * @param delta the amount of returned or released connections.
+	 * @return a snapshot of the statistics of the connection pool.
+	 */
+	public DBConnectionPoolStats getStats() {
+		return pool.getStats();
+	}
+
+	/**
+	 * Closes all idle {@link Connection}s of the pool.
+	 * Must be called when the application is shutting down.
 	 */
-	private void logConnectionStats(final int delta) {
-		acquiredConnections += delta;
-		//LOGGER.info("Connections info: Total acquired: {}, delta: {}.", acquiredConnections, delta);
+	public void shutdown() {
+		LOGGER.info("Closing connection pool. {}", pool.getStats());
+		pool.close();
 	}
 }
@@ -0,0 +1,30 @@
+package com.incomb.server.indexing;
+
+import com.incomb.server.indexing.conf.IIndexTypeConf;
+
+/**
+ * State of a reindex of an {@link IIndexTypeConf}.
+ * @see ReIndexProgress
+ */
+public enum EReIndexState {
+
+	/**
+	 * The elements are currently written to the shadow index.
+	 */
+	RUNNING,
+
+	/**
+	 * The shadow index was completely built and replaced the old index.
+	 */
+	FINISHED,
+
+	/**
+	 * The reindex was cancelled. The old index is still used.
+	 */
+	CANCELLED,
+
+	/**
+	 * The reindex failed because of an exception. The old index is still used.
+	 */
+	FAILED;
+}
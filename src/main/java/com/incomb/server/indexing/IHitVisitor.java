@@ -0,0 +1,25 @@
+package com.incomb.server.indexing;
+
+import org.apache.lucene.document.Document;
+
+/**
+ * Gets the hits of {@link IndexSearch#scan(org.apache.lucene.search.Query, java.util.Set, IHitVisitor)}
+ * one by one while the index is searched, so the hits aren't collected in memory.
+ * The hits are passed in the order of the index and not sorted by score.
+ */
+public interface IHitVisitor {
+
+	/**
+	 * Decides with the score if the stored fields of a hit are loaded and passed to {@link #visit(Document, float)}.
+	 * @param score the score of the hit.
+	 * @return true if the hit should be visited.
+	 */
+	boolean accept(float score);
+
+	/**
+	 * Gets an accepted hit.
+	 * @param document the {@link Document} of the hit with the requested stored fields.
+	 * @param score the score of the hit.
+	 */
+	void visit(Document document, float score);
+}
@@ -26,6 +26,12 @@ public interface IIndexElement {
 	 */
 	static final String FIELD_INDEX_TYPE = "indexType";
 
+	/**
+	 * The name of the {@link Field} which identifies the {@link Document} over all {@link IIndexTypeConf}s.
+	 * It contains {@link IIndexTypeConf#getName()} and {@link #getId()} separated by a colon.
+	 */
+	static final String FIELD_UID = "uid";
+
 	/**
 	 * The name of the {@link Field} in which the locale returned by {@link #getLocale()} will be stored.
 	 */
@@ -7,28 +7,42 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
 import org.apache.lucene.analysis.de.GermanAnalyzer;
 import org.apache.lucene.analysis.en.EnglishAnalyzer;
 import org.apache.lucene.document.Document;
-import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.document.NumericDocValuesField;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.TrackingIndexWriter;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.store.AlreadyClosedException;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.MMapDirectory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.incomb.server.config.Config;
+import com.incomb.server.utils.CloseUtil;
 import com.incomb.server.utils.ConfigUtil;
 
 /**
  * This class represents a Lucene index.
  * It abstracts Lucenes {@link IndexWriter}.
  *
+ * <p>Searches use near-real-time {@link IndexSearcher}s opened from the {@link IndexWriter}
+ * by a {@link SearcherManager}. A background thread refreshes them at least every
+ * <code>index.maxStaleness</code> milliseconds (see {@link Config}), so changes are visible
+ * for searches without a commit. Searchers must be acquired with {@link #acquireSearcher()}
+ * and released with {@link #releaseSearcher(IndexSearcher)}.</p>
+ *
  * No public methods because this is a class which may be used only in the indexing package.
  */
 class Index implements Closeable {
@@ -77,6 +91,11 @@ class Index implements Closeable {
 	 */
 	private static final Logger LOGGER = LoggerFactory.getLogger(Index.class);
 
+	/**
+	 * Default maximal time in milliseconds until changes are visible for searches.
+	 */
+	private static final int DEFAULT_MAX_STALENESS = 1000;
+
 	/**
 	 * The name of the index.
 	 */
@@ -92,24 +111,37 @@ class Index implements Closeable {
 	 * Lucenes {@link Directory} where the index files exists.
 	 * @see #location
 	 */
-	private Directory directory;
+	private volatile Directory directory;
 
 	/**
 	 * The {@link IndexWriter} to change the index.
 	 */
-	private IndexWriter writer;
+	private volatile IndexWriter writer;
+
+	/**
+	 * Wraps the {@link #writer} to track the generation of the changes for the {@link #reopenThread}.
+	 */
+	private volatile TrackingIndexWriter trackingWriter;
 
 	/**
-	 * The {@link IndexReader} to search in the index.
-	 * After every commit {@link #commit()} a new {@link IndexReader} will be created so
-	 * that changes take effect.
+	 * Manages the near-real-time {@link IndexSearcher}s opened from the {@link #writer}.
 	 */
-	private IndexReader reader;
+	private volatile SearcherManager searcherManager;
+
+	/**
+	 * Refreshes the {@link #searcherManager} in the background.
+	 */
+	private volatile ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+
+	/**
+	 * Maximal time in seconds until changes are visible for searches.
+	 */
+	private final double maxStaleSec;
 
 	/**
 	 * Creates a new instance for the name.
 	 * A directory with the name of the index will be created in {@value #INDEX_LOCATION}
-	 * if it doesn't exist yet. {@link IndexWriter} and {@link IndexReader} will be opened.
+	 * if it doesn't exist yet. {@link IndexWriter} and {@link SearcherManager} will be opened.
 	 *
 	 * @param name the name of the index.
 	 */
@@ -120,32 +152,63 @@ class Index implements Closeable {
 
 		this.name = name;
 		this.location = new File(INDEX_LOCATION, name);
+		this.maxStaleSec = Config.getDefault().getIntProperty("index.maxStaleness", DEFAULT_MAX_STALENESS) / 1000.0;
+
+		// restore the old index if a swap was interrupted
+		final File oldLocation = getOldLocation();
+		if (!location.exists() && oldLocation.exists() && !oldLocation.renameTo(location)) {
+			LOGGER.error("Can't restore old index from {}.", oldLocation.getAbsolutePath());
+		}
 
 		// create directories if they don't exist yet
 		if (!location.exists()) {
 			location.mkdirs();
 		}
 
-		// create Directory, IndexWriter and IndexReader
+		// create Directory, IndexWriter and SearcherManager
 		createDirectory();
 		createWriter();
-		createReader();
+		createSearcherManager();
 	}
 
 	/**
-	 * Creates a new {@link IndexReader} for the {@link #directory} and sets it to {@link #reader}.
+	 * Creates a new {@link SearcherManager} for the {@link #writer} and starts the {@link #reopenThread}.
+	 * The old ones are closed after the new ones are set, so searches never see a closed {@link SearcherManager}.
 	 * If an {@link IOException} during creation will be thrown it will be logged and the old
-	 * {@link IndexReader} will be kept.
+	 * {@link SearcherManager} will be kept.
 	 */
-	private void createReader() {
+	private void createSearcherManager() {
 		try {
-			reader = DirectoryReader.open(directory);
+			final SearcherManager newManager = new SearcherManager(writer, true, null);
+			final ControlledRealTimeReopenThread<IndexSearcher> newThread = new ControlledRealTimeReopenThread<>(
+					trackingWriter, newManager, maxStaleSec, 0);
+			newThread.setName("IndexReopenThread-" + name);
+			newThread.setDaemon(true);
+			newThread.start();
+
+			final SearcherManager oldManager = searcherManager;
+			final ControlledRealTimeReopenThread<IndexSearcher> oldThread = reopenThread;
+
+			searcherManager = newManager;
+			reopenThread = newThread;
+
+			CloseUtil.close(oldThread);
+			CloseUtil.close(oldManager);
 		} catch (final IOException e) {
-			LOGGER.error("Exception was thrown during instantiation of IndexReader for location {}.",
+			LOGGER.error("Exception was thrown during instantiation of SearcherManager for location {}.",
 					location.getAbsolutePath(), e);
 		}
 	}
 
+	/**
+	 * Stops the {@link #reopenThread} and closes the {@link #searcherManager}.
+	 * {@link IndexSearcher}s which are still acquired stay usable until they are released.
+	 */
+	private void closeSearcherManager() {
+		CloseUtil.close(reopenThread);
+		CloseUtil.close(searcherManager);
+	}
+
 	/**
 	 * Creates a new {@link IndexWriter} for the {@link #directory} and sets it to {@link #writer}.
 	 * If an {@link IOException} during creation will be thrown it will be logged and the old
@@ -158,6 +221,7 @@ class Index implements Closeable {
 		try {
 			unlock();
 			writer = new IndexWriter(directory, config);
+			trackingWriter = new TrackingIndexWriter(writer);
 			writer.commit();
 		} catch (final IOException e) {
 			LOGGER.error("Can't create IndexWriter for path "
@@ -180,10 +244,54 @@ class Index implements Closeable {
 	}
 
 	/**
-	 * @return The {@link IndexReader} to search in the index.
+	 * Returns the current {@link IndexSearcher} and increments the reference count of its {@link IndexReader}.
+	 * It must be released with {@link #releaseSearcher(IndexSearcher)} after usage,
+	 * otherwise the old index files can't be deleted.
+	 * If the {@link SearcherManager} was replaced and closed meanwhile, the new one is used.
+	 * @return The {@link IndexSearcher} to search in the index.
+	 * @throws IllegalStateException if the {@link IndexSearcher} couldn't be acquired.
 	 */
-	IndexReader getIndexReader() {
-		return reader;
+	IndexSearcher acquireSearcher() {
+		while(true) {
+			final SearcherManager manager = searcherManager;
+			try {
+				return manager.acquire();
+			} catch (final AlreadyClosedException e) {
+				if(manager == searcherManager) {
+					throw e;
+				}
+			} catch (final IOException e) {
+				LOGGER.error("Can't acquire IndexSearcher of index {}.", name, e);
+				throw new IllegalStateException("Can't acquire IndexSearcher of index " + name + ".", e);
+			}
+		}
+	}
+
+	/**
+	 * Releases an {@link IndexSearcher} which was returned by {@link #acquireSearcher()}.
+	 * Releasing only decrements the reference count of its {@link IndexReader}, so it works
+	 * even if the {@link SearcherManager} was replaced since it was acquired.
+	 * @param searcher the {@link IndexSearcher} to release, may be null.
+	 */
+	void releaseSearcher(final IndexSearcher searcher) {
+		if(searcher == null) {
+			return;
+		}
+
+		try {
+			searcherManager.release(searcher);
+		} catch (final IOException e) {
+			LOGGER.warn("Can't release IndexSearcher of index {}.", name, e);
+		}
+	}
+
+	/**
+	 * Refreshes the {@link IndexSearcher} so that all changes made until now are visible for searches.
+	 * Blocks until the refresh is finished.
+	 * @throws IOException if there is a low-level IO error
+	 */
+	void refresh() throws IOException {
+		searcherManager.maybeRefreshBlocking();
 	}
 
 	/**
@@ -217,11 +325,11 @@ class Index implements Closeable {
 	void addDocument(final Document doc, final Locale locale) throws IOException {
 		try {
 			if(locale == null) {
-				writer.addDocument(doc);
+				trackingWriter.addDocument(doc);
 				return;
 			}
 
-			writer.addDocument(doc, getAnalyzer(locale));
+			trackingWriter.addDocument(doc, getAnalyzer(locale));
 		}
 		catch(final AlreadyClosedException e) {
 			reopenIndex();
@@ -235,7 +343,26 @@ class Index implements Closeable {
 	 */
 	void deleteDocuments(final Query query) throws IOException {
 		try {
-			writer.deleteDocuments(query);
+			trackingWriter.deleteDocuments(query);
+		}
+		catch(final AlreadyClosedException e) {
+			reopenIndex();
+		}
+	}
+
+	/**
+	 * Changes the value of a {@link NumericDocValuesField} of all {@link Document}s containing the given {@link Term}
+	 * without rewriting the {@link Document}s.
+	 * @param term the {@link Term} to identify the {@link Document}s.
+	 * @param field the name of the {@link NumericDocValuesField}.
+	 * @param value the new value.
+	 * @throws IOException if there is a low-level IO error
+	 * @throws IllegalArgumentException if the field doesn't exist in the index yet.
+	 */
+	void updateNumericDocValue(final Term term, final String field, final long value) throws IOException {
+		try {
+			// the TrackingIndexWriter has no method for doc values, its IndexWriter belongs to the tracked generation.
+			trackingWriter.getIndexWriter().updateNumericDocValue(term, field, value);
 		}
 		catch(final AlreadyClosedException e) {
 			reopenIndex();
@@ -250,7 +377,7 @@ class Index implements Closeable {
 	 */
 	void deleteAllDocuments() throws IOException {
 		try {
-			writer.deleteAll();
+			trackingWriter.deleteAll();
 		}
 		catch(final AlreadyClosedException e) {
 			reopenIndex();
@@ -259,16 +386,14 @@ class Index implements Closeable {
 
 	/**
 	 * Commits any changes since the last commit or rollback.
-	 * Afterwards a new {@link IndexReader} will be created.
+	 * Deleted documents are removed by the merge policy of the {@link IndexWriter} in the background.
+	 * Afterwards the {@link IndexSearcher} will be refreshed. A failed refresh is only logged,
+	 * the {@link #reopenThread} refreshes it later.
 	 * @throws IOException if there is a low-level IO error
 	 */
 	void commit() throws IOException {
 		try {
 			writer.commit();
-
-			if(writer.hasDeletions()) {
-				writer.forceMergeDeletes(); // delete now the documents which are marked to delete.
-			}
 		}
 		catch(final AlreadyClosedException e) {
 			reopenIndex();
@@ -276,13 +401,19 @@ class Index implements Closeable {
 		finally {
 			unlock();
 
-			// new reader because new data is available.
-			createReader();
+			// refresh searcher because new data is available.
+			try {
+				refresh();
+			}
+			catch(final IOException | RuntimeException e) {
+				LOGGER.error("Can't refresh IndexSearcher of index {} after commit.", name, e);
+			}
 		}
 	}
 
 	/**
 	 * Rollbacks any changes since the last commit or rollback.
+	 * A rollback closes the {@link IndexWriter}, so it will be opened again with a new {@link SearcherManager}.
 	 * @throws IOException if there is a low-level IO error
 	 */
 	void rollback() throws IOException {
@@ -290,11 +421,116 @@ class Index implements Closeable {
 			writer.rollback();
 		}
 		catch(final AlreadyClosedException e) {
-			reopenIndex();
+			// reopened below.
 		}
 		finally {
 			unlock();
 		}
+
+		createWriter();
+		createSearcherManager();
+	}
+
+	/**
+	 * Adds all live {@link Document}s of the given {@link IndexReader}s to this index.
+	 * The changes still have to be committed.
+	 * @param readers the {@link IndexReader}s to copy.
+	 * @throws IOException if there is a low-level IO error
+	 */
+	void addIndexes(final IndexReader... readers) throws IOException {
+		writer.addIndexes(readers);
+	}
+
+	/**
+	 * Closes this index without committing and deletes its directory.
+	 * Used for shadow indexes which won't be needed anymore.
+	 */
+	void discard() {
+		try {
+			closeSearcherManager();
+			writer.rollback(); // closes the writer too
+			unlock();
+			directory.close();
+		} catch (final IOException | RuntimeException e) {
+			LOGGER.warn("Can't close index {}.", location.getAbsolutePath(), e);
+		}
+
+		try {
+			FileUtils.deleteDirectory(location);
+		} catch (final IOException e) {
+			LOGGER.warn("Can't delete index {}.", location.getAbsolutePath(), e);
+		}
+	}
+
+	/**
+	 * Replaces the content of this index with the given one, which will be closed.
+	 * The directory of the given {@link Index} is moved to the {@link #location} of this one and
+	 * a new {@link IndexWriter} and {@link SearcherManager} are opened for it.
+	 * All changes of both indexes have to be committed and no other thread may change them meanwhile.
+	 *
+	 * <p>Searches continue with the old {@link SearcherManager} until the new one is set. It's closed
+	 * afterwards, {@link IndexSearcher}s which are still acquired stay usable until they are released.
+	 * The old {@link Directory} is closed after that, the files of its readers stay open until they're closed.</p>
+	 *
+	 * @param replacement the {@link Index} which replaces this one.
+	 * @throws IOException if the directories couldn't be moved. This index stays unchanged in this case.
+	 */
+	void replaceWith(final Index replacement) throws IOException {
+		replacement.closeResources();
+
+		// nothing is written meanwhile, so only the writer is closed. The searchers stay open.
+		CloseUtil.close(reopenThread);
+		writer.close();
+		unlock();
+
+		final Directory oldDirectory = directory;
+		final File oldLocation = getOldLocation();
+		FileUtils.deleteDirectory(oldLocation);
+
+		try {
+			if(!location.renameTo(oldLocation)) {
+				throw new IOException("Can't move " + location.getAbsolutePath() + " to " + oldLocation.getAbsolutePath());
+			}
+
+			if(!replacement.location.renameTo(location)) {
+				if(!oldLocation.renameTo(location)) {
+					LOGGER.error("Can't restore old index from {}.", oldLocation.getAbsolutePath());
+				}
+
+				throw new IOException("Can't move " + replacement.location.getAbsolutePath() + " to "
+						+ location.getAbsolutePath());
+			}
+		}
+		finally {
+			// swaps the searcher manager and closes the old one afterwards.
+			createDirectory();
+			createWriter();
+			createSearcherManager();
+
+			if(oldDirectory != directory) {
+				CloseUtil.close(oldDirectory);
+			}
+		}
+
+		try {
+			FileUtils.deleteDirectory(oldLocation);
+		} catch (final IOException e) {
+			LOGGER.warn("Can't delete old index {}.", oldLocation.getAbsolutePath(), e);
+		}
+	}
+
+	/**
+	 * Returns the location where the old index is moved to during {@link #replaceWith(Index)}.
+	 */
+	private File getOldLocation() {
+		return new File(INDEX_LOCATION, name + ".old");
+	}
+
+	/**
+	 * @return the location of the index in the file system.
+	 */
+	File getLocation() {
+		return location;
 	}
 
 	/**
@@ -312,21 +548,29 @@ class Index implements Closeable {
 	 * @throws IOException if there is a low-level IO error
 	 */
 	private void reopenIndex() throws IOException {
-		LOGGER.error("Reopening directory, writer and reader because an AlreadyClosedException was thrown.");
+		LOGGER.error("Reopening directory, writer and searcher because an AlreadyClosedException was thrown.");
 		createDirectory();
 		createWriter();
-		createReader();
+		createSearcherManager();
 		unlock();
 	}
 
 	/**
-	 * Closes the {@link IndexWriter}, {@link IndexReader} and other things belonging to the index.
+	 * Closes the {@link IndexWriter}, {@link SearcherManager} and other things belonging to the index.
 	 */
 	@Override
 	public void close() throws IOException {
 		LOGGER.warn("Index will be closed now! :( Callstack: ", new RuntimeException());
+		closeResources();
+	}
+
+	/**
+	 * Closes the {@link SearcherManager}, {@link IndexWriter} and {@link Directory}.
+	 * @throws IOException if there is a low-level IO error
+	 */
+	private void closeResources() throws IOException {
+		closeSearcherManager();
 		writer.close();
-		reader.close();
 		unlock();
 		directory.close();
 	}
@@ -0,0 +1,215 @@
+package com.incomb.server.indexing;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.TermQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.incomb.server.db.DBConnectionProvider;
+import com.incomb.server.indexing.conf.EOperation;
+import com.incomb.server.indexing.conf.IIndexTypeConf;
+import com.incomb.server.indexing.conf.fields.IIndexFieldConf;
+import com.incomb.server.indexing.conf.fields.NumericDocValuesIndexFieldConf;
+
+/**
+ * Writes {@link IIndexElement}s to an {@link Index} without committing it.
+ * It's used by the {@link IndexingThread} and for reindexing.
+ * All methods can be called by multiple threads at the same time.
+ */
+class IndexElementWriter {
+
+	/**
+	 * <p>The {@link Logger} for this class.</p>
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(IndexElementWriter.class);
+
+	/**
+	 * The {@link Index} where the changes should be made.
+	 */
+	private final Index index;
+
+	/**
+	 * Creates a new instance for the given {@link Index}.
+	 * @param index the {@link Index} where the changes should be made.
+	 */
+	IndexElementWriter(final Index index) {
+		this.index = index;
+	}
+
+	/**
+	 * Executes the given {@link EOperation} for the given {@link IIndexElement}.
+	 * @param conf the {@link IIndexTypeConf} of the {@link IIndexElement}.
+	 * @param element the {@link IIndexElement} to write.
+	 * @param operation the {@link EOperation} to execute. Mostly {@link IIndexElement#getOperation()}.
+	 * @throws IOException if an error occurred in the index.
+	 */
+	void write(final IIndexTypeConf conf, final IIndexElement element, final EOperation operation)
+			throws IOException {
+
+		switch (operation) {
+			case INSERT:
+				add(conf, element);
+				break;
+			case UPDATE:
+				update(conf, element);
+				break;
+			case UPDATE_DOC_VALUES:
+				updateDocValues(conf, element);
+				break;
+			case DELETE:
+				delete(conf, element);
+				break;
+		}
+	}
+
+	/**
+	 * Adds the given {@link IIndexElement} to the index.
+	 * It builds the {@link Document} with its {@link Field}s and writes it to the {@link Index}.
+	 * @param conf the {@link IIndexTypeConf} of the {@link IIndexElement}.
+	 * @param element the {@link IIndexElement} to add.
+	 * @throws IOException if an error occurred in the index.
+	 */
+	@SuppressWarnings("unchecked")
+	void add(final IIndexTypeConf conf, final IIndexElement element) throws IOException {
+		final Document doc = new Document();
+
+		// add id field
+		final StringField idField = new StringField(IIndexElement.FIELD_ID, element.getId(), Store.YES);
+		doc.add(idField);
+
+		// add index type field
+		final StringField indexTypeField = new StringField(IIndexElement.FIELD_INDEX_TYPE, conf.getName(), Store.YES);
+		doc.add(indexTypeField);
+
+		// add unique id field to update doc values
+		doc.add(new StringField(IIndexElement.FIELD_UID, getUid(conf, element), Store.NO));
+
+		final Locale locale = element.getLocale();
+		if(element.getLocale() != null) {
+			doc.add(new StringField(IIndexElement.FIELD_LOCALE, locale.getLanguage(), Store.YES));
+		}
+
+		for (@SuppressWarnings("rawtypes") final IIndexFieldConf fieldConf : conf.getFields()) {
+			Object fieldContent = element.getContent(fieldConf.getName());
+
+			if(fieldContent != null) {
+				if(!(fieldContent instanceof Collection<?>)) {
+					fieldContent = Arrays.asList(fieldContent);
+				}
+
+				for (final Object content : (Collection<?>) fieldContent) {
+					doc.add(fieldConf.buildField(content));
+				}
+			}
+		}
+
+		index.addDocument(doc, locale);
+	}
+
+	/**
+	 * Updates the given {@link IIndexElement} in the index by deleting the old {@link Document} first
+	 * and adding the new one.
+	 * @param conf the {@link IIndexTypeConf} of the {@link IIndexElement}.
+	 * @param element the {@link IIndexElement} to update.
+	 * @throws IOException if an error occurred in the index.
+	 */
+	void update(final IIndexTypeConf conf, final IIndexElement element) throws IOException {
+		delete(conf, element);
+		add(conf, element);
+	}
+
+	/**
+	 * Updates the values of all fields with a {@link NumericDocValuesIndexFieldConf} of the given {@link IIndexElement}
+	 * in place. Fields for which {@link IIndexElement#getContent(String)} returns null are left unchanged.
+	 * If a field doesn't exist in the index yet, because it was built before the field was added,
+	 * the whole {@link Document} is updated instead.
+	 * @param conf the {@link IIndexTypeConf} of the {@link IIndexElement}.
+	 * @param element the {@link IIndexElement} to update.
+	 * @throws IOException if an error occurred in the index.
+	 */
+	void updateDocValues(final IIndexTypeConf conf, final IIndexElement element) throws IOException {
+		final Term uidTerm = new Term(IIndexElement.FIELD_UID, getUid(conf, element));
+
+		for (final IIndexFieldConf<?> fieldConf : conf.getFields()) {
+			if(fieldConf instanceof NumericDocValuesIndexFieldConf) {
+				final Object content = element.getContent(fieldConf.getName());
+
+				if(content != null) {
+					try {
+						index.updateNumericDocValue(uidTerm, fieldConf.getName(), ((Number) content).longValue());
+					}
+					catch(final IllegalArgumentException e) {
+						LOGGER.warn("Field {} of {} doesn't exist in the index yet, updating the whole document {}.",
+								fieldConf.getName(), conf.getName(), element.getId());
+						updateWholeDocument(conf, element);
+						return;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Loads the complete {@link IIndexElement} with the id of the given one and updates its {@link Document}.
+	 * @param conf the {@link IIndexTypeConf} of the {@link IIndexElement}.
+	 * @param element the {@link IIndexElement} of which only some fields are known.
+	 * @throws IOException if an error occurred in the index.
+	 */
+	private void updateWholeDocument(final IIndexTypeConf conf, final IIndexElement element) throws IOException {
+		final long id = Long.parseLong(element.getId());
+
+		final List<? extends IIndexElement> elements;
+		final Connection con = DBConnectionProvider.getInstance().acquire();
+		try {
+			elements = conf.getElements(con, id - 1, 1);
+		}
+		finally {
+			DBConnectionProvider.getInstance().release(con);
+		}
+
+		if(elements.isEmpty() || !elements.get(0).getId().equals(element.getId())) {
+			LOGGER.warn("Can't find {} {} to update its document, it doesn't exist anymore.", conf.getName(), id);
+			return;
+		}
+
+		update(conf, elements.get(0));
+	}
+
+	/**
+	 * Returns the value of the {@link IIndexElement#FIELD_UID} field for the given {@link IIndexElement}.
+	 * @param conf the {@link IIndexTypeConf} of the {@link IIndexElement}.
+	 * @param element the {@link IIndexElement} to get the unique id of it.
+	 * @return the unique id over all {@link IIndexTypeConf}s.
+	 */
+	private String getUid(final IIndexTypeConf conf, final IIndexElement element) {
+		return conf.getName() + ":" + element.getId();
+	}
+
+	/**
+	 * Deletes the given {@link IIndexElement} from the index.
+	 * @param conf the {@link IIndexTypeConf} of the {@link IIndexElement}.
+	 * @param element the {@link IIndexElement} to remove.
+	 * @throws IOException if an error occurred in the index.
+	 */
+	void delete(final IIndexTypeConf conf, final IIndexElement element) throws IOException {
+		// build query for deletion
+		final BooleanQuery query = new BooleanQuery();
+		query.add(new TermQuery(new Term(IIndexElement.FIELD_ID, element.getId())), Occur.MUST);
+		query.add(new TermQuery(new Term(IIndexElement.FIELD_INDEX_TYPE, conf.getName())), Occur.MUST);
+
+		index.deleteDocuments(query);
+	}
+}
@@ -1,17 +1,10 @@
 package com.incomb.server.indexing;
 
-import java.io.IOException;
-import java.sql.Connection;
-import java.util.List;
-
-import org.apache.commons.lang3.time.StopWatch;
-import org.apache.lucene.index.Term;
-import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.document.Document;
 import org.apache.lucene.util.Version;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.incomb.server.db.DBConnectionProvider;
 import com.incomb.server.indexing.conf.IIndexTypeConf;
 import com.incomb.server.utils.CloseUtil;
 
@@ -34,11 +27,9 @@ public class IndexManager {
 	private static final IndexManager INSTANCE = new IndexManager();
 
 	/**
-	 * The amount of {@link IIndexElement} per chunk which is used when a whole
-	 * {@link IIndexTypeConf} will be reindexed.
-	 * @see #reIndex(IIndexTypeConf)
+	 * Maximal time in milliseconds to wait for a cancelled reindex on shutdown.
 	 */
-	private static final int CHUNK_SIZE = 200;
+	private static final long SHUTDOWN_TIMEOUT = 10000;
 
 	/**
 	 * The currently used Lucene version.
@@ -60,6 +51,11 @@ public class IndexManager {
 	 */
 	final IndexingThread indexingThread;
 
+	/**
+	 * The running or last reindex. Null if no reindex was started yet.
+	 */
+	private ReIndexJob reIndexJob;
+
 	/**
 	 * Creates the single {@link #index} and {@link #indexingThread} and starts it.
 	 * The constructor is only accessible for this class and subclasses.
@@ -96,66 +92,74 @@ public class IndexManager {
 	}
 
 	/**
-	 * Removes the old and builds the whole index for the given {@link IIndexTypeConf} again.
-	 * It takes the {@link IIndexElement} from {@link IIndexTypeConf#getElements(Connection, int, int)}
-	 * with chunks in the size of {@value #CHUNK_SIZE}.
-	 * This runs asynchronously.
+	 * Returns a snapshot of the statistics of the batches written by the {@link IndexingThread}.
+	 * @return the current {@link IndexingStats}.
+	 */
+	public IndexingStats getIndexingStats() {
+		return indexingThread.getStats();
+	}
+
+	/**
+	 * Builds the whole index for the given {@link IIndexTypeConf} again.
+	 * The new {@link Document}s are written to a shadow index which replaces the current one
+	 * when it's completely built, so searches still find the old {@link Document}s meanwhile.
+	 * This runs asynchronously, only one reindex can run at the same time.
 	 * @param typeConf the {@link IIndexTypeConf} to reindex.
+	 * @throws IllegalStateException if another reindex is still running.
+	 * @see #getReIndexProgress()
+	 * @see #cancelReIndex()
 	 */
-	public void reIndex(final IIndexTypeConf typeConf) {
-		new Thread() {
-			@Override
-			public void run() {
-				final StopWatch stopWatch = new StopWatch();
-				stopWatch.start();
-
-				final Connection con = DBConnectionProvider.getInstance().acquire();
-				try {
-					LOGGER.info("Started indexing of index type {}.", typeConf.getName());
-
-					try {
-						final TermQuery deleteQuery = new TermQuery(new Term(
-								IIndexElement.FIELD_INDEX_TYPE, typeConf.getName()));
-						index.deleteDocuments(deleteQuery);
-					} catch (final IOException e1) {
-						LOGGER.error("Can't delete old index of type {}.", typeConf.getName(), e1);
-						return;
-					}
-
-					int start = 0;
-					while(!isInterrupted()) {
-						final List<? extends IIndexElement> elements = typeConf.getElements(con, start, CHUNK_SIZE);
-						start += CHUNK_SIZE;
-
-						if(elements.isEmpty()) {
-							stopWatch.stop();
-							LOGGER.info("Finished reindexing of index type {} in {}ms.",
-									typeConf.getName(), stopWatch.getTime());
-							break; // no more elements.
-						}
-
-						final SimpleIndexData indexData = new SimpleIndexData(typeConf, elements);
-						index(indexData);
-
-						try {
-							Thread.sleep(5000); // wait some time, because we won't blew up the memory.
-						} catch (final InterruptedException e) {
-							break; // exit.
-						}
-					}
-				}
-				finally {
-					DBConnectionProvider.getInstance().release(con);
-				}
-			}
-		}.start();
+	public synchronized void reIndex(final IIndexTypeConf typeConf) {
+		if(reIndexJob != null && reIndexJob.isRunning()) {
+			throw new IllegalStateException("Index type " + reIndexJob.getProgress().getIndexType()
+					+ " is already reindexing.");
+		}
+
+		reIndexJob = new ReIndexJob(typeConf, index, indexingThread);
+		reIndexJob.start();
+	}
+
+	/**
+	 * Returns the progress of the running or last reindex.
+	 * @return the {@link ReIndexProgress} or null if no reindex was started yet.
+	 */
+	public synchronized ReIndexProgress getReIndexProgress() {
+		return reIndexJob == null ? null : reIndexJob.getProgress();
+	}
+
+	/**
+	 * Cancels the running reindex. The current index will be kept.
+	 * @return true if a running reindex was cancelled.
+	 */
+	public synchronized boolean cancelReIndex() {
+		if(reIndexJob == null || !reIndexJob.isRunning()) {
+			return false;
+		}
+
+		reIndexJob.cancel();
+		return true;
 	}
 
 	/**
-	 * Stops the {@link #indexingThread} and closes the {@link #index}.
+	 * Cancels a running reindex, stops the {@link #indexingThread} and closes the {@link #index}.
 	 * Must be called when the application is shutting down.
 	 */
 	public void shutdown() {
+		final ReIndexJob job;
+		synchronized (this) {
+			job = reIndexJob;
+		}
+
+		if(job != null && job.isAlive()) {
+			job.cancel();
+
+			try {
+				job.join(SHUTDOWN_TIMEOUT);
+			} catch (final InterruptedException e) {
+				LOGGER.warn("Interrupted while waiting for the reindex to stop.");
+			}
+		}
+
 		indexingThread.interrupt();
 		CloseUtil.close(index);
 	}
@@ -1,24 +1,40 @@
 package com.incomb.server.indexing;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Set;
 
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.StopWatch;
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DocumentStoredFieldVisitor;
+import org.apache.lucene.index.AtomicReader;
+import org.apache.lucene.index.AtomicReaderContext;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.queries.function.ValueSource;
 import org.apache.lucene.queries.mlt.MoreLikeThis;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.FieldDoc;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MultiCollector;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopDocsCollector;
+import org.apache.lucene.search.TopFieldCollector;
+import org.apache.lucene.search.TopScoreDocCollector;
 import org.apache.lucene.search.grouping.GroupingSearch;
 import org.apache.lucene.search.grouping.TopGroups;
-import org.apache.lucene.util.BytesRef;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.incomb.server.config.Config;
 import com.incomb.server.indexing.conf.IIndexTypeConf;
 import com.incomb.server.indexing.util.QueryUtil;
 
@@ -26,6 +42,10 @@ import com.incomb.server.indexing.util.QueryUtil;
  * This is the single point for searching in the lucene {@link Index}.
  * It can search for a specific search text in an {@link IIndexTypeConf} or
  * search directly with a lucene {@link Query}.
+ *
+ * <p>Every search acquires the current {@link IndexSearcher} from the {@link Index} and releases it
+ * afterwards. If lucene's document ids are needed across several calls (e.g. for {@link MoreLikeThis})
+ * use {@link #acquireSearcher()} and {@link #releaseSearcher(IndexSearcher)} around them.</p>
  */
 public class IndexSearch {
 
@@ -41,6 +61,16 @@ public class IndexSearch {
 	 */
 	private static final IndexSearch INSTANCE = new IndexSearch();
 
+	/**
+	 * Default maximal megabytes to cache the hits of the first pass of a group search.
+	 */
+	private static final int DEFAULT_GROUPING_CACHE_MB = 4;
+
+	/**
+	 * Default maximal amount of results of a search.
+	 */
+	private static final int DEFAULT_MAX_RESULTS = 1000;
+
 	/**
 	 * The constructor is only accessible for this class and subclasses.
 	 */
@@ -85,21 +115,39 @@ public class IndexSearch {
 	 * @return {@link DocumentsSearchResult} with the found {@link Document}.
 	 */
 	public DocumentsSearchResult search(final Query query, final SearchOptions options) {
+		return search(query, options, null);
+	}
+
+	/**
+	 * Executes the given {@link Query} like {@link #search(Query, SearchOptions)} and passes
+	 * all hits to the given {@link Collector} in the same pass.
+	 *
+	 * @param query the query to execute
+	 * @param options the additional options to execute the query.
+	 * @param hitCollector the {@link Collector} which gets all hits or null.
+	 * @return {@link DocumentsSearchResult} with the found {@link Document}.
+	 */
+	public DocumentsSearchResult search(final Query query, final SearchOptions options, final Collector hitCollector) {
 		final DocumentsSearchResult result = new DocumentsSearchResult();
 
-		final TopDocs topDocs = getTopDocs(query, options);
-		if(topDocs != null) {
-			result.setTotalHits(topDocs.totalHits);
+		final IndexSearcher searcher = acquireSearcher();
+		try {
+			final TopDocs topDocs = getTopDocs(searcher, query, options, hitCollector);
+			if(topDocs == null) {
+				return result;
+			}
 
-			final Index index = IndexManager.getInstance().getIndex();
-			final IndexReader reader = index.getIndexReader();
+			// offset paging can't go beyond the limit, so the total hits are limited too.
+			result.setTotalHits(options.getAfterScoreDoc() == null ?
+					Math.min(topDocs.totalHits, getMaxResults(SearchOptions.ALL_RESULTS)) : topDocs.totalHits);
+			final IndexReader reader = searcher.getIndexReader();
 
 			try {
 				LOGGER.debug("Found these documents (total = {}) for query '{}':", topDocs.totalHits, query);
 
 				int counter = 0;
 				for (final ScoreDoc scoreDoc : topDocs.scoreDocs) {
-					final Document document = reader.document(scoreDoc.doc);
+					final Document document = loadDocument(reader, scoreDoc.doc, options.getFields());
 					if(document != null) {
 						LOGGER.debug("- Score: " + StringUtils.rightPad(Float.toString(scoreDoc.score), 8) +
 								" Doc: " + document.get(IIndexElement.FIELD_ID));
@@ -116,34 +164,78 @@ public class IndexSearch {
 				LOGGER.error("Can't get documents for topdocs.", e);
 			}
 		}
+		finally {
+			releaseSearcher(searcher);
+		}
 
 		return result;
 	}
 
 	/**
 	 * Executes the given {@link Query} but returns lucene's {@link TopDocs}.
+	 * The document ids in the {@link TopDocs} are only valid for the {@link IndexSearcher}
+	 * which was used for this search. Use {@link #getTopDocs(IndexSearcher, Query, SearchOptions)}
+	 * if you need them.
 	 * @param query the query to execute
 	 * @param options the additional options to execute the query.
 	 * @return {@link TopDocs} or null if an error occurred.
 	 */
 	public TopDocs getTopDocs(final Query query, final SearchOptions options) {
-		TopDocs topDocs = null;
+		final IndexSearcher searcher = acquireSearcher();
+		try {
+			return getTopDocs(searcher, query, options);
+		}
+		finally {
+			releaseSearcher(searcher);
+		}
+	}
+
+	/**
+	 * Executes the given {@link Query} with the given {@link IndexSearcher} and returns lucene's {@link TopDocs}.
+	 * @param searcher the {@link IndexSearcher} returned by {@link #acquireSearcher()}.
+	 * @param query the query to execute
+	 * @param options the additional options to execute the query.
+	 * @return {@link TopDocs} or null if an error occurred.
+	 */
+	public TopDocs getTopDocs(final IndexSearcher searcher, final Query query, final SearchOptions options) {
+		return getTopDocs(searcher, query, options, null);
+	}
 
-		final Index index = IndexManager.getInstance().getIndex();
-		final IndexReader reader = index.getIndexReader();
-		final IndexSearcher searcher = new IndexSearcher(reader);
+	/**
+	 * Executes the given {@link Query} with the given {@link IndexSearcher} and returns lucene's {@link TopDocs}.
+	 * All hits are passed to the given {@link Collector} in the same pass.
+	 * At most index.search.maxResults are returned, use {@link #scan(Query, Set, IHitVisitor)} to get all hits.
+	 * @param searcher the {@link IndexSearcher} returned by {@link #acquireSearcher()}.
+	 * @param query the query to execute
+	 * @param options the additional options to execute the query.
+	 * @param hitCollector the {@link Collector} which gets all hits or null.
+	 * @return {@link TopDocs} or null if an error occurred.
+	 */
+	public TopDocs getTopDocs(final IndexSearcher searcher, final Query query, final SearchOptions options,
+			final Collector hitCollector) {
+		TopDocs topDocs = null;
 
 		// stopwatch to check performance of search
 		final StopWatch stopWatch = new StopWatch();
 
 		try {
-			int maxResults = options.getMaxResults();
-			if(maxResults <= 0) {
-				maxResults = reader.numDocs();
-			}
+			final int maxResults = getMaxResults(options.getMaxResults());
 
 			stopWatch.start();
-			if(options.getSort() == null) {
+			if(hitCollector != null) {
+				final TopDocsCollector<?> topCollector;
+				if(options.getSort() == null) {
+					topCollector = TopScoreDocCollector.create(maxResults, options.getAfterScoreDoc(), false);
+				}
+				else {
+					topCollector = TopFieldCollector.create(options.getSort().rewrite(searcher), maxResults,
+							(FieldDoc) options.getAfterScoreDoc(), true, false, false, false);
+				}
+
+				searcher.search(query, MultiCollector.wrap(topCollector, hitCollector));
+				topDocs = topCollector.topDocs();
+			}
+			else if(options.getSort() == null) {
 				if(options.getAfterScoreDoc() == null) {
 					topDocs = searcher.search(query, maxResults);
 				}
@@ -171,53 +263,167 @@ public class IndexSearch {
 	}
 
 	/**
-	 * Executes the given {@link Query} and groups the found {@link Document}s by the given groupField.
-	 * @param groupField the field to group the {@link Document}s with.
+	 * Executes the given {@link Query}, collapses the hits to groups by the value of the given {@link ValueSource}
+	 * and returns the best {@link Document} of each group in the requested page.
+	 *
+	 * <p>The groups and the documents within them are sorted by the {@link Sort} of the options or by relevance.
+	 * The document id is the last sort criterion, so the pages are stable. The hits of the first pass are cached
+	 * up to index.grouping.cacheMB, so the second pass doesn't execute the query again.
+	 * Only the first index.search.maxResults groups can be returned, so the total hits of the result
+	 * are the amount of all matching groups up to this limit.</p>
+	 *
+	 * @param groupSource the {@link ValueSource} which returns the group of a document.
 	 * @param query the query to execute
-	 * @param options the additional options to execute the query.
-	 * @return {@link TopGroups} or null if an error occurred.
+	 * @param options the additional options to execute the query, the max results and the
+	 * 			{@link ScoreDoc} to start after are ignored.
+	 * @param groupOffset the amount of groups to skip.
+	 * @param groupLimit the maximal amount of groups to return.
+	 * @return {@link DocumentsSearchResult} with the best {@link Document} of each group.
 	 */
-	public TopGroups<BytesRef> getGroupedDocs(final String groupField, final Query query, final SearchOptions options) {
-		final Index index = IndexManager.getInstance().getIndex();
-		final IndexReader reader = index.getIndexReader();
-		final IndexSearcher searcher = new IndexSearcher(reader);
-		final GroupingSearch groupingSearch = new GroupingSearch(groupField);
+	public DocumentsSearchResult searchGroups(final ValueSource groupSource, final Query query,
+			final SearchOptions options, final int groupOffset, final int groupLimit) {
+		final DocumentsSearchResult result = new DocumentsSearchResult();
 
-		if(options.getSort() != null) {
-			groupingSearch.setSortWithinGroup(options.getSort());
-		}
+		final SortField[] sortFields = (options.getSort() == null ? Sort.RELEVANCE : options.getSort()).getSort();
+		final Sort sort = new Sort(ArrayUtils.add(sortFields, SortField.FIELD_DOC));
 
-		TopGroups<BytesRef> topGroups = null;
+		final GroupingSearch groupingSearch = new GroupingSearch(groupSource, new HashMap<>());
+		groupingSearch.setGroupSort(sort);
+		groupingSearch.setSortWithinGroup(sort);
+		groupingSearch.setGroupDocsLimit(1);
+		groupingSearch.setIncludeScores(true);
+		groupingSearch.setAllGroups(true);
+		groupingSearch.setCachingInMB(Config.getDefault().getIntProperty("index.grouping.cacheMB",
+				DEFAULT_GROUPING_CACHE_MB), true);
+
+		// stopwatch to check performance of search
+		final StopWatch stopWatch = new StopWatch();
 
+		final IndexSearcher searcher = acquireSearcher();
 		try {
-			topGroups = groupingSearch.search(searcher, query, 0, options.getMaxResults());
-		} catch (final IOException e) {
+			stopWatch.start();
+			// the groups before the offset are collected too, so they're limited like other results.
+			final int maxGroups = getMaxResults(SearchOptions.ALL_RESULTS);
+			if(groupOffset >= maxGroups) {
+				LOGGER.warn("Group offset {} is beyond the maximal results {}.", groupOffset, maxGroups);
+				return result;
+			}
+
+			final TopGroups<?> topGroups = groupingSearch.search(searcher, query, groupOffset,
+					Math.max(1, Math.min(groupLimit, maxGroups - groupOffset)));
+			stopWatch.stop();
+			LOGGER.info("Group query execution used {}ms {}.", stopWatch.getTime(), query);
+
+			// only the groups up to the limit can be paged.
+			result.setTotalHits(Math.min(groupingSearch.getAllMatchingGroups().size(), maxGroups));
+
+			final IndexReader reader = searcher.getIndexReader();
+			for (int i = 0; i < topGroups.groups.length && i < groupLimit; i++) {
+				final ScoreDoc scoreDoc = topGroups.groups[i].scoreDocs[0];
+				final Document document = loadDocument(reader, scoreDoc.doc, options.getFields());
+				if(document != null) {
+					result.addDocument(document, scoreDoc.score);
+				}
+			}
+		}
+		catch (final IOException e) {
 			LOGGER.error("Can't execute group search because of an IOException.", e);
 		}
+		finally {
+			releaseSearcher(searcher);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Executes the given {@link Query} and passes every hit to the given {@link IHitVisitor} while the index
+	 * is searched. The hits aren't limited, sorted or collected, so this is the way to get all matching
+	 * {@link Document}s. The stored fields are only loaded for hits which the {@link IHitVisitor} accepts.
+	 *
+	 * @param query the query to execute
+	 * @param fields the names of the stored fields to load or <code>null</code> to load all.
+	 * @param visitor the {@link IHitVisitor} which gets the hits.
+	 * @return the amount of visited hits.
+	 */
+	public int scan(final Query query, final Set<String> fields, final IHitVisitor visitor) {
+		final ScanCollector collector = new ScanCollector(fields, visitor);
+
+		// stopwatch to check performance of search
+		final StopWatch stopWatch = new StopWatch();
+
+		final IndexSearcher searcher = acquireSearcher();
+		try {
+			stopWatch.start();
+			searcher.search(query, collector);
+			stopWatch.stop();
+			LOGGER.info("Scan used {}ms and visited {} of {} hits {}.", stopWatch.getTime(), collector.visited,
+					collector.hits, query);
+		}
+		catch (final IOException e) {
+			LOGGER.error("Can't execute scan because of an IOException.", e);
+		}
+		finally {
+			releaseSearcher(searcher);
+		}
 
-		return topGroups;
+		return collector.visited;
+	}
+
+	/**
+	 * Returns the amount of results to collect for the requested max results.
+	 * It's limited to index.search.maxResults, {@link SearchOptions#ALL_RESULTS} returns the limit.
+	 * @param maxResults the requested max results.
+	 */
+	private int getMaxResults(final int maxResults) {
+		final int limit = Math.max(1, Config.getDefault().getIntProperty("index.search.maxResults", DEFAULT_MAX_RESULTS));
+		if(maxResults > limit) {
+			LOGGER.warn("Requested {} results, but only {} are returned.", maxResults, limit);
+		}
+
+		return maxResults <= 0 ? limit : Math.min(maxResults, limit);
+	}
+
+	/**
+	 * Loads the given stored fields of the {@link Document} with the given document id.
+	 * @param reader the {@link IndexReader} of the document id.
+	 * @param docId the document id.
+	 * @param fields the names of the stored fields to load or <code>null</code> to load all.
+	 * @return the {@link Document} with the loaded fields.
+	 * @throws IOException if there is a low-level IO error
+	 */
+	private static Document loadDocument(final IndexReader reader, final int docId, final Set<String> fields)
+			throws IOException {
+		final DocumentStoredFieldVisitor fieldVisitor = fields == null ? new DocumentStoredFieldVisitor() :
+			new DocumentStoredFieldVisitor(fields);
+		reader.document(docId, fieldVisitor);
+		return fieldVisitor.getDocument();
 	}
 
 	/**
 	 * Returns a new instance of lucene's {@link MoreLikeThis} with the
-	 * right {@link IndexReader}.
+	 * {@link IndexReader} of the given {@link IndexSearcher}.
+	 * @param searcher the {@link IndexSearcher} returned by {@link #acquireSearcher()}.
+	 * 			It must not be released as long as the {@link MoreLikeThis} is used.
+	 * @param locale the {@link Locale} to choose the analyzer.
 	 */
-	public MoreLikeThis newMoreLikeThis(final Locale locale) {
-		final Index index = IndexManager.getInstance().getIndex();
-		final MoreLikeThis mlt = new MoreLikeThis(index.getIndexReader());
+	public MoreLikeThis newMoreLikeThis(final IndexSearcher searcher, final Locale locale) {
+		final MoreLikeThis mlt = new MoreLikeThis(searcher.getIndexReader());
 
-		mlt.setAnalyzer(index.getAnalyzer(locale));
+		mlt.setAnalyzer(IndexManager.getInstance().getIndex().getAnalyzer(locale));
 
 		return mlt;
 	}
 
 	/**
 	 * Returns lucene's document id for the given id in the given {@link IIndexTypeConf}
-	 * @param typeConf the 188.166.43.201 to fins.
+	 * @param searcher the {@link IndexSearcher} returned by {@link #acquireSearcher()}.
+	 * 			The document id is only valid for this {@link IndexSearcher}.
+	 * @param typeConf the {@link IIndexTypeConf} to find.
 	 * @param id the id to find.
 	 * @return the id or 0 if document was not found.
 	 */
-	public int getDocIdForId(final IIndexTypeConf typeConf, final String id) {
+	public int getDocIdForId(final IndexSearcher searcher, final IIndexTypeConf typeConf, final String id) {
 		final SearchOptions params = new SearchOptions();
 		params.setMaxResults(1);
 
@@ -225,7 +431,7 @@ public class IndexSearch {
 		QueryUtil.addTypeConf(query, typeConf);
 		QueryUtil.addId(query, id);
 
-		final TopDocs topDocs = IndexSearch.getInstance().getTopDocs(query, params);
+		final TopDocs topDocs = getTopDocs(searcher, query, params);
 
 		if(topDocs.totalHits == 0) {
 			throw new IllegalStateException("Can't find news with id " + id + " in news index.");
@@ -237,4 +443,104 @@ public class IndexSearch {
 
 		return topDocs.scoreDocs[0].doc;
 	}
+
+	/**
+	 * Returns the current {@link IndexSearcher} of the {@link Index}.
+	 * It must be released with {@link #releaseSearcher(IndexSearcher)} after usage.
+	 */
+	public IndexSearcher acquireSearcher() {
+		return IndexManager.getInstance().getIndex().acquireSearcher();
+	}
+
+	/**
+	 * Releases an {@link IndexSearcher} which was returned by {@link #acquireSearcher()}.
+	 * @param searcher the {@link IndexSearcher} to release, may be null.
+	 */
+	public void releaseSearcher(final IndexSearcher searcher) {
+		IndexManager.getInstance().getIndex().releaseSearcher(searcher);
+	}
+
+	/**
+	 * Passes the hits of {@link IndexSearch#scan(Query, Set, IHitVisitor)} to the {@link IHitVisitor}.
+	 */
+	private static class ScanCollector extends Collector {
+
+		/**
+		 * The names of the stored fields to load or <code>null</code> to load all.
+		 */
+		private final Set<String> fields;
+
+		/**
+		 * The {@link IHitVisitor} which gets the hits.
+		 */
+		private final IHitVisitor visitor;
+
+		/**
+		 * The {@link Scorer} of the current segment.
+		 */
+		private Scorer scorer;
+
+		/**
+		 * The reader of the current segment.
+		 */
+		private AtomicReader reader;
+
+		/**
+		 * Amount of all hits.
+		 */
+		private int hits = 0;
+
+		/**
+		 * Amount of hits which were accepted by the {@link IHitVisitor}.
+		 */
+		private int visited = 0;
+
+		/**
+		 * Creates a new instance.
+		 * @param fields the names of the stored fields to load or <code>null</code> to load all.
+		 * @param visitor the {@link IHitVisitor} which gets the hits.
+		 */
+		ScanCollector(final Set<String> fields, final IHitVisitor visitor) {
+			this.fields = fields;
+			this.visitor = visitor;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void setScorer(final Scorer scorer) {
+			this.scorer = scorer;
+		}
+
+		/**
+		 * Loads the {@link Document} of the hit and passes it to the {@link IHitVisitor} if it's accepted.
+		 */
+		@Override
+		public void collect(final int doc) throws IOException {
+			hits++;
+
+			final float score = scorer.score();
+			if(visitor.accept(score)) {
+				visitor.visit(loadDocument(reader, doc, fields), score);
+				visited++;
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void setNextReader(final AtomicReaderContext context) {
+			reader = context.reader();
+		}
+
+		/**
+		 * The hits are passed in the order of the index anyway.
+		 */
+		@Override
+		public boolean acceptsDocsOutOfOrder() {
+			return true;
+		}
+	}
 }
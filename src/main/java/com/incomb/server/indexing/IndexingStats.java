@@ -0,0 +1,170 @@
+package com.incomb.server.indexing;
+
+/**
+ * A snapshot of the statistics of the batches written by the {@link IndexingThread}.
+ * @see IndexManager#getIndexingStats()
+ */
+public class IndexingStats {
+
+	/**
+	 * Amount of {@link IIndexData} which are waiting in the queue.
+	 */
+	private final int queueSize;
+
+	/**
+	 * Amount of committed batches since startup.
+	 */
+	private final long batches;
+
+	/**
+	 * Amount of batches which couldn't be committed as a whole since startup.
+	 */
+	private final long failedBatches;
+
+	/**
+	 * Amount of committed {@link IIndexData} since startup.
+	 */
+	private final long indexDatas;
+
+	/**
+	 * Amount of committed document changes since startup.
+	 */
+	private final long docs;
+
+	/**
+	 * Amount of {@link IIndexData} of the last batch.
+	 */
+	private final int lastBatchSize;
+
+	/**
+	 * Highest amount of {@link IIndexData} in one batch since startup.
+	 */
+	private final int maxBatchSize;
+
+	/**
+	 * Total time in milliseconds all commits took.
+	 */
+	private final long totalCommitTime;
+
+	/**
+	 * Time in milliseconds the last commit took.
+	 */
+	private final long lastCommitTime;
+
+	/**
+	 * Longest time in milliseconds a commit took.
+	 */
+	private final long maxCommitTime;
+
+	/**
+	 * Creates a new instance with all properties.
+	 */
+	IndexingStats(final int queueSize, final long batches, final long failedBatches, final long indexDatas,
+			final long docs, final int lastBatchSize, final int maxBatchSize, final long totalCommitTime,
+			final long lastCommitTime, final long maxCommitTime) {
+		this.queueSize = queueSize;
+		this.batches = batches;
+		this.failedBatches = failedBatches;
+		this.indexDatas = indexDatas;
+		this.docs = docs;
+		this.lastBatchSize = lastBatchSize;
+		this.maxBatchSize = maxBatchSize;
+		this.totalCommitTime = totalCommitTime;
+		this.lastCommitTime = lastCommitTime;
+		this.maxCommitTime = maxCommitTime;
+	}
+
+	/**
+	 * @return the amount of {@link IIndexData} which are waiting in the queue.
+	 */
+	public int getQueueSize() {
+		return queueSize;
+	}
+
+	/**
+	 * @return the amount of committed batches since startup.
+	 */
+	public long getBatches() {
+		return batches;
+	}
+
+	/**
+	 * @return the amount of batches which couldn't be committed as a whole since startup.
+	 */
+	public long getFailedBatches() {
+		return failedBatches;
+	}
+
+	/**
+	 * @return the amount of committed {@link IIndexData} since startup.
+	 */
+	public long getIndexDatas() {
+		return indexDatas;
+	}
+
+	/**
+	 * @return the amount of committed document changes since startup.
+	 */
+	public long getDocs() {
+		return docs;
+	}
+
+	/**
+	 * @return the amount of {@link IIndexData} of the last batch.
+	 */
+	public int getLastBatchSize() {
+		return lastBatchSize;
+	}
+
+	/**
+	 * @return the highest amount of {@link IIndexData} in one batch since startup.
+	 */
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	/**
+	 * @return the average amount of {@link IIndexData} per batch.
+	 */
+	public double getAverageBatchSize() {
+		return batches == 0 ? 0 : (double) indexDatas / batches;
+	}
+
+	/**
+	 * @return the total time in milliseconds all commits took.
+	 */
+	public long getTotalCommitTime() {
+		return totalCommitTime;
+	}
+
+	/**
+	 * @return the time in milliseconds the last commit took.
+	 */
+	public long getLastCommitTime() {
+		return lastCommitTime;
+	}
+
+	/**
+	 * @return the longest time in milliseconds a commit took.
+	 */
+	public long getMaxCommitTime() {
+		return maxCommitTime;
+	}
+
+	/**
+	 * @return the average time in milliseconds a commit took.
+	 */
+	public double getAverageCommitTime() {
+		return batches == 0 ? 0 : (double) totalCommitTime / batches;
+	}
+
+	/**
+	 * Returns the statistics in a human readable format.
+	 */
+	@Override
+	public String toString() {
+		return String.format("Queue %d, batches %d (failed %d), index datas %d, docs %d, "
+				+ "batch size avg %.1f max %d, commit avg %.1f ms max %d ms.", queueSize, batches, failedBatches,
+				indexDatas, docs, getAverageBatchSize(), maxBatchSize, getAverageCommitTime(), maxCommitTime);
+	}
+}
@@ -1,43 +1,50 @@
 package com.incomb.server.indexing;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.Locale;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.lang3.time.StopWatch;
 import org.apache.lucene.document.Document;
-import org.apache.lucene.document.Field.Store;
-import org.apache.lucene.document.StringField;
-import org.apache.lucene.index.Term;
-import org.apache.lucene.search.BooleanClause.Occur;
-import org.apache.lucene.search.BooleanQuery;
-import org.apache.lucene.search.TermQuery;
-import org.jooq.Field;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.incomb.server.config.Config;
+import com.incomb.server.indexing.conf.EOperation;
 import com.incomb.server.indexing.conf.IIndexTypeConf;
-import com.incomb.server.indexing.conf.fields.IIndexFieldConf;
+import com.incomb.server.pipeline.EOverflowPolicy;
+import com.incomb.server.pipeline.StageQueue;
 
 /**
  * This {@link Thread} changes the Lucene index.
  * Only one instance of this class has to be running at the same time.
+ *
+ * <p>The queued {@link IIndexData} are written in batches: all {@link IIndexData} which arrive
+ * within {@value #DEFAULT_MAX_LATENCY} ms (index.batch.maxLatency) after the first one or until
+ * {@value #DEFAULT_MAX_DOCS} elements (index.batch.maxDocs) are collected are written in one
+ * transaction with a single commit. {@link IIndexTypeConf#afterIndexing(IIndexData)} is called for
+ * each {@link IIndexData} after the commit succeeded.</p>
  */
 class IndexingThread extends Thread {
 
 	/**
-	 * Statistics for one executed {@link IIndexData}.
+	 * Statistics for one executed batch of {@link IIndexData}.
 	 */
-	class IndexingStats {
+	class BatchStats {
 
 		/**
 		 * Measures the time for the execution.
 		 */
 		private final StopWatch stopWatch = new StopWatch();
 
+		/**
+		 * Amount of {@link IIndexData} in the batch.
+		 */
+		private int indexDatas = 0;
+
 		/**
 		 * Amount of added {@link Document}s.
 		 */
@@ -53,20 +60,32 @@ class IndexingThread extends Thread {
 		 */
 		private int deletedDocs = 0;
 
+		/**
+		 * Time in milliseconds the commit took.
+		 */
+		private long commitTime = 0;
+
 		/**
 		 * Creates a new instance and starts the {@link StopWatch}.
 		 */
-		private IndexingStats() {
+		private BatchStats() {
 			stopWatch.start();
 		}
 
+		/**
+		 * @return the amount of changed {@link Document}s.
+		 */
+		private int getDocs() {
+			return addedDocs + updatedDocs + deletedDocs;
+		}
+
 		/**
 		 * Returns the statistics of the changes.
 		 */
 		@Override
 		public String toString() {
-			return String.format("Added %d, updated %d and deleted %d docs in %d ms.",
-					addedDocs, updatedDocs, deletedDocs, stopWatch.getTime());
+			return String.format("Added %d, updated %d and deleted %d docs of %d index datas in %d ms (commit %d ms).",
+					addedDocs, updatedDocs, deletedDocs, indexDatas, stopWatch.getTime(), commitTime);
 		}
 	}
 
@@ -76,9 +95,36 @@ class IndexingThread extends Thread {
 	private static final Logger LOGGER = LoggerFactory.getLogger(IndexingThread.class);
 
 	/**
-	 * The {@link Queue} of {@link IIndexData} which should be still changed in the index.
+	 * Default maximal amount of {@link IIndexElement}s which are written in one batch.
+	 */
+	private static final int DEFAULT_MAX_DOCS = 1000;
+
+	/**
+	 * Default maximal time in milliseconds to wait for more {@link IIndexData} before a batch is committed.
+	 */
+	private static final int DEFAULT_MAX_LATENCY = 50;
+
+	/**
+	 * Default maximal amount of {@link IIndexData} which are waiting in the {@link #queue}.
+	 */
+	private static final int DEFAULT_QUEUE_CAPACITY = 10000;
+
+	/**
+	 * Default time in milliseconds to wait for space in the full {@link #queue}.
+	 */
+	private static final int DEFAULT_QUEUE_BLOCK_TIMEOUT = 10000;
+
+	/**
+	 * Default maximal amount of {@link IIndexElement}s which are recorded during a reindex.
+	 */
+	private static final int DEFAULT_MAX_RECORDED = 100000;
+
+	/**
+	 * The {@link StageQueue} of {@link IIndexData} which should be still changed in the index.
+	 * If it's full the callers of {@link #add(IIndexData)} wait, see there.
 	 */
-	private final Queue<IIndexData> queue = new ConcurrentLinkedQueue<>();
+	private final StageQueue<IIndexData> queue = new StageQueue<>("index", DEFAULT_QUEUE_CAPACITY,
+			EOverflowPolicy.BLOCK, DEFAULT_QUEUE_BLOCK_TIMEOUT);
 
 	/**
 	 * The {@link Index} where the changes should be made.
@@ -86,14 +132,91 @@ class IndexingThread extends Thread {
 	private final Index index;
 
 	/**
-	 * The {@link IIndexData} which is currently executing.
+	 * Writes the {@link IIndexElement}s to the {@link #index}.
 	 */
-	private IIndexData indexData;
+	private final IndexElementWriter writer;
 
 	/**
-	 * The statistics for the current {@link IIndexData}.
+	 * Maximal amount of {@link IIndexElement}s which are written in one batch.
 	 */
-	private IndexingStats stats = new IndexingStats();
+	private final int maxDocs;
+
+	/**
+	 * Maximal time in milliseconds to wait for more {@link IIndexData} before a batch is committed.
+	 */
+	private final long maxLatency;
+
+	/**
+	 * Held while a batch is written and committed.
+	 */
+	private final Object batchLock = new Object();
+
+	/**
+	 * Contains all committed {@link IIndexData} while a reindex is running, otherwise null.
+	 * @see #startRecording()
+	 */
+	private List<IIndexData> recorded;
+
+	/**
+	 * Amount of {@link IIndexElement}s in {@link #recorded}.
+	 */
+	private int recordedElements;
+
+	/**
+	 * True if more than index.reindex.maxRecorded {@link IIndexElement}s were committed since
+	 * {@link #startRecording()}, so the recorded changes were discarded.
+	 */
+	private volatile boolean recordingOverflowed = false;
+
+	/**
+	 * The statistics for the current batch.
+	 */
+	private BatchStats stats = new BatchStats();
+
+	/**
+	 * Amount of committed batches since startup.
+	 */
+	private final AtomicLong batches = new AtomicLong();
+
+	/**
+	 * Amount of batches which couldn't be committed as a whole since startup.
+	 */
+	private final AtomicLong failedBatches = new AtomicLong();
+
+	/**
+	 * Amount of committed {@link IIndexData} since startup.
+	 */
+	private final AtomicLong indexDatas = new AtomicLong();
+
+	/**
+	 * Amount of committed {@link Document} changes since startup.
+	 */
+	private final AtomicLong docs = new AtomicLong();
+
+	/**
+	 * Amount of {@link IIndexData} of the last batch.
+	 */
+	private volatile int lastBatchSize = 0;
+
+	/**
+	 * Highest amount of {@link IIndexData} in one batch since startup.
+	 */
+	private volatile int maxBatchSize = 0;
+
+	/**
+	 * Total time in milliseconds all commits took.
+	 */
+	private final AtomicLong totalCommitTime = new AtomicLong();
+
+	/**
+	 * Time in milliseconds the last commit took.
+	 */
+	private volatile long lastCommitTime = 0;
+
+	/**
+	 * Longest time in milliseconds a commit took.
+	 */
+	private volatile long maxCommitTime = 0;
 
 	/**
 	 * Creates a new instance and sets the name to "IndexingThread".
@@ -102,172 +225,320 @@ class IndexingThread extends Thread {
 	public IndexingThread(final Index index) {
 		setName("IndexingThread");
 		this.index = index;
+		this.writer = new IndexElementWriter(index);
+		this.maxDocs = Math.max(1, Config.getDefault().getIntProperty("index.batch.maxDocs", DEFAULT_MAX_DOCS));
+		this.maxLatency = Math.max(0, Config.getDefault().getIntProperty("index.batch.maxLatency", DEFAULT_MAX_LATENCY));
+
+		if(queue.getStats().getPolicy() == EOverflowPolicy.DROP_OLDEST) {
+			LOGGER.warn("Policy {} of pipeline.index can drop waiting updates and deletes, use {} or {}.",
+					EOverflowPolicy.DROP_OLDEST, EOverflowPolicy.BLOCK, EOverflowPolicy.DROP_NEWEST);
+		}
 	}
 
 	/**
 	 * Runs until the {@link Thread} will be interrupted.
-	 * Executes every {@link IIndexData} in the {@link #queue} until it is empty.
-	 * If the {@link #queue} is empty than the {@link Thread} waits until {@link #add(IIndexData)} will be called.
+	 * Waits for the next {@link IIndexData}, collects a batch and executes it.
 	 */
 	@Override
 	public void run() {
 		while(!isInterrupted()) {
-			if(queue.isEmpty()) {
-				try {
-					synchronized (this) {
-						wait(); // wait for new IIndexData
-					}
-				} catch (final InterruptedException e) {
-					// exit
-					break;
-				}
+			final List<IIndexData> batch = new ArrayList<>();
+
+			try {
+				batch.add(queue.take()); // wait for new IIndexData
+			} catch (final InterruptedException e) {
+				// exit
+				break;
+			}
+
+			final boolean interrupted = collectBatch(batch);
+			index(batch);
+
+			if(interrupted) {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Adds more {@link IIndexData} from the {@link #queue} to the given batch until
+	 * {@link #maxDocs} elements are reached or {@link #maxLatency} is elapsed.
+	 * @param batch the batch which contains already the first {@link IIndexData}.
+	 * @return true if the {@link Thread} was interrupted while waiting.
+	 */
+	private boolean collectBatch(final List<IIndexData> batch) {
+		final long deadline = System.currentTimeMillis() + maxLatency;
+		int elements = batch.get(0).getElements().size();
+
+		while(elements < maxDocs) {
+			final long remaining = deadline - System.currentTimeMillis();
+
+			final IIndexData data;
+			try {
+				data = remaining > 0 ? queue.poll(remaining, TimeUnit.MILLISECONDS) : queue.poll();
+			} catch (final InterruptedException e) {
+				return true;
 			}
 
-			final IIndexData data = queue.poll();
-			if(data != null) {
-				indexData = data;
-				stats = new IndexingStats();
-				index();
+			if(data == null) {
+				break; // latency elapsed and queue is empty.
 			}
+
+			batch.add(data);
+			elements += data.getElements().size();
 		}
+
+		return false;
 	}
 
 	/**
-	 * Adds the {@link IIndexData} to the {@link #queue}.
+	 * Adds the {@link IIndexData} to the {@link #queue}. Waits if the {@link #queue} is full.
+	 *
+	 * <p>Only an {@link IIndexData} which inserts elements of an {@link IIndexTypeConf} whose
+	 * inserts are recoverable ({@link IIndexTypeConf#isInsertRecoverable()}) is dropped after
+	 * pipeline.index.blockTimeout, because its elements are indexed again at the next startup.
+	 * All other changes (updates, deletes and doc value updates) would be lost, so they wait until
+	 * there is space.</p>
+	 *
 	 * @param data the {@link IIndexData} to execute.
 	 */
 	void add(final IIndexData data) {
-		queue.add(data);
+		final boolean added = isDroppable(data) ? queue.put(data) : queue.putBlocking(data);
+		if(!added) {
+			LOGGER.error("Indexing queue is full, dropped {} elements of {}.", data.getElements().size(),
+					data.getConf().getName());
+		}
+	}
 
-		if(queue.size() > 10) {
-			LOGGER.warn("Indexing queue contains currently {} index datas.", queue.size());
+	/**
+	 * Returns true if the given {@link IIndexData} only inserts elements which are indexed again at the next startup.
+	 */
+	private static boolean isDroppable(final IIndexData data) {
+		if(!data.getConf().isInsertRecoverable()) {
+			return false;
 		}
 
-		synchronized (this) {
-			// notify Thread if it's waiting
-			if(getState() == State.WAITING) {
-				notify();
+		for (final IIndexElement element : data.getElements()) {
+			if(element.getOperation() != EOperation.INSERT) {
+				return false;
 			}
 		}
+		return true;
 	}
 
 	/**
-	 * Executes the current {@link IIndexData} which is set to {@link #indexData}.
-	 * Afterwards it commits or rollbacks the {@link Index}.
+	 * Returns the lock which is held while a batch is written and committed.
+	 * Holding it guarantees that the {@link Index} contains no uncommitted changes of this {@link Thread}.
+	 * @return the lock object.
 	 */
-	private void index() {
-		final IIndexTypeConf conf = indexData.getConf();
+	Object getBatchLock() {
+		return batchLock;
+	}
 
-		LOGGER.debug("Start indexing {} elements of {}.", indexData.getElements().size(), conf.getName());
+	/**
+	 * Starts recording all {@link IIndexData} which will be committed from now on.
+	 * Must be called while holding the {@link #getBatchLock()}.
+	 * @see #stopRecording()
+	 */
+	void startRecording() {
+		recorded = new ArrayList<>();
+		recordedElements = 0;
+		recordingOverflowed = false;
+	}
 
-		try {
-			int i = 0;
-			for (final IIndexElement element : indexData.getElements()) {
-				switch (element.getOperation()) {
-					case INSERT:
-						add(element);
-						stats.addedDocs++;
-						break;
-					case UPDATE:
-						update(element);
-						stats.updatedDocs++;
-						break;
-					case DELETE:
-						delete(element);
-						stats.deletedDocs++;
-						break;
-				}
+	/**
+	 * Stops recording and returns all {@link IIndexData} which were committed since {@link #startRecording()}.
+	 * Must be called while holding the {@link #getBatchLock()}.
+	 * @return the recorded {@link IIndexData} in the order they were committed. Empty if nothing was recorded.
+	 * 		Null if more than index.reindex.maxRecorded {@link IIndexElement}s were committed.
+	 * @see #isRecordingOverflowed()
+	 */
+	List<IIndexData> stopRecording() {
+		final List<IIndexData> result;
+		if(recordingOverflowed) {
+			result = null;
+		}
+		else {
+			result = recorded == null ? new ArrayList<IIndexData>() : recorded;
+		}
 
-				if(i++ % 50 == 0 && indexData.getElements().size() > 50) {
-					LOGGER.info("{} of {} elements indexed.", i + 1, indexData.getElements().size());
-				}
-			}
+		recorded = null;
+		recordingOverflowed = false;
+		return result;
+	}
 
-			try {
-				index.commit();
-				conf.afterIndexing(indexData);
-				// LOGGER.debug("Finished indexing of {}: {}", conf.getName(), stats.toString());
-			} catch (final IOException e) {
-				index.rollback();
-				LOGGER.error("Can't commit index of {}.", conf.getName(), e);
-			}
-		} catch (final Throwable e) {
-			try {
-				index.rollback();
-			} catch (final IOException e1) {
-				LOGGER.error("Can't rollback index because of an exception.", e);
-			}
+	/**
+	 * @return true if more than index.reindex.maxRecorded {@link IIndexElement}s were committed since
+	 * 		{@link #startRecording()}, so the recorded changes were discarded.
+	 */
+	boolean isRecordingOverflowed() {
+		return recordingOverflowed;
+	}
 
-			LOGGER.error("Can't change index because of an exception.", e);
+	/**
+	 * Records the given committed {@link IIndexData} if a reindex is running. If there are more than
+	 * index.reindex.maxRecorded {@link IIndexElement}s, the recorded changes are discarded.
+	 */
+	private void record(final List<IIndexData> batch) {
+		if(recorded == null) {
+			return;
 		}
+
+		for (final IIndexData data : batch) {
+			recordedElements += data.getElements().size();
+		}
+
+		final int maxRecorded = Config.getDefault().getIntProperty("index.reindex.maxRecorded", DEFAULT_MAX_RECORDED);
+		if(recordedElements > maxRecorded) {
+			LOGGER.warn("More than {} elements were changed during the reindex, the recorded changes are discarded.",
+					maxRecorded);
+			recorded = null;
+			recordingOverflowed = true;
+			return;
+		}
+
+		recorded.addAll(batch);
 	}
 
 	/**
-	 * Adds the given {@link IIndexElement} to the index.
-	 * It builds the {@link Document} with its {@link Field}s and writes it to {@link Index}.
-	 * @param element the {@link IIndexElement} to add.
-	 * @throws IOException if an error occurred in the index.
+	 * Returns a snapshot of the statistics of the committed batches.
+	 * @return the current {@link IndexingStats}.
 	 */
-	@SuppressWarnings("unchecked")
-	private void add(final IIndexElement element) throws IOException {
-		final IIndexTypeConf conf = indexData.getConf();
+	IndexingStats getStats() {
+		return new IndexingStats(queue.size(), batches.get(), failedBatches.get(), indexDatas.get(), docs.get(),
+				lastBatchSize, maxBatchSize, totalCommitTime.get(), lastCommitTime, maxCommitTime);
+	}
 
-		final Document doc = new Document();
+	/**
+	 * Executes all given {@link IIndexData} in one transaction and commits the {@link Index} once.
+	 * If the batch fails it will be rolled back and each {@link IIndexData} will be executed on its own,
+	 * so a single faulty {@link IIndexData} doesn't discard the others.
+	 * @param batch the {@link IIndexData} to execute.
+	 */
+	private void index(final List<IIndexData> batch) {
+		synchronized (batchLock) {
+			stats = new BatchStats();
 
-		// add id field
-		final StringField idField = new StringField(IIndexElement.FIELD_ID, element.getId(), Store.YES);
-		doc.add(idField);
+			if(executeAndCommit(batch)) {
+				return;
+			}
 
-		// add index type field
-		final StringField indexTypeField = new StringField(IIndexElement.FIELD_INDEX_TYPE, conf.getName(), Store.YES);
-		doc.add(indexTypeField);
+			if(batch.size() > 1) {
+				failedBatches.incrementAndGet();
+				LOGGER.warn("Batch of {} index datas failed. Retrying them one by one.", batch.size());
 
-		final Locale locale = element.getLocale();
-		if(element.getLocale() != null) {
-			doc.add(new StringField(IIndexElement.FIELD_LOCALE, locale.getLanguage(), Store.YES));
+				for (final IIndexData data : batch) {
+					stats = new BatchStats();
+					executeAndCommit(Arrays.asList(data));
+				}
+			}
 		}
+	}
 
-		for (@SuppressWarnings("rawtypes") final IIndexFieldConf fieldConf : conf.getFields()) {
-			Object fieldContent = element.getContent(fieldConf.getName());
+	/**
+	 * Executes the given {@link IIndexData} and commits or rollbacks the {@link Index}.
+	 * After a successful commit {@link IIndexTypeConf#afterIndexing(IIndexData)} is called for
+	 * each {@link IIndexData}.
+	 * @param batch the {@link IIndexData} to execute.
+	 * @return true if the changes were committed.
+	 */
+	private boolean executeAndCommit(final List<IIndexData> batch) {
+		try {
+			for (final IIndexData data : batch) {
+				execute(data);
+				stats.indexDatas++;
+			}
 
-			if(fieldContent != null) {
-				if(!(fieldContent instanceof Collection<?>)) {
-					fieldContent = Arrays.asList(fieldContent);
-				}
+			final StopWatch commitWatch = new StopWatch();
+			commitWatch.start();
+			try {
+				index.commit();
+			} catch (final IOException e) {
+				rollback();
+				LOGGER.error("Can't commit index with {} index datas.", batch.size(), e);
+				return false;
+			}
 
-				for (final Object content : (Collection<?>) fieldContent) {
-					doc.add(fieldConf.buildField(content));
-				}
+			stats.commitTime = commitWatch.getTime();
+		} catch (final Throwable e) {
+			rollback();
+			LOGGER.error("Can't change index because of an exception.", e);
+			return false;
+		}
+
+		updateStats(batch.size());
+		LOGGER.debug("Finished indexing batch: {}", stats);
+
+		record(batch);
+
+		for (final IIndexData data : batch) {
+			try {
+				data.getConf().afterIndexing(data);
+			} catch (final Throwable e) {
+				LOGGER.error("Error in afterIndexing of {}.", data.getConf().getName(), e);
 			}
 		}
 
-		index.addDocument(doc, locale);
+		return true;
 	}
 
 	/**
-	 * Updates the given {@link IIndexElement} in the index by deleting the old {@link Document} first
-	 * and adding the new one.
-	 * @param element the {@link IIndexElement} to update.
-	 * @throws IOException if an error occurred in the index.
+	 * Adds the {@link #stats} of the committed batch to the totals.
+	 * @param batchSize the amount of {@link IIndexData} in the batch.
 	 */
-	private void update(final IIndexElement element) throws IOException {
-		delete(element);
-		add(element);
+	private void updateStats(final int batchSize) {
+		batches.incrementAndGet();
+		indexDatas.addAndGet(batchSize);
+		docs.addAndGet(stats.getDocs());
+		totalCommitTime.addAndGet(stats.commitTime);
+
+		lastBatchSize = batchSize;
+		maxBatchSize = Math.max(maxBatchSize, batchSize);
+		lastCommitTime = stats.commitTime;
+		maxCommitTime = Math.max(maxCommitTime, stats.commitTime);
+	}
+
+	/**
+	 * Rollbacks the {@link Index} and logs if it fails.
+	 */
+	private void rollback() {
+		try {
+			index.rollback();
+		} catch (final IOException e) {
+			LOGGER.error("Can't rollback index because of an exception.", e);
+		}
 	}
 
 	/**
-	 * Deletes the given {@link IIndexElement} from the index.
-	 * @param element the {@link IIndexElement} to remove.
+	 * Writes all {@link IIndexElement}s of the given {@link IIndexData} to the {@link Index} without committing.
+	 * @param data the {@link IIndexData} to execute.
 	 * @throws IOException if an error occurred in the index.
 	 */
-	private void delete(final IIndexElement element) throws IOException {
-		final IIndexTypeConf conf = indexData.getConf();
+	private void execute(final IIndexData data) throws IOException {
+		final IIndexTypeConf conf = data.getConf();
+
+		LOGGER.debug("Start indexing {} elements of {}.", data.getElements().size(), conf.getName());
 
-		// build query for deletion
-		final BooleanQuery query = new BooleanQuery();
-		query.add(new TermQuery(new Term(IIndexElement.FIELD_ID, element.getId())), Occur.MUST);
-		query.add(new TermQuery(new Term(IIndexElement.FIELD_INDEX_TYPE, conf.getName())), Occur.MUST);
+		int i = 0;
+		for (final IIndexElement element : data.getElements()) {
+			writer.write(conf, element, element.getOperation());
+
+			switch (element.getOperation()) {
+				case INSERT:
+					stats.addedDocs++;
+					break;
+				case UPDATE:
+				case UPDATE_DOC_VALUES:
+					stats.updatedDocs++;
+					break;
+				case DELETE:
+					stats.deletedDocs++;
+					break;
+			}
 
-		index.deleteDocuments(query);
+			if(i++ % 50 == 0 && data.getElements().size() > 50) {
+				LOGGER.info("{} of {} elements indexed.", i + 1, data.getElements().size());
+			}
+		}
 	}
 }
@@ -0,0 +1,500 @@
+package com.incomb.server.indexing;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.AtomicReader;
+import org.apache.lucene.index.AtomicReaderContext;
+import org.apache.lucene.index.FilterAtomicReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.DocIdSet;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.QueryWrapperFilter;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.FixedBitSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.incomb.server.config.Config;
+import com.incomb.server.db.DBConnectionProvider;
+import com.incomb.server.indexing.conf.EOperation;
+import com.incomb.server.indexing.conf.IIndexTypeConf;
+
+/**
+ * Builds the whole index of an {@link IIndexTypeConf} again without affecting searches.
+ *
+ * <p>The {@link Document}s are written to a shadow index which contains a copy of all other
+ * index types. The elements are loaded in chunks of {@value #DEFAULT_CHUNK_SIZE} (index.reindex.chunkSize)
+ * with keyset pagination and are written by {@value #DEFAULT_WORKERS} (index.reindex.workers)
+ * worker threads in parallel. If all workers are busy the loading thread writes the next chunk itself,
+ * so never more than a few chunks are in memory.</p>
+ *
+ * <p>Changes committed by the {@link IndexingThread} meanwhile are recorded and applied to the
+ * shadow index before it replaces the old index. If more than index.reindex.maxRecorded elements
+ * are changed meanwhile, the reindex fails and the old index is kept.</p>
+ *
+ * <p>{@link IIndexTypeConf#afterIndexing(IIndexData)} is called for the written chunks only after
+ * the shadow index replaced the old index, so a cancelled or failed reindex has no side effects.</p>
+ */
+class ReIndexJob extends Thread {
+
+	/**
+	 * A reader which hides all {@link Document}s of the reindexed {@link IIndexTypeConf}
+	 * so they aren't copied to the shadow index.
+	 */
+	private static class ExcludingReader extends FilterAtomicReader {
+
+		/**
+		 * The live documents without the hidden ones.
+		 */
+		private final FixedBitSet liveDocs;
+
+		/**
+		 * The amount of live documents.
+		 */
+		private final int numDocs;
+
+		/**
+		 * Creates a new instance which hides all documents in the given {@link DocIdSet}.
+		 * @param in the {@link AtomicReader} to wrap.
+		 * @param hidden the documents to hide, may be null.
+		 * @throws IOException if there is a low-level IO error
+		 */
+		private ExcludingReader(final AtomicReader in, final DocIdSet hidden) throws IOException {
+			super(in);
+
+			liveDocs = new FixedBitSet(in.maxDoc());
+			final Bits inLiveDocs = in.getLiveDocs();
+			for (int i = 0; i < in.maxDoc(); i++) {
+				if(inLiveDocs == null || inLiveDocs.get(i)) {
+					liveDocs.set(i);
+				}
+			}
+
+			final DocIdSetIterator iterator = hidden == null ? null : hidden.iterator();
+			if(iterator != null) {
+				for (int doc = iterator.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = iterator.nextDoc()) {
+					liveDocs.clear(doc);
+				}
+			}
+
+			numDocs = liveDocs.cardinality();
+		}
+
+		/**
+		 * @return the live documents without the hidden ones.
+		 */
+		@Override
+		public Bits getLiveDocs() {
+			return liveDocs;
+		}
+
+		/**
+		 * @return the amount of live documents.
+		 */
+		@Override
+		public int numDocs() {
+			return numDocs;
+		}
+	}
+
+	/**
+	 * <p>The {@link Logger} for this class.</p>
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReIndexJob.class);
+
+	/**
+	 * Default amount of {@link IIndexElement}s which are loaded at once.
+	 */
+	private static final int DEFAULT_CHUNK_SIZE = 200;
+
+	/**
+	 * Default amount of threads which write the {@link Document}s.
+	 */
+	private static final int DEFAULT_WORKERS = 2;
+
+	/**
+	 * Suffix of the name of the shadow index.
+	 */
+	private static final String SHADOW_SUFFIX = ".shadow";
+
+	/**
+	 * The {@link IIndexTypeConf} to reindex.
+	 */
+	private final IIndexTypeConf typeConf;
+
+	/**
+	 * The {@link Index} which will be replaced.
+	 */
+	private final Index index;
+
+	/**
+	 * The {@link IndexingThread} which changes the {@link #index}.
+	 */
+	private final IndexingThread indexingThread;
+
+	/**
+	 * Amount of {@link IIndexElement}s which are loaded at once.
+	 */
+	private final int chunkSize;
+
+	/**
+	 * Amount of threads which write the {@link Document}s.
+	 */
+	private final int workers;
+
+	/**
+	 * The current state.
+	 */
+	private volatile EReIndexState state = EReIndexState.RUNNING;
+
+	/**
+	 * True if the reindex should be cancelled.
+	 */
+	private volatile boolean cancelled = false;
+
+	/**
+	 * True while the {@link IndexingThread} records changes for this job.
+	 */
+	private boolean recording = false;
+
+	/**
+	 * Amount of {@link IIndexElement}s which were written to the shadow index.
+	 */
+	private final AtomicLong elements = new AtomicLong();
+
+	/**
+	 * Amount of chunks which were completely written to the shadow index.
+	 */
+	private final AtomicLong chunks = new AtomicLong();
+
+	/**
+	 * The id of the last {@link IIndexElement} which was loaded.
+	 */
+	private volatile long lastId = 0;
+
+	/**
+	 * The time in milliseconds when the reindex started.
+	 */
+	private final long startTime = System.currentTimeMillis();
+
+	/**
+	 * The time in milliseconds when the reindex ended or 0 if it's still running.
+	 */
+	private volatile long endTime = 0;
+
+	/**
+	 * The chunks which were completely written to the shadow index.
+	 */
+	private final Queue<IIndexData> writtenChunks = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * The first exception which was thrown by a worker or the loading thread.
+	 */
+	private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+	/**
+	 * Creates a new instance and sets the name to "ReIndexJob-" and the name of the {@link IIndexTypeConf}.
+	 * @param typeConf the {@link IIndexTypeConf} to reindex.
+	 * @param index the {@link Index} which will be replaced.
+	 * @param indexingThread the {@link IndexingThread} which changes the {@link Index}.
+	 */
+	ReIndexJob(final IIndexTypeConf typeConf, final Index index, final IndexingThread indexingThread) {
+		setName("ReIndexJob-" + typeConf.getName());
+		this.typeConf = typeConf;
+		this.index = index;
+		this.indexingThread = indexingThread;
+		this.chunkSize = Math.max(1, Config.getDefault().getIntProperty("index.reindex.chunkSize", DEFAULT_CHUNK_SIZE));
+		this.workers = Math.max(1, Config.getDefault().getIntProperty("index.reindex.workers", DEFAULT_WORKERS));
+	}
+
+	/**
+	 * Builds the shadow index and replaces the old index with it if it wasn't cancelled.
+	 */
+	@Override
+	public void run() {
+		LOGGER.info("Started reindexing of index type {} with {} workers.", typeConf.getName(), workers);
+
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(workers), new ThreadPoolExecutor.CallerRunsPolicy());
+		Index shadow = null;
+
+		try {
+			shadow = createShadow();
+			loadChunks(new IndexElementWriter(shadow), executor);
+
+			executor.shutdown();
+			awaitWorkers(executor);
+
+			if(error.get() != null) {
+				throw error.get();
+			}
+
+			if(cancelled) {
+				state = EReIndexState.CANCELLED;
+			}
+			else {
+				replace(shadow);
+				shadow = null;
+				afterIndexing();
+				state = EReIndexState.FINISHED;
+			}
+		}
+		catch(final Throwable e) {
+			error.compareAndSet(null, e);
+			state = EReIndexState.FAILED;
+			LOGGER.error("Reindexing of index type {} failed.", typeConf.getName(), e);
+		}
+		finally {
+			executor.shutdownNow();
+			stopRecording();
+
+			if(shadow != null) {
+				shadow.discard();
+			}
+
+			endTime = System.currentTimeMillis();
+			LOGGER.info("{}", getProgress());
+		}
+	}
+
+	/**
+	 * Stops the reindex. The old index will be kept.
+	 */
+	void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * @return true if the reindex is still running.
+	 */
+	boolean isRunning() {
+		return state == EReIndexState.RUNNING;
+	}
+
+	/**
+	 * Returns a snapshot of the progress.
+	 * @return the current {@link ReIndexProgress}.
+	 */
+	ReIndexProgress getProgress() {
+		final Throwable e = error.get();
+		return new ReIndexProgress(typeConf.getName(), state, elements.get(), chunks.get(), lastId,
+				startTime, endTime, e == null ? null : e.toString());
+	}
+
+	/**
+	 * Creates the shadow index with a copy of all {@link Document}s of other {@link IIndexTypeConf}s
+	 * and starts recording the changes of the {@link IndexingThread}.
+	 * @return the shadow {@link Index}.
+	 * @throws IOException if there is a low-level IO error
+	 */
+	private Index createShadow() throws IOException {
+		final String shadowName = index.getName() + SHADOW_SUFFIX;
+		FileUtils.deleteDirectory(new File(Index.INDEX_LOCATION, shadowName)); // remains of an aborted reindex
+
+		final Index shadow = new Index(shadowName);
+
+		synchronized (indexingThread.getBatchLock()) {
+			final IndexSearcher searcher = index.acquireSearcher();
+			try {
+				final QueryWrapperFilter typeFilter = new QueryWrapperFilter(new TermQuery(
+						new Term(IIndexElement.FIELD_INDEX_TYPE, typeConf.getName())));
+
+				final List<IndexReader> readers = new ArrayList<>();
+				for (final AtomicReaderContext context : searcher.getIndexReader().leaves()) {
+					readers.add(new ExcludingReader(context.reader(), typeFilter.getDocIdSet(context, null)));
+				}
+
+				shadow.addIndexes(readers.toArray(new IndexReader[readers.size()]));
+			}
+			finally {
+				index.releaseSearcher(searcher);
+			}
+
+			indexingThread.startRecording();
+			recording = true;
+		}
+
+		return shadow;
+	}
+
+	/**
+	 * Loads the elements chunk by chunk and hands them to the workers until all are loaded,
+	 * the reindex was cancelled or a worker failed.
+	 * @param writer the {@link IndexElementWriter} of the shadow index.
+	 * @param executor the workers.
+	 */
+	private void loadChunks(final IndexElementWriter writer, final ThreadPoolExecutor executor) {
+		long afterId = 0;
+
+		while(!cancelled && error.get() == null) {
+			if(indexingThread.isRecordingOverflowed()) {
+				error.compareAndSet(null, new IllegalStateException("Too many changes during the reindex."));
+				break;
+			}
+
+			final List<? extends IIndexElement> chunk;
+
+			final Connection con = DBConnectionProvider.getInstance().acquire();
+			try {
+				chunk = typeConf.getElements(con, afterId, chunkSize);
+			}
+			finally {
+				DBConnectionProvider.getInstance().release(con);
+			}
+
+			if(chunk.isEmpty()) {
+				break; // no more elements.
+			}
+
+			afterId = Long.parseLong(chunk.get(chunk.size() - 1).getId());
+			lastId = afterId;
+
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					writeChunk(writer, chunk);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Writes all elements of the chunk to the shadow index and keeps the chunk
+	 * for {@link IIndexTypeConf#afterIndexing(IIndexData)}.
+	 * @param writer the {@link IndexElementWriter} of the shadow index.
+	 * @param chunk the elements to write.
+	 */
+	private void writeChunk(final IndexElementWriter writer, final List<? extends IIndexElement> chunk) {
+		try {
+			for (final IIndexElement element : chunk) {
+				if(cancelled || error.get() != null) {
+					return;
+				}
+
+				writer.add(typeConf, element);
+				elements.incrementAndGet();
+			}
+
+			writtenChunks.add(new SimpleIndexData(typeConf, chunk));
+
+			if(chunks.incrementAndGet() % 50 == 0) {
+				LOGGER.info("{}", getProgress());
+			}
+		}
+		catch(final Throwable e) {
+			error.compareAndSet(null, e);
+		}
+	}
+
+	/**
+	 * Calls {@link IIndexTypeConf#afterIndexing(IIndexData)} for each written chunk after the index was replaced.
+	 */
+	private void afterIndexing() {
+		IIndexData chunk;
+		while((chunk = writtenChunks.poll()) != null) {
+			try {
+				typeConf.afterIndexing(chunk);
+			} catch (final Throwable e) {
+				LOGGER.error("Error in afterIndexing of {}.", typeConf.getName(), e);
+			}
+		}
+	}
+
+	/**
+	 * Waits until all workers are finished. An interrupt cancels the reindex.
+	 * @param executor the workers.
+	 */
+	private void awaitWorkers(final ThreadPoolExecutor executor) {
+		while(!executor.isTerminated()) {
+			try {
+				executor.awaitTermination(1, TimeUnit.SECONDS);
+			} catch (final InterruptedException e) {
+				cancelled = true;
+			}
+		}
+	}
+
+	/**
+	 * Applies the recorded changes of the {@link IndexingThread} to the shadow index,
+	 * commits it and replaces the {@link #index} with it.
+	 * @param shadow the shadow {@link Index}.
+	 * @throws IOException if there is a low-level IO error
+	 */
+	private void replace(final Index shadow) throws IOException {
+		synchronized (indexingThread.getBatchLock()) {
+			final List<IIndexData> changes = indexingThread.stopRecording();
+			recording = false;
+
+			if(changes == null) {
+				throw new IllegalStateException("Too many changes during the reindex.");
+			}
+
+			final IndexElementWriter writer = new IndexElementWriter(shadow);
+			for (final IIndexData data : changes) {
+				replay(writer, data);
+			}
+
+			shadow.commit();
+			index.replaceWith(shadow);
+
+			LOGGER.info("Replaced index {} after applying {} changes made during the reindex.",
+					index.getName(), changes.size());
+		}
+	}
+
+	/**
+	 * Applies the given recorded {@link IIndexData} to the shadow index.
+	 * An inserted element may be already in the shadow index, so its old {@link Document}s are deleted
+	 * before its first {@link Document} is added. The other {@link Document}s with the same id
+	 * (e.g. the other locales) are added without deleting the first one again.
+	 * @param writer the {@link IndexElementWriter} of the shadow index.
+	 * @param data the recorded {@link IIndexData}.
+	 * @throws IOException if there is a low-level IO error
+	 */
+	private void replay(final IndexElementWriter writer, final IIndexData data) throws IOException {
+		final Set<String> replacedIds = new HashSet<>();
+
+		for (final IIndexElement element : data.getElements()) {
+			if(element.getOperation() == EOperation.INSERT) {
+				if(replacedIds.add(element.getId())) {
+					writer.delete(data.getConf(), element);
+				}
+				writer.add(data.getConf(), element);
+			}
+			else {
+				writer.write(data.getConf(), element, element.getOperation());
+				replacedIds.remove(element.getId());
+			}
+		}
+	}
+
+	/**
+	 * Stops the recording of the {@link IndexingThread} if it's still running.
+	 */
+	private void stopRecording() {
+		synchronized (indexingThread.getBatchLock()) {
+			if(recording) {
+				indexingThread.stopRecording();
+				recording = false;
+			}
+		}
+	}
+}
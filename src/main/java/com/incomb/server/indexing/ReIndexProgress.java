@@ -0,0 +1,145 @@
+package com.incomb.server.indexing;
+
+import com.incomb.server.indexing.conf.IIndexTypeConf;
+
+/**
+ * A snapshot of the progress of a reindex of an {@link IIndexTypeConf}.
+ * @see IndexManager#getReIndexProgress()
+ */
+public class ReIndexProgress {
+
+	/**
+	 * The name of the {@link IIndexTypeConf} which is reindexed.
+	 */
+	private final String indexType;
+
+	/**
+	 * The current state.
+	 */
+	private final EReIndexState state;
+
+	/**
+	 * Amount of {@link IIndexElement}s which were written to the shadow index.
+	 */
+	private final long elements;
+
+	/**
+	 * Amount of chunks which were completely written to the shadow index.
+	 */
+	private final long chunks;
+
+	/**
+	 * The id of the last {@link IIndexElement} which was loaded.
+	 */
+	private final long lastId;
+
+	/**
+	 * The time in milliseconds when the reindex started.
+	 */
+	private final long startTime;
+
+	/**
+	 * The time in milliseconds when the reindex ended or 0 if it's still running.
+	 */
+	private final long endTime;
+
+	/**
+	 * The message of the exception if the reindex failed, otherwise null.
+	 */
+	private final String error;
+
+	/**
+	 * Creates a new instance with all properties.
+	 */
+	ReIndexProgress(final String indexType, final EReIndexState state, final long elements, final long chunks,
+			final long lastId, final long startTime, final long endTime, final String error) {
+		this.indexType = indexType;
+		this.state = state;
+		this.elements = elements;
+		this.chunks = chunks;
+		this.lastId = lastId;
+		this.startTime = startTime;
+		this.endTime = endTime;
+		this.error = error;
+	}
+
+	/**
+	 * @return the name of the {@link IIndexTypeConf} which is reindexed.
+	 */
+	public String getIndexType() {
+		return indexType;
+	}
+
+	/**
+	 * @return the current state.
+	 */
+	public EReIndexState getState() {
+		return state;
+	}
+
+	/**
+	 * @return the amount of {@link IIndexElement}s which were written to the shadow index.
+	 */
+	public long getElements() {
+		return elements;
+	}
+
+	/**
+	 * @return the amount of chunks which were completely written to the shadow index.
+	 */
+	public long getChunks() {
+		return chunks;
+	}
+
+	/**
+	 * @return the id of the last {@link IIndexElement} which was loaded.
+	 */
+	public long getLastId() {
+		return lastId;
+	}
+
+	/**
+	 * @return the time in milliseconds when the reindex started.
+	 */
+	public long getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * @return the time in milliseconds when the reindex ended or 0 if it's still running.
+	 */
+	public long getEndTime() {
+		return endTime;
+	}
+
+	/**
+	 * @return the time in milliseconds the reindex runs or ran.
+	 */
+	public long getDuration() {
+		return (endTime == 0 ? System.currentTimeMillis() : endTime) - startTime;
+	}
+
+	/**
+	 * @return the average amount of {@link IIndexElement}s written per second.
+	 */
+	public double getElementsPerSecond() {
+		final long duration = getDuration();
+		return duration == 0 ? 0 : elements * 1000.0 / duration;
+	}
+
+	/**
+	 * @return the message of the exception if the reindex failed, otherwise null.
+	 */
+	public String getError() {
+		return error;
+	}
+
+	/**
+	 * Returns the progress in a human readable format.
+	 */
+	@Override
+	public String toString() {
+		return String.format("Reindex of %s %s: %d elements in %d chunks (last id %d) in %d ms (%.1f/s).",
+				indexType, state, elements, chunks, lastId, getDuration(), getElementsPerSecond());
+	}
+}
@@ -1,5 +1,7 @@
 package com.incomb.server.indexing;
 
+import java.util.Set;
+
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.Sort;
 
@@ -10,6 +12,8 @@ public class SearchOptions {
 
 	/**
 	 * If all results should be returned than use this at {@link #setMaxResults(int)}.
+	 * The results are still limited to index.search.maxResults, use
+	 * {@link IndexSearch#scan(org.apache.lucene.search.Query, Set, IHitVisitor)} to get really all.
 	 */
 	public static final int ALL_RESULTS = -1;
 
@@ -31,6 +35,12 @@ public class SearchOptions {
 	 */
 	private ScoreDoc afterScoreDoc = null;
 
+	/**
+	 * The names of the stored fields which are loaded for the found documents.
+	 * If it's <code>null</code> than all stored fields are loaded.
+	 */
+	private Set<String> fields = null;
+
 	/**
 	 * @return The amount of results to return.
 	 */
@@ -40,7 +50,7 @@ public class SearchOptions {
 
 	/**
 	 * Sets the amount of results to return.
-	 * Use {@link #ALL_RESULTS} if you want all results.
+	 * Use {@link #ALL_RESULTS} if you want all results up to index.search.maxResults.
 	 * @param maxResults the amount of results to return
 	 */
 	public void setMaxResults(final int maxResults) {
@@ -77,4 +87,20 @@ public class SearchOptions {
 	public void setAfterScoreDoc(final ScoreDoc afterScoreDoc) {
 		this.afterScoreDoc = afterScoreDoc;
 	}
+
+	/**
+	 * Returns the names of the stored fields which are loaded for the found documents.
+	 * If it returns <code>null</code> than all stored fields are loaded.
+	 */
+	public Set<String> getFields() {
+		return fields;
+	}
+
+	/**
+	 * Sets the names of the stored fields which are loaded for the found documents.
+	 * If it's <code>null</code> than all stored fields are loaded.
+	 */
+	public void setFields(final Set<String> fields) {
+		this.fields = fields;
+	}
 }
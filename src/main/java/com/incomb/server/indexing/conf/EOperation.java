@@ -1,6 +1,7 @@
 package com.incomb.server.indexing.conf;
 
 import com.incomb.server.indexing.IIndexElement;
+import com.incomb.server.indexing.conf.fields.NumericDocValuesIndexFieldConf;
 
 /**
  * Operation of {@link IIndexElement}.
@@ -20,6 +21,15 @@ public enum EOperation {
 	 */
 	UPDATE,
 
+	/**
+	 * A {@link IIndexElement} with the same {@link IIndexTypeConf} and id exists already in the index.
+	 * Only the values of its fields with a {@link NumericDocValuesIndexFieldConf} changed.
+	 * They will be updated in place, the rest of the document stays untouched.
+	 * {@link IIndexElement#getContent(String)} is only called for these fields and may return null
+	 * for fields which didn't change.
+	 */
+	UPDATE_DOC_VALUES,
+
 	/**
 	 * A {@link IIndexElement} with the same {@link IIndexTypeConf} and id exists already in the index.
 	 * It will removed.
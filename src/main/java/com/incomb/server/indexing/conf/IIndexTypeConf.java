@@ -27,16 +27,26 @@ public interface IIndexTypeConf {
 	 * This method is used for reindexing the whole data. It should
 	 * return a subset of all elements.
 	 *
+	 * The elements must be sorted ascending by their numeric id ({@link IIndexElement#getId()}),
+	 * so the next chunk can be requested with the id of the last element (keyset pagination).
 	 * The {@link IIndexElement#getOperation()} must return {@link EOperation#INSERT}.
 	 *
 	 * @param con A transactional connection to the database to get the elements if needed.
-	 * @param start first record index to return
+	 * @param afterId only elements with a greater id are returned. 0 for the first chunk.
 	 * @param amount amount of records to return or less if there aren't enough records.
 	 *
 	 * @return the requested elements or an empty list if no exists
 	 * 		in the requested range.
 	 */
-	List<? extends IIndexElement> getElements(final Connection con, final int start, final int amount);
+	List<? extends IIndexElement> getElements(final Connection con, final long afterId, final int amount);
+
+	/**
+	 * Returns true if the elements of this type which weren't indexed are indexed at the next startup.
+	 * In this case an {@link IIndexData} which only inserts elements may be dropped if the indexing queue is full.
+	 * All other changes wait for space in the queue.
+	 * @return true if dropped inserts are indexed again.
+	 */
+	boolean isInsertRecoverable();
 
 	/**
 	 * This method will be called after an {@link IIndexData} of this {@link IIndexTypeConf}
@@ -0,0 +1,31 @@
+package com.incomb.server.indexing.conf.fields;
+
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+
+import com.incomb.server.indexing.conf.EOperation;
+
+/**
+ * Wraps a {@link Number} into a {@link NumericDocValuesField}.
+ * The value can't be searched, but it can be used for sorting and can be changed
+ * without rewriting the whole document with {@link EOperation#UPDATE_DOC_VALUES}.
+ */
+public class NumericDocValuesIndexFieldConf extends ADefaultIndexFieldConf<Number> {
+
+	/**
+	 * Creates a new instance.
+	 * @param name the name of the field
+	 */
+	public NumericDocValuesIndexFieldConf(final String name) {
+		super(name);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @see NumericDocValuesIndexFieldConf
+	 */
+	@Override
+	public Field buildField(final Number content) {
+		return new NumericDocValuesField(getName(), content.longValue());
+	}
+}
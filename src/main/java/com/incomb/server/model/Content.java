@@ -58,6 +58,12 @@ public class Content implements Serializable {
 	 */
 	private boolean indexed = false;
 
+	/**
+	 * The fingerprint of the normalized {@link #title} to find the same {@link Content} again.
+	 * It's <code>0</code> if it wasn't calculated yet.
+	 */
+	private long titleHash;
+
 	/**
 	 * Constructs a new object with the default properties.
 	 */
@@ -224,4 +230,19 @@ public class Content implements Serializable {
 	public void setIndexed(final boolean indexed) {
 		this.indexed = indexed;
 	}
+
+	/**
+	 * @return the fingerprint of the normalized title or <code>0</code> if it wasn't calculated yet.
+	 */
+	public long getTitleHash() {
+		return titleHash;
+	}
+
+	/**
+	 * Sets the fingerprint of the normalized title.
+	 * @param titleHash the fingerprint of the normalized title.
+	 */
+	public void setTitleHash(final long titleHash) {
+		this.titleHash = titleHash;
+	}
 }
@@ -30,6 +30,31 @@ public class FetchHistory implements Serializable {
 	 */
 	private boolean result;
 
+	/**
+	 * The ETag header of the response or <code>null</code> if the server didn't send one.
+	 */
+	private String etag;
+
+	/**
+	 * The Last-Modified header of the response or <code>null</code> if the server didn't send one.
+	 */
+	private String lastModified;
+
+	/**
+	 * <code>true</code> if the server answered that the {@link ContentSource} wasn't modified.
+	 */
+	private boolean notModified;
+
+	/**
+	 * The amount of bytes transferred from the server.
+	 */
+	private long bytes;
+
+	/**
+	 * <code>true</code> if the {@link ContentSource} couldn't be read.
+	 */
+	private boolean failed;
+
 	/**
 	 * Constructs a new object with the default properties.
 	 */
@@ -54,7 +79,7 @@ public class FetchHistory implements Serializable {
 	@Override
 	public String toString() {
 		return "ContentSoruceId: " + getContentSourceId() + " " + "FetchTime: " + getFetchTime() + " " + "Result: "
-				+ getResult();
+				+ getResult() + " " + "NotModified: " + getNotModified() + " " + "Bytes: " + getBytes() + " " + "Failed: " + isFailed();
 	}
 
 	/**
@@ -103,4 +128,79 @@ public class FetchHistory implements Serializable {
 	public void setResult(final boolean result) {
 		this.result = result;
 	}
+
+	/**
+	 * @return the ETag header of the response or <code>null</code> if the server didn't send one.
+	 */
+	public String getEtag() {
+		return this.etag;
+	}
+
+	/**
+	 * Sets the ETag header of the response.
+	 * @param etag the ETag header of the response or <code>null</code> if the server didn't send one.
+	 */
+	public void setEtag(final String etag) {
+		this.etag = etag;
+	}
+
+	/**
+	 * @return the Last-Modified header of the response or <code>null</code> if the server didn't send one.
+	 */
+	public String getLastModified() {
+		return this.lastModified;
+	}
+
+	/**
+	 * Sets the Last-Modified header of the response.
+	 * @param lastModified the Last-Modified header of the response or <code>null</code> if the server didn't send one.
+	 */
+	public void setLastModified(final String lastModified) {
+		this.lastModified = lastModified;
+	}
+
+	/**
+	 * @return <code>true</code> if the server answered that the {@link ContentSource} wasn't modified.
+	 */
+	public boolean getNotModified() {
+		return this.notModified;
+	}
+
+	/**
+	 * Sets if the server answered that the {@link ContentSource} wasn't modified.
+	 * @param notModified <code>true</code> if it wasn't modified.
+	 */
+	public void setNotModified(final boolean notModified) {
+		this.notModified = notModified;
+	}
+
+	/**
+	 * @return the amount of bytes transferred from the server.
+	 */
+	public long getBytes() {
+		return this.bytes;
+	}
+
+	/**
+	 * Sets the amount of bytes transferred from the server.
+	 * @param bytes the amount of bytes.
+	 */
+	public void setBytes(final long bytes) {
+		this.bytes = bytes;
+	}
+
+	/**
+	 * @return <code>true</code> if the {@link ContentSource} couldn't be read.
+	 */
+	public boolean isFailed() {
+		return failed;
+	}
+
+	/**
+	 * Sets if the {@link ContentSource} couldn't be read.
+	 * @param failed <code>true</code> if the {@link ContentSource} couldn't be read.
+	 */
+	public void setFailed(final boolean failed) {
+		this.failed = failed;
+	}
 }
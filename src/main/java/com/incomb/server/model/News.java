@@ -62,6 +62,12 @@ public class News extends Content implements Serializable {
 	 */
 	private long newsGroupId;
 
+	/**
+	 * The hash of the normalized {@link #link} to find the same {@link News} again.
+	 * It's <code>0</code> if it wasn't calculated yet.
+	 */
+	private long linkHash;
+
 	/**
 	 * Constructs a new object with the default properties.
 	 */
@@ -170,6 +176,21 @@ public class News extends Content implements Serializable {
 		this.newsGroupId = newsGroupId;
 	}
 
+	/**
+	 * @return the hash of the normalized link or <code>0</code> if it wasn't calculated yet.
+	 */
+	public long getLinkHash() {
+		return linkHash;
+	}
+
+	/**
+	 * Sets the hash of the normalized link.
+	 * @param linkHash the hash of the normalized link.
+	 */
+	public void setLinkHash(final long linkHash) {
+		this.linkHash = linkHash;
+	}
+
 	/**
 	 * Returns the assigned {@link Provider}.
 	 * @param con the {@link Connection} to fetch the database.
@@ -19,12 +19,20 @@ public abstract class ADao {
 	 */
 	protected final Configuration jooqConfig;
 
+	/**
+	 * The {@link Connection} of this DAO or <code>null</code> if a new {@link Connection}
+	 * is acquired for each query.
+	 */
+	protected final Connection connection;
+
 	/**
 	 * Creates a new instance with the given {@link Connection}.
 	 * @param connection the {@link Connection} to use. If <code>null</code> a new {@link Connection}
 	 * 			will automatically acquired.
 	 */
 	public ADao(final Connection connection) {
+		this.connection = connection;
+
 		if(connection == null) {
 			jooqConfig = new DefaultConfiguration().set(DBConnectionProvider.getInstance());
 		}
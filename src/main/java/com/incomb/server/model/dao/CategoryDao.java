@@ -129,14 +129,15 @@ public class CategoryDao extends ADao {
 	}
 
 	/**
-	 * Returns the {@link Category}s from the database.
-	 * The result isn't sorted. This method can be used for reindexing.
-	 * @param start start index of the results
-	 * @param amount the amount of {@link Category}s to return after the start index.
+	 * Returns the {@link Category}s from the database sorted by id.
+	 * This method can be used for reindexing.
+	 * @param afterId only {@link Category}s with a greater id are returned. 0 for the first chunk.
+	 * @param amount the maximal amount of {@link Category}s to return.
 	 * @return {@link List} containing {@link Category}.
 	 */
-	public List<Category> getCategories(final int start, final int amount) {
-		return DSL.using(jooqConfig).select().from(TABLE).limit(start, amount).fetchInto(Category.class);
+	public List<Category> getCategoriesAfter(final int afterId, final int amount) {
+		return DSL.using(jooqConfig).select().from(TABLE).where(TABLE.ID.gt(afterId)).
+				orderBy(TABLE.ID).limit(amount).fetchInto(Category.class);
 	}
 
 	/**
@@ -1,7 +1,10 @@
 package com.incomb.server.model.dao;
 
 import java.sql.Connection;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.jooq.Record;
 import org.jooq.SelectConditionStep;
@@ -79,6 +82,34 @@ public class CombItemDao extends ADao {
 				fetchOneInto(CombItem.class);
 	}
 
+	/**
+	 * Returns the {@link CombItem}s of the given {@link User} for all given {@link Content}s
+	 * with a single query.
+	 * @param contentIds the {@link Content}s to find the {@link CombItem}s.
+	 * @param userId the {@link User} to find the {@link CombItem}s.
+	 * @return {@link Map} with the content id as key. {@link Content}s without a {@link CombItem} are missing.
+	 */
+	public Map<Long, CombItem> getCombItems(final Collection<Long> contentIds, final long userId) {
+		final Map<Long, CombItem> combItems = new HashMap<>();
+
+		if(contentIds.isEmpty()) {
+			return combItems;
+		}
+
+		final List<CombItem> items = DSL.using(jooqConfig).
+				select().
+				from(COMB_ITEM_TABLE).
+				where(COMB_ITEM_TABLE.CONTENT_ID.in(contentIds)).
+				and(COMB_ITEM_TABLE.USER_ID.eq(userId)).
+				fetchInto(CombItem.class);
+
+		for (final CombItem item : items) {
+			combItems.put(item.getContentId(), item);
+		}
+
+		return combItems;
+	}
+
 	/**
 	 * Returns all {@link News} where a {@link CombItem} of the given {@link User} exists.
 	 * The News are sorted by the add_date descending.
@@ -1,18 +1,26 @@
 package com.incomb.server.model.dao;
 
 import java.sql.Connection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.jooq.Condition;
+import org.jooq.Record3;
 import org.jooq.impl.DSL;
 
-import com.incomb.server.content.indexing.NewsIndexElement;
+import com.incomb.server.content.indexing.NewsEngagement;
+import com.incomb.server.content.indexing.NewsEngagementIndexElement;
 import com.incomb.server.content.indexing.NewsIndexType;
 import com.incomb.server.db.DBConnectionProvider;
 import com.incomb.server.indexing.IndexManager;
 import com.incomb.server.indexing.SimpleIndexData;
 import com.incomb.server.indexing.conf.EOperation;
 import com.incomb.server.model.ContentComment;
+import com.incomb.server.model.News;
 import com.incomb.server.model.dao.internal.InternalContentCommentDao;
 import com.incomb.server.model.tables.ContentCommentTable;
 
@@ -60,6 +68,54 @@ public class ContentCommentDao extends ADao {
 		return dao.fetchByContentId(contentId);
 	}
 
+	/**
+	 * Returns the {@link ContentComment}s of all given content ids with a single query.
+	 * They are sorted by content id and comment id.
+	 */
+	public List<ContentComment> getCommentsByContentIds(final Collection<Long> contentIds) {
+		if(contentIds.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		return DSL.using(jooqConfig).
+				select(COMMENT_TABLE.fields()).
+				from(COMMENT_TABLE).
+				where(COMMENT_TABLE.CONTENT_ID.in(contentIds)).
+				orderBy(COMMENT_TABLE.CONTENT_ID, COMMENT_TABLE.ID).
+				fetchInto(ContentComment.class);
+	}
+
+	/**
+	 * Returns the amount of {@link ContentComment}s per user for all given content ids with a single query.
+	 * The returned {@link Map} contains for each content id with comments a {@link Map} from the
+	 * user id to the amount of {@link ContentComment}s the user wrote.
+	 */
+	public Map<Long, Map<Long, Integer>> getCommentAmountsOfUsersByContentIds(final Collection<Long> contentIds) {
+		final Map<Long, Map<Long, Integer>> amounts = new HashMap<>();
+
+		if(contentIds.isEmpty()) {
+			return amounts;
+		}
+
+		for (final Record3<Long, Long, Integer> record : DSL.using(jooqConfig).
+				select(COMMENT_TABLE.CONTENT_ID, COMMENT_TABLE.USER_ID, DSL.count()).
+				from(COMMENT_TABLE).
+				where(COMMENT_TABLE.CONTENT_ID.in(contentIds)).
+				groupBy(COMMENT_TABLE.CONTENT_ID, COMMENT_TABLE.USER_ID).
+				fetch()) {
+
+			Map<Long, Integer> userAmounts = amounts.get(record.value1());
+			if(userAmounts == null) {
+				userAmounts = new HashMap<>();
+				amounts.put(record.value1(), userAmounts);
+			}
+
+			userAmounts.put(record.value2(), record.value3());
+		}
+
+		return amounts;
+	}
+
 	/**
 	 * Counts all {@link ContentComment} made by the given user.
 	 */
@@ -97,7 +153,20 @@ public class ContentCommentDao extends ADao {
 		comment.setId(getContentIdFromUserAndContentId(comment));
 
 		final SimpleIndexData indexData = new SimpleIndexData(NewsIndexType.getInstance());
-		indexData.addElement(new NewsIndexElement(new NewsDao().getNews(comment.getContentId()), EOperation.UPDATE));
+		final long contentId = comment.getContentId();
+
+		if(getCommentsAmount(COMMENT_TABLE.CONTENT_ID.eq(contentId).
+				and(COMMENT_TABLE.USER_ID.eq(comment.getUserId()))) > 1) {
+			// the user commented already -> only the comments amount changed.
+			// the same connection is used to see the uncommitted comment.
+			final NewsEngagement engagement = NewsEngagement.load(connection, Arrays.asList(contentId)).get(contentId);
+			indexData.addElement(new NewsEngagementIndexElement(contentId, engagement));
+		}
+		else {
+			final News news = new NewsDao(connection).getNews(contentId);
+			indexData.addElement(NewsIndexType.toElements(connection, Arrays.asList(news), EOperation.UPDATE).get(0));
+		}
+
 		IndexManager.getInstance().index(indexData);
 	}
 
@@ -120,12 +189,11 @@ public class ContentCommentDao extends ADao {
 
 	/**
 	 * Updates the given {@link ContentComment} in the database.
+	 * The index isn't changed, because the amount and the authors of the comments stay the same.
 	 */
 	public void updateComment(final ContentComment comment) {
 		dao.update(comment);
-		final SimpleIndexData indexData = new SimpleIndexData(NewsIndexType.getInstance());
-		indexData.addElement(new NewsIndexElement(new NewsDao().getNews(comment.getContentId()), EOperation.UPDATE));
-		IndexManager.getInstance().index(indexData);
+		// the text of the comments isn't indexed -> no index update needed.
 	}
 
 
@@ -2,13 +2,18 @@ package com.incomb.server.model.dao;
 
 import java.sql.Connection;
 import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.jooq.Condition;
+import org.jooq.Record2;
 import org.jooq.impl.DSL;
 
-import com.incomb.server.content.indexing.NewsIndexElement;
 import com.incomb.server.content.indexing.NewsIndexType;
 import com.incomb.server.db.DBConnectionProvider;
 import com.incomb.server.indexing.IndexManager;
@@ -81,18 +86,38 @@ public class ContentVoteDao extends ADao {
 	public void addVote(final ContentVote vote){
 		vote.setVoteDate(new Timestamp(new Date().getTime()));
 
-		if (getVoteAmount(VOTE_TABLE.CONTENT_ID.eq(vote.getContentId()).and(VOTE_TABLE.USER_ID.eq(vote.getUserId()))) <= 0){
+		final ContentVote oldVote = getVote(vote.getContentId(), vote.getUserId());
+		if (oldVote == null){
 			dao.insert(vote);
 		}else{
 			dao.update(vote);
+
+			if(oldVote.getUp() == vote.getUp()) {
+				return; // only the date changed, nothing to index.
+			}
 		}
 
-		// update the news element because of the comment amount field.
-		final SimpleIndexData indexData = new SimpleIndexData(NewsIndexType.getInstance());
-		indexData.addElement(new NewsIndexElement(new NewsDao().getNews(vote.getContentId()), EOperation.UPDATE));
+		// update the news element because of the vote fields and the ins amount.
+		// the same connection is used to see the uncommitted vote.
+		final News news = new NewsDao(connection).getNews(vote.getContentId());
+		final SimpleIndexData indexData = new SimpleIndexData(NewsIndexType.getInstance(),
+				NewsIndexType.toElements(connection, Arrays.asList(news), EOperation.UPDATE));
 		IndexManager.getInstance().index(indexData);
 	}
 
+	/**
+	 * Returns the {@link ContentVote} of the given user on the given content object.
+	 * @return the {@link ContentVote} or null if the user didn't vote.
+	 */
+	private ContentVote getVote(final long contentId, final long userId) {
+		return DSL.using(jooqConfig).
+				select(VOTE_TABLE.fields()).
+				from(VOTE_TABLE).
+				where(VOTE_TABLE.CONTENT_ID.eq(contentId)).
+				and(VOTE_TABLE.USER_ID.eq(userId)).
+				fetchOneInto(ContentVote.class);
+	}
+
 	/**
 	 * Returns the amount of ins on a content object.
 	 */
@@ -107,6 +132,22 @@ public class ContentVoteDao extends ADao {
 		return getVoteAmount(VOTE_TABLE.CONTENT_ID.eq(contentId), false);
 	}
 
+	/**
+	 * Returns the amount of ins for each of the given content objects with a single query.
+	 * Content objects without ins are missing in the returned {@link Map}.
+	 */
+	public Map<Long, Integer> getInsAmountsByContentIds(final Collection<Long> contentIds) {
+		return getVoteAmounts(contentIds, true);
+	}
+
+	/**
+	 * Returns the amount of combs for each of the given content objects with a single query.
+	 * Content objects without combs are missing in the returned {@link Map}.
+	 */
+	public Map<Long, Integer> getCombsAmountsByContentIds(final Collection<Long> contentIds) {
+		return getVoteAmounts(contentIds, false);
+	}
+
 	/**
 	 * Returns the amount of ins which the user made in his career.
 	 */
@@ -144,6 +185,30 @@ public class ContentVoteDao extends ADao {
 				and(VOTE_TABLE.UP.eq(in)).fetchOne(DSL.count());
 	}
 
+	/**
+	 * Returns the amount of ins or combs grouped by the given content ids.
+	 * in == true returns all "ins" / false all "combs"
+	 */
+	private Map<Long, Integer> getVoteAmounts(final Collection<Long> contentIds, final boolean in) {
+		final Map<Long, Integer> amounts = new HashMap<>();
+
+		if(contentIds.isEmpty()) {
+			return amounts;
+		}
+
+		for (final Record2<Long, Integer> record : DSL.using(jooqConfig).
+				select(VOTE_TABLE.CONTENT_ID, DSL.count()).
+				from(VOTE_TABLE).
+				where(VOTE_TABLE.CONTENT_ID.in(contentIds)).
+				and(VOTE_TABLE.UP.eq(in)).
+				groupBy(VOTE_TABLE.CONTENT_ID).
+				fetch()) {
+			amounts.put(record.value1(), record.value2());
+		}
+
+		return amounts;
+	}
+
 	/**
 	 * Returns a list of users which gave a "in" to the given contentId.
 	 */
@@ -215,6 +280,21 @@ public class ContentVoteDao extends ADao {
 		return getContentVotes(contentId, false);
 	}
 
+	/**
+	 * Returns all ins and combs of all given content objects with a single query.
+	 */
+	public List<ContentVote> getVotesByContentIds(final Collection<Long> contentIds) {
+		if(contentIds.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		return DSL.using(jooqConfig).
+				select(VOTE_TABLE.fields()).
+				from(VOTE_TABLE).
+				where(VOTE_TABLE.CONTENT_ID.in(contentIds)).
+				fetchInto(ContentVote.class);
+	}
+
 	/**
 	 * Returns all content-votes for the given news article.
 	 */
@@ -1,16 +1,32 @@
 package com.incomb.server.model.dao;
 
 
+import java.math.BigDecimal;
 import java.sql.Connection;
-import java.util.HashMap;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Query;
+import org.jooq.Record2;
+import org.jooq.Record5;
+import org.jooq.Record6;
+import org.jooq.Table;
 import org.jooq.impl.DSL;
 
+import com.incomb.server.content.loader.IFetchCountHandler;
 import com.incomb.server.db.DBConnectionProvider;
 import com.incomb.server.model.ContentSource;
 import com.incomb.server.model.FetchHistory;
 import com.incomb.server.model.dao.internal.InternalFetchHistoryDao;
+import com.incomb.server.model.tables.FetchHistoryDailyTable;
 import com.incomb.server.model.tables.FetchHistoryTable;
 
 /**
@@ -46,10 +62,18 @@ public class FetchHistoryDao extends ADao {
 
 	/**
 	 * This {@link Map} contains the latest {@link FetchHistory} for each {@link ContentSource}.
-	 * The key of the {@link Map} is the content source id. If an entry for a content source id
-	 * doesn't exist then it wasn't queried from the database yet. Use {@link #getLastFetchHistoryFor(ContentSource)}.
+	 * The key of the {@link Map} is the content source id. It has at most one entry per {@link ContentSource}
+	 * and entries of removed {@link ContentSource}s are removed by {@link #forgetLastFetch(int)}.
+	 * Use {@link #getLastFetchHistoryFor(ContentSource)}.
 	 */
-	private static final Map<Integer, FetchHistory> lastFetches = new HashMap<Integer, FetchHistory>();
+	private static final ConcurrentMap<Integer, FetchHistory> LAST_FETCHES = new ConcurrentHashMap<Integer, FetchHistory>();
+
+	/**
+	 * True if the latest {@link FetchHistory} of every {@link ContentSource} was read by
+	 * {@link #preloadLastFetches()}. Then a missing entry in {@link #LAST_FETCHES} means
+	 * that the {@link ContentSource} wasn't fetched yet.
+	 */
+	private static volatile boolean preloaded = false;
 
 	/**
 	 * Returns the latest {@link FetchHistory} from the given {@link ContentSource}.
@@ -57,20 +81,72 @@ public class FetchHistoryDao extends ADao {
 	 * @return {@link FetchHistory} or <code>null</code> if no fetch was made yet.
 	 */
 	public FetchHistory getLastFetchHistoryFor(final ContentSource contentSource) {
-		if(!lastFetches.containsKey(contentSource.getId())) {
-			final FetchHistoryTable table = new FetchHistoryTable();
+		final FetchHistory cached = LAST_FETCHES.get(contentSource.getId());
+		if(cached != null || preloaded) {
+			return cached;
+		}
+
+		final FetchHistoryTable table = FetchHistoryTable.FETCH_HISTORY;
+
+		final FetchHistory item = DSL.using(jooqConfig).
+				selectFrom(table).
+				where(table.CONTENT_SOURCE_ID.equal(contentSource.getId())).
+				orderBy(table.FETCH_TIME.desc()).
+				limit(1).
+				fetchOneInto(FetchHistory.class);
+
+		if(item == null) {
+			return null;
+		}
+
+		updateLastFetch(item);
+		return LAST_FETCHES.get(contentSource.getId());
+	}
+
+	/**
+	 * Reads the latest {@link FetchHistory} of every {@link ContentSource} with one query,
+	 * so {@link #getLastFetchHistoryFor(ContentSource)} doesn't have to query each one.
+	 */
+	public void preloadLastFetches() {
+		final FetchHistoryTable table = FetchHistoryTable.FETCH_HISTORY;
+		final Field<Timestamp> lastFetchTime = DSL.max(table.FETCH_TIME).as("last_fetch_time");
+		final Table<Record2<Integer, Timestamp>> lastFetchTimes = DSL.
+				select(table.CONTENT_SOURCE_ID, lastFetchTime).
+				from(table).
+				groupBy(table.CONTENT_SOURCE_ID).
+				asTable("last_fetch_times");
 
-			final FetchHistory item = DSL.using(jooqConfig).
-					selectFrom(table).
-					where(table.CONTENT_SOURCE_ID.equal(contentSource.getId())).
-					orderBy(table.FETCH_TIME.desc()).
-					limit(1).
-					fetchOneInto(FetchHistory.class);
+		final List<FetchHistory> histories = DSL.using(jooqConfig).
+				select(table.fields()).
+				from(table).
+				join(lastFetchTimes).
+					on(table.CONTENT_SOURCE_ID.eq(lastFetchTimes.field(table.CONTENT_SOURCE_ID))).
+					and(table.FETCH_TIME.eq(lastFetchTimes.field(lastFetchTime))).
+				fetchInto(FetchHistory.class);
 
-			lastFetches.put(contentSource.getId(), item);
+		for (final FetchHistory history : histories) {
+			updateLastFetch(history);
 		}
 
-		return lastFetches.get(contentSource.getId());
+		preloaded = true;
+	}
+
+	/**
+	 * Sets the given {@link FetchHistory} as latest of its {@link ContentSource}
+	 * if no newer {@link FetchHistory} is known.
+	 * @param history the {@link FetchHistory} of a fetch.
+	 */
+	public static void updateLastFetch(final FetchHistory history) {
+		LAST_FETCHES.merge(history.getContentSourceId(), history,
+				(known, added) -> added.getFetchTime().before(known.getFetchTime()) ? known : added);
+	}
+
+	/**
+	 * Forgets the latest {@link FetchHistory} of the {@link ContentSource} with the given id.
+	 * @param contentSourceId the id of the removed {@link ContentSource}.
+	 */
+	public static void forgetLastFetch(final int contentSourceId) {
+		LAST_FETCHES.remove(contentSourceId);
 	}
 
 	/**
@@ -79,6 +155,116 @@ public class FetchHistoryDao extends ADao {
 	 */
 	public void addFetchHistory(final FetchHistory history) {
 		dao.insert(history);
-		lastFetches.put(history.getContentSourceId(), history);
+		updateLastFetch(history);
+	}
+
+	/**
+	 * Saves the given not existing {@link FetchHistory}s to the database with one batch.
+	 * @param histories the {@link FetchHistory}s to save.
+	 */
+	public void addFetchHistories(final List<FetchHistory> histories) {
+		dao.insert(histories);
+
+		for (final FetchHistory history : histories) {
+			updateLastFetch(history);
+		}
+	}
+
+	/**
+	 * Counts the {@link FetchHistory}s since the given time per {@link ContentSource} and hour of the day.
+	 * Failed fetches aren't counted.
+	 * @param since the time of the oldest {@link FetchHistory} to count.
+	 * @param handler the {@link IFetchCountHandler} which receives the counts.
+	 */
+	public void forEachFetchCount(final Timestamp since, final IFetchCountHandler handler) {
+		final FetchHistoryTable table = new FetchHistoryTable();
+		final Field<Integer> hour = DSL.hour(table.FETCH_TIME);
+		final Field<Integer> fetches = DSL.count();
+		final Field<BigDecimal> yields = DSL.sum(DSL.decode().when(table.RESULT.isTrue(), 1).otherwise(0));
+		final Field<Timestamp> firstFetch = DSL.min(table.FETCH_TIME);
+
+		for (final Record5<Integer, Integer, Integer, BigDecimal, Timestamp> record : DSL.using(jooqConfig).
+				select(table.CONTENT_SOURCE_ID, hour, fetches, yields, firstFetch).
+				from(table).
+				where(table.FETCH_TIME.greaterOrEqual(since)).
+					and(table.FAILED.isFalse()).
+				groupBy(table.CONTENT_SOURCE_ID, hour).
+				fetch()) {
+			handler.handle(record.value1(), record.value2(), record.value3(),
+					record.value4() == null ? 0 : record.value4().intValue(), record.value5());
+		}
+	}
+
+	/**
+	 * Returns the time of the oldest {@link FetchHistory}.
+	 * @return the time or <code>null</code> if no {@link FetchHistory} exists.
+	 */
+	public Timestamp getOldestFetchTime() {
+		final FetchHistoryTable table = FetchHistoryTable.FETCH_HISTORY;
+		return DSL.using(jooqConfig).
+				select(DSL.min(table.FETCH_TIME)).
+				from(table).
+				fetchOne().value1();
+	}
+
+	/**
+	 * Adds the {@link FetchHistory}s of the given time range to the daily aggregates of their
+	 * {@link ContentSource} and deletes them. The changes have to be committed together,
+	 * so a time range is either rolled up completely or not at all.
+	 * @param from the time of the oldest {@link FetchHistory} to roll up.
+	 * @param to the time after the newest {@link FetchHistory} to roll up (exclusive).
+	 * @return the amount of rolled up {@link FetchHistory}s.
+	 */
+	public int rollUpFetchHistories(final Timestamp from, final Timestamp to) {
+		final FetchHistoryTable table = FetchHistoryTable.FETCH_HISTORY;
+		final FetchHistoryDailyTable daily = FetchHistoryDailyTable.FETCH_HISTORY_DAILY;
+		final Condition inRange = table.FETCH_TIME.greaterOrEqual(from).and(table.FETCH_TIME.lessThan(to));
+
+		final Field<Date> day = DSL.date(table.FETCH_TIME);
+		final Field<Integer> fetches = DSL.count();
+		final Field<BigDecimal> yields = DSL.sum(DSL.decode().when(table.RESULT.isTrue(), 1).otherwise(0));
+		final Field<BigDecimal> notModified = DSL.sum(DSL.decode().when(table.NOT_MODIFIED.isTrue(), 1).otherwise(0));
+		final Field<BigDecimal> bytes = DSL.sum(table.BYTES);
+
+		final DSLContext context = DSL.using(jooqConfig);
+		final List<Query> upserts = new ArrayList<>();
+		for (final Record6<Integer, Date, Integer, BigDecimal, BigDecimal, BigDecimal> record : context.
+				select(table.CONTENT_SOURCE_ID, day, fetches, yields, notModified, bytes).
+				from(table).
+				where(inRange).
+				groupBy(table.CONTENT_SOURCE_ID, day).
+				fetch()) {
+			final int dayYields = toInt(record.value4());
+			final int dayNotModified = toInt(record.value5());
+			final long dayBytes = record.value6() == null ? 0 : record.value6().longValue();
+
+			upserts.add(context.
+					insertInto(daily).
+					set(daily.CONTENT_SOURCE_ID, record.value1()).
+					set(daily.DAY, record.value2()).
+					set(daily.FETCHES, record.value3()).
+					set(daily.YIELDS, dayYields).
+					set(daily.NOT_MODIFIED, dayNotModified).
+					set(daily.BYTES, dayBytes).
+					onDuplicateKeyUpdate().
+					set(daily.FETCHES, daily.FETCHES.add(record.value3())).
+					set(daily.YIELDS, daily.YIELDS.add(dayYields)).
+					set(daily.NOT_MODIFIED, daily.NOT_MODIFIED.add(dayNotModified)).
+					set(daily.BYTES, daily.BYTES.add(dayBytes)));
+		}
+
+		if(upserts.isEmpty()) {
+			return 0;
+		}
+
+		context.batch(upserts).execute();
+		return context.delete(table).where(inRange).execute();
+	}
+
+	/**
+	 * Returns the value of a sum as int. <code>null</code> is returned as 0.
+	 */
+	private static int toInt(final BigDecimal sum) {
+		return sum == null ? 0 : sum.intValue();
 	}
 }
@@ -1,13 +1,21 @@
 package com.incomb.server.model.dao;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -32,13 +40,27 @@ import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.SortField.Type;
 import org.apache.lucene.search.TermQuery;
-import org.apache.lucene.search.TopDocs;
+import org.jooq.BatchBindStep;
+import org.jooq.Condition;
+import org.jooq.ConnectionProvider;
+import org.jooq.Cursor;
+import org.jooq.DSLContext;
 import org.jooq.JoinType;
 import org.jooq.Record1;
+import org.jooq.Record3;
+import org.jooq.Result;
+import org.jooq.TableField;
+import org.jooq.exception.DataAccessException;
 import org.jooq.impl.DSL;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.incomb.server.content.dedup.DedupKeys;
+import com.incomb.server.content.dedup.IDedupKeyHandler;
+import com.incomb.server.content.dedup.NewsDedupIndex;
+import com.incomb.server.content.grouping.MinHashNewsFinder;
+import com.incomb.server.content.grouping.NewsGroupCache;
+import com.incomb.server.content.indexing.NewsGroupValueSource;
 import com.incomb.server.content.indexing.NewsIndexElement;
 import com.incomb.server.content.indexing.NewsIndexType;
 import com.incomb.server.db.DBConnectionProvider;
@@ -53,6 +75,7 @@ import com.incomb.server.indexing.SimpleSearchResult;
 import com.incomb.server.indexing.conf.EOperation;
 import com.incomb.server.indexing.util.QueryUtil;
 import com.incomb.server.model.CategoryPreference;
+import com.incomb.server.model.Content;
 import com.incomb.server.model.News;
 import com.incomb.server.model.NewsGroup;
 import com.incomb.server.model.Provider;
@@ -64,7 +87,11 @@ import com.incomb.server.model.dao.NewsDao.SearchParams.ESortField;
 import com.incomb.server.model.dao.NewsDao.SearchParams.ESortOrder;
 import com.incomb.server.model.dao.internal.InternalContentDao;
 import com.incomb.server.model.dao.internal.InternalNewsDao;
+import com.incomb.server.model.records.ContentRecord;
+import com.incomb.server.model.tables.CombItemTable;
+import com.incomb.server.model.tables.ContentCommentTable;
 import com.incomb.server.model.tables.ContentTable;
+import com.incomb.server.model.tables.ContentVoteTable;
 import com.incomb.server.model.tables.NewsTable;
 import com.incomb.server.utils.CollectionUtil;
 
@@ -96,6 +123,13 @@ public class NewsDao extends ADao {
 	 */
 	private static final int PUBLISHDATE_DELTA = 30;
 
+	/**
+	 * The columns which are set when a content is inserted. The id is generated.
+	 */
+	private static final List<TableField<ContentRecord, ?>> CONTENT_INSERT_FIELDS = Arrays.<TableField<ContentRecord, ?>>asList(
+		TABLE_CONTENT.PROVIDER_ID, TABLE_CONTENT.CATEGORY_ID, TABLE_CONTENT.TITLE, TABLE_CONTENT.LOCALE,
+		TABLE_CONTENT.TEXT, TABLE_CONTENT.PUBLISH_DATE, TABLE_CONTENT.INDEXED, TABLE_CONTENT.TITLE_HASH);
+
 	/**
 	 * This is the value of the last generated news group id.
 	 */
@@ -157,63 +191,205 @@ public class NewsDao extends ADao {
 	 * If the {@link News} was already saved and {@link News#getNewsGroupId()} returns
 	 * {@link News#NEWSGROUPID_NOT_GROUPED_YET} than it uses the news group id which was last saved.
 	 *
+	 * The {@link News} isn't indexed and the {@link NewsDedupIndex} doesn't know it until
+	 * {@link PendingChanges#apply()} is called after the commit.
+	 *
 	 * @param news the {@link News} to save
+	 * @return the {@link PendingChanges} to apply after the commit.
 	 */
-	public void saveNews(final News news) {
-		final SimpleIndexData indexData = new SimpleIndexData(NewsIndexType.getInstance());
+	public PendingChanges saveNews(final News news) {
+		return saveNews(Collections.singletonList(news));
+	}
 
-		// set publish date to now if it wasn't set.
-		final boolean hasOwnPublishDate = news.getPublishDate() != null;
-		if(!hasOwnPublishDate) {
-			news.setPublishDate(new Timestamp(System.currentTimeMillis()));
+	/**
+	 * Saves the given {@link News} like {@link #saveNews(News)} but as a batch.
+	 *
+	 * The existing records of all {@link News} are queried at once, the new ones are
+	 * inserted with one JDBC batch and only the changed ones are updated. All inserted
+	 * and updated {@link News} are sent to the {@link IndexManager} together.
+	 * If several {@link News} have the same normalized link, the last one is saved and the others get its id.
+	 * {@link News} without link are never merged this way.
+	 *
+	 * The {@link News} are compared by the keys of {@link DedupKeys}. {@link News} which the
+	 * {@link NewsDedupIndex} knows as new are inserted without a lookup, unchanged ones which
+	 * were committed recently are skipped.
+	 *
+	 * The given {@link News} are changed even if the transaction is rolled back later,
+	 * e.g. they get the generated ids and the publish date.
+	 *
+	 * @param newsList the {@link News} to save
+	 * @return the {@link PendingChanges} to apply after the commit.
+	 */
+	public PendingChanges saveNews(final List<News> newsList) {
+		final PendingChanges changes = new PendingChanges();
+		if(newsList.isEmpty()) {
+			return changes;
 		}
 
-		final Defaults defaults = getDefaultsForNews(news);
+		final NewsDedupIndex dedupIndex = NewsDedupIndex.getInstance();
+		final Set<News> withoutPublishDate = Collections.newSetFromMap(new IdentityHashMap<News, Boolean>());
+		final Map<Long, News> newsByLink = new LinkedHashMap<>();
+		final List<News> newsWithoutLink = new ArrayList<>();
+		final List<News> duplicates = new ArrayList<>();
+
+		for (final News news : newsList) {
+			// set publish date to now if it wasn't set.
+			if(news.getPublishDate() == null) {
+				news.setPublishDate(new Timestamp(System.currentTimeMillis()));
+				withoutPublishDate.add(news);
+			}
 
-		if(defaults == null) {
-			news.setNewsGroupId(News.NEWSGROUPID_NOT_GROUPED_YET);
+			DedupKeys.apply(news);
 
-			contentDao.insert(news);
-			news.setId(getLastId());
-			newsDao.insert(news);
-			indexData.addElement(new NewsIndexElement(news, EOperation.INSERT));
+			if(news.getLinkHash() == DedupKeys.NO_LINK_HASH) {
+				newsWithoutLink.add(news);
+				continue;
+			}
 
-			LOGGER.debug("News with id {} was inserted.", news.getId());
+			final News previous = newsByLink.put(news.getLinkHash(), news);
+			if(previous != null) {
+				duplicates.add(previous);
+			}
 		}
-		else {
-			if(news.getNewsGroupId() == News.NEWSGROUPID_NOT_GROUPED_YET) {
-				news.setNewsGroupId(defaults.getNewsGroupId());
+
+		final List<News> uniqueNews = new ArrayList<>(newsByLink.values());
+		uniqueNews.addAll(newsWithoutLink);
+
+		final List<News> newsToLookup = new ArrayList<>();
+		final List<News> newsToInsert = new ArrayList<>();
+		final List<News> newsToUpdate = new ArrayList<>();
+
+		for (final News news : uniqueNews) {
+			if(dedupIndex.resolveUnchanged(news)) {
+				LOGGER.debug("News with id {} wasn't updated because it was saved unchanged before.", news.getId());
 			}
+			else if(dedupIndex.mightExist(news)) {
+				newsToLookup.add(news);
+			}
+			else {
+				news.setNewsGroupId(News.NEWSGROUPID_NOT_GROUPED_YET);
+				newsToInsert.add(news);
+			}
+		}
+
+		final List<Defaults> defaultsList = newsToLookup.isEmpty() ?
+				Collections.<Defaults>emptyList() : getDefaultsForNews(newsToLookup, !dedupIndex.isLoaded());
 
-			final boolean equal = defaults.getImageWidth() == news.getImageWidth() &&
-					defaults.getImageHeight() == news.getImageHeight() &&
-					defaults.getNewsGroupId() == news.getNewsGroupId() &&
-					StringUtils.equals(defaults.getTitle(), news.getTitle()) &&
-					StringUtils.equals(defaults.getText(), news.getText()) &&
-					StringUtils.equals(defaults.getLink(), news.getLink()) &&
-					StringUtils.equals(defaults.getImageUrl(), news.getImageUrl());
+		for (final News news : newsToLookup) {
+			final Defaults defaults = findDefaults(defaultsList, news);
 
-			if(equal) {
-				LOGGER.debug("News with id {} wasn't updated because of no changes.", defaults.getId());
+			if(defaults == null) {
+				news.setNewsGroupId(News.NEWSGROUPID_NOT_GROUPED_YET);
+				newsToInsert.add(news);
 			}
 			else {
+				if(news.getNewsGroupId() == News.NEWSGROUPID_NOT_GROUPED_YET) {
+					news.setNewsGroupId(defaults.getNewsGroupId());
+				}
+
+				// keep the probed image size if the image hasn't changed.
+				if(news.getImageWidth() == 0 && news.getImageHeight() == 0 &&
+						StringUtils.equals(defaults.getImageUrl(), news.getImageUrl())) {
+					news.setImageWidth(defaults.getImageWidth());
+					news.setImageHeight(defaults.getImageHeight());
+				}
+
+				final boolean equal = defaults.getImageWidth() == news.getImageWidth() &&
+						defaults.getImageHeight() == news.getImageHeight() &&
+						defaults.getNewsGroupId() == news.getNewsGroupId() &&
+						StringUtils.equals(defaults.getTitle(), news.getTitle()) &&
+						StringUtils.equals(defaults.getText(), news.getText()) &&
+						StringUtils.equals(defaults.getLink(), news.getLink()) &&
+						StringUtils.equals(defaults.getImageUrl(), news.getImageUrl());
+
 				news.setId(defaults.getId());
 
-				// set last publish date if it wasn't set.
-				if(!hasOwnPublishDate && defaults.getPublishDate() != null) {
-					news.setPublishDate(defaults.getPublishDate());
+				if(equal) {
+					LOGGER.debug("News with id {} wasn't updated because of no changes.", defaults.getId());
+				}
+				else {
+					// set last publish date if it wasn't set.
+					if(withoutPublishDate.contains(news) && defaults.getPublishDate() != null) {
+						news.setPublishDate(defaults.getPublishDate());
+					}
+
+					newsToUpdate.add(news);
 				}
+			}
+		}
 
-				contentDao.update(news);
-				newsDao.update(news);
-				indexData.addElement(new NewsIndexElement(news, EOperation.UPDATE));
+		if(!newsToInsert.isEmpty()) {
+			insertContents(newsToInsert);
+			newsDao.insert(newsToInsert);
 
-				LOGGER.debug("News with id {} was updated.", news.getId());
+			for (final News news : newsToInsert) {
+				changes.addSaved(news, EOperation.INSERT);
 			}
+
+			LOGGER.debug("{} news were inserted.", newsToInsert.size());
 		}
 
-		if(!indexData.getElements().isEmpty()) {
-			IndexManager.getInstance().index(indexData);
+		if(!newsToUpdate.isEmpty()) {
+			contentDao.update(new ArrayList<Content>(newsToUpdate));
+			newsDao.update(newsToUpdate);
+
+			for (final News news : newsToUpdate) {
+				changes.addSaved(news, EOperation.UPDATE);
+			}
+
+			LOGGER.debug("{} news were updated.", newsToUpdate.size());
+		}
+
+		for (final News duplicate : duplicates) {
+			duplicate.setId(newsByLink.get(duplicate.getLinkHash()).getId());
+		}
+
+		return changes;
+	}
+
+	/**
+	 * Inserts the contents of the given {@link News} with one JDBC batch and sets
+	 * the generated ids on them.
+	 * @param newsToInsert the new {@link News}.
+	 */
+	private void insertContents(final List<News> newsToInsert) {
+		final DSLContext context = DSL.using(jooqConfig);
+		final String sql = context.
+				insertInto(TABLE_CONTENT, CONTENT_INSERT_FIELDS).
+				values(Collections.nCopies(CONTENT_INSERT_FIELDS.size(), null)).
+				getSQL();
+
+		final ConnectionProvider connectionProvider = jooqConfig.connectionProvider();
+		final Connection con = connectionProvider.acquire();
+
+		try (final PreparedStatement statement = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+			for (final News news : newsToInsert) {
+				final ContentRecord record = context.newRecord(TABLE_CONTENT, news);
+
+				for (int i = 0; i < CONTENT_INSERT_FIELDS.size(); i++) {
+					statement.setObject(i + 1, record.getValue(CONTENT_INSERT_FIELDS.get(i)));
+				}
+
+				statement.addBatch();
+			}
+
+			statement.executeBatch();
+
+			try (final ResultSet keys = statement.getGeneratedKeys()) {
+				for (final News news : newsToInsert) {
+					if(!keys.next()) {
+						throw new DataAccessException("Got less generated ids than inserted news.");
+					}
+
+					news.setId(keys.getLong(1));
+				}
+			}
+		}
+		catch (final SQLException e) {
+			throw new DataAccessException("Can't insert " + newsToInsert.size() + " news.", e);
+		}
+		finally {
+			connectionProvider.release(con);
 		}
 	}
 
@@ -257,6 +433,40 @@ public class NewsDao extends ADao {
 		}
 	}
 
+	/**
+	 * Sets the size of the image of the given {@link News} and updates it on the database
+	 * if the image url wasn't changed meanwhile. The {@link News} is indexed again when
+	 * {@link PendingChanges#apply()} is called after the commit.
+	 * @param news the saved {@link News}.
+	 * @param imageWidth the width in pixels of the image.
+	 * @param imageHeight the height in pixels of the image.
+	 * @return the {@link PendingChanges} to apply after the commit.
+	 */
+	public PendingChanges setImageSize(final News news, final int imageWidth, final int imageHeight) {
+		final PendingChanges changes = new PendingChanges();
+
+		final int affectedRecords = DSL.using(jooqConfig).
+			update(TABLE_NEWS).
+			set(TABLE_NEWS.IMAGE_WIDTH, imageWidth).
+			set(TABLE_NEWS.IMAGE_HEIGHT, imageHeight).
+			where(TABLE_NEWS.CONTENT_ID.eq(news.getId())).
+				and(TABLE_NEWS.IMAGE_URL.eq(news.getImageUrl())).
+			execute();
+
+		news.setImageWidth(imageWidth);
+		news.setImageHeight(imageHeight);
+
+		// update index with the current state of the news if there are any changes
+		if(affectedRecords > 0) {
+			final News current = getNews(news.getId());
+			if(current != null) {
+				changes.addUpdated(current);
+			}
+		}
+
+		return changes;
+	}
+
 	/**
 	 * Returns the {@link News} with the given id.
 	 * @param newsId the it of the {@link News} which will be returned.
@@ -272,21 +482,141 @@ public class NewsDao extends ADao {
 	}
 
 	/**
-	 * Returns the {@link News} from the database.
-	 * The result isn't sorted. This method can be used for reindexing.
-	 * @param start start index of the results
-	 * @param amount the amount of {@link News}s to return after the start index.
+	 * Returns the {@link News} from the database sorted by id.
+	 * The next chunk can be loaded with the id of the last {@link News}, so the database
+	 * can seek directly to it with the primary key. This method can be used for reindexing.
+	 * @param afterId only {@link News} with a greater id are returned. 0 for the first chunk.
+	 * @param amount the maximal amount of {@link News}s to return.
 	 * @return {@link List} containing {@link News}
 	 */
-	public List<News> getNews(final int start, final int amount) {
+	public List<News> getNewsAfter(final long afterId, final int amount) {
 		return DSL.using(jooqConfig).
 				select().
 				from(TABLE_CONTENT.join(TABLE_NEWS, JoinType.JOIN).
 						on(TABLE_CONTENT.ID.eq(TABLE_NEWS.CONTENT_ID))).
-				limit(start, amount).
+				where(TABLE_CONTENT.ID.gt(afterId)).
+				orderBy(TABLE_CONTENT.ID).
+				limit(amount).
 				fetchInto(News.class);
 	}
 
+	/**
+	 * Returns the {@link News} with the given ids sorted by id. Not existing ids are skipped.
+	 * @param newsIds the ids of the {@link News} which will be returned.
+	 * @return {@link List} containing the found {@link News}
+	 */
+	public List<News> getNews(final Collection<Long> newsIds) {
+		if(newsIds.isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		return DSL.using(jooqConfig).
+				select().
+				from(TABLE_CONTENT.join(TABLE_NEWS, JoinType.JOIN).
+						on(TABLE_CONTENT.ID.eq(TABLE_NEWS.CONTENT_ID))).
+				where(TABLE_CONTENT.ID.in(newsIds)).
+				orderBy(TABLE_CONTENT.ID).
+				fetchInto(News.class);
+	}
+
+	/**
+	 * Returns the members of the given news groups. Only the id, the publish date
+	 * and the news group id of the returned {@link News} are set.
+	 * @param newsGroupIds the ids of the news groups.
+	 * @return {@link List} containing the members of all given news groups
+	 */
+	public List<News> getMembersOfNewsGroups(final Collection<Long> newsGroupIds) {
+		if(newsGroupIds.isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		return DSL.using(jooqConfig).
+				select(TABLE_CONTENT.ID, TABLE_CONTENT.PUBLISH_DATE, TABLE_NEWS.NEWS_GROUP_ID).
+				from(TABLE_CONTENT.join(TABLE_NEWS, JoinType.JOIN).
+						on(TABLE_CONTENT.ID.eq(TABLE_NEWS.CONTENT_ID))).
+				where(TABLE_NEWS.NEWS_GROUP_ID.in(newsGroupIds)).
+				fetchInto(News.class);
+	}
+
+	/**
+	 * Returns the {@link News} which were published in the given time range sorted by id.
+	 * The next chunk can be loaded with the id of the last {@link News} like {@link #getNewsAfter(long, int)}.
+	 * @param afterId only {@link News} with a greater id are returned. 0 for the first chunk.
+	 * @param publishedFrom only {@link News} which were published at or after this time are returned.
+	 * @param publishedTo only {@link News} which were published before this time are returned.
+	 * @param amount the maximal amount of {@link News}s to return.
+	 * @return {@link List} containing {@link News}
+	 */
+	public List<News> getNewsPublishedBetween(final long afterId, final Timestamp publishedFrom,
+			final Timestamp publishedTo, final int amount) {
+		return DSL.using(jooqConfig).
+				select().
+				from(TABLE_CONTENT.join(TABLE_NEWS, JoinType.JOIN).
+						on(TABLE_CONTENT.ID.eq(TABLE_NEWS.CONTENT_ID))).
+				where(TABLE_CONTENT.ID.gt(afterId)).
+					and(TABLE_CONTENT.PUBLISH_DATE.ge(publishedFrom)).
+					and(TABLE_CONTENT.PUBLISH_DATE.lt(publishedTo)).
+				orderBy(TABLE_CONTENT.ID).
+				limit(amount).
+				fetchInto(News.class);
+	}
+
+	/**
+	 * Returns the {@link News} which were published before the given time and have no votes,
+	 * no comments and are in no comb sorted by id. The next chunk can be loaded with the id of
+	 * the last {@link News} like {@link #getNewsAfter(long, int)}.
+	 * @param afterId only {@link News} with a greater id are returned. 0 for the first chunk.
+	 * @param publishedBefore only {@link News} which were published before this time are returned.
+	 * @param amount the maximal amount of {@link News}s to return.
+	 * @return {@link List} containing the unreferenced {@link News}
+	 */
+	public List<News> getUnreferencedNewsBefore(final long afterId, final Timestamp publishedBefore, final int amount) {
+		final ContentVoteTable tableVote = ContentVoteTable.CONTENT_VOTE;
+		final ContentCommentTable tableComment = ContentCommentTable.CONTENT_COMMENT;
+		final CombItemTable tableCombItem = CombItemTable.COMB_ITEM;
+
+		final DSLContext context = DSL.using(jooqConfig);
+		return context.
+				select().
+				from(TABLE_CONTENT.join(TABLE_NEWS, JoinType.JOIN).
+						on(TABLE_CONTENT.ID.eq(TABLE_NEWS.CONTENT_ID))).
+				where(TABLE_CONTENT.ID.gt(afterId)).
+					and(TABLE_CONTENT.PUBLISH_DATE.lt(publishedBefore)).
+					andNotExists(context.selectOne().from(tableVote).where(tableVote.CONTENT_ID.eq(TABLE_CONTENT.ID))).
+					andNotExists(context.selectOne().from(tableComment).where(tableComment.CONTENT_ID.eq(TABLE_CONTENT.ID))).
+					andNotExists(context.selectOne().from(tableCombItem).where(tableCombItem.CONTENT_ID.eq(TABLE_CONTENT.ID))).
+				orderBy(TABLE_CONTENT.ID).
+				limit(amount).
+				fetchInto(News.class);
+	}
+
+	/**
+	 * Deletes the given {@link News} from the database. They're removed from the index
+	 * and the caches when {@link PendingChanges#apply()} is called after the commit.
+	 * The {@link News} must not have votes, comments or comb items.
+	 * @param newsList the {@link News} to delete.
+	 * @return the {@link PendingChanges} to apply after the commit.
+	 * @see #getUnreferencedNewsBefore(long, Timestamp, int)
+	 */
+	public PendingChanges deleteNews(final List<News> newsList) {
+		final PendingChanges changes = new PendingChanges();
+		if(newsList.isEmpty()) {
+			return changes;
+		}
+
+		final List<Long> ids = new ArrayList<>();
+		for (final News news : newsList) {
+			ids.add(news.getId());
+			changes.addDeleted(news);
+		}
+
+		final DSLContext context = DSL.using(jooqConfig);
+		context.delete(TABLE_NEWS).where(TABLE_NEWS.CONTENT_ID.in(ids)).execute();
+		context.delete(TABLE_CONTENT).where(TABLE_CONTENT.ID.in(ids)).execute();
+
+		return changes;
+	}
+
 	/**
 	 * Searches for {@link News} which matches with the given {@link SearchParams}.
 	 * @param conf the criteria to find the {@link News}.
@@ -297,8 +627,8 @@ public class NewsDao extends ADao {
 		final DocumentsSearchResult result = IndexSearch.getInstance().search(
 				buildQuery(conf), buildOptions(conf));
 
-		return NewsIndexType.docsToNewsSearchResult(new SimpleSearchResult<>(result.getResults().subList(
-				conf.offset, result.getResults().size()), result.getTotalHits()));
+		return NewsIndexType.docsToNewsSearchResult(new SimpleSearchResult<>(CollectionUtil.subList(
+				result.getResults(), conf.offset, conf.amount), result.getTotalHits()));
 	}
 
 	/**
@@ -311,53 +641,60 @@ public class NewsDao extends ADao {
 	 * @see #getNews(SearchParams)
 	 */
 	public ISearchResult<NewsGroup> getNewsGroups(final SearchParams conf) {
-		final List<NewsGroup> newsGroups = new ArrayList<>();
-
-		// all already created NewsGroups.
-		final Set<Long> addedNewsGroupIds = new HashSet<>();
+		// collapses the hits by news group, the best news of each group is its main news.
+		final DocumentsSearchResult result = IndexSearch.getInstance().searchGroups(new NewsGroupValueSource(),
+				buildQuery(conf), buildOptions(conf), conf.offset, conf.amount);
 
-		final Query query = buildQuery(conf);
-		final SearchOptions options = buildOptions(conf);
-
-		DocumentsSearchResult lastResult = null;
+		return new SimpleSearchResult<>(toNewsGroups(NewsIndexType.docsToNews(result.getResults())),
+				result.getTotalHits());
+	}
 
-		int retryCounter = 0;
-		do {
-			if(lastResult != null) {
-				options.setAfterScoreDoc(lastResult.getLastScoreDoc());
-				options.setMaxResults((int) (options.getMaxResults()*0.5));
+	/**
+	 * Creates a {@link NewsGroup} for each given main {@link News} with the other {@link News} of its news group
+	 * sorted by publish date. The members are taken from the {@link NewsGroupCache} and loaded with one query.
+	 */
+	private List<NewsGroup> toNewsGroups(final List<News> mainNews) {
+		final Set<Long> groupIds = new HashSet<>();
+		for (final News news : mainNews) {
+			if(news.getNewsGroupId() > 0) {
+				groupIds.add(news.getNewsGroupId());
 			}
+		}
 
-			lastResult = IndexSearch.getInstance().search(query, options);
-			if(lastResult.getResults().isEmpty()) {
-				// no more results
-				break;
-			}
+		final Map<Long, long[]> members = NewsGroupCache.getInstance().getMembers(groupIds, this);
 
-			final List<News> newsResult = NewsIndexType.docsToNews(lastResult.getResults());
-			for (final News news : newsResult) {
-				final long groupId = news.getNewsGroupId();
+		final Set<Long> otherIds = new HashSet<>();
+		for (final News news : mainNews) {
+			if(news.getNewsGroupId() > 0) {
+				for (final long memberId : members.get(news.getNewsGroupId())) {
+					if(memberId != news.getId()) {
+						otherIds.add(memberId);
+					}
+				}
+			}
+		}
 
-				// add it only if the news in a news group was not already added with another news in the same group
-				if(groupId == 0 || !addedNewsGroupIds.contains(groupId)) {
-					List<News> otherNews = new ArrayList<>();
+		final Map<Long, News> otherNews = new HashMap<>();
+		for (final News news : getNews(otherIds)) {
+			otherNews.put(news.getId(), news);
+		}
 
-					// if the news is in a group get the other ones of the group.
-					if(groupId > 0) {
-						otherNews = getNewsOfNewsGroup(groupId, news.getId());
-						addedNewsGroupIds.add(groupId);
+		final List<NewsGroup> newsGroups = new ArrayList<>();
+		for (final News news : mainNews) {
+			final List<News> others = new ArrayList<>();
+			if(news.getNewsGroupId() > 0) {
+				for (final long memberId : members.get(news.getNewsGroupId())) {
+					final News other = otherNews.get(memberId);
+					if(memberId != news.getId() && other != null) {
+						others.add(other);
 					}
-
-					newsGroups.add(new NewsGroup(news, otherNews));
 				}
 			}
 
-			// do it again if not enough news group could be build.
-		} while(newsGroups.size() - conf.offset < conf.amount && retryCounter++ < 20);
-
-		final int totalHits = lastResult == null ? 0 : (lastResult.getTotalHits() - getAmountOfNewsInNewsGroups(query));
+			newsGroups.add(new NewsGroup(news, others));
+		}
 
-		return new SimpleSearchResult<>(CollectionUtil.subList(newsGroups, conf.offset, conf.amount), totalHits);
+		return newsGroups;
 	}
 
 	/**
@@ -525,6 +862,9 @@ public class NewsDao extends ADao {
 		// amount of results
 		options.setMaxResults(conf.offset + conf.amount);
 
+		// only the fields to create the news
+		options.setFields(NewsIndexType.NEWS_FIELDS);
+
 		// sort order
 		if(!conf.sortFields.isEmpty()) {
 			final SortField[] sortFields = new SortField[conf.sortFields.size()+1];
@@ -558,100 +898,113 @@ public class NewsDao extends ADao {
 	}
 
 	/**
-	 * Returns all {@link News} of the given news group except the {@link News} with the given id.
-	 * @param newsGroupId the news group id
-	 * @param exceptId the news which should not be returned
-	 * @return a {@link List} with all {@link News} of the requested news group except the {@link News} with the exceptId.
+	 * Little data holder as return value of {@link NewsDao#getDefaultsForNews(Collection, boolean)}.
 	 */
-	private List<News> getNewsOfNewsGroup(final long newsGroupId, final long exceptId) {
-		final BooleanQuery query = new BooleanQuery();
-
-		QueryUtil.addTypeConf(query, NewsIndexType.getInstance());
-
-		final NumericRangeQuery<Long> groupQuery = NumericRangeQuery.newLongRange(
-				NewsIndexType.FIELD_NEWSGROUPID, newsGroupId, newsGroupId, true, true);
-		query.add(groupQuery, Occur.MUST);
-
-		// exclude news
-		query.add(new TermQuery(new Term(IIndexElement.FIELD_ID, String.valueOf(exceptId))), Occur.MUST_NOT);
-
-		final SearchOptions options = new SearchOptions();
-		options.setSort(new Sort(ESortField.PUBLISH_DATE.getSortField(ESortOrder.DESC)));
+	private static class Defaults extends News {
 
-		final DocumentsSearchResult result = IndexSearch.getInstance().search(query, options);
-		return NewsIndexType.docsToNews(result.getResults());
+		private static final long serialVersionUID = 1L;
 	}
 
 	/**
-	 * Returns the amount of {@link News} which are assigned to news groups (news group id > 0)
-	 * for the given {@link Query}.
+	 * Queries the {@link Defaults} of all existing {@link News} which have the same link hash
+	 * as one of the given {@link News} or the same title hash and provider and were published
+	 * in the range of the given {@link News}.
+	 *
+	 * @param newsList the {@link News} to find {@link News} with the same link or name.
+	 * @param compareTexts true to compare the links and titles too, because the keys of
+	 * 			older {@link News} may not be calculated yet.
+	 * @return the found {@link Defaults}, use {@link #findDefaults(List, News)} to assign them.
 	 */
-	private int getAmountOfNewsInNewsGroups(final Query filterQuery) {
-		final BooleanQuery query = new BooleanQuery();
-		query.add(filterQuery, Occur.MUST);
-
-		// get only news that are in real groups (newsGroupId > 0)
-		final NumericRangeQuery<Long> newsGroupFilterQuery = NumericRangeQuery.newLongRange(
-				NewsIndexType.FIELD_NEWSGROUPID, 0l, null, false, true);
-		query.add(newsGroupFilterQuery, Occur.MUST);
-
-		final SearchOptions options = new SearchOptions();
-		options.setMaxResults(0); // we only want the totalHits, not the results.
-
-		final TopDocs topDocs = IndexSearch.getInstance().getTopDocs(query, options);
+	private List<Defaults> getDefaultsForNews(final Collection<News> newsList, final boolean compareTexts) {
+		final Set<Long> linkHashes = new HashSet<>();
+		final Set<Long> titleHashes = new HashSet<>();
+		final Set<String> links = new HashSet<>();
+		final Set<String> titles = new HashSet<>();
+		final Set<Integer> providerIds = new HashSet<>();
+		Timestamp minPublishDate = null;
+		Timestamp maxPublishDate = null;
+
+		for (final News news : newsList) {
+			titleHashes.add(news.getTitleHash());
+			providerIds.add(news.getProviderId());
+
+			if(news.getLinkHash() != DedupKeys.NO_LINK_HASH) {
+				linkHashes.add(news.getLinkHash());
+				links.add(news.getLink());
+			}
+			titles.add(news.getTitle());
 
-		return topDocs.totalHits;
-	}
+			if(minPublishDate == null || news.getPublishDate().before(minPublishDate)) {
+				minPublishDate = news.getPublishDate();
+			}
+			if(maxPublishDate == null || news.getPublishDate().after(maxPublishDate)) {
+				maxPublishDate = news.getPublishDate();
+			}
+		}
 
-	/**
-	 * Little data holder as return value of {@link NewsDao#getDefaultsForNews(String)}.
-	 */
-	private static class Defaults extends News {
+		Condition sameLink = TABLE_NEWS.LINK_HASH.in(linkHashes);
+		Condition sameTitle = TABLE_CONTENT.TITLE_HASH.in(titleHashes);
+		if(compareTexts) {
+			sameLink = sameLink.or(TABLE_NEWS.LINK.in(links));
+			sameTitle = sameTitle.or(TABLE_CONTENT.TITLE.in(titles));
+		}
 
-		private static final long serialVersionUID = 1L;
+		return DSL.using(jooqConfig).
+				select(TABLE_CONTENT.ID, TABLE_CONTENT.PROVIDER_ID, TABLE_CONTENT.PUBLISH_DATE, TABLE_NEWS.NEWS_GROUP_ID,
+						TABLE_CONTENT.TITLE, TABLE_CONTENT.TEXT, TABLE_NEWS.IMAGE_URL,
+						TABLE_NEWS.IMAGE_WIDTH, TABLE_NEWS.IMAGE_HEIGHT, TABLE_NEWS.LINK,
+						TABLE_NEWS.LINK_HASH, TABLE_CONTENT.TITLE_HASH).
+				from(TABLE_CONTENT.join(TABLE_NEWS, JoinType.JOIN).
+						on(TABLE_CONTENT.ID.eq(TABLE_NEWS.CONTENT_ID))).
+				where(sameLink).
+					or(sameTitle.
+						and(TABLE_CONTENT.PROVIDER_ID.in(providerIds)).
+						and(TABLE_CONTENT.PUBLISH_DATE.between(getDate(minPublishDate, -PUBLISHDATE_DELTA),
+								getDate(maxPublishDate, PUBLISHDATE_DELTA)))).
+				fetchInto(Defaults.class);
 	}
 
 	/**
-	 * Checks if a {@link News} already exists for the given link. If one exists
-	 * then the {@link Defaults} of this are returned. If not then <code>null</code>
-	 * will be returned.
+	 * Returns the {@link Defaults} of the existing {@link News} for the given {@link News}.
+	 * A {@link News} with the same link is preferred to one with the same title, provider
+	 * and a publish date in the range of {@link #PUBLISHDATE_DELTA} minutes.
+	 * Links and titles are compared by their {@link DedupKeys} and as text if the keys
+	 * of the existing {@link News} aren't calculated yet.
 	 *
+	 * @param defaultsList the {@link Defaults} queried by {@link #getDefaultsForNews(Collection, boolean)}.
 	 * @param news the {@link News} to find a {@link News} with the same link or name.
 	 * @return {@link Defaults} or <code>null</code>
 	 */
-	private Defaults getDefaultsForNews(final News news) {
-		final Defaults result = DSL.using(jooqConfig).
-				select(TABLE_CONTENT.ID, TABLE_CONTENT.PUBLISH_DATE, TABLE_NEWS.NEWS_GROUP_ID,
-						TABLE_CONTENT.TITLE, TABLE_CONTENT.TEXT, TABLE_NEWS.IMAGE_URL,
-						TABLE_NEWS.IMAGE_WIDTH, TABLE_NEWS.IMAGE_HEIGHT, TABLE_NEWS.LINK).
-				from(TABLE_CONTENT.join(TABLE_NEWS, JoinType.JOIN).
-						on(TABLE_CONTENT.ID.eq(TABLE_NEWS.CONTENT_ID))).
-				where(TABLE_NEWS.LINK.eq(news.getLink())).
-					or(TABLE_CONTENT.TITLE.eq(news.getTitle()).
-						and(TABLE_CONTENT.PROVIDER_ID.eq(news.getProviderId())).
-						and(TABLE_CONTENT.PUBLISH_DATE.between(getDate(news, PUBLISHDATE_DELTA),
-								getDate(news, -PUBLISHDATE_DELTA)))).
-				fetchOneInto(Defaults.class);
+	private Defaults findDefaults(final List<Defaults> defaultsList, final News news) {
+		Defaults sameTitle = null;
+		for (final Defaults defaults : defaultsList) {
+			if(news.getLinkHash() != DedupKeys.NO_LINK_HASH &&
+					(defaults.getLinkHash() == 0 ? StringUtils.equals(defaults.getLink(), news.getLink()) :
+					defaults.getLinkHash() == news.getLinkHash())) {
+				return defaults;
+			}
+
+			final boolean titleMatches = defaults.getTitleHash() == 0 ?
+					StringUtils.equals(defaults.getTitle(), news.getTitle()) :
+					defaults.getTitleHash() == news.getTitleHash();
 
-		// no news found -> exit with null.
-/*		if(result == null) {
-			return null;
+			if(sameTitle == null && titleMatches &&
+					defaults.getProviderId() == news.getProviderId() &&
+					!defaults.getPublishDate().before(getDate(news.getPublishDate(), -PUBLISHDATE_DELTA)) &&
+					!defaults.getPublishDate().after(getDate(news.getPublishDate(), PUBLISHDATE_DELTA))) {
+				sameTitle = defaults;
+			}
 		}
 
-		final Defaults defaults = new Defaults();
-		defaults.setId(id); = result.getValue(TABLE_NEWS.CONTENT_ID);
-		defaults.publishDate = result.getValue(TABLE_CONTENT.PUBLISH_DATE);
-		defaults.newsGroupId = result.getValue(TABLE_NEWS.NEWS_GROUP_ID);
-*/
-		return result;
+		return sameTitle;
 	}
 
 	/**
-	 * Builds the timestamp by adding the given minutes to the publish date.
+	 * Builds the timestamp by adding the given minutes to the given date.
 	 */
-	private Timestamp getDate(final News news, final int minutes) {
+	private Timestamp getDate(final Timestamp date, final int minutes) {
 		final Calendar cal = Calendar.getInstance();
-		cal.setTime(news.getPublishDate());
+		cal.setTime(date);
 
 		cal.add(Calendar.MINUTE, minutes);
 
@@ -659,18 +1012,69 @@ public class NewsDao extends ADao {
 	}
 
 	/**
-	 * Returns the greatest news id.
-	 * Can be used to get the auto incremented value after a {@link News} was inserted.
+	 * Calculates the {@link DedupKeys} of the next {@link News} which were saved without them.
+	 * @param afterId only {@link News} with a greater id are updated.
+	 * @param amount the maximal amount of {@link News} to update.
+	 * @return the id of the last updated {@link News} or <code>0</code> if there are no more.
 	 */
-	private long getLastId() {
-		final Record1<Long> result = DSL.using(jooqConfig).
-				select(TABLE_CONTENT.ID).
-				from(TABLE_CONTENT).
-				orderBy(TABLE_CONTENT.ID.desc()).
-				limit(0, 1).
-				fetchOne();
+	public long fillDedupKeys(final long afterId, final int amount) {
+		final Result<Record3<Long, String, String>> records = DSL.using(jooqConfig).
+				select(TABLE_CONTENT.ID, TABLE_CONTENT.TITLE, TABLE_NEWS.LINK).
+				from(TABLE_CONTENT.join(TABLE_NEWS, JoinType.JOIN).
+						on(TABLE_CONTENT.ID.eq(TABLE_NEWS.CONTENT_ID))).
+				where(TABLE_CONTENT.ID.gt(afterId)).
+					and(TABLE_NEWS.LINK_HASH.eq(0L).or(TABLE_CONTENT.TITLE_HASH.eq(0L))).
+				orderBy(TABLE_CONTENT.ID).
+				limit(amount).
+				fetch();
+
+		if(records.isEmpty()) {
+			return 0;
+		}
+
+		final BatchBindStep contentBatch = DSL.using(jooqConfig).batch(
+				DSL.using(jooqConfig).
+					update(TABLE_CONTENT).
+					set(TABLE_CONTENT.TITLE_HASH, (Long) null).
+					where(TABLE_CONTENT.ID.eq((Long) null)));
+
+		final BatchBindStep newsBatch = DSL.using(jooqConfig).batch(
+				DSL.using(jooqConfig).
+					update(TABLE_NEWS).
+					set(TABLE_NEWS.LINK_HASH, (Long) null).
+					where(TABLE_NEWS.CONTENT_ID.eq((Long) null)));
+
+		for (final Record3<Long, String, String> record : records) {
+			contentBatch.bind(DedupKeys.titleHash(record.value2()), record.value1());
+			newsBatch.bind(DedupKeys.linkHash(record.value3()), record.value1());
+		}
+
+		contentBatch.execute();
+		newsBatch.execute();
 
-		return result == null ? 0 : result.getValue(TABLE_CONTENT.ID);
+		return records.get(records.size() - 1).value1();
+	}
+
+	/**
+	 * Reads the {@link DedupKeys} of all saved {@link News} row by row.
+	 * @param handler receives the keys of each {@link News}.
+	 */
+	public void forEachDedupKey(final IDedupKeyHandler handler) {
+		final Cursor<Record3<Long, Integer, Long>> cursor = DSL.using(jooqConfig).
+				select(TABLE_NEWS.LINK_HASH, TABLE_CONTENT.PROVIDER_ID, TABLE_CONTENT.TITLE_HASH).
+				from(TABLE_CONTENT.join(TABLE_NEWS, JoinType.JOIN).
+						on(TABLE_CONTENT.ID.eq(TABLE_NEWS.CONTENT_ID))).
+				fetchSize(Integer.MIN_VALUE). // streams the rows with MySQL
+				fetchLazy();
+
+		try {
+			for (final Record3<Long, Integer, Long> record : cursor) {
+				handler.handle(record.value1(), record.value2(), record.value3());
+			}
+		}
+		finally {
+			cursor.close();
+		}
 	}
 
 	/**
@@ -722,14 +1126,11 @@ public class NewsDao extends ADao {
 			return; // nothing to index
 		}
 
-		final SimpleIndexData indexData = new SimpleIndexData(NewsIndexType.getInstance());
-		for (final News news : newsToIndex) {
-			LOGGER.info("Add unindexed news {} to index queue.", news.getId());
-			indexData.addElement(new NewsIndexElement(news, EOperation.UPDATE));
-					// update because it should delete a possible existing news.
-		}
+		LOGGER.info("Add {} unindexed news to index queue.", newsToIndex.size());
 
-		IndexManager.getInstance().index(indexData);
+		// update because it should delete a possible existing news.
+		IndexManager.getInstance().index(new SimpleIndexData(NewsIndexType.getInstance(),
+				NewsIndexType.toElements(connection, newsToIndex, EOperation.UPDATE)));
 	}
 
 	/**
@@ -900,4 +1301,78 @@ public class NewsDao extends ADao {
 		 */
 		public Map<ESortField, ESortOrder> sortFields = new HashMap<>();
 	}
+
+	/**
+	 * Contains the changes of the index and the caches which belong to the saved, updated or deleted {@link News}
+	 * of a transaction. They must only be applied after the transaction was committed,
+	 * so a rolled back {@link News} is neither indexed nor known by the {@link NewsDedupIndex}
+	 * and a {@link News} whose deletion was rolled back stays in them.
+	 */
+	public static class PendingChanges {
+
+		/**
+		 * The {@link News} to send to the {@link IndexManager}.
+		 */
+		private final SimpleIndexData indexData = new SimpleIndexData(NewsIndexType.getInstance());
+
+		/**
+		 * The inserted and updated {@link News}.
+		 */
+		private final List<News> savedNews = new ArrayList<>();
+
+		/**
+		 * The deleted {@link News}.
+		 */
+		private final List<News> deletedNews = new ArrayList<>();
+
+		/**
+		 * Adds an inserted or updated {@link News}.
+		 * @param news the saved {@link News}.
+		 * @param operation {@link EOperation#INSERT} or {@link EOperation#UPDATE}.
+		 */
+		private void addSaved(final News news, final EOperation operation) {
+			savedNews.add(news);
+			indexData.addElement(new NewsIndexElement(news, operation));
+		}
+
+		/**
+		 * Adds a {@link News} which only has to be indexed again.
+		 * @param news the updated {@link News}.
+		 */
+		private void addUpdated(final News news) {
+			indexData.addElement(new NewsIndexElement(news, EOperation.UPDATE));
+		}
+
+		/**
+		 * Adds a deleted {@link News}.
+		 * @param news the deleted {@link News}.
+		 */
+		private void addDeleted(final News news) {
+			deletedNews.add(news);
+			indexData.addElement(new NewsIndexElement(news, EOperation.DELETE));
+		}
+
+		/**
+		 * Adds the keys of the saved {@link News} to the {@link NewsDedupIndex}, removes the deleted
+		 * {@link News} from the caches and sends all of them to the {@link IndexManager}.
+		 */
+		public void apply() {
+			final NewsDedupIndex dedupIndex = NewsDedupIndex.getInstance();
+			for (final News news : savedNews) {
+				dedupIndex.addKeys(news.getLinkHash(), news.getProviderId(), news.getTitleHash());
+			}
+
+			final MinHashNewsFinder minHashFinder = MinHashNewsFinder.getInstance();
+			final NewsGroupCache groupCache = NewsGroupCache.getInstance();
+			for (final News news : deletedNews) {
+				dedupIndex.forget(news);
+				minHashFinder.forget(news);
+				groupCache.remove(news);
+			}
+
+			if(!indexData.getElements().isEmpty()) {
+				IndexManager.getInstance().index(indexData);
+			}
+		}
+	}
 }
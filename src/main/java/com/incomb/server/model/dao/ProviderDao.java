@@ -50,12 +50,12 @@ public class ProviderDao extends ADao {
 	/**
 	 * Cache of {@link Provider}s. Key is {@link Provider#getId()}.
 	 */
-	private static Map<Integer, Provider> PROVIDERS = new HashMap<>();
+	private static volatile Map<Integer, Provider> PROVIDERS = new HashMap<>();
 
 	/**
 	 * Time in milliseconds since {@link #PROVIDERS} was last loaded.
 	 */
-	private static long lastLoadTime = 0;
+	private static volatile long lastLoadTime = 0;
 
 	/**
 	 * Jooqs {@link InternalProviderDao} for simple queries.
@@ -127,6 +127,7 @@ public class ProviderDao extends ADao {
 					}
 
 					PROVIDERS = newCache;
+					lastLoadTime = System.currentTimeMillis();
 				}
 			}
 		}
@@ -135,13 +136,14 @@ public class ProviderDao extends ADao {
 	}
 
 	/**
-	 * Returns {@link Provider}s directly from the database. Can be used for building the index.
-	 * @param start start position to return the {@link Provider}s.
+	 * Returns {@link Provider}s directly from the database sorted by id. Can be used for building the index.
+	 * @param afterId only {@link Provider}s with a greater id are returned. 0 for the first chunk.
 	 * @param amount the maximum of {@link Provider}s.
 	 * @return a {@link List} with {@link Provider}s.
 	 */
-	public List<Provider> getProviders(final int start, final int amount) {
-		return DSL.using(jooqConfig).select().from(TABLE).limit(start, amount).fetchInto(Provider.class);
+	public List<Provider> getProvidersAfter(final int afterId, final int amount) {
+		return DSL.using(jooqConfig).select().from(TABLE).where(TABLE.ID.gt(afterId)).
+				orderBy(TABLE.ID).limit(amount).fetchInto(Provider.class);
 	}
 
 	/**
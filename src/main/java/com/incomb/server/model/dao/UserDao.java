@@ -2,7 +2,10 @@ package com.incomb.server.model.dao;
 
 import java.sql.Connection;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
@@ -79,6 +82,25 @@ public class UserDao extends ADao implements IRecordExistsChecker {
 		return userDao.findById(id);
 	}
 
+	/**
+	 * Returns the {@link User}s with the given ids with a single query.
+	 * @param ids the ids of the {@link User}s to return.
+	 * @return {@link Map} with the id as key. Not found {@link User}s are missing.
+	 */
+	public Map<Long, User> findByIds(final Collection<Long> ids) {
+		final Map<Long, User> users = new HashMap<>();
+
+		if(ids.isEmpty()) {
+			return users;
+		}
+
+		for (final User user : userDao.fetchById(ids.toArray(new Long[ids.size()]))) {
+			users.put(user.getId(), user);
+		}
+
+		return users;
+	}
+
 	/**
 	 * Returns the {@link User} with the given username.
 	 * @param username the username of the {@link User} to return.
@@ -148,14 +170,15 @@ public class UserDao extends ADao implements IRecordExistsChecker {
 	}
 
 	/**
-	 * Returns the {@link User}s from the database.
-	 * The result isn't sorted. This method can be used for reindexing.
-	 * @param start start index of the results
-	 * @param amount the amount of {@link User}s to return after the start index.
+	 * Returns the {@link User}s from the database sorted by id.
+	 * This method can be used for reindexing.
+	 * @param afterId only {@link User}s with a greater id are returned. 0 for the first chunk.
+	 * @param amount the maximal amount of {@link User}s to return.
 	 * @return {@link List} containing {@link User}
 	 */
-	public List<User> getUsers(final int start, final int amount) {
-		return DSL.using(jooqConfig).select().from(TABLE).limit(start, amount).fetchInto(User.class);
+	public List<User> getUsersAfter(final long afterId, final int amount) {
+		return DSL.using(jooqConfig).select().from(TABLE).where(TABLE.ID.gt(afterId)).
+				orderBy(TABLE.ID).limit(amount).fetchInto(User.class);
 	}
 
 	/**
@@ -93,4 +93,11 @@ public class InternalContentDao extends org.jooq.impl.DAOImpl<com.incomb.server.
 	public java.util.List<com.incomb.server.model.Content> fetchByIndexed(java.lang.Boolean... values) {
 		return fetch(com.incomb.server.model.tables.ContentTable.CONTENT.INDEXED, values);
 	}
+
+	/**
+	 * Fetch records that have <code>title_hash IN (values)</code>
+	 */
+	public java.util.List<com.incomb.server.model.Content> fetchByTitleHash(java.lang.Long... values) {
+		return fetch(com.incomb.server.model.tables.ContentTable.CONTENT.TITLE_HASH, values);
+	}
 }
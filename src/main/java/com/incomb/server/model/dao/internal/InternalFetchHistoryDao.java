@@ -51,4 +51,32 @@ public class InternalFetchHistoryDao extends org.jooq.impl.DAOImpl<com.incomb.se
 	public java.util.List<com.incomb.server.model.FetchHistory> fetchByResult(java.lang.Boolean... values) {
 		return fetch(com.incomb.server.model.tables.FetchHistoryTable.FETCH_HISTORY.RESULT, values);
 	}
+
+	/**
+	 * Fetch records that have <code>etag IN (values)</code>
+	 */
+	public java.util.List<com.incomb.server.model.FetchHistory> fetchByEtag(java.lang.String... values) {
+		return fetch(com.incomb.server.model.tables.FetchHistoryTable.FETCH_HISTORY.ETAG, values);
+	}
+
+	/**
+	 * Fetch records that have <code>last_modified IN (values)</code>
+	 */
+	public java.util.List<com.incomb.server.model.FetchHistory> fetchByLastModified(java.lang.String... values) {
+		return fetch(com.incomb.server.model.tables.FetchHistoryTable.FETCH_HISTORY.LAST_MODIFIED, values);
+	}
+
+	/**
+	 * Fetch records that have <code>not_modified IN (values)</code>
+	 */
+	public java.util.List<com.incomb.server.model.FetchHistory> fetchByNotModified(java.lang.Boolean... values) {
+		return fetch(com.incomb.server.model.tables.FetchHistoryTable.FETCH_HISTORY.NOT_MODIFIED, values);
+	}
+
+	/**
+	 * Fetch records that have <code>bytes IN (values)</code>
+	 */
+	public java.util.List<com.incomb.server.model.FetchHistory> fetchByBytes(java.lang.Long... values) {
+		return fetch(com.incomb.server.model.tables.FetchHistoryTable.FETCH_HISTORY.BYTES, values);
+	}
 }
@@ -79,4 +79,11 @@ public class InternalNewsDao extends org.jooq.impl.DAOImpl<com.incomb.server.mod
 	public java.util.List<com.incomb.server.model.News> fetchByNewsGroupId(java.lang.Long... values) {
 		return fetch(com.incomb.server.model.tables.NewsTable.NEWS.NEWS_GROUP_ID, values);
 	}
+
+	/**
+	 * Fetch records that have <code>link_hash IN (values)</code>
+	 */
+	public java.util.List<com.incomb.server.model.News> fetchByLinkHash(java.lang.Long... values) {
+		return fetch(com.incomb.server.model.tables.NewsTable.NEWS.LINK_HASH, values);
+	}
 }
@@ -7,7 +7,7 @@ package com.incomb.server.model.records;
  * This class is generated by jOOQ.
  */
 @java.lang.SuppressWarnings({ "all", "unchecked", "rawtypes" })
-public class ContentRecord extends org.jooq.impl.UpdatableRecordImpl<com.incomb.server.model.records.ContentRecord> implements org.jooq.Record8<java.lang.Long, java.lang.Integer, java.lang.Integer, java.lang.String, java.lang.String, java.lang.String, java.sql.Timestamp, java.lang.Boolean> {
+public class ContentRecord extends org.jooq.impl.UpdatableRecordImpl<com.incomb.server.model.records.ContentRecord> implements org.jooq.Record9<java.lang.Long, java.lang.Integer, java.lang.Integer, java.lang.String, java.lang.String, java.lang.String, java.sql.Timestamp, java.lang.Boolean, java.lang.Long> {
 
 	private static final long serialVersionUID = 1166838679;
 
@@ -123,6 +123,20 @@ public class ContentRecord extends org.jooq.impl.UpdatableRecordImpl<com.incomb.
 		return (java.lang.Boolean) getValue(7);
 	}
 
+	/**
+	 * Setter for <code>incomb.content.title_hash</code>.
+	 */
+	public void setTitleHash(java.lang.Long value) {
+		setValue(8, value);
+	}
+
+	/**
+	 * Getter for <code>incomb.content.title_hash</code>.
+	 */
+	public java.lang.Long getTitleHash() {
+		return (java.lang.Long) getValue(8);
+	}
+
 	// -------------------------------------------------------------------------
 	// Primary key information
 	// -------------------------------------------------------------------------
@@ -136,23 +150,23 @@ public class ContentRecord extends org.jooq.impl.UpdatableRecordImpl<com.incomb.
 	}
 
 	// -------------------------------------------------------------------------
-	// Record8 type implementation
+	// Record9 type implementation
 	// -------------------------------------------------------------------------
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public org.jooq.Row8<java.lang.Long, java.lang.Integer, java.lang.Integer, java.lang.String, java.lang.String, java.lang.String, java.sql.Timestamp, java.lang.Boolean> fieldsRow() {
-		return (org.jooq.Row8) super.fieldsRow();
+	public org.jooq.Row9<java.lang.Long, java.lang.Integer, java.lang.Integer, java.lang.String, java.lang.String, java.lang.String, java.sql.Timestamp, java.lang.Boolean, java.lang.Long> fieldsRow() {
+		return (org.jooq.Row9) super.fieldsRow();
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public org.jooq.Row8<java.lang.Long, java.lang.Integer, java.lang.Integer, java.lang.String, java.lang.String, java.lang.String, java.sql.Timestamp, java.lang.Boolean> valuesRow() {
-		return (org.jooq.Row8) super.valuesRow();
+	public org.jooq.Row9<java.lang.Long, java.lang.Integer, java.lang.Integer, java.lang.String, java.lang.String, java.lang.String, java.sql.Timestamp, java.lang.Boolean, java.lang.Long> valuesRow() {
+		return (org.jooq.Row9) super.valuesRow();
 	}
 
 	/**
@@ -219,6 +233,14 @@ public class ContentRecord extends org.jooq.impl.UpdatableRecordImpl<com.incomb.
 		return com.incomb.server.model.tables.ContentTable.CONTENT.INDEXED;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public org.jooq.Field<java.lang.Long> field9() {
+		return com.incomb.server.model.tables.ContentTable.CONTENT.TITLE_HASH;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -283,6 +305,14 @@ public class ContentRecord extends org.jooq.impl.UpdatableRecordImpl<com.incomb.
 		return getIndexed();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public java.lang.Long value9() {
+		return getTitleHash();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -359,7 +389,16 @@ public class ContentRecord extends org.jooq.impl.UpdatableRecordImpl<com.incomb.
 	 * {@inheritDoc}
 	 */
 	@Override
-	public ContentRecord values(java.lang.Long value1, java.lang.Integer value2, java.lang.Integer value3, java.lang.String value4, java.lang.String value5, java.lang.String value6, java.sql.Timestamp value7, java.lang.Boolean value8) {
+	public ContentRecord value9(java.lang.Long value) {
+		setTitleHash(value);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ContentRecord values(java.lang.Long value1, java.lang.Integer value2, java.lang.Integer value3, java.lang.String value4, java.lang.String value5, java.lang.String value6, java.sql.Timestamp value7, java.lang.Boolean value8, java.lang.Long value9) {
 		return this;
 	}
 
@@ -377,7 +416,7 @@ public class ContentRecord extends org.jooq.impl.UpdatableRecordImpl<com.incomb.
 	/**
 	 * Create a detached, initialised ContentRecord
 	 */
-	public ContentRecord(java.lang.Long id, java.lang.Integer providerId, java.lang.Integer categoryId, java.lang.String title, java.lang.String locale, java.lang.String text, java.sql.Timestamp publishDate, java.lang.Boolean indexed) {
+	public ContentRecord(java.lang.Long id, java.lang.Integer providerId, java.lang.Integer categoryId, java.lang.String title, java.lang.String locale, java.lang.String text, java.sql.Timestamp publishDate, java.lang.Boolean indexed, java.lang.Long titleHash) {
 		super(com.incomb.server.model.tables.ContentTable.CONTENT);
 
 		setValue(0, id);
@@ -388,5 +427,6 @@ public class ContentRecord extends org.jooq.impl.UpdatableRecordImpl<com.incomb.
 		setValue(5, text);
 		setValue(6, publishDate);
 		setValue(7, indexed);
+		setValue(8, titleHash);
 	}
 }
@@ -0,0 +1,312 @@
+/**
+ * This class is generated by jOOQ
+ */
+package com.incomb.server.model.records;
+
+/**
+ * This class is generated by jOOQ.
+ */
+@java.lang.SuppressWarnings({ "all", "unchecked", "rawtypes" })
+public class FetchHistoryDailyRecord extends org.jooq.impl.UpdatableRecordImpl<com.incomb.server.model.records.FetchHistoryDailyRecord> implements org.jooq.Record6<java.lang.Integer, java.sql.Date, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Long> {
+
+	private static final long serialVersionUID = -1504126339;
+
+	/**
+	 * Setter for <code>incomb.fetch_history_daily.content_source_id</code>.
+	 */
+	public void setContentSourceId(java.lang.Integer value) {
+		setValue(0, value);
+	}
+
+	/**
+	 * Getter for <code>incomb.fetch_history_daily.content_source_id</code>.
+	 */
+	public java.lang.Integer getContentSourceId() {
+		return (java.lang.Integer) getValue(0);
+	}
+
+	/**
+	 * Setter for <code>incomb.fetch_history_daily.day</code>.
+	 */
+	public void setDay(java.sql.Date value) {
+		setValue(1, value);
+	}
+
+	/**
+	 * Getter for <code>incomb.fetch_history_daily.day</code>.
+	 */
+	public java.sql.Date getDay() {
+		return (java.sql.Date) getValue(1);
+	}
+
+	/**
+	 * Setter for <code>incomb.fetch_history_daily.fetches</code>.
+	 */
+	public void setFetches(java.lang.Integer value) {
+		setValue(2, value);
+	}
+
+	/**
+	 * Getter for <code>incomb.fetch_history_daily.fetches</code>.
+	 */
+	public java.lang.Integer getFetches() {
+		return (java.lang.Integer) getValue(2);
+	}
+
+	/**
+	 * Setter for <code>incomb.fetch_history_daily.yields</code>.
+	 */
+	public void setYields(java.lang.Integer value) {
+		setValue(3, value);
+	}
+
+	/**
+	 * Getter for <code>incomb.fetch_history_daily.yields</code>.
+	 */
+	public java.lang.Integer getYields() {
+		return (java.lang.Integer) getValue(3);
+	}
+
+	/**
+	 * Setter for <code>incomb.fetch_history_daily.not_modified</code>.
+	 */
+	public void setNotModified(java.lang.Integer value) {
+		setValue(4, value);
+	}
+
+	/**
+	 * Getter for <code>incomb.fetch_history_daily.not_modified</code>.
+	 */
+	public java.lang.Integer getNotModified() {
+		return (java.lang.Integer) getValue(4);
+	}
+
+	/**
+	 * Setter for <code>incomb.fetch_history_daily.bytes</code>.
+	 */
+	public void setBytes(java.lang.Long value) {
+		setValue(5, value);
+	}
+
+	/**
+	 * Getter for <code>incomb.fetch_history_daily.bytes</code>.
+	 */
+	public java.lang.Long getBytes() {
+		return (java.lang.Long) getValue(5);
+	}
+
+	// -------------------------------------------------------------------------
+	// Primary key information
+	// -------------------------------------------------------------------------
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public org.jooq.Record2<java.lang.Integer, java.sql.Date> key() {
+		return (org.jooq.Record2) super.key();
+	}
+
+	// -------------------------------------------------------------------------
+	// Record6 type implementation
+	// -------------------------------------------------------------------------
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public org.jooq.Row6<java.lang.Integer, java.sql.Date, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Long> fieldsRow() {
+		return (org.jooq.Row6) super.fieldsRow();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public org.jooq.Row6<java.lang.Integer, java.sql.Date, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Long> valuesRow() {
+		return (org.jooq.Row6) super.valuesRow();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public org.jooq.Field<java.lang.Integer> field1() {
+		return com.incomb.server.model.tables.FetchHistoryDailyTable.FETCH_HISTORY_DAILY.CONTENT_SOURCE_ID;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public org.jooq.Field<java.sql.Date> field2() {
+		return com.incomb.server.model.tables.FetchHistoryDailyTable.FETCH_HISTORY_DAILY.DAY;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public org.jooq.Field<java.lang.Integer> field3() {
+		return com.incomb.server.model.tables.FetchHistoryDailyTable.FETCH_HISTORY_DAILY.FETCHES;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public org.jooq.Field<java.lang.Integer> field4() {
+		return com.incomb.server.model.tables.FetchHistoryDailyTable.FETCH_HISTORY_DAILY.YIELDS;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public org.jooq.Field<java.lang.Integer> field5() {
+		return com.incomb.server.model.tables.FetchHistoryDailyTable.FETCH_HISTORY_DAILY.NOT_MODIFIED;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public org.jooq.Field<java.lang.Long> field6() {
+		return com.incomb.server.model.tables.FetchHistoryDailyTable.FETCH_HISTORY_DAILY.BYTES;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public java.lang.Integer value1() {
+		return getContentSourceId();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public java.sql.Date value2() {
+		return getDay();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public java.lang.Integer value3() {
+		return getFetches();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public java.lang.Integer value4() {
+		return getYields();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public java.lang.Integer value5() {
+		return getNotModified();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public java.lang.Long value6() {
+		return getBytes();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public FetchHistoryDailyRecord value1(java.lang.Integer value) {
+		setContentSourceId(value);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public FetchHistoryDailyRecord value2(java.sql.Date value) {
+		setDay(value);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public FetchHistoryDailyRecord value3(java.lang.Integer value) {
+		setFetches(value);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public FetchHistoryDailyRecord value4(java.lang.Integer value) {
+		setYields(value);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public FetchHistoryDailyRecord value5(java.lang.Integer value) {
+		setNotModified(value);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public FetchHistoryDailyRecord value6(java.lang.Long value) {
+		setBytes(value);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public FetchHistoryDailyRecord values(java.lang.Integer value1, java.sql.Date value2, java.lang.Integer value3, java.lang.Integer value4, java.lang.Integer value5, java.lang.Long value6) {
+		return this;
+	}
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Create a detached FetchHistoryDailyRecord
+	 */
+	public FetchHistoryDailyRecord() {
+		super(com.incomb.server.model.tables.FetchHistoryDailyTable.FETCH_HISTORY_DAILY);
+	}
+
+	/**
+	 * Create a detached, initialised FetchHistoryDailyRecord
+	 */
+	public FetchHistoryDailyRecord(java.lang.Integer contentSourceId, java.sql.Date day, java.lang.Integer fetches, java.lang.Integer yields, java.lang.Integer notModified, java.lang.Long bytes) {
+		super(com.incomb.server.model.tables.FetchHistoryDailyTable.FETCH_HISTORY_DAILY);
+
+		setValue(0, contentSourceId);
+		setValue(1, day);
+		setValue(2, fetches);
+		setValue(3, yields);
+		setValue(4, notModified);
+		setValue(5, bytes);
+	}
+}
@@ -7,7 +7,7 @@ package com.incomb.server.model.records;
  * This class is generated by jOOQ.
  */
 @java.lang.SuppressWarnings({ "all", "unchecked", "rawtypes" })
-public class FetchHistoryRecord extends org.jooq.impl.UpdatableRecordImpl<com.incomb.server.model.records.FetchHistoryRecord> implements org.jooq.Record3<java.lang.Integer, java.sql.Timestamp, java.lang.Boolean> {
+public class FetchHistoryRecord extends org.jooq.impl.UpdatableRecordImpl<com.incomb.server.model.records.FetchHistoryRecord> implements org.jooq.Record8<java.lang.Integer, java.sql.Timestamp, java.lang.Boolean, java.lang.String, java.lang.String, java.lang.Boolean, java.lang.Long, java.lang.Boolean> {
 
 	private static final long serialVersionUID = 1736108269;
 
@@ -53,6 +53,76 @@ public class FetchHistoryRecord extends org.jooq.impl.UpdatableRecordImpl<com.in
 		return (java.lang.Boolean) getValue(2);
 	}
 
+	/**
+	 * Setter for <code>incomb.fetch_history.etag</code>.
+	 */
+	public void setEtag(java.lang.String value) {
+		setValue(3, value);
+	}
+
+	/**
+	 * Getter for <code>incomb.fetch_history.etag</code>.
+	 */
+	public java.lang.String getEtag() {
+		return (java.lang.String) getValue(3);
+	}
+
+	/**
+	 * Setter for <code>incomb.fetch_history.last_modified</code>.
+	 */
+	public void setLastModified(java.lang.String value) {
+		setValue(4, value);
+	}
+
+	/**
+	 * Getter for <code>incomb.fetch_history.last_modified</code>.
+	 */
+	public java.lang.String getLastModified() {
+		return (java.lang.String) getValue(4);
+	}
+
+	/**
+	 * Setter for <code>incomb.fetch_history.not_modified</code>.
+	 */
+	public void setNotModified(java.lang.Boolean value) {
+		setValue(5, value);
+	}
+
+	/**
+	 * Getter for <code>incomb.fetch_history.not_modified</code>.
+	 */
+	public java.lang.Boolean getNotModified() {
+		return (java.lang.Boolean) getValue(5);
+	}
+
+	/**
+	 * Setter for <code>incomb.fetch_history.bytes</code>.
+	 */
+	public void setBytes(java.lang.Long value) {
+		setValue(6, value);
+	}
+
+	/**
+	 * Getter for <code>incomb.fetch_history.bytes</code>.
+	 */
+	public java.lang.Long getBytes() {
+		return (java.lang.Long) getValue(6);
+	}
+
+	/**
+	 * Setter for <code>incomb.fetch_history.failed</code>.
+	 */
+	public void setFailed(java.lang.Boolean value) {
+		setValue(7, value);
+	}
+
+	/**
+	 * Getter for <code>incomb.fetch_history.failed</code>.
+	 */
+	public java.lang.Boolean getFailed() {
+		return (java.lang.Boolean) getValue(7);
+	}
+
 	// -------------------------------------------------------------------------
 	// Primary key information
 	// -------------------------------------------------------------------------
@@ -66,23 +136,23 @@ public class FetchHistoryRecord extends org.jooq.impl.UpdatableRecordImpl<com.in
 	}
 
 	// -------------------------------------------------------------------------
-	// Record3 type implementation
+	// Record8 type implementation
 	// -------------------------------------------------------------------------
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public org.jooq.Row3<java.lang.Integer, java.sql.Timestamp, java.lang.Boolean> fieldsRow() {
-		return (org.jooq.Row3) super.fieldsRow();
+	public org.jooq.Row8<java.lang.Integer, java.sql.Timestamp, java.lang.Boolean, java.lang.String, java.lang.String, java.lang.Boolean, java.lang.Long, java.lang.Boolean> fieldsRow() {
+		return (org.jooq.Row8) super.fieldsRow();
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public org.jooq.Row3<java.lang.Integer, java.sql.Timestamp, java.lang.Boolean> valuesRow() {
-		return (org.jooq.Row3) super.valuesRow();
+	public org.jooq.Row8<java.lang.Integer, java.sql.Timestamp, java.lang.Boolean, java.lang.String, java.lang.String, java.lang.Boolean, java.lang.Long, java.lang.Boolean> valuesRow() {
+		return (org.jooq.Row8) super.valuesRow();
 	}
 
 	/**
@@ -109,6 +179,46 @@ public class FetchHistoryRecord extends org.jooq.impl.UpdatableRecordImpl<com.in
 		return com.incomb.server.model.tables.FetchHistoryTable.FETCH_HISTORY.RESULT;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public org.jooq.Field<java.lang.String> field4() {
+		return com.incomb.server.model.tables.FetchHistoryTable.FETCH_HISTORY.ETAG;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public org.jooq.Field<java.lang.String> field5() {
+		return com.incomb.server.model.tables.FetchHistoryTable.FETCH_HISTORY.LAST_MODIFIED;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public org.jooq.Field<java.lang.Boolean> field6() {
+		return com.incomb.server.model.tables.FetchHistoryTable.FETCH_HISTORY.NOT_MODIFIED;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public org.jooq.Field<java.lang.Long> field7() {
+		return com.incomb.server.model.tables.FetchHistoryTable.FETCH_HISTORY.BYTES;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public org.jooq.Field<java.lang.Boolean> field8() {
+		return com.incomb.server.model.tables.FetchHistoryTable.FETCH_HISTORY.FAILED;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -133,6 +243,46 @@ public class FetchHistoryRecord extends org.jooq.impl.UpdatableRecordImpl<com.in
 		return getResult();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public java.lang.String value4() {
+		return getEtag();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public java.lang.String value5() {
+		return getLastModified();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public java.lang.Boolean value6() {
+		return getNotModified();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public java.lang.Long value7() {
+		return getBytes();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public java.lang.Boolean value8() {
+		return getFailed();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -164,7 +314,52 @@ public class FetchHistoryRecord extends org.jooq.impl.UpdatableRecordImpl<com.in
 	 * {@inheritDoc}
 	 */
 	@Override
-	public FetchHistoryRecord values(java.lang.Integer value1, java.sql.Timestamp value2, java.lang.Boolean value3) {
+	public FetchHistoryRecord value4(java.lang.String value) {
+		setEtag(value);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public FetchHistoryRecord value5(java.lang.String value) {
+		setLastModified(value);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public FetchHistoryRecord value6(java.lang.Boolean value) {
+		setNotModified(value);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public FetchHistoryRecord value7(java.lang.Long value) {
+		setBytes(value);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public FetchHistoryRecord value8(java.lang.Boolean value) {
+		setFailed(value);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public FetchHistoryRecord values(java.lang.Integer value1, java.sql.Timestamp value2, java.lang.Boolean value3, java.lang.String value4, java.lang.String value5, java.lang.Boolean value6, java.lang.Long value7, java.lang.Boolean value8) {
 		return this;
 	}
 
@@ -182,11 +377,16 @@ public class FetchHistoryRecord extends org.jooq.impl.UpdatableRecordImpl<com.in
 	/**
 	 * Create a detached, initialised FetchHistoryRecord
 	 */
-	public FetchHistoryRecord(java.lang.Integer contentSourceId, java.sql.Timestamp fetchTime, java.lang.Boolean result) {
+	public FetchHistoryRecord(java.lang.Integer contentSourceId, java.sql.Timestamp fetchTime, java.lang.Boolean result, java.lang.String etag, java.lang.String lastModified, java.lang.Boolean notModified, java.lang.Long bytes, java.lang.Boolean failed) {
 		super(com.incomb.server.model.tables.FetchHistoryTable.FETCH_HISTORY);
 
 		setValue(0, contentSourceId);
 		setValue(1, fetchTime);
 		setValue(2, result);
+		setValue(3, etag);
+		setValue(4, lastModified);
+		setValue(5, notModified);
+		setValue(6, bytes);
+		setValue(7, failed);
 	}
 }
@@ -7,7 +7,7 @@ package com.incomb.server.model.records;
  * This class is generated by jOOQ.
  */
 @java.lang.SuppressWarnings({ "all", "unchecked", "rawtypes" })
-public class NewsRecord extends org.jooq.impl.UpdatableRecordImpl<com.incomb.server.model.records.NewsRecord> implements org.jooq.Record6<java.lang.Long, java.lang.String, java.lang.String, java.lang.Integer, java.lang.Integer, java.lang.Long> {
+public class NewsRecord extends org.jooq.impl.UpdatableRecordImpl<com.incomb.server.model.records.NewsRecord> implements org.jooq.Record7<java.lang.Long, java.lang.String, java.lang.String, java.lang.Integer, java.lang.Integer, java.lang.Long, java.lang.Long> {
 
 	private static final long serialVersionUID = -1305236825;
 
@@ -95,6 +95,20 @@ public class NewsRecord extends org.jooq.impl.UpdatableRecordImpl<com.incomb.ser
 		return (java.lang.Long) getValue(5);
 	}
 
+	/**
+	 * Setter for <code>incomb.news.link_hash</code>.
+	 */
+	public void setLinkHash(java.lang.Long value) {
+		setValue(6, value);
+	}
+
+	/**
+	 * Getter for <code>incomb.news.link_hash</code>.
+	 */
+	public java.lang.Long getLinkHash() {
+		return (java.lang.Long) getValue(6);
+	}
+
 	// -------------------------------------------------------------------------
 	// Primary key information
 	// -------------------------------------------------------------------------
@@ -108,23 +122,23 @@ public class NewsRecord extends org.jooq.impl.UpdatableRecordImpl<com.incomb.ser
 	}
 
 	// -------------------------------------------------------------------------
-	// Record6 type implementation
+	// Record7 type implementation
 	// -------------------------------------------------------------------------
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public org.jooq.Row6<java.lang.Long, java.lang.String, java.lang.String, java.lang.Integer, java.lang.Integer, java.lang.Long> fieldsRow() {
-		return (org.jooq.Row6) super.fieldsRow();
+	public org.jooq.Row7<java.lang.Long, java.lang.String, java.lang.String, java.lang.Integer, java.lang.Integer, java.lang.Long, java.lang.Long> fieldsRow() {
+		return (org.jooq.Row7) super.fieldsRow();
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public org.jooq.Row6<java.lang.Long, java.lang.String, java.lang.String, java.lang.Integer, java.lang.Integer, java.lang.Long> valuesRow() {
-		return (org.jooq.Row6) super.valuesRow();
+	public org.jooq.Row7<java.lang.Long, java.lang.String, java.lang.String, java.lang.Integer, java.lang.Integer, java.lang.Long, java.lang.Long> valuesRow() {
+		return (org.jooq.Row7) super.valuesRow();
 	}
 
 	/**
@@ -175,6 +189,14 @@ public class NewsRecord extends org.jooq.impl.UpdatableRecordImpl<com.incomb.ser
 		return com.incomb.server.model.tables.NewsTable.NEWS.NEWS_GROUP_ID;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public org.jooq.Field<java.lang.Long> field7() {
+		return com.incomb.server.model.tables.NewsTable.NEWS.LINK_HASH;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -223,6 +245,14 @@ public class NewsRecord extends org.jooq.impl.UpdatableRecordImpl<com.incomb.ser
 		return getNewsGroupId();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public java.lang.Long value7() {
+		return getLinkHash();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -281,7 +311,16 @@ public class NewsRecord extends org.jooq.impl.UpdatableRecordImpl<com.incomb.ser
 	 * {@inheritDoc}
 	 */
 	@Override
-	public NewsRecord values(java.lang.Long value1, java.lang.String value2, java.lang.String value3, java.lang.Integer value4, java.lang.Integer value5, java.lang.Long value6) {
+	public NewsRecord value7(java.lang.Long value) {
+		setLinkHash(value);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public NewsRecord values(java.lang.Long value1, java.lang.String value2, java.lang.String value3, java.lang.Integer value4, java.lang.Integer value5, java.lang.Long value6, java.lang.Long value7) {
 		return this;
 	}
 
@@ -299,7 +338,7 @@ public class NewsRecord extends org.jooq.impl.UpdatableRecordImpl<com.incomb.ser
 	/**
 	 * Create a detached, initialised NewsRecord
 	 */
-	public NewsRecord(java.lang.Long contentId, java.lang.String link, java.lang.String imageUrl, java.lang.Integer imageWidth, java.lang.Integer imageHeight, java.lang.Long newsGroupId) {
+	public NewsRecord(java.lang.Long contentId, java.lang.String link, java.lang.String imageUrl, java.lang.Integer imageWidth, java.lang.Integer imageHeight, java.lang.Long newsGroupId, java.lang.Long linkHash) {
 		super(com.incomb.server.model.tables.NewsTable.NEWS);
 
 		setValue(0, contentId);
@@ -308,5 +347,6 @@ public class NewsRecord extends org.jooq.impl.UpdatableRecordImpl<com.incomb.ser
 		setValue(3, imageWidth);
 		setValue(4, imageHeight);
 		setValue(5, newsGroupId);
+		setValue(6, linkHash);
 	}
 }
@@ -64,6 +64,11 @@ public class ContentTable extends org.jooq.impl.TableImpl<com.incomb.server.mode
 	 */
 	public final org.jooq.TableField<com.incomb.server.model.records.ContentRecord, java.lang.Boolean> INDEXED = createField("indexed", org.jooq.impl.SQLDataType.BIT.nullable(false), this, "");
 
+	/**
+	 * The column <code>incomb.content.title_hash</code>.
+	 */
+	public final org.jooq.TableField<com.incomb.server.model.records.ContentRecord, java.lang.Long> TITLE_HASH = createField("title_hash", org.jooq.impl.SQLDataType.BIGINT.nullable(false).defaulted(true), this, "");
+
 	/**
 	 * Create a <code>incomb.content</code> table reference
 	 */
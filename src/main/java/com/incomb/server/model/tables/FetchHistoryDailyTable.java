@@ -0,0 +1,117 @@
+/**
+ * This class is generated by jOOQ
+ */
+package com.incomb.server.model.tables;
+
+/**
+ * This class is generated by jOOQ.
+ */
+@java.lang.SuppressWarnings({ "all", "unchecked", "rawtypes" })
+public class FetchHistoryDailyTable extends org.jooq.impl.TableImpl<com.incomb.server.model.records.FetchHistoryDailyRecord> {
+
+	private static final long serialVersionUID = 1120392847;
+
+	/**
+	 * The reference instance of <code>incomb.fetch_history_daily</code>
+	 */
+	public static final com.incomb.server.model.tables.FetchHistoryDailyTable FETCH_HISTORY_DAILY = new com.incomb.server.model.tables.FetchHistoryDailyTable();
+
+	/**
+	 * The class holding records for this type
+	 */
+	@Override
+	public java.lang.Class<com.incomb.server.model.records.FetchHistoryDailyRecord> getRecordType() {
+		return com.incomb.server.model.records.FetchHistoryDailyRecord.class;
+	}
+
+	/**
+	 * The column <code>incomb.fetch_history_daily.content_source_id</code>.
+	 */
+	public final org.jooq.TableField<com.incomb.server.model.records.FetchHistoryDailyRecord, java.lang.Integer> CONTENT_SOURCE_ID = createField("content_source_id", org.jooq.impl.SQLDataType.INTEGER.nullable(false), this, "");
+
+	/**
+	 * The column <code>incomb.fetch_history_daily.day</code>.
+	 */
+	public final org.jooq.TableField<com.incomb.server.model.records.FetchHistoryDailyRecord, java.sql.Date> DAY = createField("day", org.jooq.impl.SQLDataType.DATE.nullable(false), this, "");
+
+	/**
+	 * The column <code>incomb.fetch_history_daily.fetches</code>.
+	 */
+	public final org.jooq.TableField<com.incomb.server.model.records.FetchHistoryDailyRecord, java.lang.Integer> FETCHES = createField("fetches", org.jooq.impl.SQLDataType.INTEGER.nullable(false), this, "");
+
+	/**
+	 * The column <code>incomb.fetch_history_daily.yields</code>.
+	 */
+	public final org.jooq.TableField<com.incomb.server.model.records.FetchHistoryDailyRecord, java.lang.Integer> YIELDS = createField("yields", org.jooq.impl.SQLDataType.INTEGER.nullable(false), this, "");
+
+	/**
+	 * The column <code>incomb.fetch_history_daily.not_modified</code>.
+	 */
+	public final org.jooq.TableField<com.incomb.server.model.records.FetchHistoryDailyRecord, java.lang.Integer> NOT_MODIFIED = createField("not_modified", org.jooq.impl.SQLDataType.INTEGER.nullable(false), this, "");
+
+	/**
+	 * The column <code>incomb.fetch_history_daily.bytes</code>.
+	 */
+	public final org.jooq.TableField<com.incomb.server.model.records.FetchHistoryDailyRecord, java.lang.Long> BYTES = createField("bytes", org.jooq.impl.SQLDataType.BIGINT.nullable(false), this, "");
+
+	/**
+	 * Create a <code>incomb.fetch_history_daily</code> table reference
+	 */
+	public FetchHistoryDailyTable() {
+		this("fetch_history_daily", null);
+	}
+
+	/**
+	 * Create an aliased <code>incomb.fetch_history_daily</code> table reference
+	 */
+	public FetchHistoryDailyTable(java.lang.String alias) {
+		this(alias, com.incomb.server.model.tables.FetchHistoryDailyTable.FETCH_HISTORY_DAILY);
+	}
+
+	private FetchHistoryDailyTable(java.lang.String alias, org.jooq.Table<com.incomb.server.model.records.FetchHistoryDailyRecord> aliased) {
+		this(alias, aliased, null);
+	}
+
+	private FetchHistoryDailyTable(java.lang.String alias, org.jooq.Table<com.incomb.server.model.records.FetchHistoryDailyRecord> aliased, org.jooq.Field<?>[] parameters) {
+		super(alias, com.incomb.server.model.tables.IncombTable.INCOMB, aliased, parameters, "");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public org.jooq.UniqueKey<com.incomb.server.model.records.FetchHistoryDailyRecord> getPrimaryKey() {
+		return com.incomb.server.model.tables.Keys.KEY_FETCH_HISTORY_DAILY_PRIMARY;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public java.util.List<org.jooq.UniqueKey<com.incomb.server.model.records.FetchHistoryDailyRecord>> getKeys() {
+		return java.util.Arrays.<org.jooq.UniqueKey<com.incomb.server.model.records.FetchHistoryDailyRecord>>asList(com.incomb.server.model.tables.Keys.KEY_FETCH_HISTORY_DAILY_PRIMARY);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public java.util.List<org.jooq.ForeignKey<com.incomb.server.model.records.FetchHistoryDailyRecord, ?>> getReferences() {
+		return java.util.Arrays.<org.jooq.ForeignKey<com.incomb.server.model.records.FetchHistoryDailyRecord, ?>>asList(com.incomb.server.model.tables.Keys.FK_FETCHHISTORYDAILY_CONTENTSOURCE1);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public com.incomb.server.model.tables.FetchHistoryDailyTable as(java.lang.String alias) {
+		return new com.incomb.server.model.tables.FetchHistoryDailyTable(alias, this);
+	}
+
+	/**
+	 * Rename this table
+	 */
+	public com.incomb.server.model.tables.FetchHistoryDailyTable rename(java.lang.String name) {
+		return new com.incomb.server.model.tables.FetchHistoryDailyTable(name, null);
+	}
+}
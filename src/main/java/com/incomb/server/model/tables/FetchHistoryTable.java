@@ -39,6 +39,31 @@ public class FetchHistoryTable extends org.jooq.impl.TableImpl<com.incomb.server
 	 */
 	public final org.jooq.TableField<com.incomb.server.model.records.FetchHistoryRecord, java.lang.Boolean> RESULT = createField("result", org.jooq.impl.SQLDataType.BIT.nullable(false), this, "");
 
+	/**
+	 * The column <code>incomb.fetch_history.etag</code>.
+	 */
+	public final org.jooq.TableField<com.incomb.server.model.records.FetchHistoryRecord, java.lang.String> ETAG = createField("etag", org.jooq.impl.SQLDataType.VARCHAR.length(255), this, "");
+
+	/**
+	 * The column <code>incomb.fetch_history.last_modified</code>.
+	 */
+	public final org.jooq.TableField<com.incomb.server.model.records.FetchHistoryRecord, java.lang.String> LAST_MODIFIED = createField("last_modified", org.jooq.impl.SQLDataType.VARCHAR.length(64), this, "");
+
+	/**
+	 * The column <code>incomb.fetch_history.not_modified</code>.
+	 */
+	public final org.jooq.TableField<com.incomb.server.model.records.FetchHistoryRecord, java.lang.Boolean> NOT_MODIFIED = createField("not_modified", org.jooq.impl.SQLDataType.BIT.nullable(false).defaulted(true), this, "");
+
+	/**
+	 * The column <code>incomb.fetch_history.bytes</code>.
+	 */
+	public final org.jooq.TableField<com.incomb.server.model.records.FetchHistoryRecord, java.lang.Long> BYTES = createField("bytes", org.jooq.impl.SQLDataType.BIGINT.nullable(false).defaulted(true), this, "");
+
+	/**
+	 * The column <code>incomb.fetch_history.failed</code>.
+	 */
+	public final org.jooq.TableField<com.incomb.server.model.records.FetchHistoryRecord, java.lang.Boolean> FAILED = createField("failed", org.jooq.impl.SQLDataType.BIT.nullable(false).defaulted(true), this, "");
+
 	/**
 	 * Create a <code>incomb.fetch_history</code> table reference
 	 */
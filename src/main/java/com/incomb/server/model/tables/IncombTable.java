@@ -40,6 +40,7 @@ public class IncombTable extends org.jooq.impl.SchemaImpl {
 			com.incomb.server.model.tables.ContentSourceTable.CONTENT_SOURCE,
 			com.incomb.server.model.tables.ContentVoteTable.CONTENT_VOTE,
 			com.incomb.server.model.tables.FetchHistoryTable.FETCH_HISTORY,
+			com.incomb.server.model.tables.FetchHistoryDailyTable.FETCH_HISTORY_DAILY,
 			com.incomb.server.model.tables.FlyWithTable.FLY_WITH,
 			com.incomb.server.model.tables.ModuleTable.MODULE,
 			com.incomb.server.model.tables.NewsTable.NEWS,
@@ -30,6 +30,7 @@ public class Keys {
 	public static final org.jooq.UniqueKey<com.incomb.server.model.records.ContentSourceRecord> KEY_CONTENT_SOURCE_PRIMARY = UniqueKeys0.KEY_CONTENT_SOURCE_PRIMARY;
 	public static final org.jooq.UniqueKey<com.incomb.server.model.records.ContentVoteRecord> KEY_CONTENT_VOTE_PRIMARY = UniqueKeys0.KEY_CONTENT_VOTE_PRIMARY;
 	public static final org.jooq.UniqueKey<com.incomb.server.model.records.FetchHistoryRecord> KEY_FETCH_HISTORY_PRIMARY = UniqueKeys0.KEY_FETCH_HISTORY_PRIMARY;
+	public static final org.jooq.UniqueKey<com.incomb.server.model.records.FetchHistoryDailyRecord> KEY_FETCH_HISTORY_DAILY_PRIMARY = UniqueKeys0.KEY_FETCH_HISTORY_DAILY_PRIMARY;
 	public static final org.jooq.UniqueKey<com.incomb.server.model.records.FlyWithRecord> KEY_FLY_WITH_PRIMARY = UniqueKeys0.KEY_FLY_WITH_PRIMARY;
 	public static final org.jooq.UniqueKey<com.incomb.server.model.records.ModuleRecord> KEY_MODULE_PRIMARY = UniqueKeys0.KEY_MODULE_PRIMARY;
 	public static final org.jooq.UniqueKey<com.incomb.server.model.records.NewsRecord> KEY_NEWS_PRIMARY = UniqueKeys0.KEY_NEWS_PRIMARY;
@@ -63,6 +64,7 @@ public class Keys {
 	public static final org.jooq.ForeignKey<com.incomb.server.model.records.ContentVoteRecord, com.incomb.server.model.records.UserRecord> FK_CONTENTVOTE_USER1 = ForeignKeys0.FK_CONTENTVOTE_USER1;
 	public static final org.jooq.ForeignKey<com.incomb.server.model.records.ContentVoteRecord, com.incomb.server.model.records.ContentRecord> FK_CONTENTVOTE_CONTENT1 = ForeignKeys0.FK_CONTENTVOTE_CONTENT1;
 	public static final org.jooq.ForeignKey<com.incomb.server.model.records.FetchHistoryRecord, com.incomb.server.model.records.ContentSourceRecord> FK_FETCHHISTORY_CONTENTSOURCE1 = ForeignKeys0.FK_FETCHHISTORY_CONTENTSOURCE1;
+	public static final org.jooq.ForeignKey<com.incomb.server.model.records.FetchHistoryDailyRecord, com.incomb.server.model.records.ContentSourceRecord> FK_FETCHHISTORYDAILY_CONTENTSOURCE1 = ForeignKeys0.FK_FETCHHISTORYDAILY_CONTENTSOURCE1;
 	public static final org.jooq.ForeignKey<com.incomb.server.model.records.FlyWithRecord, com.incomb.server.model.records.UserRecord> FK_USER_HAS_USER_USER1 = ForeignKeys0.FK_USER_HAS_USER_USER1;
 	public static final org.jooq.ForeignKey<com.incomb.server.model.records.FlyWithRecord, com.incomb.server.model.records.UserRecord> FK_USER_HAS_USER_USER2 = ForeignKeys0.FK_USER_HAS_USER_USER2;
 	public static final org.jooq.ForeignKey<com.incomb.server.model.records.NewsRecord, com.incomb.server.model.records.ContentRecord> FK_NEWS_CONTENT1 = ForeignKeys0.FK_NEWS_CONTENT1;
@@ -96,6 +98,7 @@ public class Keys {
 		public static final org.jooq.UniqueKey<com.incomb.server.model.records.ContentSourceRecord> KEY_CONTENT_SOURCE_PRIMARY = createUniqueKey(com.incomb.server.model.tables.ContentSourceTable.CONTENT_SOURCE, com.incomb.server.model.tables.ContentSourceTable.CONTENT_SOURCE.ID);
 		public static final org.jooq.UniqueKey<com.incomb.server.model.records.ContentVoteRecord> KEY_CONTENT_VOTE_PRIMARY = createUniqueKey(com.incomb.server.model.tables.ContentVoteTable.CONTENT_VOTE, com.incomb.server.model.tables.ContentVoteTable.CONTENT_VOTE.USER_ID, com.incomb.server.model.tables.ContentVoteTable.CONTENT_VOTE.CONTENT_ID);
 		public static final org.jooq.UniqueKey<com.incomb.server.model.records.FetchHistoryRecord> KEY_FETCH_HISTORY_PRIMARY = createUniqueKey(com.incomb.server.model.tables.FetchHistoryTable.FETCH_HISTORY, com.incomb.server.model.tables.FetchHistoryTable.FETCH_HISTORY.CONTENT_SOURCE_ID, com.incomb.server.model.tables.FetchHistoryTable.FETCH_HISTORY.FETCH_TIME);
+		public static final org.jooq.UniqueKey<com.incomb.server.model.records.FetchHistoryDailyRecord> KEY_FETCH_HISTORY_DAILY_PRIMARY = createUniqueKey(com.incomb.server.model.tables.FetchHistoryDailyTable.FETCH_HISTORY_DAILY, com.incomb.server.model.tables.FetchHistoryDailyTable.FETCH_HISTORY_DAILY.CONTENT_SOURCE_ID, com.incomb.server.model.tables.FetchHistoryDailyTable.FETCH_HISTORY_DAILY.DAY);
 		public static final org.jooq.UniqueKey<com.incomb.server.model.records.FlyWithRecord> KEY_FLY_WITH_PRIMARY = createUniqueKey(com.incomb.server.model.tables.FlyWithTable.FLY_WITH, com.incomb.server.model.tables.FlyWithTable.FLY_WITH.USER_ID, com.incomb.server.model.tables.FlyWithTable.FLY_WITH.FLY_WITH_ID);
 		public static final org.jooq.UniqueKey<com.incomb.server.model.records.ModuleRecord> KEY_MODULE_PRIMARY = createUniqueKey(com.incomb.server.model.tables.ModuleTable.MODULE, com.incomb.server.model.tables.ModuleTable.MODULE.ID);
 		public static final org.jooq.UniqueKey<com.incomb.server.model.records.NewsRecord> KEY_NEWS_PRIMARY = createUniqueKey(com.incomb.server.model.tables.NewsTable.NEWS, com.incomb.server.model.tables.NewsTable.NEWS.CONTENT_ID);
@@ -127,6 +130,7 @@ public class Keys {
 		public static final org.jooq.ForeignKey<com.incomb.server.model.records.ContentVoteRecord, com.incomb.server.model.records.UserRecord> FK_CONTENTVOTE_USER1 = createForeignKey(com.incomb.server.model.tables.Keys.KEY_USER_PRIMARY, com.incomb.server.model.tables.ContentVoteTable.CONTENT_VOTE, com.incomb.server.model.tables.ContentVoteTable.CONTENT_VOTE.USER_ID);
 		public static final org.jooq.ForeignKey<com.incomb.server.model.records.ContentVoteRecord, com.incomb.server.model.records.ContentRecord> FK_CONTENTVOTE_CONTENT1 = createForeignKey(com.incomb.server.model.tables.Keys.KEY_CONTENT_PRIMARY, com.incomb.server.model.tables.ContentVoteTable.CONTENT_VOTE, com.incomb.server.model.tables.ContentVoteTable.CONTENT_VOTE.CONTENT_ID);
 		public static final org.jooq.ForeignKey<com.incomb.server.model.records.FetchHistoryRecord, com.incomb.server.model.records.ContentSourceRecord> FK_FETCHHISTORY_CONTENTSOURCE1 = createForeignKey(com.incomb.server.model.tables.Keys.KEY_CONTENT_SOURCE_PRIMARY, com.incomb.server.model.tables.FetchHistoryTable.FETCH_HISTORY, com.incomb.server.model.tables.FetchHistoryTable.FETCH_HISTORY.CONTENT_SOURCE_ID);
+		public static final org.jooq.ForeignKey<com.incomb.server.model.records.FetchHistoryDailyRecord, com.incomb.server.model.records.ContentSourceRecord> FK_FETCHHISTORYDAILY_CONTENTSOURCE1 = createForeignKey(com.incomb.server.model.tables.Keys.KEY_CONTENT_SOURCE_PRIMARY, com.incomb.server.model.tables.FetchHistoryDailyTable.FETCH_HISTORY_DAILY, com.incomb.server.model.tables.FetchHistoryDailyTable.FETCH_HISTORY_DAILY.CONTENT_SOURCE_ID);
 		public static final org.jooq.ForeignKey<com.incomb.server.model.records.FlyWithRecord, com.incomb.server.model.records.UserRecord> FK_USER_HAS_USER_USER1 = createForeignKey(com.incomb.server.model.tables.Keys.KEY_USER_PRIMARY, com.incomb.server.model.tables.FlyWithTable.FLY_WITH, com.incomb.server.model.tables.FlyWithTable.FLY_WITH.USER_ID);
 		public static final org.jooq.ForeignKey<com.incomb.server.model.records.FlyWithRecord, com.incomb.server.model.records.UserRecord> FK_USER_HAS_USER_USER2 = createForeignKey(com.incomb.server.model.tables.Keys.KEY_USER_PRIMARY, com.incomb.server.model.tables.FlyWithTable.FLY_WITH, com.incomb.server.model.tables.FlyWithTable.FLY_WITH.FLY_WITH_ID);
 		public static final org.jooq.ForeignKey<com.incomb.server.model.records.NewsRecord, com.incomb.server.model.records.ContentRecord> FK_NEWS_CONTENT1 = createForeignKey(com.incomb.server.model.tables.Keys.KEY_CONTENT_PRIMARY, com.incomb.server.model.tables.NewsTable.NEWS, com.incomb.server.model.tables.NewsTable.NEWS.CONTENT_ID);
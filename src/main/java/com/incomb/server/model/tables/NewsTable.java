@@ -54,6 +54,11 @@ public class NewsTable extends org.jooq.impl.TableImpl<com.incomb.server.model.r
 	 */
 	public final org.jooq.TableField<com.incomb.server.model.records.NewsRecord, java.lang.Long> NEWS_GROUP_ID = createField("news_group_id", org.jooq.impl.SQLDataType.BIGINT, this, "");
 
+	/**
+	 * The column <code>incomb.news.link_hash</code>.
+	 */
+	public final org.jooq.TableField<com.incomb.server.model.records.NewsRecord, java.lang.Long> LINK_HASH = createField("link_hash", org.jooq.impl.SQLDataType.BIGINT.nullable(false).defaulted(true), this, "");
+
 	/**
 	 * Create a <code>incomb.news</code> table reference
 	 */
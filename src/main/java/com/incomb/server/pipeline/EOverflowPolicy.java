@@ -0,0 +1,23 @@
+package com.incomb.server.pipeline;
+
+/**
+ * What a {@link StageQueue} does with a new element if it's full.
+ */
+public enum EOverflowPolicy {
+
+	/**
+	 * The producer waits until there is space or the block timeout of the stage elapsed.
+	 * After the timeout the new element is dropped.
+	 */
+	BLOCK,
+
+	/**
+	 * The new element is dropped.
+	 */
+	DROP_NEWEST,
+
+	/**
+	 * The oldest waiting element is dropped to make space for the new one.
+	 */
+	DROP_OLDEST;
+}
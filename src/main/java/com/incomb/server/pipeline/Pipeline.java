@@ -0,0 +1,62 @@
+package com.incomb.server.pipeline;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Knows the {@link StageQueue}s of the ingest pipeline:
+ * fetch and parse (content loaders) -> enrich (image prober) -> save -> index -> group.
+ *
+ * <p>Each stage is fed by a bounded {@link StageQueue}, so a slow or failing stage
+ * slows down or sheds the stages before it instead of filling the heap.</p>
+ */
+public class Pipeline {
+
+	/**
+	 * The single instance.
+	 */
+	private static final Pipeline INSTANCE = new Pipeline();
+
+	/**
+	 * The registered {@link StageQueue}s by name in the order they were registered. Guarded by itself.
+	 */
+	private final Map<String, StageQueue<?>> stages = new LinkedHashMap<String, StageQueue<?>>();
+
+	/**
+	 * Not instantiable from outside.
+	 */
+	private Pipeline() { }
+
+	/**
+	 * @return the single instance.
+	 */
+	public static Pipeline getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Registers the given {@link StageQueue}. It replaces a registered {@link StageQueue} with the same name.
+	 * @param stage the {@link StageQueue} to register.
+	 */
+	void register(final StageQueue<?> stage) {
+		synchronized (stages) {
+			stages.put(stage.getName(), stage);
+		}
+	}
+
+	/**
+	 * Returns a snapshot of the statistics of all stages.
+	 * @return the {@link StageStats} in the order the stages were created.
+	 */
+	public List<StageStats> getStats() {
+		final List<StageStats> stats = new ArrayList<StageStats>();
+		synchronized (stages) {
+			for (final StageQueue<?> stage : stages.values()) {
+				stats.add(stage.getStats());
+			}
+		}
+		return stats;
+	}
+}
@@ -0,0 +1,330 @@
+package com.incomb.server.pipeline;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.incomb.server.config.Config;
+
+/**
+ * A bounded queue in front of one stage of the {@link Pipeline}.
+ *
+ * <p>The capacity, the {@link EOverflowPolicy} and the block timeout are read from
+ * pipeline.&lt;name&gt;.capacity, pipeline.&lt;name&gt;.policy and pipeline.&lt;name&gt;.blockTimeout.
+ * The queue counts the added, taken and dropped elements and measures how long the
+ * elements waited, see {@link #getStats()}.</p>
+ *
+ * @param <E> the type of the elements.
+ */
+public class StageQueue<E> {
+
+	/**
+	 * <p>The {@link Logger} for this class.</p>
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(StageQueue.class);
+
+	/**
+	 * A drop is logged for the first and then for every this amount of dropped elements.
+	 */
+	private static final int DROP_LOG_INTERVAL = 100;
+
+	/**
+	 * The name of the stage.
+	 */
+	private final String name;
+
+	/**
+	 * Maximal amount of elements in the {@link #queue}.
+	 */
+	private final int capacity;
+
+	/**
+	 * What is done with new elements if the {@link #queue} is full.
+	 */
+	private final EOverflowPolicy policy;
+
+	/**
+	 * Time in milliseconds a producer waits with {@link EOverflowPolicy#BLOCK}. <code>0</code> waits forever.
+	 */
+	private final long blockTimeout;
+
+	/**
+	 * The waiting elements with the time they were added.
+	 */
+	private final BlockingQueue<Entry<E>> queue;
+
+	/**
+	 * Time in milliseconds when the queue was created.
+	 */
+	private final long createdAt = System.currentTimeMillis();
+
+	/**
+	 * Amount of elements which were added.
+	 */
+	private final AtomicLong enqueued = new AtomicLong();
+
+	/**
+	 * Amount of elements which were taken.
+	 */
+	private final AtomicLong dequeued = new AtomicLong();
+
+	/**
+	 * Amount of elements which were dropped.
+	 */
+	private final AtomicLong dropped = new AtomicLong();
+
+	/**
+	 * Total time in milliseconds the taken elements waited.
+	 */
+	private final AtomicLong totalLatency = new AtomicLong();
+
+	/**
+	 * Time in milliseconds the last taken element waited.
+	 */
+	private volatile long lastLatency = 0;
+
+	/**
+	 * Longest time in milliseconds an element waited.
+	 */
+	private volatile long maxLatency = 0;
+
+	/**
+	 * Creates a new queue with the configuration of the given stage and registers it at the {@link Pipeline}.
+	 * @param name the name of the stage.
+	 * @param defaultCapacity the capacity if pipeline.&lt;name&gt;.capacity isn't set.
+	 * @param defaultPolicy the {@link EOverflowPolicy} if pipeline.&lt;name&gt;.policy isn't set.
+	 * @param defaultBlockTimeout the block timeout in milliseconds if pipeline.&lt;name&gt;.blockTimeout isn't set.
+	 */
+	public StageQueue(final String name, final int defaultCapacity, final EOverflowPolicy defaultPolicy,
+			final int defaultBlockTimeout) {
+		final Config config = Config.getDefault();
+		final String prefix = "pipeline." + name + ".";
+
+		this.name = name;
+		this.capacity = Math.max(1, config.getIntProperty(prefix + "capacity", defaultCapacity));
+		this.blockTimeout = Math.max(0, config.getIntProperty(prefix + "blockTimeout", defaultBlockTimeout));
+		this.policy = getPolicy(config.getStringProperty(prefix + "policy"), defaultPolicy);
+		this.queue = new LinkedBlockingQueue<Entry<E>>(capacity);
+
+		Pipeline.getInstance().register(this);
+	}
+
+	/**
+	 * Returns the {@link EOverflowPolicy} with the given name or the default if it doesn't exist.
+	 */
+	private EOverflowPolicy getPolicy(final String policyName, final EOverflowPolicy defaultPolicy) {
+		if (StringUtils.isBlank(policyName)) {
+			return defaultPolicy;
+		}
+
+		try {
+			return EOverflowPolicy.valueOf(policyName.trim().toUpperCase(Locale.ROOT));
+		} catch (final IllegalArgumentException e) {
+			LOGGER.warn("Unknown overflow policy {} of stage {}, using {}.", policyName, name, defaultPolicy);
+			return defaultPolicy;
+		}
+	}
+
+	/**
+	 * @return the name of the stage.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Adds the given element. If the queue is full, the {@link EOverflowPolicy} decides what happens.
+	 * If the producer is interrupted while it waits the element is dropped and the interrupt flag is set again.
+	 * @param element the element to add.
+	 * @return true if the element was added, false if it was dropped.
+	 */
+	public boolean put(final E element) {
+		final Entry<E> entry = new Entry<E>(element);
+
+		switch (policy) {
+			case DROP_NEWEST:
+				if (!queue.offer(entry)) {
+					drop();
+					return false;
+				}
+				break;
+
+			case DROP_OLDEST:
+				while (!queue.offer(entry)) {
+					if (queue.poll() != null) {
+						drop();
+					}
+				}
+				break;
+
+			case BLOCK:
+			default:
+				try {
+					if (blockTimeout == 0) {
+						queue.put(entry);
+					}
+					else if (!queue.offer(entry, blockTimeout, TimeUnit.MILLISECONDS)) {
+						drop();
+						return false;
+					}
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+					drop();
+					return false;
+				}
+				break;
+		}
+
+		enqueued.incrementAndGet();
+		return true;
+	}
+
+	/**
+	 * Adds the given element and waits for space as long as the queue is full, whatever the {@link EOverflowPolicy} is.
+	 * It's used for elements which must not be dropped. If the producer is interrupted while it waits
+	 * the element is dropped and the interrupt flag is set again.
+	 * @param element the element to add.
+	 * @return true if the element was added, false if the producer was interrupted.
+	 */
+	public boolean putBlocking(final E element) {
+		try {
+			queue.put(new Entry<E>(element));
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			drop();
+			return false;
+		}
+
+		enqueued.incrementAndGet();
+		return true;
+	}
+
+	/**
+	 * Waits for the next element and removes it.
+	 * @return the oldest element.
+	 * @throws InterruptedException if the {@link Thread} was interrupted while waiting.
+	 */
+	public E take() throws InterruptedException {
+		return taken(queue.take());
+	}
+
+	/**
+	 * Waits up to the given time for the next element and removes it.
+	 * @param timeout the time to wait.
+	 * @param unit the unit of the timeout.
+	 * @return the oldest element or <code>null</code> if the time elapsed.
+	 * @throws InterruptedException if the {@link Thread} was interrupted while waiting.
+	 */
+	public E poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+		return taken(queue.poll(timeout, unit));
+	}
+
+	/**
+	 * Removes the next element without waiting.
+	 * @return the oldest element or <code>null</code> if the queue is empty.
+	 */
+	public E poll() {
+		return taken(queue.poll());
+	}
+
+	/**
+	 * Removes up to the given amount of waiting elements and adds them to the given {@link Collection}.
+	 * @param target the {@link Collection} to add the elements to.
+	 * @param maxElements the maximal amount of elements to remove.
+	 * @return the amount of removed elements.
+	 */
+	public int drainTo(final Collection<? super E> target, final int maxElements) {
+		final List<Entry<E>> entries = new ArrayList<Entry<E>>();
+		queue.drainTo(entries, maxElements);
+
+		for (final Entry<E> entry : entries) {
+			target.add(taken(entry));
+		}
+		return entries.size();
+	}
+
+	/**
+	 * @return the amount of waiting elements.
+	 */
+	public int size() {
+		return queue.size();
+	}
+
+	/**
+	 * @return true if no element is waiting.
+	 */
+	public boolean isEmpty() {
+		return queue.isEmpty();
+	}
+
+	/**
+	 * Returns a snapshot of the statistics of the queue.
+	 * @return the current {@link StageStats}.
+	 */
+	public StageStats getStats() {
+		return new StageStats(name, queue.size(), capacity, policy, enqueued.get(), dequeued.get(), dropped.get(),
+				System.currentTimeMillis() - createdAt, totalLatency.get(), lastLatency, maxLatency);
+	}
+
+	/**
+	 * Counts the given taken entry and returns its element.
+	 * @return the element or <code>null</code> if the entry is <code>null</code>.
+	 */
+	private E taken(final Entry<E> entry) {
+		if (entry == null) {
+			return null;
+		}
+
+		final long latency = System.currentTimeMillis() - entry.enqueuedAt;
+		dequeued.incrementAndGet();
+		totalLatency.addAndGet(latency);
+		lastLatency = latency;
+		if (latency > maxLatency) {
+			maxLatency = latency;
+		}
+
+		return entry.element;
+	}
+
+	/**
+	 * Counts a dropped element and logs it now and then.
+	 */
+	private void drop() {
+		final long count = dropped.incrementAndGet();
+		if (count % DROP_LOG_INTERVAL == 1) {
+			LOGGER.warn("Stage {} is full ({} elements), dropped {} elements since startup.", name, capacity, count);
+		}
+	}
+
+	/**
+	 * An element with the time it was added.
+	 */
+	private static class Entry<E> {
+
+		/**
+		 * The element.
+		 */
+		private final E element;
+
+		/**
+		 * Time in milliseconds when the element was added.
+		 */
+		private final long enqueuedAt = System.currentTimeMillis();
+
+		/**
+		 * Creates a new instance.
+		 */
+		private Entry(final E element) {
+			this.element = element;
+		}
+	}
+}
@@ -0,0 +1,169 @@
+package com.incomb.server.pipeline;
+
+/**
+ * A snapshot of the statistics of one {@link StageQueue} since startup.
+ * @see Pipeline#getStats()
+ */
+public class StageStats {
+
+	/**
+	 * The name of the stage.
+	 */
+	private final String name;
+
+	/**
+	 * Amount of elements which are waiting in the queue.
+	 */
+	private final int depth;
+
+	/**
+	 * Maximal amount of elements in the queue.
+	 */
+	private final int capacity;
+
+	/**
+	 * What the queue does with new elements if it's full.
+	 */
+	private final EOverflowPolicy policy;
+
+	/**
+	 * Amount of elements which were added.
+	 */
+	private final long enqueued;
+
+	/**
+	 * Amount of elements which were taken by the stage.
+	 */
+	private final long dequeued;
+
+	/**
+	 * Amount of elements which were dropped because the queue was full.
+	 */
+	private final long dropped;
+
+	/**
+	 * Time in milliseconds since the queue was created.
+	 */
+	private final long uptime;
+
+	/**
+	 * Total time in milliseconds the taken elements waited in the queue.
+	 */
+	private final long totalLatency;
+
+	/**
+	 * Time in milliseconds the last taken element waited in the queue.
+	 */
+	private final long lastLatency;
+
+	/**
+	 * Longest time in milliseconds an element waited in the queue.
+	 */
+	private final long maxLatency;
+
+	/**
+	 * Creates a new instance with all properties.
+	 */
+	StageStats(final String name, final int depth, final int capacity, final EOverflowPolicy policy,
+			final long enqueued, final long dequeued, final long dropped, final long uptime,
+			final long totalLatency, final long lastLatency, final long maxLatency) {
+		this.name = name;
+		this.depth = depth;
+		this.capacity = capacity;
+		this.policy = policy;
+		this.enqueued = enqueued;
+		this.dequeued = dequeued;
+		this.dropped = dropped;
+		this.uptime = uptime;
+		this.totalLatency = totalLatency;
+		this.lastLatency = lastLatency;
+		this.maxLatency = maxLatency;
+	}
+
+	/**
+	 * @return the name of the stage.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the amount of elements which are waiting in the queue.
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * @return the maximal amount of elements in the queue.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return what the queue does with new elements if it's full.
+	 */
+	public EOverflowPolicy getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * @return the amount of elements which were added.
+	 */
+	public long getEnqueued() {
+		return enqueued;
+	}
+
+	/**
+	 * @return the amount of elements which were taken by the stage.
+	 */
+	public long getDequeued() {
+		return dequeued;
+	}
+
+	/**
+	 * @return the amount of elements which were dropped because the queue was full.
+	 */
+	public long getDropped() {
+		return dropped;
+	}
+
+	/**
+	 * @return the average amount of elements per second which were taken by the stage.
+	 */
+	public double getThroughput() {
+		return uptime == 0 ? 0 : dequeued * 1000.0 / uptime;
+	}
+
+	/**
+	 * @return the average time in milliseconds an element waited in the queue.
+	 */
+	public double getAverageLatency() {
+		return dequeued == 0 ? 0 : (double) totalLatency / dequeued;
+	}
+
+	/**
+	 * @return the time in milliseconds the last taken element waited in the queue.
+	 */
+	public long getLastLatency() {
+		return lastLatency;
+	}
+
+	/**
+	 * @return the longest time in milliseconds an element waited in the queue.
+	 */
+	public long getMaxLatency() {
+		return maxLatency;
+	}
+
+	/**
+	 * Returns the statistics in a human readable format.
+	 */
+	@Override
+	public String toString() {
+		return String.format("Stage %s: %d of %d queued (%s), %d enqueued, %d dequeued (%.1f/s), %d dropped, "
+				+ "latency avg %.1f ms, last %d ms, max %d ms.", name, depth, capacity, policy, enqueued, dequeued,
+				getThroughput(), dropped, getAverageLatency(), lastLatency, maxLatency);
+	}
+}
@@ -78,17 +78,24 @@ public class ProviderIndexType implements IIndexTypeConf {
 	}
 
 	/**
-	 * Returns all {@link Provider}s. For each language the {@link Provider} provides news
+	 * {@inheritDoc}
+	 * Providers are only indexed when they are saved.
+	 */
+	@Override
+	public boolean isInsertRecoverable() {
+		return false;
+	}
+
+	/**
+	 * Returns the {@link Provider}s sorted by id. For each language the {@link Provider} provides news
 	 * a {@link ProviderIndexElement} is returned.
 	 *
 	 * {@link ProviderIndexElement#getOperation()} returns {@link EOperation#INSERT}.
 	 */
 	@Override
-	public List<? extends IIndexElement> getElements(final Connection con, final int start, final int amount) {
-		// TODO use start and amount
-
+	public List<? extends IIndexElement> getElements(final Connection con, final long afterId, final int amount) {
 		final List<ProviderIndexElement> elements = new ArrayList<>();
-		final List<Provider> records = new ProviderDao(con).getProviders(start, amount);
+		final List<Provider> records = new ProviderDao(con).getProvidersAfter((int) afterId, amount);
 
 		for (final Provider record : records) {
 			for(final Locale locale : new ContentSourceDao(con).getLocalesOfProvider(record.getId())) {
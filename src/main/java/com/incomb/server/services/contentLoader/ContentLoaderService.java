@@ -0,0 +1,41 @@
+package com.incomb.server.services.contentLoader;
+
+import javax.ws.rs.ForbiddenException;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Response;
+
+import com.incomb.server.config.Config;
+import com.incomb.server.content.loader.ContentLoaderManager;
+import com.incomb.server.content.loader.ContentSourceSchedule;
+import com.incomb.server.services.AService;
+
+/**
+ * Schedules of the content sources which are read by the {@link ContentLoaderManager}.
+ */
+@Path("/contentLoader")
+public class ContentLoaderService extends AService {
+
+	private static final String HEADER_AUTH = "Authorization";
+
+	/**
+	 * Returns the interval, the next and last run and the failures of each content source.
+	 * @return a list of {@link ContentSourceSchedule}s
+	 */
+	@GET
+	@Path("/schedules")
+	public Response getSchedules() {
+		checkAuth();
+		return ok(ContentLoaderManager.getInstance().getSchedules());
+	}
+
+	/**
+	 * Throws a {@link ForbiddenException} if the request doesn't contain the configured auth key.
+	 */
+	private void checkAuth() {
+		if(!Config.getDefault().getStringProperty("auth.index").equals(
+				getRequest().getHeader(HEADER_AUTH))) {
+			throw new ForbiddenException("Access restricted for the content loader.");
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package com.incomb.server.services.db;
+
+import javax.ws.rs.ForbiddenException;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Response;
+
+import com.incomb.server.config.Config;
+import com.incomb.server.db.DBConnectionPoolStats;
+import com.incomb.server.db.DBConnectionProvider;
+import com.incomb.server.services.AService;
+
+/**
+ * Statistics of the database connection pool.
+ */
+@Path("/db/pool")
+public class ConnectionPoolService extends AService {
+
+	private static final String HEADER_AUTH = "Authorization";
+
+	/**
+	 * Returns the usage, waits and leaks of the connection pool.
+	 * @return the {@link DBConnectionPoolStats}
+	 */
+	@GET
+	public Response getStats() {
+		checkAuth();
+		return ok(DBConnectionProvider.getInstance().getStats());
+	}
+
+	/**
+	 * Throws a {@link ForbiddenException} if the request doesn't contain the configured auth key.
+	 */
+	private void checkAuth() {
+		if(!Config.getDefault().getStringProperty("auth.index").equals(
+				getRequest().getHeader(HEADER_AUTH))) {
+			throw new ForbiddenException("Access restricted for the connection pool.");
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package com.incomb.server.services.grouper;
+
+import javax.ws.rs.ForbiddenException;
+import javax.ws.rs.GET;
+import javax.ws.rs.PUT;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Response;
+
+import com.incomb.server.config.Config;
+import com.incomb.server.content.GroupingDeadLetter;
+import com.incomb.server.content.GroupingStats;
+import com.incomb.server.content.NewsGrouperThread;
+import com.incomb.server.services.AService;
+
+/**
+ * Statistics and dead letters of the news grouping.
+ */
+@Path("/grouper")
+public class GrouperService extends AService {
+
+	private static final String HEADER_AUTH = "Authorization";
+
+	/**
+	 * Returns the statistics of the grouping.
+	 * @return the {@link GroupingStats}
+	 */
+	@GET
+	public Response getStats() {
+		checkAuth();
+		return ok(NewsGrouperThread.getInstance().getStats());
+	}
+
+	/**
+	 * Returns the news which couldn't be grouped, the oldest first.
+	 * @return a list of {@link GroupingDeadLetter}s
+	 */
+	@GET
+	@Path("/deadLetters")
+	public Response getDeadLetters() {
+		checkAuth();
+		return ok(NewsGrouperThread.getInstance().getDeadLetters());
+	}
+
+	/**
+	 * Removes all dead letters and groups their news again.
+	 * @return the amount of news which are grouped again
+	 */
+	@PUT
+	@Path("/deadLetters")
+	public Response retryDeadLetters() {
+		checkAuth();
+		return ok(NewsGrouperThread.getInstance().retryDeadLetters());
+	}
+
+	/**
+	 * Throws a {@link ForbiddenException} if the request doesn't contain the configured auth key.
+	 */
+	private void checkAuth() {
+		if(!Config.getDefault().getStringProperty("auth.index").equals(
+				getRequest().getHeader(HEADER_AUTH))) {
+			throw new ForbiddenException("Access restricted for the grouper.");
+		}
+	}
+}
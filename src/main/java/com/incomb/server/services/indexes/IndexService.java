@@ -2,17 +2,22 @@ package com.incomb.server.services.indexes;
 
 import java.lang.reflect.InvocationTargetException;
 
+import javax.ws.rs.ClientErrorException;
+import javax.ws.rs.DELETE;
 import javax.ws.rs.ForbiddenException;
+import javax.ws.rs.GET;
 import javax.ws.rs.NotFoundException;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
 
 import org.apache.commons.lang3.reflect.MethodUtils;
 
 import com.incomb.server.config.Config;
 import com.incomb.server.indexing.IndexManager;
+import com.incomb.server.indexing.ReIndexProgress;
 import com.incomb.server.indexing.conf.IIndexTypeConf;
 import com.incomb.server.services.AService;
 /**
@@ -24,33 +29,97 @@ public class IndexService extends AService {
 	private static final String HEADER_AUTH = "Authorization";
 
 	/**
-	 * Reindex an Index for a given indexType
+	 * Reindex an Index for a given indexType.
+	 * The reindex runs in background, its progress can be fetched with {@link #getProgress(String)}.
 	 * @param index type to re-index
-	 * @return HTTP No Content if Successful
+	 * @return HTTP No Content if Successful, HTTP Conflict if a reindex is already running
 	 */
 	@PUT
 	public Response reIndex(@PathParam("index") final String index) {
+		checkAuth();
+
+		try {
+			IndexManager.getInstance().reIndex(getTypeConf(index));
+		} catch (final IllegalStateException e) {
+			throw new ClientErrorException(e.getMessage(), Status.CONFLICT);
+		}
+
+		return Response.noContent().build();
+	}
+
+	/**
+	 * Returns the progress of the running or last reindex of the given indexType.
+	 * @param index type which is reindexed
+	 * @return the {@link ReIndexProgress}
+	 */
+	@GET
+	public Response getProgress(@PathParam("index") final String index) {
+		checkAuth();
+
+		final ReIndexProgress progress = getProgressOf(getTypeConf(index));
+		if(progress == null) {
+			throw new NotFoundException("No reindex found for index: " + index);
+		}
+
+		return ok(progress);
+	}
+
+	/**
+	 * Cancels the running reindex of the given indexType. The current index is kept.
+	 * @param index type which is reindexed
+	 * @return HTTP No Content if Successful
+	 */
+	@DELETE
+	public Response cancelReIndex(@PathParam("index") final String index) {
+		checkAuth();
+
+		final ReIndexProgress progress = getProgressOf(getTypeConf(index));
+		if(progress == null || !IndexManager.getInstance().cancelReIndex()) {
+			throw new NotFoundException("No running reindex found for index: " + index);
+		}
+
+		return Response.noContent().build();
+	}
+
+	/**
+	 * Throws a {@link ForbiddenException} if the request doesn't contain the configured auth key.
+	 */
+	private void checkAuth() {
 		if(!Config.getDefault().getStringProperty("auth.index").equals(
 				getRequest().getHeader(HEADER_AUTH))) {
 			throw new ForbiddenException("Access restricted for reindex.");
 		}
-		
+	}
+
+	/**
+	 * Returns the progress of the running or last reindex if it belongs to the given {@link IIndexTypeConf}.
+	 */
+	private ReIndexProgress getProgressOf(final IIndexTypeConf typeConf) {
+		final ReIndexProgress progress = IndexManager.getInstance().getReIndexProgress();
+		if(progress == null || !progress.getIndexType().equals(typeConf.getName())) {
+			return null;
+		}
+
+		return progress;
+	}
+
+	/**
+	 * Creates or gets the {@link IIndexTypeConf} of the given class name.
+	 * @throws NotFoundException if the class doesn't exist or isn't a {@link IIndexTypeConf}.
+	 */
+	@SuppressWarnings("unchecked")
+	private IIndexTypeConf getTypeConf(final String index) {
 		try {
 			final Class<? extends IIndexTypeConf> indexClass =
 					(Class<? extends IIndexTypeConf>) Class.forName(index);
 
-			IIndexTypeConf typeConf = null;
 			try {
-				typeConf = indexClass.newInstance();
+				return indexClass.newInstance();
 			} catch (InstantiationException | IllegalAccessException e) {
 				// no simple constructor exists -> maybe it's a singleton.
 
-				typeConf = (IIndexTypeConf) MethodUtils.invokeExactStaticMethod(indexClass, "getInstance");
+				return (IIndexTypeConf) MethodUtils.invokeExactStaticMethod(indexClass, "getInstance");
 			}
-
-			IndexManager.getInstance().reIndex(typeConf);
-
-			return Response.noContent().build();
 		} catch (ClassNotFoundException | ClassCastException | NoSuchMethodException |
 				InvocationTargetException | IllegalAccessException e) {
 			throw new NotFoundException("Can't find index: " + index);
@@ -0,0 +1,40 @@
+package com.incomb.server.services.indexes;
+
+import javax.ws.rs.ForbiddenException;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Response;
+
+import com.incomb.server.config.Config;
+import com.incomb.server.indexing.IndexManager;
+import com.incomb.server.indexing.IndexingStats;
+import com.incomb.server.services.AService;
+
+/**
+ * Statistics of the indexing of all indexes.
+ */
+@Path("/indexes")
+public class IndexesService extends AService {
+
+	private static final String HEADER_AUTH = "Authorization";
+
+	/**
+	 * Returns the statistics of the batches written by the indexing thread.
+	 * @return the {@link IndexingStats}
+	 */
+	@GET
+	public Response getStats() {
+		checkAuth();
+		return ok(IndexManager.getInstance().getIndexingStats());
+	}
+
+	/**
+	 * Throws a {@link ForbiddenException} if the request doesn't contain the configured auth key.
+	 */
+	private void checkAuth() {
+		if(!Config.getDefault().getStringProperty("auth.index").equals(
+				getRequest().getHeader(HEADER_AUTH))) {
+			throw new ForbiddenException("Access restricted for the indexes.");
+		}
+	}
+}
@@ -1,7 +1,6 @@
 package com.incomb.server.services.news;
 
 import java.sql.Connection;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -27,6 +26,7 @@ import com.incomb.server.model.dao.NewsDao.SearchParams.ENewsSource;
 import com.incomb.server.model.dao.NewsDao.SearchParams.ESortField;
 import com.incomb.server.services.AService;
 import com.incomb.server.services.news.model.NewsModel;
+import com.incomb.server.services.news.model.NewsModelAssembler;
 import com.incomb.server.utils.LocaleUtil;
 
 /**
@@ -85,12 +85,9 @@ public class NewsService extends AService {
 
 		if(notGrouped) {
 			final ISearchResult<News> newsResult = new NewsDao(con).getNews(params);
-			final List<NewsModel> models = new ArrayList<>();
 
 			// convert news to newsModels.
-			for (final News news : newsResult.getResults()) {
-				models.add(new NewsModel(news, params.userId, con));
-			}
+			final List<NewsModel> models = new NewsModelAssembler(params.userId, con).toModels(newsResult.getResults());
 
 			return ok(new SimpleSearchResult<>(models, newsResult.getTotalHits()));
 		}
@@ -104,17 +101,14 @@ public class NewsService extends AService {
 			stopWatch.stop();
 			LOGGER.info("Getting NewsGroups from NewsDao took {}ms.", stopWatch.getTime());
 
-			final List<NewsModel> models = new ArrayList<>();
-
 			// convert from News to NewsModel
-			for (final NewsGroup newsGroup : newsResult.getResults()) {
-				final List<NewsModel> otherNews = new ArrayList<>();
-				for (final News news : newsGroup.getOtherNews()) {
-					otherNews.add(new NewsModel(news, params.userId, con));
-				}
-
-				models.add(new NewsModel(newsGroup.getMainNews(), otherNews, params.userId, con));
-			}
+			stopWatch.reset();
+			stopWatch.start();
+			final List<NewsModel> models = new NewsModelAssembler(params.userId, con).toGroupModels(
+					newsResult.getResults());
+
+			stopWatch.stop();
+			LOGGER.info("Building NewsModels took {}ms.", stopWatch.getTime());
 
 			return ok(new SimpleSearchResult<>(models, newsResult.getTotalHits()));
 		}
@@ -0,0 +1,200 @@
+package com.incomb.server.services.news.model;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.incomb.server.model.CombItem;
+import com.incomb.server.model.ContentComment;
+import com.incomb.server.model.News;
+import com.incomb.server.model.NewsGroup;
+import com.incomb.server.model.User;
+import com.incomb.server.model.dao.CombItemDao;
+import com.incomb.server.model.dao.ContentCommentDao;
+import com.incomb.server.model.dao.ContentVoteDao;
+import com.incomb.server.model.dao.UserDao;
+import com.incomb.server.services.users.UserUtil;
+
+/**
+ * Builds {@link NewsModel}s for a whole page of {@link News} at once.
+ *
+ * <p>{@link NewsModel#NewsModel(News, long, Connection)} runs several queries for every single
+ * {@link News}. This class collects the ids of all {@link News} first and loads the {@link CombItem}s,
+ * vote amounts and {@link ContentComment}s with their {@link User}s with a fixed amount of queries.
+ * The {@link NewsModel}s are then built from these results.</p>
+ */
+public class NewsModelAssembler {
+
+	/**
+	 * The {@link User} which will see the {@link News}.
+	 */
+	private final long userId;
+
+	/**
+	 * The {@link Connection} to load the data.
+	 */
+	private final Connection con;
+
+	/**
+	 * Loaded {@link CombItem}s of {@link #userId} by content id.
+	 */
+	private Map<Long, CombItem> combItems;
+
+	/**
+	 * Loaded amounts of ins by content id.
+	 */
+	private Map<Long, Integer> insAmounts;
+
+	/**
+	 * Loaded amounts of combs by content id.
+	 */
+	private Map<Long, Integer> combsAmounts;
+
+	/**
+	 * Loaded comments sorted by date by content id.
+	 */
+	private Map<Long, List<ContentComment>> comments;
+
+	/**
+	 * Loaded authors of the comments by user id.
+	 */
+	private Map<Long, User> commentUsers;
+
+	/**
+	 * Creates a new instance.
+	 * @param userId the {@link User} which will see the {@link News}.
+	 * @param con the {@link Connection} to load the data.
+	 */
+	public NewsModelAssembler(final long userId, final Connection con) {
+		this.userId = userId;
+		this.con = con;
+	}
+
+	/**
+	 * Builds a {@link NewsModel} for each given {@link News}.
+	 * @param news the {@link News} to convert.
+	 * @return the {@link NewsModel}s in the same order.
+	 */
+	public List<NewsModel> toModels(final List<? extends News> news) {
+		final Set<Long> contentIds = new LinkedHashSet<>();
+		for (final News oneNews : news) {
+			contentIds.add(oneNews.getContentId());
+		}
+
+		load(contentIds);
+
+		final List<NewsModel> models = new ArrayList<>();
+		for (final News oneNews : news) {
+			models.add(toModel(oneNews, null));
+		}
+
+		return models;
+	}
+
+	/**
+	 * Builds a {@link NewsModel} for the main {@link News} of each given {@link NewsGroup}.
+	 * The other {@link News} of the {@link NewsGroup} are added as other news.
+	 * @param newsGroups the {@link NewsGroup}s to convert.
+	 * @return the {@link NewsModel}s in the same order.
+	 */
+	public List<NewsModel> toGroupModels(final List<NewsGroup> newsGroups) {
+		final Set<Long> contentIds = new LinkedHashSet<>();
+		for (final NewsGroup newsGroup : newsGroups) {
+			contentIds.add(newsGroup.getMainNews().getContentId());
+
+			for (final News news : newsGroup.getOtherNews()) {
+				contentIds.add(news.getContentId());
+			}
+		}
+
+		load(contentIds);
+
+		final List<NewsModel> models = new ArrayList<>();
+		for (final NewsGroup newsGroup : newsGroups) {
+			final List<NewsModel> otherNews = new ArrayList<>();
+			for (final News news : newsGroup.getOtherNews()) {
+				otherNews.add(toModel(news, null));
+			}
+
+			models.add(toModel(newsGroup.getMainNews(), otherNews));
+		}
+
+		return models;
+	}
+
+	/**
+	 * Loads all data which is needed to build the {@link NewsModel}s for the given content ids.
+	 */
+	private void load(final Set<Long> contentIds) {
+		if(userId > 0) {
+			combItems = new CombItemDao(con).getCombItems(contentIds, userId);
+		}
+		else {
+			combItems = new HashMap<>();
+		}
+
+		final ContentVoteDao voteDao = new ContentVoteDao(con);
+		insAmounts = voteDao.getInsAmountsByContentIds(contentIds);
+		combsAmounts = voteDao.getCombsAmountsByContentIds(contentIds);
+
+		comments = new HashMap<>();
+		final Set<Long> commentUserIds = new HashSet<>();
+		for (final ContentComment comment : new ContentCommentDao(con).getCommentsByContentIds(contentIds)) {
+			List<ContentComment> contentComments = comments.get(comment.getContentId());
+			if(contentComments == null) {
+				contentComments = new ArrayList<>();
+				comments.put(comment.getContentId(), contentComments);
+			}
+
+			contentComments.add(comment);
+			commentUserIds.add(comment.getUserId());
+		}
+
+		commentUsers = new UserDao(con).findByIds(commentUserIds);
+	}
+
+	/**
+	 * Builds the {@link NewsModel} for the given {@link News} from the loaded data.
+	 */
+	private NewsModel toModel(final News news, final List<NewsModel> otherNews) {
+		final long contentId = news.getContentId();
+
+		return new NewsModel(news, news.getProvider(con), news.getCategory(con), combItems.get(contentId),
+				getComments(contentId), new VoteAmountModel(getAmount(insAmounts, contentId),
+						getAmount(combsAmounts, contentId)), otherNews);
+	}
+
+	/**
+	 * Returns the {@link CommentModel}s of the given content id. The {@link CommentModel}s have
+	 * no {@link NewsModel} attached.
+	 */
+	private List<CommentModel> getComments(final long contentId) {
+		final List<CommentModel> models = new ArrayList<>();
+		final List<ContentComment> contentComments = comments.get(contentId);
+
+		if(contentComments != null) {
+			for (final ContentComment comment : contentComments) {
+				final User user = commentUsers.get(comment.getUserId());
+
+				if(user != null) {
+					models.add(new CommentModel(comment, UserUtil.getModel(false, user, con), null));
+				}
+			}
+		}
+
+		return models;
+	}
+
+	/**
+	 * Returns the amount of the given content id or 0 if it's not in the given {@link Map}.
+	 */
+	private int getAmount(final Map<Long, Integer> amounts, final long contentId) {
+		final Integer amount = amounts.get(contentId);
+		return amount == null ? 0 : amount;
+	}
+}
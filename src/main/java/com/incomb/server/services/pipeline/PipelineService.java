@@ -0,0 +1,40 @@
+package com.incomb.server.services.pipeline;
+
+import javax.ws.rs.ForbiddenException;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Response;
+
+import com.incomb.server.config.Config;
+import com.incomb.server.pipeline.Pipeline;
+import com.incomb.server.pipeline.StageStats;
+import com.incomb.server.services.AService;
+
+/**
+ * Statistics of the stages of the ingest pipeline.
+ */
+@Path("/pipeline")
+public class PipelineService extends AService {
+
+	private static final String HEADER_AUTH = "Authorization";
+
+	/**
+	 * Returns the depth, drops, throughput and latency of each stage.
+	 * @return a list of {@link StageStats} in the order of the stages.
+	 */
+	@GET
+	public Response getStats() {
+		checkAuth();
+		return ok(Pipeline.getInstance().getStats());
+	}
+
+	/**
+	 * Throws a {@link ForbiddenException} if the request doesn't contain the configured auth key.
+	 */
+	private void checkAuth() {
+		if(!Config.getDefault().getStringProperty("auth.index").equals(
+				getRequest().getHeader(HEADER_AUTH))) {
+			throw new ForbiddenException("Access restricted for the pipeline.");
+		}
+	}
+}
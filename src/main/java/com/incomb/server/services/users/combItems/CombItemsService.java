@@ -1,7 +1,6 @@
 package com.incomb.server.services.users.combItems;
 
 import java.sql.Connection;
-import java.util.ArrayList;
 import java.util.List;
 
 import javax.ws.rs.GET;
@@ -16,6 +15,7 @@ import com.incomb.server.model.News;
 import com.incomb.server.model.dao.CombItemDao;
 import com.incomb.server.services.AService;
 import com.incomb.server.services.news.model.NewsModel;
+import com.incomb.server.services.news.model.NewsModelAssembler;
 /**
  * Actions with CombItems of a user with id userId
  */
@@ -34,11 +34,6 @@ public class CombItemsService extends AService {
 
 		final List<News> items = new CombItemDao(con).getCombItems(userId, true);
 
-		final List<NewsModel> models = new ArrayList<>();
-		for (final News news : items) {
-			models.add(new NewsModel(news, userId, con));
-		}
-
-		return ok(models);
+		return ok(new NewsModelAssembler(userId, con).toModels(items));
 	}
 }
@@ -17,6 +17,7 @@ import com.incomb.server.model.News;
 import com.incomb.server.model.dao.ContentVoteDao;
 import com.incomb.server.services.AService;
 import com.incomb.server.services.news.model.NewsModel;
+import com.incomb.server.services.news.model.NewsModelAssembler;
 
 
 /**
@@ -47,10 +48,8 @@ public class ContentVotesService extends AService {
 		final ContentVoteDao contentVoteDao = new ContentVoteDao(con);
 		final List<News> items = contentVoteDao.getNewsWithInsOfUser(userId, offset, count);
 
-		final SimpleSearchResult<News> ssr = new SimpleSearchResult<>();
-		for (final News news : items) {
-			ssr.addResult(new NewsModel(news, loggedInUserId, con));
-		}
+		final SimpleSearchResult<NewsModel> ssr = new SimpleSearchResult<>(
+				new NewsModelAssembler(loggedInUserId, con).toModels(items));
 		ssr.setTotalHits(contentVoteDao.getInsAmountForUser(userId)); //Used for paging
 		return ok(ssr);
 	}
@@ -75,10 +74,8 @@ public class ContentVotesService extends AService {
 		final ContentVoteDao contentVoteDao = new ContentVoteDao(con);
 		final List<News> items = contentVoteDao.getNewsCombsOfUser(userId, offset, count);
 
-		final SimpleSearchResult<News> ssr = new SimpleSearchResult<>();
-		for (final News news : items) {
-			ssr.addResult(new NewsModel(news, loggedInUserId, con));
-		}
+		final SimpleSearchResult<NewsModel> ssr = new SimpleSearchResult<>(
+				new NewsModelAssembler(loggedInUserId, con).toModels(items));
 		ssr.setTotalHits(contentVoteDao.getCombsAmountForUser(userId)); //Used for paging
 		return ok(ssr);
 	}
@@ -85,13 +85,22 @@ public class UserIndexType implements IIndexTypeConf {
 	}
 
 	/**
-	 * Returns all {@link User}s. For {@link User} a {@link UserIndexElement} is returned.
+	 * {@inheritDoc}
+	 * Users are only indexed when they are saved.
+	 */
+	@Override
+	public boolean isInsertRecoverable() {
+		return false;
+	}
+
+	/**
+	 * Returns the {@link User}s sorted by id. For {@link User} a {@link UserIndexElement} is returned.
 	 * {@link UserIndexElement#getOperation()} returns {@link EOperation#INSERT}.
 	 */
 	@Override
-	public List<? extends IIndexElement> getElements(final Connection con, final int start, final int amount) {
+	public List<? extends IIndexElement> getElements(final Connection con, final long afterId, final int amount) {
 		final List<UserIndexElement> elements = new ArrayList<>();
-		final List<User> records = new UserDao(con).getUsers(start, amount);
+		final List<User> records = new UserDao(con).getUsersAfter(afterId, amount);
 
 		for (final User record : records) {
 			elements.add(new UserIndexElement(record, EOperation.INSERT));
@@ -0,0 +1,435 @@
+package com.incomb.server.utils;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jsoup.nodes.Entities;
+
+/**
+ * Converts a HTML snippet (e.g. the description of a feed item) into plain text with
+ * <code>&lt;br /&gt;</code> line breaks and extracts the first usable image of it in one pass.
+ *
+ * <p>The snippet is tokenized without building a DOM: tags are removed, the content of
+ * script and style elements is dropped, breaks and block elements become one line break,
+ * whitespaces are collapsed and entities are decoded. The text is escaped again, so the
+ * result is safe HTML containing only text and breaks. A <code>&lt;</code> which doesn't
+ * start a tag is kept as text. The text is cut after the maximal length.</p>
+ *
+ * <p>The first <code>img</code> with a source which isn't a data URI or a tracking pixel
+ * is the image. Relative sources are resolved against the base URL.</p>
+ *
+ * <p>An instance is used for one snippet and isn't thread-safe.</p>
+ */
+public class HtmlSanitizer {
+
+	/**
+	 * The tags which are replaced by a line break.
+	 */
+	private static final Set<String> BREAK_TAGS = new HashSet<>(Arrays.asList("br", "p", "div", "li", "ul", "ol",
+			"tr", "table", "blockquote", "h1", "h2", "h3", "h4", "h5", "h6", "hr", "dd", "dt", "pre"));
+
+	/**
+	 * The tags whose content is removed.
+	 */
+	private static final Set<String> SKIPPED_CONTENT_TAGS = new HashSet<>(Arrays.asList("script", "style"));
+
+	/**
+	 * The maximal length of an entity name including the <code>#</code> of numeric entities.
+	 */
+	private static final int MAX_ENTITY_LENGTH = 32;
+
+	/**
+	 * Appended to a text which was cut.
+	 */
+	private static final char ELLIPSIS = '\u2026';
+
+	/**
+	 * The URL which relative image sources are resolved against or <code>null</code>.
+	 */
+	private final URL baseUrl;
+
+	/**
+	 * The maximal amount of characters of the text without breaks and escaping.
+	 */
+	private final int maxLength;
+
+	/**
+	 * The sanitized text.
+	 */
+	private final StringBuilder out = new StringBuilder();
+
+	/**
+	 * The amount of text characters in {@link #out}.
+	 */
+	private int length = 0;
+
+	/**
+	 * True if a line break has to be written before the next text.
+	 */
+	private boolean pendingBreak = false;
+
+	/**
+	 * True if a space has to be written before the next text.
+	 */
+	private boolean pendingSpace = false;
+
+	/**
+	 * True if the text was cut.
+	 */
+	private boolean cut = false;
+
+	/**
+	 * The first usable image.
+	 */
+	private String imageUrl;
+
+	/**
+	 * Creates a new instance.
+	 * @param baseUrl the URL which relative image sources are resolved against. Can be <code>null</code>.
+	 * @param maxLength the maximal amount of characters of the text. 0 for no limit.
+	 */
+	public HtmlSanitizer(final String baseUrl, final int maxLength) {
+		this.baseUrl = toUrl(baseUrl);
+		this.maxLength = maxLength <= 0 ? Integer.MAX_VALUE : maxLength;
+	}
+
+	/**
+	 * Returns the given URL as {@link URL} or <code>null</code> if it's invalid.
+	 */
+	private static URL toUrl(final String url) {
+		if(StringUtils.isBlank(url)) {
+			return null;
+		}
+
+		try {
+			return new URL(url);
+		} catch (final MalformedURLException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Sanitizes the given HTML snippet.
+	 * @param html the HTML snippet. Can be <code>null</code>.
+	 * @return the text with <code>&lt;br /&gt;</code> line breaks. Never <code>null</code>.
+	 */
+	public String sanitize(final String html) {
+		if(html == null) {
+			return "";
+		}
+
+		final int end = html.length();
+		int i = 0;
+		while(i < end && !(cut && imageUrl != null)) {
+			final char c = html.charAt(i);
+
+			if(c == '<') {
+				i = readMarkup(html, i);
+			}
+			else if(c == '&') {
+				i = readEntity(html, i);
+			}
+			else {
+				appendText(c);
+				i++;
+			}
+		}
+
+		return out.toString();
+	}
+
+	/**
+	 * @return the first usable image or <code>null</code> if the snippet has none.
+	 */
+	public String getImageUrl() {
+		return imageUrl;
+	}
+
+	/**
+	 * Reads the markup which starts at the given index.
+	 * @return the index after the markup.
+	 */
+	private int readMarkup(final String html, final int start) {
+		final int next = start + 1;
+		if(next >= html.length()) {
+			appendText('<');
+			return next;
+		}
+
+		final char c = html.charAt(next);
+		if(html.startsWith("!--", next)) {
+			return skipAfter(html, next + 3, "-->");
+		}
+		if(html.startsWith("![CDATA[", next)) {
+			final int cdataEnd = html.indexOf("]]>", next);
+			final int textEnd = cdataEnd < 0 ? html.length() : cdataEnd;
+			for (int i = next + 8; i < textEnd; i++) {
+				appendText(html.charAt(i));
+			}
+			return cdataEnd < 0 ? textEnd : cdataEnd + 3;
+		}
+		if(c == '!' || c == '?') {
+			return skipAfter(html, next, ">");
+		}
+
+		final boolean closing = c == '/';
+		final int nameStart = closing ? next + 1 : next;
+		int nameEnd = nameStart;
+		while(nameEnd < html.length() && Character.isLetterOrDigit(html.charAt(nameEnd))) {
+			nameEnd++;
+		}
+
+		if(nameEnd == nameStart || !Character.isLetter(html.charAt(nameStart))) {
+			// not a tag, e.g. "a < b"
+			appendText('<');
+			return next;
+		}
+
+		final String name = html.substring(nameStart, nameEnd).toLowerCase(Locale.ENGLISH);
+		final int tagEnd = readAttributes(html, nameEnd, !closing && imageUrl == null && "img".equals(name));
+
+		if(BREAK_TAGS.contains(name)) {
+			pendingBreak = true;
+		}
+		else if(!closing && SKIPPED_CONTENT_TAGS.contains(name)) {
+			return skipAfterIgnoreCase(html, tagEnd, "</" + name);
+		}
+
+		return tagEnd;
+	}
+
+	/**
+	 * Reads the attributes of a tag until its end. If <code>image</code> is true, the source of the image is read.
+	 * @return the index after the tag.
+	 */
+	private int readAttributes(final String html, final int start, final boolean image) {
+		String src = null;
+		boolean pixel = false;
+
+		int i = start;
+		while(i < html.length()) {
+			final char c = html.charAt(i);
+			if(c == '>') {
+				i++;
+				break;
+			}
+			if(!Character.isLetter(c)) {
+				i++;
+				continue;
+			}
+
+			final int nameStart = i;
+			while(i < html.length() && html.charAt(i) != '=' && html.charAt(i) != '>' &&
+					!Character.isWhitespace(html.charAt(i))) {
+				i++;
+			}
+			final String name = html.substring(nameStart, i);
+
+			while(i < html.length() && Character.isWhitespace(html.charAt(i))) {
+				i++;
+			}
+			if(i >= html.length() || html.charAt(i) != '=') {
+				continue;
+			}
+			i++;
+			while(i < html.length() && Character.isWhitespace(html.charAt(i))) {
+				i++;
+			}
+			if(i >= html.length()) {
+				break;
+			}
+
+			final int valueStart;
+			final int valueEnd;
+			final char quote = html.charAt(i);
+			if(quote == '"' || quote == '\'') {
+				valueStart = i + 1;
+				final int closingQuote = html.indexOf(quote, valueStart);
+				valueEnd = closingQuote < 0 ? html.length() : closingQuote;
+				i = Math.min(valueEnd + 1, html.length());
+			}
+			else {
+				valueStart = i;
+				while(i < html.length() && html.charAt(i) != '>' && !Character.isWhitespace(html.charAt(i))) {
+					i++;
+				}
+				valueEnd = i;
+			}
+
+			if(image) {
+				if("src".equalsIgnoreCase(name)) {
+					src = decodeEntities(html.substring(valueStart, valueEnd)).trim();
+				}
+				else if("width".equalsIgnoreCase(name) || "height".equalsIgnoreCase(name)) {
+					final String size = html.substring(valueStart, valueEnd).trim();
+					pixel |= "0".equals(size) || "1".equals(size);
+				}
+			}
+		}
+
+		if(image && !pixel && StringUtils.isNotBlank(src) && !src.regionMatches(true, 0, "data:", 0, 5)) {
+			imageUrl = resolve(src);
+		}
+
+		return i;
+	}
+
+	/**
+	 * Resolves the given image source against the {@link #baseUrl}.
+	 * @return the absolute URL or <code>null</code> if it can't be resolved.
+	 */
+	private String resolve(final String src) {
+		try {
+			return baseUrl == null ? new URL(src).toString() : new URL(baseUrl, src).toString();
+		} catch (final MalformedURLException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Reads the entity which starts at the given index and appends its character.
+	 * An unknown entity is appended as text.
+	 * @return the index after the entity.
+	 */
+	private int readEntity(final String html, final int start) {
+		final int semicolon = html.indexOf(';', start + 1);
+		if(semicolon > start + 1 && semicolon - start <= MAX_ENTITY_LENGTH) {
+			final int codePoint = decodeEntity(html.substring(start + 1, semicolon));
+			if(codePoint >= 0) {
+				for (final char c : Character.toChars(codePoint)) {
+					appendText(c);
+				}
+				return semicolon + 1;
+			}
+		}
+
+		appendText('&');
+		return start + 1;
+	}
+
+	/**
+	 * Returns the code point of the entity with the given name (without <code>&amp;</code> and <code>;</code>).
+	 * @return the code point or -1 if the entity is unknown.
+	 */
+	private static int decodeEntity(final String name) {
+		if(name.charAt(0) == '#') {
+			try {
+				final boolean hex = name.length() > 1 && (name.charAt(1) == 'x' || name.charAt(1) == 'X');
+				final int codePoint = Integer.parseInt(name.substring(hex ? 2 : 1), hex ? 16 : 10);
+				return Character.isValidCodePoint(codePoint) ? codePoint : -1;
+			} catch (final NumberFormatException e) {
+				return -1;
+			}
+		}
+
+		final Character c = Entities.getCharacterByName(name);
+		return c == null ? -1 : c;
+	}
+
+	/**
+	 * Returns the given attribute value with decoded entities.
+	 */
+	private static String decodeEntities(final String value) {
+		if(value.indexOf('&') < 0) {
+			return value;
+		}
+
+		final StringBuilder decoded = new StringBuilder(value.length());
+		int i = 0;
+		while(i < value.length()) {
+			final char c = value.charAt(i);
+			final int semicolon = c == '&' ? value.indexOf(';', i + 1) : -1;
+			if(semicolon > i + 1 && semicolon - i <= MAX_ENTITY_LENGTH) {
+				final int codePoint = decodeEntity(value.substring(i + 1, semicolon));
+				if(codePoint >= 0) {
+					decoded.appendCodePoint(codePoint);
+					i = semicolon + 1;
+					continue;
+				}
+			}
+
+			decoded.append(c);
+			i++;
+		}
+		return decoded.toString();
+	}
+
+	/**
+	 * Appends a character of the text. Whitespaces are collapsed, a line feed is a line break
+	 * and the HTML characters are escaped.
+	 */
+	private void appendText(final char c) {
+		if(cut) {
+			return;
+		}
+
+		if(c == '\n') {
+			pendingBreak = true;
+			return;
+		}
+		if(Character.isWhitespace(c) || c == '\u00a0') {
+			pendingSpace = true;
+			return;
+		}
+
+		if(length >= maxLength) {
+			out.append(ELLIPSIS);
+			cut = true;
+			return;
+		}
+
+		if(out.length() > 0) {
+			if(pendingBreak) {
+				out.append(HtmlUtil.HTML_BREAK_TAG);
+			}
+			else if(pendingSpace) {
+				out.append(' ');
+				length++;
+			}
+		}
+		pendingBreak = false;
+		pendingSpace = false;
+
+		switch(c) {
+			case '&':
+				out.append("&amp;");
+				break;
+			case '<':
+				out.append("&lt;");
+				break;
+			case '>':
+				out.append("&gt;");
+				break;
+			default:
+				out.append(c);
+				break;
+		}
+		length++;
+	}
+
+	/**
+	 * Returns the index after the given end marker or the end of the html if it's missing.
+	 */
+	private static int skipAfter(final String html, final int start, final String endMarker) {
+		final int end = html.indexOf(endMarker, start);
+		return end < 0 ? html.length() : end + endMarker.length();
+	}
+
+	/**
+	 * Returns the index after the tag which starts with the given marker ignoring the case
+	 * or the end of the html if it's missing.
+	 */
+	private static int skipAfterIgnoreCase(final String html, final int start, final String tagStart) {
+		for (int i = start; i <= html.length() - tagStart.length(); i++) {
+			if(html.regionMatches(true, i, tagStart, 0, tagStart.length())) {
+				return skipAfter(html, i + tagStart.length(), ">");
+			}
+		}
+		return html.length();
+	}
+}
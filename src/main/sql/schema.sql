@@ -210,8 +210,14 @@ CREATE TABLE IF NOT EXISTS `incomb`.`fetch_history` (
   `content_source_id` INT NOT NULL,
   `fetch_time` DATETIME NOT NULL,
   `result` BIT(1) NOT NULL,
+  `etag` VARCHAR(255) NULL,
+  `last_modified` VARCHAR(64) NULL,
+  `not_modified` BIT(1) NOT NULL DEFAULT 0,
+  `bytes` BIGINT NOT NULL DEFAULT 0,
+  `failed` BIT(1) NOT NULL DEFAULT 0,
   PRIMARY KEY (`content_source_id`, `fetch_time`),
   INDEX `fk_FetchHistory_ContentSource1_idx` (`content_source_id` ASC),
+  INDEX `fetch_time_idx` (`fetch_time` ASC),
   CONSTRAINT `fk_FetchHistory_ContentSource1`
     FOREIGN KEY (`content_source_id`)
     REFERENCES `incomb`.`content_source` (`id`)
@@ -220,6 +226,28 @@ CREATE TABLE IF NOT EXISTS `incomb`.`fetch_history` (
 ENGINE = InnoDB;
 
 
+-- -----------------------------------------------------
+-- Table `incomb`.`fetch_history_daily`
+-- -----------------------------------------------------
+DROP TABLE IF EXISTS `incomb`.`fetch_history_daily` ;
+
+CREATE TABLE IF NOT EXISTS `incomb`.`fetch_history_daily` (
+  `content_source_id` INT NOT NULL,
+  `day` DATE NOT NULL,
+  `fetches` INT NOT NULL,
+  `yields` INT NOT NULL,
+  `not_modified` INT NOT NULL,
+  `bytes` BIGINT NOT NULL,
+  PRIMARY KEY (`content_source_id`, `day`),
+  INDEX `fk_FetchHistoryDaily_ContentSource1_idx` (`content_source_id` ASC),
+  CONSTRAINT `fk_FetchHistoryDaily_ContentSource1`
+    FOREIGN KEY (`content_source_id`)
+    REFERENCES `incomb`.`content_source` (`id`)
+    ON DELETE NO ACTION
+    ON UPDATE NO ACTION)
+ENGINE = InnoDB;
+
+
 -- -----------------------------------------------------
 -- Table `incomb`.`rss_feed_content_source`
 -- -----------------------------------------------------
@@ -305,9 +333,12 @@ CREATE TABLE IF NOT EXISTS `incomb`.`content` (
   `text` MEDIUMTEXT NOT NULL,
   `publish_date` DATETIME NOT NULL,
   `indexed` BIT(1) NOT NULL,
+  `title_hash` BIGINT NOT NULL DEFAULT 0,
   PRIMARY KEY (`id`),
   INDEX `fk_Content_Provider1_idx` (`provider_id` ASC),
   INDEX `fk_Content_Category1_idx` (`category_id` ASC),
+  INDEX `provider_title_hash_date_idx` (`provider_id` ASC, `title_hash` ASC, `publish_date` ASC),
+  INDEX `publish_date_idx` (`publish_date` ASC),
   CONSTRAINT `fk_Content_Provider1`
     FOREIGN KEY (`provider_id`)
     REFERENCES `incomb`.`provider` (`id`)
@@ -435,7 +466,9 @@ CREATE TABLE IF NOT EXISTS `incomb`.`news` (
   `image_width` INT NULL,
   `image_height` INT NULL,
   `news_group_id` BIGINT(20) NOT NULL,
+  `link_hash` BIGINT NOT NULL DEFAULT 0,
   PRIMARY KEY (`content_id`),
+  INDEX `link_hash_idx` (`link_hash` ASC),
   CONSTRAINT `fk_News_Content1`
     FOREIGN KEY (`content_id`)
     REFERENCES `incomb`.`content` (`id`)
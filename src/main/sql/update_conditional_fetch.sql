@@ -0,0 +1,13 @@
+-- --------------------------------------------------------- --
+--       InComb Update: conditional fetches of feeds         --
+--                                                           --
+--   Adds the HTTP validators, the not modified flag and the --
+--   transferred bytes to the fetch history. The server      --
+--   sends the validators with the next fetch of a feed.     --
+-- --------------------------------------------------------- --
+
+ALTER TABLE `incomb`.`fetch_history`
+  ADD COLUMN `etag` VARCHAR(255) NULL,
+  ADD COLUMN `last_modified` VARCHAR(64) NULL,
+  ADD COLUMN `not_modified` BIT(1) NOT NULL DEFAULT 0,
+  ADD COLUMN `bytes` BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,15 @@
+-- --------------------------------------------------------- --
+--          InComb Update: dedup keys of the news            --
+--                                                           --
+--   Adds the link and title hashes to an existing schema.   --
+--   The hashes of the existing news are calculated by the   --
+--   server at the next startup (NewsDedupIndex).            --
+-- --------------------------------------------------------- --
+
+ALTER TABLE `incomb`.`content`
+  ADD COLUMN `title_hash` BIGINT NOT NULL DEFAULT 0,
+  ADD INDEX `provider_title_hash_date_idx` (`provider_id` ASC, `title_hash` ASC, `publish_date` ASC);
+
+ALTER TABLE `incomb`.`news`
+  ADD COLUMN `link_hash` BIGINT NOT NULL DEFAULT 0,
+  ADD INDEX `link_hash_idx` (`link_hash` ASC);
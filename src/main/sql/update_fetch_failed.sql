@@ -0,0 +1,9 @@
+-- --------------------------------------------------------- --
+--          InComb Update: failed fetches of feeds           --
+--                                                           --
+--   Marks the fetches which couldn't read the feed, so the  --
+--   adaptive fetch intervals don't count them at startup.   --
+-- --------------------------------------------------------- --
+
+ALTER TABLE `incomb`.`fetch_history`
+  ADD COLUMN `failed` BIT(1) NOT NULL DEFAULT 0;
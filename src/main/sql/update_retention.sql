@@ -0,0 +1,29 @@
+-- --------------------------------------------------------- --
+--          InComb Update: retention of old data             --
+--                                                           --
+--   Adds the daily aggregates of the fetch history and the  --
+--   indexes to find old fetches and old news. They are      --
+--   rolled up and deleted by the server (RetentionJob).     --
+-- --------------------------------------------------------- --
+
+CREATE TABLE IF NOT EXISTS `incomb`.`fetch_history_daily` (
+  `content_source_id` INT NOT NULL,
+  `day` DATE NOT NULL,
+  `fetches` INT NOT NULL,
+  `yields` INT NOT NULL,
+  `not_modified` INT NOT NULL,
+  `bytes` BIGINT NOT NULL,
+  PRIMARY KEY (`content_source_id`, `day`),
+  INDEX `fk_FetchHistoryDaily_ContentSource1_idx` (`content_source_id` ASC),
+  CONSTRAINT `fk_FetchHistoryDaily_ContentSource1`
+    FOREIGN KEY (`content_source_id`)
+    REFERENCES `incomb`.`content_source` (`id`)
+    ON DELETE NO ACTION
+    ON UPDATE NO ACTION)
+ENGINE = InnoDB;
+
+ALTER TABLE `incomb`.`content`
+  ADD INDEX `publish_date_idx` (`publish_date` ASC);
+
+ALTER TABLE `incomb`.`fetch_history`
+  ADD INDEX `fetch_time_idx` (`fetch_time` ASC);
@@ -2,13 +2,16 @@ package com.incomb.server.content;
 
 import java.util.List;
 
+import org.jooq.JoinType;
+import org.jooq.impl.DSL;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.incomb.server.ATest;
 import com.incomb.server.model.News;
-import com.incomb.server.model.dao.NewsDao;
+import com.incomb.server.model.tables.ContentTable;
+import com.incomb.server.model.tables.NewsTable;
 
 public class SimilarNewsFinderTest extends ATest {
 
@@ -19,7 +22,7 @@ public class SimilarNewsFinderTest extends ATest {
 
 	@Test
 	public void testGetNews() {
-		final List<News> muchNews = new NewsDao().getNews(4500, 100);
+		final List<News> muchNews = getNews(4500, 100);
 		for (final News news : muchNews) {
 			final SimilarNewsFinder finder = new SimilarNewsFinder(news);
 			final List<News> similarNews = finder.getSimilar();
@@ -32,4 +35,19 @@ public class SimilarNewsFinderTest extends ATest {
 			LOGGER.info("");
 		}
 	}
+
+	/**
+	 * Returns unsorted {@link News} from the given offset.
+	 */
+	private List<News> getNews(final int start, final int amount) {
+		final ContentTable contentTable = new ContentTable();
+		final NewsTable newsTable = new NewsTable();
+
+		return DSL.using(jooqConfig).
+				select().
+				from(contentTable.join(newsTable, JoinType.JOIN).
+						on(contentTable.ID.eq(newsTable.CONTENT_ID))).
+				limit(start, amount).
+				fetchInto(News.class);
+	}
 }
@@ -0,0 +1,47 @@
+package com.incomb.server.content.dedup;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BloomFilterTest {
+
+	@Test
+	public void addedKeys() {
+		final BloomFilter filter = new BloomFilter(1000, 10);
+		for (long key = -500; key < 500; key++) {
+			filter.add(key * 7919);
+		}
+
+		for (long key = -500; key < 500; key++) {
+			Assert.assertTrue(filter.mightContain(key * 7919));
+		}
+	}
+
+	@Test
+	public void falsePositives() {
+		final BloomFilter filter = new BloomFilter(10000, 10);
+		for (long key = 0; key < 10000; key++) {
+			filter.add(DedupKeys.hash("added " + key));
+		}
+
+		int falsePositives = 0;
+		for (long key = 0; key < 10000; key++) {
+			if (filter.mightContain(DedupKeys.hash("other " + key))) {
+				falsePositives++;
+			}
+		}
+
+		// about 1% are expected with 10 bits per key
+		Assert.assertTrue("Too many false positives: " + falsePositives, falsePositives < 300);
+	}
+
+	@Test
+	public void empty() {
+		final BloomFilter filter = new BloomFilter(0, 0);
+		Assert.assertFalse(filter.mightContain(0));
+		Assert.assertFalse(filter.mightContain(42));
+
+		filter.add(42);
+		Assert.assertTrue(filter.mightContain(42));
+	}
+}
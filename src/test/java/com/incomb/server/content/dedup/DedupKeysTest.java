@@ -0,0 +1,60 @@
+package com.incomb.server.content.dedup;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.incomb.server.model.News;
+
+public class DedupKeysTest {
+
+	@Test
+	public void normalizeLink() {
+		Assert.assertEquals("example.com/news/1", DedupKeys.normalizeLink("http://www.example.com/news/1/"));
+		Assert.assertEquals("example.com/news/1", DedupKeys.normalizeLink(" https://WWW.Example.com:443/news/1#top "));
+		Assert.assertEquals("example.com:8080/news/1", DedupKeys.normalizeLink("http://example.com:8080/news/1"));
+		Assert.assertEquals("example.com/news?id=1&page=2",
+				DedupKeys.normalizeLink("http://example.com/news?utm_source=rss&id=1&fbclid=abc&page=2"));
+		Assert.assertEquals("example.com/news", DedupKeys.normalizeLink("http://example.com/news?utm_medium=feed"));
+		Assert.assertEquals("no link at all", DedupKeys.normalizeLink("No Link at all"));
+		Assert.assertEquals("", DedupKeys.normalizeLink(null));
+		Assert.assertEquals("", DedupKeys.normalizeLink(" \t"));
+	}
+
+	@Test
+	public void normalizeTitle() {
+		Assert.assertEquals("zurich is 100 years old", DedupKeys.normalizeTitle("  Zürich is 100-years old!"));
+		Assert.assertEquals("a b", DedupKeys.normalizeTitle("A – B"));
+		Assert.assertEquals("", DedupKeys.normalizeTitle(null));
+	}
+
+	@Test
+	public void linkHash() {
+		Assert.assertEquals(DedupKeys.linkHash("http://www.example.com/news/1"),
+				DedupKeys.linkHash("https://example.com/news/1/?utm_campaign=x"));
+		Assert.assertNotEquals(DedupKeys.linkHash("http://example.com/news/1"),
+				DedupKeys.linkHash("http://example.com/news/2"));
+
+		Assert.assertEquals(DedupKeys.NO_LINK_HASH, DedupKeys.linkHash(null));
+		Assert.assertEquals(DedupKeys.NO_LINK_HASH, DedupKeys.linkHash(""));
+		Assert.assertEquals(DedupKeys.NO_LINK_HASH, DedupKeys.linkHash("   "));
+	}
+
+	@Test
+	public void hash() {
+		Assert.assertEquals(DedupKeys.hash("value"), DedupKeys.hash("value"));
+		Assert.assertNotEquals(DedupKeys.hash("value"), DedupKeys.hash("other value"));
+		Assert.assertNotEquals(0, DedupKeys.hash(""));
+		Assert.assertNotEquals(DedupKeys.NO_LINK_HASH, DedupKeys.hash(""));
+	}
+
+	@Test
+	public void apply() {
+		final News news = new News();
+		news.setTitle("Title");
+		news.setLink(" ");
+		DedupKeys.apply(news);
+
+		Assert.assertEquals(DedupKeys.NO_LINK_HASH, news.getLinkHash());
+		Assert.assertEquals(DedupKeys.titleHash("title"), news.getTitleHash());
+	}
+}
@@ -0,0 +1,246 @@
+package com.incomb.server.content.grouping;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.incomb.server.content.SimilarNewsFinder;
+import com.incomb.server.model.News;
+import com.incomb.server.model.dao.NewsDao;
+import com.incomb.server.utils.ConfigUtil;
+
+/**
+ * Compares the MinHash grouping with the groups of the current grouper on a recorded corpus.
+ *
+ * <p>The corpus is a file with one JSON object per news. It's recorded from the database with
+ * -Dgrouping.record=&lt;days&gt;, which writes the grouped news of the last days to -Dgrouping.corpus=&lt;file&gt;.
+ * The news are replayed in the order of their ids like the grouper receives them. The pairs of news in the
+ * same group are compared with the recorded ones. The parameters can be set with -Dgrouping.bands,
+ * -Dgrouping.rows and -Dgrouping.minSimilarity (percent). Without -Dgrouping.corpus the test is skipped.</p>
+ */
+public class GroupingComparisonTest {
+
+	/**
+	 * <p>The {@link Logger} for this class.</p>
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(GroupingComparisonTest.class);
+
+	private static final int RECORD_CHUNK_SIZE = 1000;
+
+	private static final int MAX_CANDIDATES = 100;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@BeforeClass
+	public static void setUpClass() {
+		ConfigUtil.setDocBase(new File("").getAbsolutePath() + "/src/test/resources/");
+		ConfigUtil.initLogger();
+	}
+
+	@Test
+	public void compare() throws IOException {
+		final String corpusPath = System.getProperty("grouping.corpus");
+		Assume.assumeTrue("Set -Dgrouping.corpus=<file> to compare the grouping.", corpusPath != null);
+
+		final File corpus = new File(corpusPath);
+		if(System.getProperty("grouping.record") != null) {
+			record(corpus, Integer.getInteger("grouping.record"));
+		}
+
+		final List<CorpusNews> newsList = read(corpus);
+		final int bands = Integer.getInteger("grouping.bands", 16);
+		final int rows = Integer.getInteger("grouping.rows", 2);
+		final double minSimilarity = Integer.getInteger("grouping.minSimilarity", 25) / 100.0;
+
+		final MinHash minHash = new MinHash(bands * rows);
+		final MinHashIndex index = new MinHashIndex(bands, rows);
+		final Map<Long, Long> groups = new HashMap<>();
+		final long maxTimeDelta = TimeUnit.HOURS.toMillis(SimilarNewsFinder.PUBLISH_DATE_DELTA);
+
+		long signTime = 0;
+		long findTime = 0;
+		long candidateCount = 0;
+		long nextGroupId = 1;
+
+		for (final CorpusNews news : newsList) {
+			long start = System.nanoTime();
+			final int[] signature = minHash.sign(Locale.forLanguageTag(news.locale), news.title, news.text);
+			signTime += System.nanoTime() - start;
+
+			if(signature == null) {
+				groups.put(news.id, News.NEWSGROUPID_NO_GROUP);
+				continue;
+			}
+
+			start = System.nanoTime();
+			List<MinHashIndex.Candidate> candidates = index.find(news.id, news.locale, news.categoryId,
+					news.publishDate, signature, maxTimeDelta, minSimilarity);
+			findTime += System.nanoTime() - start;
+
+			if(candidates.size() > MAX_CANDIDATES) {
+				candidates = candidates.subList(0, MAX_CANDIDATES);
+			}
+			candidateCount += candidates.size();
+
+			// the same assignment as NewsGrouperThread#groupNews(News)
+			long groupId = News.NEWSGROUPID_NO_GROUP;
+			for (final MinHashIndex.Candidate candidate : candidates) {
+				if(groups.get(candidate.id) > 0) {
+					groupId = groups.get(candidate.id);
+					break;
+				}
+			}
+			if(groupId == News.NEWSGROUPID_NO_GROUP && !candidates.isEmpty()) {
+				groupId = nextGroupId++;
+			}
+			for (final MinHashIndex.Candidate candidate : candidates) {
+				if(groups.get(candidate.id) <= 0) {
+					groups.put(candidate.id, groupId);
+				}
+			}
+			groups.put(news.id, groupId);
+
+			index.add(news.id, news.locale, news.categoryId, news.publishDate, signature);
+		}
+
+		final Map<Long, Integer> recordedSizes = new HashMap<>();
+		final Map<Long, Integer> groupSizes = new HashMap<>();
+		final Map<String, Integer> bothSizes = new HashMap<>();
+		for (final CorpusNews news : newsList) {
+			final long groupId = groups.get(news.id);
+			increment(recordedSizes, news.newsGroupId > 0 ? news.newsGroupId : null);
+			increment(groupSizes, groupId > 0 ? groupId : null);
+			increment(bothSizes, news.newsGroupId > 0 && groupId > 0 ? news.newsGroupId + "/" + groupId : null);
+		}
+
+		final long recordedPairs = countPairs(recordedSizes);
+		final long groupPairs = countPairs(groupSizes);
+		final long bothPairs = countPairs(bothSizes);
+		final double precision = groupPairs == 0 ? 0 : (double) bothPairs / groupPairs;
+		final double recall = recordedPairs == 0 ? 0 : (double) bothPairs / recordedPairs;
+
+		LOGGER.info("{} news, {} bands x {} rows, min similarity {}:", newsList.size(), bands, rows, minSimilarity);
+		LOGGER.info("Recorded: {} groups, {} pairs. MinHash: {} groups, {} pairs, {} common pairs.",
+				recordedSizes.size(), recordedPairs, groupSizes.size(), groupPairs, bothPairs);
+		LOGGER.info(String.format(Locale.ROOT, "Precision %.3f, recall %.3f, F1 %.3f.", precision, recall,
+				precision + recall == 0 ? 0 : 2 * precision * recall / (precision + recall)));
+		LOGGER.info(String.format(Locale.ROOT, "Per news: sign %.1f us, find %.1f us, %.2f candidates.",
+				signTime / 1000.0 / newsList.size(), findTime / 1000.0 / newsList.size(),
+				(double) candidateCount / newsList.size()));
+	}
+
+	/**
+	 * Writes the grouped news of the last days from the database to the corpus.
+	 */
+	private void record(final File corpus, final int days) throws IOException {
+		final Timestamp from = new Timestamp(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days));
+		final Timestamp to = new Timestamp(System.currentTimeMillis());
+		final NewsDao dao = new NewsDao(null);
+
+		int amount = 0;
+		try (final BufferedWriter writer = Files.newBufferedWriter(corpus.toPath(), StandardCharsets.UTF_8)) {
+			long lastId = 0;
+			while(true) {
+				final List<News> chunk = dao.getNewsPublishedBetween(lastId, from, to, RECORD_CHUNK_SIZE);
+				if(chunk.isEmpty()) {
+					break;
+				}
+
+				for (final News news : chunk) {
+					if(news.getNewsGroupId() != News.NEWSGROUPID_NOT_GROUPED_YET) {
+						writer.write(mapper.writeValueAsString(new CorpusNews(news)));
+						writer.newLine();
+						amount++;
+					}
+				}
+				lastId = chunk.get(chunk.size() - 1).getId();
+			}
+		}
+
+		LOGGER.info("Recorded {} news to {}.", amount, corpus);
+	}
+
+	/**
+	 * Reads the news of the corpus sorted by id.
+	 */
+	private List<CorpusNews> read(final File corpus) throws IOException {
+		final List<CorpusNews> newsList = new ArrayList<>();
+		try (final BufferedReader reader = Files.newBufferedReader(corpus.toPath(), StandardCharsets.UTF_8)) {
+			String line;
+			while((line = reader.readLine()) != null) {
+				if(!line.trim().isEmpty()) {
+					newsList.add(mapper.readValue(line, CorpusNews.class));
+				}
+			}
+		}
+
+		Collections.sort(newsList, new Comparator<CorpusNews>() {
+			@Override
+			public int compare(final CorpusNews news1, final CorpusNews news2) {
+				return Long.compare(news1.id, news2.id);
+			}
+		});
+		return newsList;
+	}
+
+	private static <K> void increment(final Map<K, Integer> sizes, final K key) {
+		if(key != null) {
+			final Integer size = sizes.get(key);
+			sizes.put(key, size == null ? 1 : size + 1);
+		}
+	}
+
+	private static long countPairs(final Map<?, Integer> sizes) {
+		long pairs = 0;
+		for (final Integer size : sizes.values()) {
+			pairs += (long) size * (size - 1) / 2;
+		}
+		return pairs;
+	}
+
+	/**
+	 * A news of the corpus with its recorded group.
+	 */
+	public static class CorpusNews {
+		public long id;
+		public String locale;
+		public int categoryId;
+		public long publishDate;
+		public long newsGroupId;
+		public String title;
+		public String text;
+
+		public CorpusNews() {
+
+		}
+
+		private CorpusNews(final News news) {
+			id = news.getId();
+			locale = news.getLocale().toLanguageTag();
+			categoryId = news.getCategoryId();
+			publishDate = news.getPublishDate().getTime();
+			newsGroupId = news.getNewsGroupId();
+			title = news.getTitle();
+			text = news.getText();
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package com.incomb.server.content.grouping;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MinHashTest {
+
+	private static final long HOUR = 60 * 60 * 1000;
+
+	@Test
+	public void sign() {
+		final MinHash minHash = new MinHash(32);
+
+		final int[] signature = minHash.sign(Locale.ENGLISH, "Parliament approves the new budget", "After a long debate.");
+		Assert.assertArrayEquals(signature, minHash.sign(Locale.ENGLISH, "PARLIAMENT approves new budgets!", null,
+				"the long debate, after a"));
+		Assert.assertEquals(1.0, MinHash.similarity(signature,
+				minHash.sign(Locale.ENGLISH, "parliament approves budget", "new long debate after")), 0);
+
+		Assert.assertTrue(MinHash.similarity(signature,
+				minHash.sign(Locale.ENGLISH, "Storm floods the coast", "Thousands evacuated.")) < 0.2);
+
+		// only stop words and short words
+		Assert.assertNull(minHash.sign(Locale.ENGLISH, "it is on the", "a b"));
+		Assert.assertNull(minHash.sign(Locale.GERMAN, "Der, die und das"));
+	}
+
+	@Test
+	public void find() {
+		final MinHash minHash = new MinHash(32);
+		final MinHashIndex index = new MinHashIndex(16, 2);
+		final int[] budget = minHash.sign(Locale.ENGLISH, "Parliament approves the new budget after a long debate");
+		final int[] budget2 = minHash.sign(Locale.ENGLISH, "New budget approved by parliament after long debate");
+
+		index.add(1, "en", 1, 0, budget);
+		index.add(2, "en", 2, 0, budget);
+		index.add(3, "de", 1, 0, budget);
+		index.add(4, "en", 1, 4 * HOUR, budget);
+		index.add(5, "en", 1, 2 * HOUR, minHash.sign(Locale.ENGLISH, "Storm floods the coast, thousands evacuated"));
+		index.add(6, "en", 1, HOUR, budget2);
+
+		final List<MinHashIndex.Candidate> candidates = index.find(7, "en", 1, 0, budget, 3 * HOUR, 0.25);
+		Assert.assertEquals(2, candidates.size());
+		Assert.assertEquals(1, candidates.get(0).id);
+		Assert.assertEquals(6, candidates.get(1).id);
+
+		Assert.assertTrue(index.remove(1));
+		Assert.assertEquals(2, index.removeBefore(HOUR));
+		Assert.assertEquals(3, index.size());
+		Assert.assertEquals(1, index.find(7, "en", 1, 0, budget, 3 * HOUR, 0.25).size());
+	}
+}
@@ -0,0 +1,110 @@
+package com.incomb.server.content.grouping;
+
+import java.io.File;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.incomb.server.content.grouping.NewsGroupCache.Members;
+import com.incomb.server.model.News;
+import com.incomb.server.utils.ConfigUtil;
+
+public class NewsGroupCacheTest {
+
+	@BeforeClass
+	public static void setUpClass() {
+		ConfigUtil.setDocBase(new File("").getAbsolutePath() + "/src/test/resources/");
+	}
+
+	@Test
+	public void members() {
+		Members members = Members.EMPTY.with(1, 100).with(2, 300).with(3, 200).with(4, 300);
+		Assert.assertArrayEquals(new long[] { 4, 2, 3, 1 }, members.ids);
+		Assert.assertArrayEquals(new long[] { 300, 300, 200, 100 }, members.publishDates);
+
+		// the publish date of a member was updated
+		members = members.with(1, 400);
+		Assert.assertArrayEquals(new long[] { 1, 4, 2, 3 }, members.ids);
+
+		members = members.without(2).without(5);
+		Assert.assertArrayEquals(new long[] { 1, 4, 3 }, members.ids);
+		Assert.assertArrayEquals(new long[] { 400, 300, 200 }, members.publishDates);
+
+		Assert.assertEquals(0, Members.EMPTY.ids.length);
+	}
+
+	@Test
+	public void updateDuringLoad() {
+		final NewsGroupCache cache = NewsGroupCache.getInstance();
+		final List<Long> groupIds = Collections.singletonList(1001L);
+
+		cache.startLoading(groupIds);
+		// the load read the members before these changes
+		final List<News> loaded = Arrays.asList(news(1, 1001, 100), news(2, 1001, 200));
+		cache.update(news(3, 1001, 300));
+		cache.remove(news(1, 1001, 100));
+
+		final Map<Long, long[]> members = cache.finishLoading(groupIds, loaded);
+		Assert.assertArrayEquals(new long[] { 3, 2 }, members.get(1001L));
+
+		// the cached members contain the changes too and aren't replaced by a later load
+		cache.startLoading(groupIds);
+		Assert.assertArrayEquals(new long[] { 3, 2 }, cache.finishLoading(groupIds, Arrays.asList(news(9, 1001, 900)))
+				.get(1001L));
+
+		// the news group isn't loading anymore, so changes go directly to the cached members
+		cache.update(news(4, 1001, 400));
+		cache.startLoading(groupIds);
+		Assert.assertArrayEquals(new long[] { 4, 3, 2 }, cache.finishLoading(groupIds, Collections.<News>emptyList())
+				.get(1001L));
+	}
+
+	@Test
+	public void concurrentLoads() {
+		final NewsGroupCache cache = NewsGroupCache.getInstance();
+		final List<Long> groupIds = Collections.singletonList(1002L);
+
+		cache.startLoading(groupIds);
+		cache.startLoading(groupIds);
+		cache.update(news(2, 1002, 200));
+
+		// the first load caches its members with the change
+		Assert.assertArrayEquals(new long[] { 2, 1 }, cache.finishLoading(groupIds, Arrays.asList(news(1, 1002, 100)))
+				.get(1002L));
+
+		// the second load still records changes and keeps the cached members
+		cache.update(news(3, 1002, 300));
+		Assert.assertArrayEquals(new long[] { 3, 2, 1 }, cache.finishLoading(groupIds, Arrays.asList(news(1, 1002, 100)))
+				.get(1002L));
+	}
+
+	@Test
+	public void failedLoad() {
+		final NewsGroupCache cache = NewsGroupCache.getInstance();
+		final List<Long> groupIds = Collections.singletonList(1003L);
+
+		cache.startLoading(groupIds);
+		cache.update(news(1, 1003, 100));
+		Assert.assertTrue(cache.finishLoading(groupIds, null).isEmpty());
+
+		// nothing was cached and the recorded changes are discarded
+		cache.update(news(2, 1003, 200));
+		cache.startLoading(groupIds);
+		Assert.assertArrayEquals(new long[] { 5 }, cache.finishLoading(groupIds, Arrays.asList(news(5, 1003, 500)))
+				.get(1003L));
+	}
+
+	private static News news(final long id, final long newsGroupId, final long publishDate) {
+		final News news = new News();
+		news.setId(id);
+		news.setNewsGroupId(newsGroupId);
+		news.setPublishDate(new Timestamp(publishDate));
+		return news;
+	}
+}
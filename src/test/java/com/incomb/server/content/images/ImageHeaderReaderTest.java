@@ -0,0 +1,99 @@
+package com.incomb.server.content.images;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ImageHeaderReaderTest {
+
+	private final ImageHeaderReader reader = new ImageHeaderReader(256 * 1024);
+
+	@Test
+	public void jpeg() throws IOException {
+		// SOI, APP0 with 14 bytes of data, SOF0 with 8 bit precision, height 480, width 640
+		assertSize(640, 480, bytes(0xFF, 0xD8,
+				0xFF, 0xE0, 0x00, 0x10, 'J', 'F', 'I', 'F', 0, 1, 1, 0, 0, 1, 0, 1, 0, 0,
+				0xFF, 0xC0, 0x00, 0x11, 0x08, 0x01, 0xE0, 0x02, 0x80, 0x03));
+
+		// progressive (SOF2) with a padded marker and a DHT (C4) before, which isn't a frame
+		assertSize(1, 2, bytes(0xFF, 0xD8,
+				0xFF, 0xC4, 0x00, 0x03, 0x00,
+				0xFF, 0xFF, 0xC2, 0x00, 0x11, 0x08, 0x00, 0x02, 0x00, 0x01, 0x03));
+
+		// start of scan before a frame
+		assertSize(0, 0, bytes(0xFF, 0xD8, 0xFF, 0xDA, 0x00, 0x02));
+
+		// corrupt segment
+		assertSize(0, 0, bytes(0xFF, 0xD8, 0x12, 0x34));
+	}
+
+	@Test
+	public void png() throws IOException {
+		assertSize(800, 600, bytes(0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n',
+				0x00, 0x00, 0x00, 0x0D, 'I', 'H', 'D', 'R',
+				0x00, 0x00, 0x03, 0x20, 0x00, 0x00, 0x02, 0x58,
+				0x08, 0x06, 0x00, 0x00, 0x00));
+	}
+
+	@Test
+	public void gif() throws IOException {
+		assertSize(300, 2, bytes('G', 'I', 'F', '8', '9', 'a', 0x2C, 0x01, 0x02, 0x00, 0x00, 0x00, 0x00));
+	}
+
+	@Test
+	public void webp() throws IOException {
+		// lossy: 14 bit width and height after the frame tag and start code
+		assertSize(400, 300, webp("VP8 ", 0, 0, 0, 0, 0, 0, 0, 0x9D, 0x01, 0x2A, 0x90, 0x01, 0x2C, 0x01));
+
+		// lossless: signature 0x2F, then width - 1 and height - 1 with 14 bits each
+		final int bits = (400 - 1) | (300 - 1) << 14;
+		assertSize(400, 300, webp("VP8L", 0, 0, 0, 0, 0x2F,
+				bits & 0xFF, bits >> 8 & 0xFF, bits >> 16 & 0xFF, bits >> 24 & 0xFF, 0, 0, 0, 0, 0, 0, 0, 0, 0));
+
+		// extended: width - 1 and height - 1 with 24 bits each
+		assertSize(70000, 2, webp("VP8X", 0, 0, 0, 0, 0, 0, 0, 0, 0x6F, 0x11, 0x01, 0x01, 0x00, 0x00, 0, 0, 0, 0));
+	}
+
+	@Test
+	public void imageIO() throws IOException {
+		final ByteArrayOutputStream bmp = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(7, 5, BufferedImage.TYPE_INT_RGB), "bmp", bmp);
+		assertSize(7, 5, bmp.toByteArray());
+	}
+
+	@Test
+	public void unknown() throws IOException {
+		assertSize(0, 0, "<html>not an image</html>".getBytes("ASCII"));
+		assertSize(0, 0, new byte[0]);
+	}
+
+	private void assertSize(final int width, final int height, final byte[] image) throws IOException {
+		final ImageSize size = reader.read(new ByteArrayInputStream(image));
+		Assert.assertEquals(width, size.getWidth());
+		Assert.assertEquals(height, size.getHeight());
+	}
+
+	private static byte[] webp(final String chunk, final int... data) {
+		final int[] header = new int[16 + data.length];
+		System.arraycopy(new int[] { 'R', 'I', 'F', 'F', 0, 0, 0, 0, 'W', 'E', 'B', 'P' }, 0, header, 0, 12);
+		for (int i = 0; i < 4; i++) {
+			header[12 + i] = chunk.charAt(i);
+		}
+		System.arraycopy(data, 0, header, 16, data.length);
+		return bytes(header);
+	}
+
+	private static byte[] bytes(final int... values) {
+		final byte[] bytes = new byte[values.length];
+		for (int i = 0; i < values.length; i++) {
+			bytes[i] = (byte) values[i];
+		}
+		return bytes;
+	}
+}
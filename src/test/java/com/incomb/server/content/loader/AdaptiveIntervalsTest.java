@@ -0,0 +1,106 @@
+package com.incomb.server.content.loader;
+
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.incomb.server.model.ContentSource;
+import com.incomb.server.model.FetchHistory;
+
+public class AdaptiveIntervalsTest {
+
+	private static final int GAP = 300;
+
+	private final ContentSource source = new ContentSource(1, 1, 1, 900, "http://example.com/feed", "de");
+
+	private final long start = getStartOfHour();
+
+	@Test
+	public void tooFewFetches() {
+		final AdaptiveIntervals intervals = create(50);
+		record(intervals, 5, 2);
+
+		Assert.assertEquals(900, intervals.getInterval(source, start));
+	}
+
+	@Test
+	public void disabled() {
+		final AdaptiveIntervals intervals = new AdaptiveIntervals(false, 120, 7200, 14, 6, 50);
+		record(intervals, 8, 2);
+
+		Assert.assertEquals(900, intervals.getInterval(source, start));
+	}
+
+	@Test
+	public void targetYield() {
+		// every second fetch yields, so half of the fetches after the same gap yield
+		final AdaptiveIntervals half = create(50);
+		record(half, 8, 2);
+		Assert.assertEquals(GAP, half.getInterval(source, start));
+
+		// one of four: the gap * ln(1 - 0.5) / ln(1 - 0.25)
+		final AdaptiveIntervals quarter = create(50);
+		record(quarter, 8, 4);
+		Assert.assertEquals(Math.round(GAP * Math.log(0.5) / Math.log(0.75)), quarter.getInterval(source, start));
+
+		// a higher target yield needs a longer interval
+		final AdaptiveIntervals higherTarget = create(75);
+		record(higherTarget, 8, 2);
+		Assert.assertEquals(2 * GAP, higherTarget.getInterval(source, start));
+	}
+
+	@Test
+	public void limits() {
+		final AdaptiveIntervals always = create(50);
+		record(always, 8, 1);
+		Assert.assertEquals(120, always.getInterval(source, start));
+
+		final AdaptiveIntervals never = create(50);
+		record(never, 8, 0);
+		Assert.assertEquals(7200, never.getInterval(source, start));
+	}
+
+	@Test
+	public void failedFetches() {
+		final AdaptiveIntervals intervals = create(50);
+
+		for (int i = 0; i < 8; i++) {
+			intervals.record(source, fetch(start + i * GAP * 1000L, i % 2 == 0, false), GAP);
+
+			// failed fetches between them would halve the gap and the yield share
+			intervals.record(source, fetch(start + (i * GAP + GAP / 2) * 1000L, false, true), GAP);
+		}
+
+		Assert.assertEquals(GAP, intervals.getInterval(source, start));
+	}
+
+	private static AdaptiveIntervals create(final int targetYield) {
+		return new AdaptiveIntervals(true, 120, 7200, 14, 6, targetYield);
+	}
+
+	/**
+	 * Records the given amount of fetches with {@link #GAP} seconds between them
+	 * where each n-th fetch yields or none if n is 0.
+	 */
+	private void record(final AdaptiveIntervals intervals, final int fetches, final int yieldEvery) {
+		for (int i = 0; i < fetches; i++) {
+			intervals.record(source, fetch(start + i * GAP * 1000L, yieldEvery > 0 && i % yieldEvery == 0, false), GAP);
+		}
+	}
+
+	private static FetchHistory fetch(final long time, final boolean result, final boolean failed) {
+		final FetchHistory history = new FetchHistory(1, new Timestamp(time), result);
+		history.setFailed(failed);
+		return history;
+	}
+
+	private static long getStartOfHour() {
+		final Calendar calendar = Calendar.getInstance();
+		calendar.set(Calendar.MINUTE, 0);
+		calendar.set(Calendar.SECOND, 0);
+		calendar.set(Calendar.MILLISECOND, 0);
+		return calendar.getTimeInMillis();
+	}
+}
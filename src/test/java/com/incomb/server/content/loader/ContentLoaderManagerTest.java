@@ -2,7 +2,7 @@ package com.incomb.server.content.loader;
 
 import java.sql.Connection;
 import java.sql.Timestamp;
-import java.util.SortedSet;
+import java.util.concurrent.DelayQueue;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -28,7 +28,7 @@ public class ContentLoaderManagerTest extends ATest {
 			return instance;
 		}
 
-		protected SortedSet<ContentSourceExecutionInfo> getContentSources() { return CONTENT_SOURCES; }
+		protected DelayQueue<ContentSourceExecutionInfo> getContentSources() { return CONTENT_SOURCES; }
 	};
 
 	private static class TestContentSource extends ContentSource {
@@ -70,13 +70,13 @@ public class ContentLoaderManagerTest extends ATest {
 
 		Assert.assertEquals(3, manager.getContentSources().size());
 
-		Assert.assertEquals(t1, manager.getContentSources().first().getContentSource());
+		Assert.assertEquals(t1, manager.getContentSources().peek().getContentSource());
 		Assert.assertTrue(manager.removeContentSource(t1));
 
-		Assert.assertEquals(t3, manager.getContentSources().first().getContentSource());
+		Assert.assertEquals(t3, manager.getContentSources().peek().getContentSource());
 		Assert.assertTrue(manager.removeContentSource(t3));
 
-		Assert.assertEquals(t2, manager.getContentSources().first().getContentSource());
+		Assert.assertEquals(t2, manager.getContentSources().peek().getContentSource());
 		Assert.assertTrue(manager.removeContentSource(t2));
 	}
 
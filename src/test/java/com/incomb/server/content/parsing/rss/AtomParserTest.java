@@ -0,0 +1,134 @@
+package com.incomb.server.content.parsing.rss;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.incomb.server.model.ContentSource;
+import com.incomb.server.utils.ConfigUtil;
+
+public class AtomParserTest {
+
+	private static final int SOURCE_ID = 4713;
+
+	private final ContentSource source = new ContentSource(SOURCE_ID, 1, 1, 900, "http://example.com/atom", "en");
+
+	@BeforeClass
+	public static void setUpClass() {
+		// the RssItems read the description length from the config
+		ConfigUtil.setDocBase(new File("").getAbsolutePath() + "/src/test/resources/");
+	}
+
+	@After
+	public void cleanUp() {
+		RssDateParser.forget(SOURCE_ID);
+	}
+
+	@Test
+	public void feed() {
+		final RssDocument doc = parse("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<feed xmlns=\"http://www.w3.org/2005/Atom\">\n"
+				+ "  <title>Example Feed</title>\n"
+				+ "  <link href=\"http://example.com/\" />\n"
+				+ "  <updated>2015-01-01T12:00:00Z</updated>\n"
+				+ "  <id>urn:uuid:60a76c80-d399-11d9-b93C-0003939e0af6</id>\n"
+				+ "  <entry>\n"
+				+ "    <title>First entry</title>\n"
+				+ "    <link rel=\"self\" href=\"http://example.com/api/1\" />\n"
+				+ "    <link rel=\"alternate\" type=\"text/html\" href=\"http://example.com/news/1\" />\n"
+				+ "    <id>urn:uuid:1225c695-cfb8-4ebb-aaaa-80da344efa6a</id>\n"
+				+ "    <published>2015-01-01T10:00:00+01:00</published>\n"
+				+ "    <updated>2015-01-01T11:30:00Z</updated>\n"
+				+ "    <content type=\"html\">&lt;p&gt;Some &lt;b&gt;html&lt;/b&gt;&lt;/p&gt;</content>\n"
+				+ "  </entry>\n"
+				+ "  <entry>\n"
+				+ "    <title type=\"html\"><![CDATA[Second &amp; last]]></title>\n"
+				+ "    <link rel=\"alternate\" href=\"http://example.com/news/2\" />\n"
+				+ "    <published>2015-01-01T10:00:00Z</published>\n"
+				+ "    <content>Plain text</content>\n"
+				+ "  </entry>\n"
+				+ "</feed>");
+
+		final RssItem[] items = doc.getItems();
+		Assert.assertEquals(2, items.length);
+
+		Assert.assertEquals("First entry", items[0].getTitle());
+		Assert.assertEquals("http://example.com/news/1", items[0].getLink());
+		Assert.assertEquals("<p>Some <b>html</b></p>", items[0].getDescription());
+		Assert.assertEquals(date("2015-01-01T09:00:00Z"), items[0].getPubDate());
+		Assert.assertEquals(date("2015-01-01T11:30:00Z"), items[0].getUpdated());
+
+		Assert.assertEquals("Second &amp; last", items[1].getTitle());
+		Assert.assertEquals("http://example.com/news/2", items[1].getLink());
+		Assert.assertEquals("Plain text", items[1].getDescription());
+		Assert.assertEquals(date("2015-01-01T10:00:00Z"), items[1].getPubDate());
+		Assert.assertNull(items[1].getUpdated());
+	}
+
+	@Test
+	public void updatedEntries() {
+		final RssDocument doc = parse("<feed xmlns=\"http://www.w3.org/2005/Atom\">"
+				+ "<entry><title>Old</title><updated>2015-01-01T10:00:00Z</updated></entry>"
+				+ "<entry><title>New</title><updated>2015-01-02T10:00:00Z</updated></entry>"
+				+ "<entry><title>Unknown</title></entry>"
+				+ "</feed>");
+
+		// only entries updated after the last fetch or without update date are new
+		Assert.assertEquals(3, doc.getItems().length);
+		Assert.assertEquals(2, doc.getContent(date("2015-01-01T12:00:00Z")).length);
+		Assert.assertEquals(3, doc.getContent(null).length);
+	}
+
+	@Test
+	public void linkWithoutRel() {
+		final RssDocument doc = parse("<feed xmlns=\"http://www.w3.org/2005/Atom\">"
+				+ "<entry><title>Title</title><link href=\"http://example.com/news/1\" /></entry>"
+				+ "</feed>");
+
+		Assert.assertNull(doc.getItems()[0].getLink());
+	}
+
+	@Test
+	public void xhtmlContent() {
+		// the text of nested elements is skipped
+		final RssDocument doc = parse("<feed xmlns=\"http://www.w3.org/2005/Atom\">"
+				+ "<entry><content type=\"xhtml\">Intro <div xmlns=\"http://www.w3.org/1999/xhtml\">Nested</div></content></entry>"
+				+ "</feed>");
+
+		Assert.assertEquals("Intro ", doc.getItems()[0].getDescription());
+	}
+
+	@Test
+	public void unclosedTag() {
+		Assert.assertFalse(createParser("<feed xmlns=\"http://www.w3.org/2005/Atom\">"
+				+ "<entry><title>First</entry>"
+				+ "</feed>").parse());
+	}
+
+	@Test
+	public void truncated() {
+		Assert.assertFalse(createParser("<feed xmlns=\"http://www.w3.org/2005/Atom\">"
+				+ "<entry><title>First</title></entry><entry><content>Sec").parse());
+	}
+
+	private RssDocument parse(final String xml) {
+		final AtomParser parser = createParser(xml);
+		Assert.assertTrue(parser.parse());
+		return parser.getParsedObject();
+	}
+
+	private AtomParser createParser(final String xml) {
+		return new AtomParser(source, new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static Date date(final String instant) {
+		return Date.from(Instant.parse(instant));
+	}
+}
@@ -0,0 +1,182 @@
+package com.incomb.server.content.parsing.rss;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.incomb.server.model.ContentSource;
+
+public class DefaultRssParserTest {
+
+	private static final int SOURCE_ID = 4712;
+
+	private final ContentSource source = new ContentSource(SOURCE_ID, 1, 1, 900, "http://example.com/feed", "de");
+
+	@After
+	public void cleanUp() {
+		RssDateParser.forget(SOURCE_ID);
+	}
+
+	@Test
+	public void feed() {
+		final RssDocument doc = parse("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<rss version=\"2.0\" xmlns:media=\"http://search.yahoo.com/mrss/\">\n"
+				+ "<channel>\n"
+				+ "  <title>Example News</title>\n"
+				+ "  <link>http://example.com/</link>\n"
+				+ "  <description>All the news</description>\n"
+				+ "  <lastBuildDate>Thu, 01 Jan 2015 12:00:00 +0100</lastBuildDate>\n"
+				+ "  <image><url>http://example.com/logo.png</url><title>Logo</title></image>\n"
+				+ "  <item>\n"
+				+ "    <title>First &amp; best</title>\n"
+				+ "    <link>http://example.com/news/1</link>\n"
+				+ "    <description><![CDATA[<p>The <b>first</b> news.</p>]]></description>\n"
+				+ "    <pubDate>Thu, 01 Jan 2015 10:00:00 +0100</pubDate>\n"
+				+ "    <enclosure url=\"http://example.com/1.jpg\" length=\"1234\" type=\"image/jpeg\" />\n"
+				+ "  </item>\n"
+				+ "  <item>\n"
+				+ "    <title>Second</title>\n"
+				+ "    <link>http://example.com/news/2</link>\n"
+				+ "    <description>Plain text</description>\n"
+				+ "    <pubDate>Thu, 01 Jan 2015 11:00:00 +0100</pubDate>\n"
+				+ "    <image>http://example.com/2.jpg</image>\n"
+				+ "  </item>\n"
+				+ "</channel>\n"
+				+ "</rss>");
+
+		final RssItem[] items = doc.getItems();
+		Assert.assertEquals(2, items.length);
+
+		Assert.assertEquals("First & best", items[0].getTitle());
+		Assert.assertEquals("http://example.com/news/1", items[0].getLink());
+		Assert.assertEquals("<p>The <b>first</b> news.</p>", items[0].getDescription());
+		Assert.assertEquals(date("2015-01-01T09:00:00Z"), items[0].getPubDate());
+		Assert.assertEquals("http://example.com/1.jpg", items[0].getImageUrl());
+
+		Assert.assertEquals("Second", items[1].getTitle());
+		Assert.assertEquals("http://example.com/news/2", items[1].getLink());
+		Assert.assertEquals("Plain text", items[1].getDescription());
+		Assert.assertEquals(date("2015-01-01T10:00:00Z"), items[1].getPubDate());
+		Assert.assertEquals("http://example.com/2.jpg", items[1].getImageUrl());
+
+		// the last build date of the channel
+		Assert.assertTrue(doc.hasChangedSince(date("2015-01-01T10:59:59Z")));
+		Assert.assertFalse(doc.hasChangedSince(date("2015-01-01T11:00:00Z")));
+	}
+
+	@Test
+	public void emptyChannel() {
+		final RssDocument doc = parse("<rss version=\"2.0\"><channel><title>Empty</title></channel></rss>");
+		Assert.assertEquals(0, doc.getItems().length);
+		Assert.assertTrue(doc.hasChangedSince(new Date()));
+	}
+
+	@Test
+	public void splitText() {
+		// text, entities and several CDATA sections are concatenated
+		final RssDocument doc = parse("<rss><channel><item>"
+				+ "<title>A <![CDATA[<b>bold</b>]]> &lt;title&gt;<![CDATA[ and more]]></title>"
+				+ "<description>Line 1\n<!-- a comment -->Line 2</description>"
+				+ "</item></channel></rss>");
+
+		final RssItem item = doc.getItems()[0];
+		Assert.assertEquals("A <b>bold</b> <title> and more", item.getTitle());
+		Assert.assertEquals("Line 1\nLine 2", item.getDescription());
+	}
+
+	@Test
+	public void nestedElements() {
+		// the text of unknown nested elements is skipped
+		final RssDocument doc = parse("<rss><channel><item>"
+				+ "<title>Title<span>nested</span> end</title>"
+				+ "<source url=\"http://example.com/other\"><name>Other</name></source>"
+				+ "</item></channel></rss>");
+
+		Assert.assertEquals("Title end", doc.getItems()[0].getTitle());
+	}
+
+	@Test
+	public void enclosureWithoutImage() {
+		final RssDocument doc = parse("<rss><channel>"
+				+ "<item><enclosure url=\"http://example.com/1.mp3\" mime-type=\"audio/mpeg\" /></item>"
+				+ "<item><enclosure url=\"http://example.com/2.jpg\" mime-type=\"image/jpeg\" /></item>"
+				+ "<item><enclosure length=\"1234\" /></item>"
+				+ "</channel></rss>");
+
+		final RssItem[] items = doc.getItems();
+		Assert.assertNull(items[0].getImageUrl());
+		Assert.assertEquals("http://example.com/2.jpg", items[1].getImageUrl());
+		Assert.assertNull(items[2].getImageUrl());
+	}
+
+	@Test
+	public void unparseableDate() {
+		final RssDocument doc = parse("<rss><channel><item>"
+				+ "<title>Title</title><pubDate>yesterday</pubDate>"
+				+ "</item></channel></rss>");
+
+		Assert.assertEquals("Title", doc.getItems()[0].getTitle());
+		Assert.assertNull(doc.getItems()[0].getPubDate());
+	}
+
+	@Test
+	public void unclosedTag() {
+		final DefaultRssParser<RssDocument> parser = createParser("<rss><channel>"
+				+ "<item><title>First</title></item>"
+				+ "<item><title>Second</item>"
+				+ "</channel></rss>");
+
+		Assert.assertFalse(parser.parse());
+	}
+
+	@Test
+	public void truncated() {
+		final DefaultRssParser<RssDocument> parser = createParser("<rss><channel>"
+				+ "<item><title>First</title></item>"
+				+ "<item><title>Sec");
+
+		Assert.assertFalse(parser.parse());
+	}
+
+	@Test
+	public void undefinedEntity() {
+		Assert.assertFalse(createParser("<rss><channel><item><title>A &nbsp; B</title></item></channel></rss>").parse());
+	}
+
+	@Test
+	public void notXml() {
+		Assert.assertFalse(createParser("<html><body>Not found</body></html").parse());
+		Assert.assertFalse(createParser("").parse());
+	}
+
+	@Test
+	public void externalEntity() {
+		// external entities must not be loaded: either the parsing fails or the entity is left out
+		final DefaultRssParser<RssDocument> parser = createParser("<?xml version=\"1.0\"?>"
+				+ "<!DOCTYPE rss [<!ENTITY ext SYSTEM \"file:///etc/passwd\">]>"
+				+ "<rss><channel><item><title>A&ext;B</title></item></channel></rss>");
+
+		if(parser.parse()) {
+			Assert.assertEquals("AB", parser.getParsedObject().getItems()[0].getTitle());
+		}
+	}
+
+	private RssDocument parse(final String xml) {
+		final DefaultRssParser<RssDocument> parser = createParser(xml);
+		Assert.assertTrue(parser.parse());
+		return parser.getParsedObject();
+	}
+
+	private DefaultRssParser<RssDocument> createParser(final String xml) {
+		return new DefaultRssParser<>(source, new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static Date date(final String instant) {
+		return Date.from(Instant.parse(instant));
+	}
+}
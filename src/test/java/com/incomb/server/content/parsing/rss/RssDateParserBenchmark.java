@@ -0,0 +1,147 @@
+package com.incomb.server.content.parsing.rss;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.incomb.server.model.ContentSource;
+
+/**
+ * Compares {@link RssDateParser} with the {@link SimpleDateFormat}s which were used before.
+ * The dates are the formats which the feeds use, including the non standard ones.
+ * Run it with the main method, the test classpath and the compiled tests.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RssDateParserBenchmark {
+
+	@Param({
+		"Thu, 01 Jan 2015 10:00:00 +0100",
+		"Mon, 1 Jan 2015 10:00:00 +0100",
+		"1 Jan 2015 10:00 EST",
+		"Thu,  01 jan 2015 10:00:00 GMT",
+		"Thu, 01 Jan 2015 10:00:00 +01:00",
+		"Thu, 01 Jan 15 10:00:00 +0100",
+		"Wed, 01 Jul 2015 10:00:00 CEST",
+		"Thu, 01 Jan 2015 10:00:00",
+		"2015-01-01T10:00:00+01:00",
+		"2015-01-01T10:00:00.123Z",
+		"2015-01-01T10:00:00+0100",
+		"2015-01-01T10:00:00",
+		"2015-01-01 10:00:00",
+		"2015-01-01"
+	})
+	public String date;
+
+	private final ContentSource source = new ContentSource(1, 1, 1, 900, "http://example.com/feed", "de");
+
+	/**
+	 * Every date of a content source has the same format, so the remembered format of the source matches.
+	 */
+	@Benchmark
+	public Date parse() {
+		return RssDateParser.parse(source, date);
+	}
+
+	/**
+	 * Without a remembered format all formats are tried until one matches.
+	 */
+	@Benchmark
+	public Date parseWithoutLastFormat() {
+		RssDateParser.forget(source.getId());
+		return RssDateParser.parse(source, date);
+	}
+
+	/**
+	 * The RSS parser used RFC 2822 and the atom parser RFC 3339.
+	 */
+	@Benchmark
+	public Date parseOld() {
+		try {
+			return Character.isDigit(date.charAt(0)) && date.indexOf('-') == 4 ? get3339Date(date) : get2822Date(date);
+		} catch (final RuntimeException e) {
+			// the old RFC 3339 parsing failed with exceptions for some dates
+			return null;
+		}
+	}
+
+	public static void main(final String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(RssDateParserBenchmark.class.getSimpleName()).build()).run();
+	}
+
+	/**
+	 * The RFC 2822 parsing of RssUtil before {@link RssDateParser} existed.
+	 */
+	private static Date get2822Date(final String rfc2822Date) {
+		final SimpleDateFormat dateFormatter = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss Z", Locale.ENGLISH);
+
+		try {
+			return dateFormatter.parse(rfc2822Date);
+		} catch (final ParseException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * The RFC 3339 parsing of RssUtil before {@link RssDateParser} existed.
+	 */
+	private static Date get3339Date(String rfc3339Date) {
+		Date date = null;
+
+		try {
+			if (rfc3339Date.endsWith("Z")) {
+				try {
+					final SimpleDateFormat s = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
+					date = s.parse(rfc3339Date);
+				} catch (final ParseException pe) {
+					final SimpleDateFormat s = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSSSS'Z'");
+					s.setLenient(true);
+					date = s.parse(rfc3339Date);
+				}
+
+				return date;
+			}
+
+			final String firstpart = rfc3339Date.substring(0, rfc3339Date.lastIndexOf('-'));
+			String secondpart = rfc3339Date.substring(rfc3339Date.lastIndexOf('-'));
+
+			secondpart = secondpart.substring(0, secondpart.indexOf(':'))
+					+ secondpart.substring(secondpart.indexOf(':') + 1);
+			rfc3339Date = firstpart + secondpart;
+
+			SimpleDateFormat s = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ");
+			try {
+				date = s.parse(rfc3339Date);
+			} catch (final ParseException pe) {
+				s = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSSSSZ");
+				s.setLenient(true);
+				date = s.parse(rfc3339Date);
+			}
+		}
+		catch(final ParseException e) {
+			// return nothing
+		}
+
+		return date;
+	}
+}
@@ -0,0 +1,135 @@
+package com.incomb.server.content.parsing.rss;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.incomb.server.model.ContentSource;
+
+public class RssDateParserTest {
+
+	private static final int SOURCE_ID = 4711;
+
+	private final ContentSource source = new ContentSource(SOURCE_ID, 1, 1, 900, "http://example.com/feed", "de");
+
+	@After
+	public void cleanUp() {
+		RssDateParser.forget(SOURCE_ID);
+	}
+
+	@Test
+	public void rfc822() {
+		assertDate("2015-01-01T09:00:00Z", "Thu, 01 Jan 2015 10:00:00 +0100");
+		// the wrong day of the week is ignored
+		assertDate("2015-01-01T09:00:00Z", "Mon, 1 Jan 2015 10:00:00 +0100");
+		// without seconds and with a RFC 822 zone name
+		assertDate("2015-01-01T15:00:00Z", "1 Jan 2015 10:00 EST");
+		assertDate("2015-01-01T10:00:00Z", "Thu,  01 jan 2015 10:00:00 GMT");
+	}
+
+	@Test
+	public void rfc822OffsetWithColon() {
+		assertDate("2015-01-01T09:00:00Z", "Thu, 01 Jan 2015 10:00:00 +01:00");
+	}
+
+	@Test
+	public void rfc822TwoDigitYear() {
+		assertDate("2015-01-01T09:00:00Z", "Thu, 01 Jan 15 10:00:00 +0100");
+	}
+
+	@Test
+	public void rfc822ZoneText() {
+		assertDate("2015-07-01T08:00:00Z", "Wed, 01 Jul 2015 10:00:00 CEST");
+	}
+
+	@Test
+	public void rfc822WithoutZone() {
+		assertLocalDate(LocalDateTime.of(2015, 1, 1, 10, 0, 0), "Thu, 01 Jan 2015 10:00:00");
+	}
+
+	@Test
+	public void rfc3339() {
+		assertDate("2015-01-01T09:00:00Z", "2015-01-01T10:00:00+01:00");
+		assertDate("2015-01-01T10:00:00.123Z", "2015-01-01T10:00:00.123Z");
+	}
+
+	@Test
+	public void iso8601OffsetWithoutColon() {
+		assertDate("2015-01-01T09:00:00Z", "2015-01-01T10:00:00+0100");
+		assertDate("2015-01-01T09:00:00.5Z", "2015-01-01T10:00:00.5+0100");
+	}
+
+	@Test
+	public void iso8601WithoutZone() {
+		assertLocalDate(LocalDateTime.of(2015, 1, 1, 10, 0, 0), "2015-01-01T10:00:00");
+		assertLocalDate(LocalDateTime.of(2015, 1, 1, 10, 0, 0), "2015-01-01 10:00:00");
+	}
+
+	@Test
+	public void iso8601DateOnly() {
+		assertLocalDate(LocalDate.of(2015, 1, 1).atStartOfDay(), "2015-01-01");
+	}
+
+	@Test
+	public void unparseable() {
+		Assert.assertNull(RssDateParser.parse(source, "yesterday"));
+		Assert.assertNull(RssDateParser.parse(source, "32 Jan 2015 10:00:00 +0100"));
+		Assert.assertNull(RssDateParser.parse(source, "2015-01-01T10:00:00+01:00 and more"));
+		Assert.assertNull(RssDateParser.getLastFormat(SOURCE_ID));
+	}
+
+	@Test
+	public void empty() {
+		Assert.assertNull(RssDateParser.parse(source, null));
+		Assert.assertNull(RssDateParser.parse(source, ""));
+		Assert.assertNull(RssDateParser.parse(source, "  "));
+		Assert.assertNull(RssDateParser.parse(null, null));
+	}
+
+	@Test
+	public void withoutContentSource() {
+		Assert.assertEquals(Date.from(Instant.parse("2015-01-01T09:00:00Z")),
+				RssDateParser.parse(null, "Thu, 01 Jan 2015 10:00:00 +0100"));
+	}
+
+	@Test
+	public void rememberedFormat() {
+		// the ISO 8601 offset without colon matches also a 'Z', which the RFC 3339 format before would parse
+		assertDate("2015-01-01T09:00:00Z", "2015-01-01T10:00:00+0100");
+		final Integer isoFormat = RssDateParser.getLastFormat(SOURCE_ID);
+		Assert.assertNotNull(isoFormat);
+
+		assertDate("2015-01-01T10:00:00Z", "2015-01-01T10:00:00Z");
+		Assert.assertEquals(isoFormat, RssDateParser.getLastFormat(SOURCE_ID));
+
+		// a new format is found in the chain and remembered
+		assertDate("2015-01-01T09:00:00Z", "Thu, 01 Jan 2015 10:00:00 +0100");
+		Assert.assertEquals(Integer.valueOf(0), RssDateParser.getLastFormat(SOURCE_ID));
+
+		// an unparseable date doesn't change the remembered format
+		Assert.assertNull(RssDateParser.parse(source, "yesterday"));
+		Assert.assertEquals(Integer.valueOf(0), RssDateParser.getLastFormat(SOURCE_ID));
+
+		RssDateParser.forget(SOURCE_ID);
+		Assert.assertNull(RssDateParser.getLastFormat(SOURCE_ID));
+
+		// without the remembered format the first matching format of the chain is used
+		assertDate("2015-01-01T10:00:00Z", "2015-01-01T10:00:00Z");
+		Assert.assertNotEquals(isoFormat, RssDateParser.getLastFormat(SOURCE_ID));
+	}
+
+	private void assertDate(final String expected, final String text) {
+		Assert.assertEquals(text, Date.from(Instant.parse(expected)), RssDateParser.parse(source, text));
+	}
+
+	private void assertLocalDate(final LocalDateTime expected, final String text) {
+		Assert.assertEquals(text, Date.from(expected.atZone(ZoneId.systemDefault()).toInstant()),
+				RssDateParser.parse(source, text));
+	}
+}
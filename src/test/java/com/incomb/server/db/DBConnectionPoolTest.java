@@ -0,0 +1,363 @@
+package com.incomb.server.db;
+
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.incomb.server.utils.ConfigUtil;
+
+public class DBConnectionPoolTest {
+
+	private final List<FakeConnection> physicals = new ArrayList<>();
+
+	private DBConnectionPool pool;
+
+	/**
+	 * Runs when the fake data source opened a physical {@link Connection}.
+	 */
+	private volatile Runnable onOpen;
+
+	@BeforeClass
+	public static void setUpClass() {
+		// the DBConnectionProvider reads its config when the class is loaded
+		ConfigUtil.setDocBase(new File("").getAbsolutePath() + "/src/test/resources/");
+	}
+
+	@After
+	public void cleanUp() {
+		if(pool != null) {
+			pool.close();
+		}
+	}
+
+	@Test
+	public void borrowAndRelease() throws SQLException {
+		pool = createPool(2, 1000, 60000);
+
+		final Connection con = pool.borrow();
+		Assert.assertFalse(con.getAutoCommit());
+		Assert.assertEquals(1, physicals.size());
+		assertStats(1, 0, 1);
+
+		con.close();
+		assertStats(0, 1, 1);
+		Assert.assertEquals(1, physicals.get(0).rollbacks);
+		Assert.assertFalse(physicals.get(0).closed);
+
+		// the returned physical connection is reused
+		final Connection con2 = pool.borrow();
+		Assert.assertEquals(1, physicals.size());
+		assertStats(1, 0, 1);
+		Assert.assertEquals(2, pool.getStats().getBorrows());
+
+		// the stale proxy can't use the connection of the new borrower
+		Assert.assertTrue(con.isClosed());
+		try {
+			con.commit();
+			Assert.fail("A returned connection must not be usable.");
+		} catch (final SQLException e) {
+			// expected
+		}
+
+		// closing the stale proxy doesn't return the connection of the new borrower
+		con.close();
+		assertStats(1, 0, 1);
+
+		con2.close();
+		assertStats(0, 1, 1);
+	}
+
+	@Test
+	public void borrowUpToMaxSize() throws SQLException {
+		pool = createPool(2, 1000, 60000);
+
+		final Connection con1 = pool.borrow();
+		final Connection con2 = pool.borrow();
+		Assert.assertEquals(2, physicals.size());
+		assertStats(2, 0, 2);
+
+		con1.close();
+		con2.close();
+		assertStats(0, 2, 2);
+	}
+
+	@Test
+	public void waitForReturn() throws SQLException, InterruptedException {
+		pool = createPool(1, 5000, 60000);
+		final Connection con = pool.borrow();
+
+		final Thread returner = new Thread() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(100);
+				} catch (final InterruptedException e) {
+					return;
+				}
+				try {
+					con.close();
+				} catch (final SQLException e) {
+					// ignore
+				}
+			}
+		};
+		returner.start();
+
+		final Connection con2 = pool.borrow();
+		returner.join();
+
+		Assert.assertEquals(1, physicals.size());
+		Assert.assertEquals(0, pool.getStats().getTimeouts());
+		Assert.assertTrue(pool.getStats().getMaxWaitTime() >= 90);
+		con2.close();
+	}
+
+	@Test
+	public void timeout() throws SQLException {
+		pool = createPool(1, 100, 60000);
+		final Connection con = pool.borrow();
+
+		final long start = System.currentTimeMillis();
+		try {
+			pool.borrow();
+			Assert.fail("The borrow must time out if the pool is exhausted.");
+		} catch (final SQLException e) {
+			// expected
+		}
+		Assert.assertTrue(System.currentTimeMillis() - start >= 90);
+		Assert.assertEquals(1, pool.getStats().getTimeouts());
+		assertStats(1, 0, 1);
+
+		con.close();
+	}
+
+	@Test
+	public void timeoutThroughProvider() throws SQLException {
+		pool = createPool(1, 100, 60000);
+		final DBConnectionProvider provider = new DBConnectionProvider(pool);
+		final Connection con = provider.acquire();
+
+		try {
+			provider.acquire();
+			Assert.fail("The acquire must fail if the pool is exhausted.");
+		} catch (final RuntimeException e) {
+			Assert.assertTrue(e.getCause() instanceof SQLException);
+		}
+		Assert.assertEquals(1, provider.getStats().getTimeouts());
+
+		provider.release(con);
+		assertStats(0, 1, 1);
+	}
+
+	@Test
+	public void evictBrokenOnRelease() throws SQLException {
+		pool = createPool(1, 100, 60000);
+
+		final Connection con = pool.borrow();
+		physicals.get(0).broken = true;
+		con.close();
+
+		// the broken connection was closed and its slot is free again
+		Assert.assertTrue(physicals.get(0).closed);
+		assertStats(0, 0, 0);
+
+		final Connection con2 = pool.borrow();
+		Assert.assertEquals(2, physicals.size());
+		con2.close();
+		assertStats(0, 1, 1);
+	}
+
+	@Test
+	public void evictClosedOnRelease() throws SQLException {
+		pool = createPool(1, 100, 60000);
+
+		final Connection con = pool.borrow();
+		physicals.get(0).closed = true;
+		con.close();
+		assertStats(0, 0, 0);
+	}
+
+	@Test
+	public void evictInvalidOnBorrow() throws SQLException {
+		// validates every idle connection on borrow
+		pool = createPool(2, 100, 0);
+
+		final Connection con1 = pool.borrow();
+		final Connection con2 = pool.borrow();
+		con2.close();
+		con1.close();
+		assertStats(0, 2, 2);
+
+		// con1 was returned last and is borrowed first
+		physicals.get(0).broken = true;
+
+		final Connection con3 = pool.borrow();
+		Assert.assertTrue(physicals.get(0).closed);
+		Assert.assertEquals(1, pool.getStats().getInvalidated());
+		Assert.assertEquals(2, physicals.size());
+		assertStats(1, 0, 1);
+
+		// a new connection is opened instead of the invalid one
+		final Connection con4 = pool.borrow();
+		Assert.assertEquals(3, physicals.size());
+		assertStats(2, 0, 2);
+
+		con3.close();
+		con4.close();
+	}
+
+	@Test
+	public void closePool() throws SQLException {
+		pool = createPool(2, 100, 60000);
+
+		final Connection con1 = pool.borrow();
+		final Connection con2 = pool.borrow();
+		con1.close();
+
+		pool.close();
+		Assert.assertTrue(physicals.get(0).closed);
+		Assert.assertFalse(physicals.get(1).closed);
+
+		// borrowed connections are closed when they are returned
+		con2.close();
+		Assert.assertTrue(physicals.get(1).closed);
+		assertStats(0, 0, 0);
+
+		try {
+			pool.borrow();
+			Assert.fail("A closed pool must not hand out connections.");
+		} catch (final SQLException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void closeWhileFilling() throws InterruptedException {
+		final CountDownLatch created = new CountDownLatch(1);
+		onOpen = new Runnable() {
+			@Override
+			public void run() {
+				try {
+					created.await();
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				pool.close();
+			}
+		};
+
+		// the maintenance opens the minimal connection and the pool is closed meanwhile
+		pool = createPool(1, 2, 100, 60000);
+		created.countDown();
+
+		final long deadline = System.currentTimeMillis() + 5000;
+		while((physicals.isEmpty() || !physicals.get(0).closed) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+
+		Assert.assertTrue(physicals.get(0).closed);
+		assertStats(0, 0, 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidSize() {
+		createPool(0, 100, 60000);
+	}
+
+	private DBConnectionPool createPool(final int maxSize, final long maxWait, final long validationInterval) {
+		return createPool(0, maxSize, maxWait, validationInterval);
+	}
+
+	private DBConnectionPool createPool(final int minSize, final int maxSize, final long maxWait,
+			final long validationInterval) {
+		final DataSource dataSource = (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { DataSource.class }, new InvocationHandler() {
+
+			@Override
+			public Object invoke(final Object proxy, final Method method, final Object[] args) {
+				if(!"getConnection".equals(method.getName())) {
+					throw new UnsupportedOperationException(method.getName());
+				}
+
+				final FakeConnection physical = new FakeConnection();
+				synchronized (physicals) {
+					physicals.add(physical);
+				}
+				if(onOpen != null) {
+					onOpen.run();
+				}
+				return physical.connection;
+			}
+		});
+
+		return new DBConnectionPool(dataSource, minSize, maxSize, maxWait, 60000, validationInterval, 0);
+	}
+
+	private void assertStats(final int active, final int idle, final int total) {
+		final DBConnectionPoolStats stats = pool.getStats();
+		Assert.assertEquals("active", active, stats.getActive());
+		Assert.assertEquals("idle", idle, stats.getIdle());
+		Assert.assertEquals("total", total, stats.getTotal());
+	}
+
+	/**
+	 * A physical {@link Connection} which can be broken by the test.
+	 */
+	private static class FakeConnection implements InvocationHandler {
+
+		private final Connection connection = (Connection) Proxy.newProxyInstance(
+				DBConnectionPoolTest.class.getClassLoader(), new Class<?>[] { Connection.class }, this);
+
+		private volatile boolean autoCommit = true;
+
+		private volatile boolean broken = false;
+
+		private volatile boolean closed = false;
+
+		private volatile int rollbacks = 0;
+
+		@Override
+		public Object invoke(final Object proxy, final Method method, final Object[] args) throws SQLException {
+			switch (method.getName()) {
+				case "close":
+					closed = true;
+					return null;
+				case "isClosed":
+					return closed;
+				case "isValid":
+					return !broken && !closed;
+				case "getAutoCommit":
+					return autoCommit;
+				case "setAutoCommit":
+					autoCommit = (Boolean) args[0];
+					return null;
+				case "rollback":
+					if(broken) {
+						throw new SQLException("Communications link failure");
+					}
+					rollbacks++;
+					return null;
+				case "commit":
+				case "clearWarnings":
+					return null;
+				case "toString":
+					return "FakeConnection";
+				default:
+					throw new UnsupportedOperationException(method.getName());
+			}
+		}
+	}
+}
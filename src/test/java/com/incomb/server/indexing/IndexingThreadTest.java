@@ -143,10 +143,15 @@ public class IndexingThreadTest extends ATest {
 					}
 
 					@Override
-					public List<? extends IIndexElement> getElements(final Connection con, final int start, final int amount) {
+					public List<? extends IIndexElement> getElements(final Connection con, final long afterId, final int amount) {
 						return new ArrayList<>(); // not used for this test
 					}
 
+					@Override
+					public boolean isInsertRecoverable() {
+						return false;
+					}
+
 					@Override
 					public void afterIndexing(final IIndexData indexData) {
 						// TODO Auto-generated method stub
@@ -165,22 +170,27 @@ public class IndexingThreadTest extends ATest {
 
 	private void checkIndexContent(final String elementId,
 			final String fieldContent, final int expectedAmount) throws IOException {
-		final IndexReader reader = IndexManager.getInstance().getIndex().getIndexReader();
-		final IndexSearcher searcher = new IndexSearcher(reader);
-		final TopDocs topDocs = searcher.search(new TermQuery(new Term(FIELDNAME, fieldContent)), expectedAmount + 10);
-
-		assertNotNull(topDocs);
-		assertTrue(topDocs.totalHits == expectedAmount);
-
-		if(expectedAmount > 0) {
-			final ScoreDoc scoreDoc = topDocs.scoreDocs[0];
-			assertNotNull(scoreDoc);
-
-			final Document doc = reader.document(scoreDoc.doc);
-			assertNotNull(doc);
-			assertEquals(fieldContent, doc.get(FIELDNAME));
-			assertEquals(elementId, doc.get(IIndexElement.FIELD_ID));
-			assertEquals(INDEX_TYPE, doc.get(IIndexElement.FIELD_INDEX_TYPE));
+		final IndexSearcher searcher = IndexManager.getInstance().getIndex().acquireSearcher();
+		try {
+			final IndexReader reader = searcher.getIndexReader();
+			final TopDocs topDocs = searcher.search(new TermQuery(new Term(FIELDNAME, fieldContent)), expectedAmount + 10);
+
+			assertNotNull(topDocs);
+			assertTrue(topDocs.totalHits == expectedAmount);
+
+			if(expectedAmount > 0) {
+				final ScoreDoc scoreDoc = topDocs.scoreDocs[0];
+				assertNotNull(scoreDoc);
+
+				final Document doc = reader.document(scoreDoc.doc);
+				assertNotNull(doc);
+				assertEquals(fieldContent, doc.get(FIELDNAME));
+				assertEquals(elementId, doc.get(IIndexElement.FIELD_ID));
+				assertEquals(INDEX_TYPE, doc.get(IIndexElement.FIELD_INDEX_TYPE));
+			}
+		}
+		finally {
+			IndexManager.getInstance().getIndex().releaseSearcher(searcher);
 		}
 	}
 }
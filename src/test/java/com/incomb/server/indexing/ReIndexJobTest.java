@@ -0,0 +1,281 @@
+package com.incomb.server.indexing;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.TermQuery;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.incomb.server.ATest;
+import com.incomb.server.indexing.conf.EOperation;
+import com.incomb.server.indexing.conf.IIndexTypeConf;
+import com.incomb.server.indexing.conf.fields.IIndexFieldConf;
+
+public class ReIndexJobTest extends ATest {
+
+	private static final String INDEX_NAME = "reindexTest";
+
+	private static final String INDEX_TYPE = "reindexTestType";
+
+	private static final String OTHER_INDEX_TYPE = "reindexOtherType";
+
+	private static final String FIELDNAME = "reindexField";
+
+	private Index index;
+
+	private IndexingThread indexingThread;
+
+	@Before
+	public void setUpIndex() throws IOException {
+		index = new Index(INDEX_NAME);
+		indexingThread = new IndexingThread(index);
+		indexingThread.start();
+
+		// an element which doesn't exist anymore and an element of another type
+		final IndexElementWriter writer = new IndexElementWriter(index);
+		writer.add(new TestConf(INDEX_TYPE), new TestElement("99", Locale.GERMAN, EOperation.INSERT));
+		writer.add(new TestConf(OTHER_INDEX_TYPE), new TestElement("1", Locale.GERMAN, EOperation.INSERT));
+		index.commit();
+	}
+
+	@After
+	public void cleanUpIndex() throws IOException, InterruptedException {
+		indexingThread.interrupt();
+		indexingThread.join();
+		index.close();
+		FileUtils.deleteDirectory(new File(Index.INDEX_LOCATION, INDEX_NAME));
+	}
+
+	@Test
+	public void swap() throws IOException {
+		final TestConf conf = new TestConf(INDEX_TYPE, element("1", Locale.GERMAN), element("2", Locale.GERMAN),
+				element("2", Locale.ENGLISH), element("3", Locale.ENGLISH));
+
+		final ReIndexJob job = new ReIndexJob(conf, index, indexingThread);
+		job.run();
+
+		Assert.assertEquals(EReIndexState.FINISHED, job.getProgress().getState());
+		Assert.assertEquals(4, job.getProgress().getElements());
+
+		Assert.assertEquals(0, count(INDEX_TYPE, "99"));
+		Assert.assertEquals(1, count(INDEX_TYPE, "1"));
+		Assert.assertEquals(2, count(INDEX_TYPE, "2"));
+		Assert.assertEquals(1, count(INDEX_TYPE, "3"));
+		Assert.assertEquals(1, count(OTHER_INDEX_TYPE, "1"));
+
+		// afterIndexing is called once after the swap
+		Assert.assertEquals(4, conf.afterIndexingElements);
+		Assert.assertTrue(conf.afterIndexingAfterSwap);
+	}
+
+	@Test
+	public void cancel() throws IOException {
+		final TestConf conf = new TestConf(INDEX_TYPE, element("1", Locale.GERMAN), element("2", Locale.GERMAN));
+		final ReIndexJob job = new ReIndexJob(conf, index, indexingThread);
+		conf.onGetElements = new Runnable() {
+			@Override
+			public void run() {
+				job.cancel();
+			}
+		};
+
+		job.run();
+
+		Assert.assertEquals(EReIndexState.CANCELLED, job.getProgress().getState());
+		Assert.assertEquals(0, conf.afterIndexingElements);
+
+		// the old index is kept
+		Assert.assertEquals(1, count(INDEX_TYPE, "99"));
+		Assert.assertEquals(0, count(INDEX_TYPE, "1"));
+		Assert.assertEquals(1, count(OTHER_INDEX_TYPE, "1"));
+		Assert.assertFalse(new File(Index.INDEX_LOCATION, INDEX_NAME + ".shadow").exists());
+	}
+
+	@Test
+	public void replay() throws IOException {
+		final TestConf conf = new TestConf(INDEX_TYPE, element("1", Locale.GERMAN), element("50", Locale.GERMAN));
+
+		// inserted in two locales and committed while the shadow index is built
+		final SimpleIndexData liveData = new SimpleIndexData(conf, Arrays.asList(
+				element("50", Locale.GERMAN), element("50", Locale.ENGLISH), element("51", Locale.GERMAN)));
+		conf.onGetElements = new Runnable() {
+			@Override
+			public void run() {
+				conf.liveData = liveData;
+				indexingThread.add(liveData);
+				try {
+					Assert.assertTrue(conf.liveDataIndexed.await(5, TimeUnit.SECONDS));
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+
+		final ReIndexJob job = new ReIndexJob(conf, index, indexingThread);
+		job.run();
+
+		Assert.assertEquals(EReIndexState.FINISHED, job.getProgress().getState());
+
+		Assert.assertEquals(1, count(INDEX_TYPE, "1"));
+		Assert.assertEquals(2, count(INDEX_TYPE, "50"));
+		Assert.assertEquals(1, count(INDEX_TYPE, "51"));
+		Assert.assertEquals(0, count(INDEX_TYPE, "99"));
+	}
+
+	private int count(final String indexType, final String id) throws IOException {
+		index.refresh();
+
+		final BooleanQuery query = new BooleanQuery();
+		query.add(new TermQuery(new Term(IIndexElement.FIELD_ID, id)), Occur.MUST);
+		query.add(new TermQuery(new Term(IIndexElement.FIELD_INDEX_TYPE, indexType)), Occur.MUST);
+
+		final IndexSearcher searcher = index.acquireSearcher();
+		try {
+			return searcher.search(query, 10).totalHits;
+		}
+		finally {
+			index.releaseSearcher(searcher);
+		}
+	}
+
+	private static TestElement element(final String id, final Locale locale) {
+		return new TestElement(id, locale, EOperation.INSERT);
+	}
+
+	private static class TestElement implements IIndexElement {
+
+		private final String id;
+
+		private final Locale locale;
+
+		private final EOperation operation;
+
+		private TestElement(final String id, final Locale locale, final EOperation operation) {
+			this.id = id;
+			this.locale = locale;
+			this.operation = operation;
+		}
+
+		@Override
+		public EOperation getOperation() {
+			return operation;
+		}
+
+		@Override
+		public Locale getLocale() {
+			return locale;
+		}
+
+		@Override
+		public String getId() {
+			return id;
+		}
+
+		@Override
+		public Object getContent(final String fieldName) {
+			return FIELDNAME.equals(fieldName) ? id + "-" + locale.getLanguage() : null;
+		}
+	}
+
+	private class TestConf implements IIndexTypeConf {
+
+		private final String name;
+
+		private final List<TestElement> elements;
+
+		private Runnable onGetElements;
+
+		private volatile IIndexData liveData;
+
+		private final CountDownLatch liveDataIndexed = new CountDownLatch(1);
+
+		private int afterIndexingElements = 0;
+
+		private boolean afterIndexingAfterSwap = true;
+
+		private TestConf(final String name, final TestElement... elements) {
+			this.name = name;
+			this.elements = Arrays.asList(elements);
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public List<IIndexFieldConf<?>> getFields() {
+			final IIndexFieldConf<String> field = new IIndexFieldConf<String>() {
+
+				@Override
+				public String getName() {
+					return FIELDNAME;
+				}
+
+				@Override
+				public Field buildField(final String content) {
+					return new StringField(getName(), content, Store.YES);
+				}
+			};
+
+			final List<IIndexFieldConf<?>> fields = new ArrayList<>();
+			fields.add(field);
+			return fields;
+		}
+
+		@Override
+		public List<? extends IIndexElement> getElements(final Connection con, final long afterId, final int amount) {
+			if(onGetElements != null) {
+				onGetElements.run();
+				onGetElements = null;
+			}
+
+			final List<TestElement> result = new ArrayList<>();
+			for (final TestElement element : elements) {
+				if(Long.parseLong(element.getId()) > afterId && result.size() < amount) {
+					result.add(element);
+				}
+			}
+			return result;
+		}
+
+		@Override
+		public boolean isInsertRecoverable() {
+			return false;
+		}
+
+		@Override
+		public void afterIndexing(final IIndexData indexData) {
+			if(indexData == liveData) {
+				liveDataIndexed.countDown();
+				return;
+			}
+
+			afterIndexingElements += indexData.getElements().size();
+			try {
+				// the first reindexed element is already searchable in the swapped index
+				afterIndexingAfterSwap &= count(name, elements.get(0).getId()) > 0;
+			} catch (final IOException e) {
+				afterIndexingAfterSwap = false;
+			}
+		}
+	}
+}
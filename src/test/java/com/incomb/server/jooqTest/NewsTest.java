@@ -60,7 +60,7 @@ public class NewsTest extends ATest {
 				"Lorem ipsum dolor ...", new Timestamp(System.currentTimeMillis()), "http://incomb.com",
 				"/img/logo.svg", 232, 32, 287389);
 
-		new NewsDao(con).saveNews(news);
+		new NewsDao(con).saveNews(news).apply();
 		return news;
 	}
 
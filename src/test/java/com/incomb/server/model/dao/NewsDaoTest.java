@@ -110,21 +110,21 @@ public class NewsDaoTest extends ATest {
 		final News news15 = createNews(1000015, catSwitzerland, "Bl Weihnachten", ts(1, 17), provider, locale);
 
 		final NewsDao newsDao = new NewsDao(con);
-		newsDao.saveNews(news1);
-		newsDao.saveNews(news2);
-		newsDao.saveNews(news3);
-		newsDao.saveNews(news4);
-		newsDao.saveNews(news5);
-		newsDao.saveNews(news6);
-		newsDao.saveNews(news7);
-		newsDao.saveNews(news8);
-		newsDao.saveNews(news9);
-		newsDao.saveNews(news10);
-		newsDao.saveNews(news11);
-		newsDao.saveNews(news12);
-		newsDao.saveNews(news13);
-		newsDao.saveNews(news14);
-		newsDao.saveNews(news15);
+		newsDao.saveNews(news1).apply();
+		newsDao.saveNews(news2).apply();
+		newsDao.saveNews(news3).apply();
+		newsDao.saveNews(news4).apply();
+		newsDao.saveNews(news5).apply();
+		newsDao.saveNews(news6).apply();
+		newsDao.saveNews(news7).apply();
+		newsDao.saveNews(news8).apply();
+		newsDao.saveNews(news9).apply();
+		newsDao.saveNews(news10).apply();
+		newsDao.saveNews(news11).apply();
+		newsDao.saveNews(news12).apply();
+		newsDao.saveNews(news13).apply();
+		newsDao.saveNews(news14).apply();
+		newsDao.saveNews(news15).apply();
 
 		Thread.sleep(10000); // wait till all news are indexed
 
@@ -0,0 +1,152 @@
+package com.incomb.server.pipeline;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.incomb.server.utils.ConfigUtil;
+
+public class StageQueueTest {
+
+	@BeforeClass
+	public static void setUpClass() {
+		ConfigUtil.setDocBase(new File("").getAbsolutePath() + "/src/test/resources/");
+	}
+
+	@Test
+	public void dropNewest() {
+		final StageQueue<Integer> queue = new StageQueue<Integer>("testDropNewest", 2, EOverflowPolicy.DROP_NEWEST, 0);
+
+		Assert.assertTrue(queue.put(1));
+		Assert.assertTrue(queue.put(2));
+		Assert.assertFalse(queue.put(3));
+
+		Assert.assertEquals(Arrays.asList(1, 2), drain(queue));
+
+		final StageStats stats = queue.getStats();
+		Assert.assertEquals(2, stats.getEnqueued());
+		Assert.assertEquals(2, stats.getDequeued());
+		Assert.assertEquals(1, stats.getDropped());
+	}
+
+	@Test
+	public void dropOldest() {
+		final StageQueue<Integer> queue = new StageQueue<Integer>("testDropOldest", 2, EOverflowPolicy.DROP_OLDEST, 0);
+
+		Assert.assertTrue(queue.put(1));
+		Assert.assertTrue(queue.put(2));
+		Assert.assertTrue(queue.put(3));
+		Assert.assertTrue(queue.put(4));
+
+		Assert.assertEquals(Arrays.asList(3, 4), drain(queue));
+
+		final StageStats stats = queue.getStats();
+		Assert.assertEquals(4, stats.getEnqueued());
+		Assert.assertEquals(2, stats.getDropped());
+	}
+
+	@Test
+	public void blockTimeout() {
+		final StageQueue<Integer> queue = new StageQueue<Integer>("testBlockTimeout", 1, EOverflowPolicy.BLOCK, 100);
+
+		Assert.assertTrue(queue.put(1));
+
+		final long start = System.currentTimeMillis();
+		Assert.assertFalse(queue.put(2));
+		Assert.assertTrue(System.currentTimeMillis() - start >= 90);
+
+		Assert.assertEquals(Arrays.asList(1), drain(queue));
+		Assert.assertEquals(1, queue.getStats().getDropped());
+	}
+
+	@Test
+	public void blockUntilTaken() throws InterruptedException {
+		final StageQueue<Integer> queue = new StageQueue<Integer>("testBlock", 1, EOverflowPolicy.BLOCK, 0);
+		Assert.assertTrue(queue.put(1));
+
+		final CountDownLatch started = new CountDownLatch(1);
+		final AtomicBoolean added = new AtomicBoolean();
+		final Thread producer = new Thread() {
+			@Override
+			public void run() {
+				started.countDown();
+				added.set(queue.put(2));
+			}
+		};
+		producer.start();
+		started.await();
+
+		// the producer waits as long as the queue is full
+		producer.join(200);
+		Assert.assertTrue(producer.isAlive());
+		Assert.assertFalse(added.get());
+
+		Assert.assertEquals(Integer.valueOf(1), queue.poll(1, TimeUnit.SECONDS));
+		producer.join(1000);
+		Assert.assertFalse(producer.isAlive());
+		Assert.assertTrue(added.get());
+
+		Assert.assertEquals(Arrays.asList(2), drain(queue));
+		Assert.assertEquals(0, queue.getStats().getDropped());
+	}
+
+	@Test
+	public void blockInterrupted() throws InterruptedException {
+		final StageQueue<Integer> queue = new StageQueue<Integer>("testBlockInterrupted", 1, EOverflowPolicy.BLOCK, 0);
+		Assert.assertTrue(queue.put(1));
+
+		final AtomicBoolean added = new AtomicBoolean(true);
+		final AtomicBoolean interrupted = new AtomicBoolean();
+		final Thread producer = new Thread() {
+			@Override
+			public void run() {
+				added.set(queue.put(2));
+				interrupted.set(Thread.currentThread().isInterrupted());
+			}
+		};
+		producer.start();
+		producer.join(100);
+		producer.interrupt();
+		producer.join(1000);
+
+		Assert.assertFalse(added.get());
+		Assert.assertTrue(interrupted.get());
+		Assert.assertEquals(1, queue.getStats().getDropped());
+	}
+
+	@Test
+	public void putBlockingIgnoresPolicy() throws InterruptedException {
+		final StageQueue<Integer> queue = new StageQueue<Integer>("testPutBlocking", 1, EOverflowPolicy.DROP_NEWEST, 0);
+		Assert.assertTrue(queue.put(1));
+
+		final Thread producer = new Thread() {
+			@Override
+			public void run() {
+				queue.putBlocking(2);
+			}
+		};
+		producer.start();
+		producer.join(100);
+		Assert.assertTrue(producer.isAlive());
+
+		Assert.assertEquals(Integer.valueOf(1), queue.poll());
+		producer.join(1000);
+
+		Assert.assertEquals(Arrays.asList(2), drain(queue));
+		Assert.assertEquals(0, queue.getStats().getDropped());
+	}
+
+	private static List<Integer> drain(final StageQueue<Integer> queue) {
+		final List<Integer> elements = new ArrayList<Integer>();
+		queue.drainTo(elements, Integer.MAX_VALUE);
+		return elements;
+	}
+}
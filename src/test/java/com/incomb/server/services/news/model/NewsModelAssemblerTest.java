@@ -0,0 +1,114 @@
+package com.incomb.server.services.news.model;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.incomb.server.ATest;
+import com.incomb.server.model.CombItem;
+import com.incomb.server.model.ContentComment;
+import com.incomb.server.model.ContentVote;
+import com.incomb.server.model.News;
+import com.incomb.server.model.NewsGroup;
+import com.incomb.server.model.User;
+import com.incomb.server.model.dao.NewsDao;
+import com.incomb.server.model.dao.UserDao;
+import com.incomb.server.model.dao.internal.InternalCombItemDao;
+import com.incomb.server.model.dao.internal.InternalContentCommentDao;
+import com.incomb.server.model.dao.internal.InternalContentVoteDao;
+import com.incomb.server.utils.JsonUtil;
+
+public class NewsModelAssemblerTest extends ATest {
+
+	private static final long OTHER_USERID = 98987984;
+
+	/**
+	 * News with ins, combs, comments and a {@link CombItem} of {@link #USERID}.
+	 */
+	private News engagedNews;
+
+	/**
+	 * News without any engagement.
+	 */
+	private News plainNews;
+
+	@Before
+	public void createEngagement() {
+		final NewsDao newsDao = new NewsDao(con);
+		engagedNews = newsDao.getNews(5502);
+		plainNews = newsDao.getNews(5503);
+		Assert.assertNotNull(engagedNews);
+		Assert.assertNotNull(plainNews);
+
+		createUser();
+		final User otherUser = new User(OTHER_USERID, "other@test.com", "UnitTestOther", "UnitTest Other", "", "",
+				new Timestamp(System.currentTimeMillis()), false);
+		new UserDao(con).insert(otherUser);
+
+		final long contentId = engagedNews.getContentId();
+		final Timestamp now = new Timestamp(System.currentTimeMillis());
+
+		new InternalContentVoteDao(jooqConfig).insert(
+				new ContentVote(USERID, contentId, now, true),
+				new ContentVote(OTHER_USERID, contentId, now, false));
+
+		new InternalCombItemDao(jooqConfig).insert(new CombItem(USERID, contentId, now, null));
+
+		new InternalContentCommentDao(jooqConfig).insert(
+				new ContentComment(0, OTHER_USERID, contentId, new Timestamp(now.getTime() - 60000), "First!"),
+				new ContentComment(0, USERID, contentId, now, "InComb is the best!"));
+	}
+
+	@Test
+	public void sameAsPerNews() {
+		final List<News> news = Arrays.asList(engagedNews, plainNews);
+		final List<NewsModel> models = new NewsModelAssembler(USERID, con).toModels(news);
+
+		Assert.assertEquals(2, models.size());
+		assertSameModel(new NewsModel(engagedNews, USERID, con), models.get(0));
+		assertSameModel(new NewsModel(plainNews, USERID, con), models.get(1));
+
+		final NewsModel engaged = models.get(0);
+		Assert.assertEquals(1, engaged.getVoteAmounts().getInsAmount());
+		Assert.assertEquals(1, engaged.getVoteAmounts().getCombsAmount());
+		Assert.assertNotNull(engaged.getCombItem());
+		Assert.assertEquals(2, engaged.getComments().size());
+
+		final NewsModel plain = models.get(1);
+		Assert.assertEquals(0, plain.getVoteAmounts().getInsAmount());
+		Assert.assertEquals(0, plain.getVoteAmounts().getCombsAmount());
+		Assert.assertNull(plain.getCombItem());
+		Assert.assertTrue(plain.getComments().isEmpty());
+	}
+
+	@Test
+	public void sameAsPerNewsWithoutUser() {
+		final List<NewsModel> models = new NewsModelAssembler(0, con).toModels(Arrays.asList(engagedNews, plainNews));
+
+		assertSameModel(new NewsModel(engagedNews, 0, con), models.get(0));
+		assertSameModel(new NewsModel(plainNews, 0, con), models.get(1));
+		Assert.assertNull(models.get(0).getCombItem());
+	}
+
+	@Test
+	public void sameAsPerNewsGroup() {
+		final NewsGroup newsGroup = new NewsGroup(plainNews, new ArrayList<>(Arrays.asList(engagedNews)));
+		final List<NewsModel> models = new NewsModelAssembler(USERID, con).toGroupModels(Arrays.asList(newsGroup));
+
+		final List<NewsModel> otherNews = Arrays.asList(new NewsModel(engagedNews, USERID, con));
+		Assert.assertEquals(1, models.size());
+		assertSameModel(new NewsModel(plainNews, otherNews, USERID, con), models.get(0));
+	}
+
+	/**
+	 * Compares the JSON which is sent to the client.
+	 */
+	private static void assertSameModel(final NewsModel expected, final NewsModel actual) {
+		Assert.assertEquals(JsonUtil.getJson(expected), JsonUtil.getJson(actual));
+	}
+}
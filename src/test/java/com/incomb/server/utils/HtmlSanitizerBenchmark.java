@@ -0,0 +1,88 @@
+package com.incomb.server.utils;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the {@link HtmlSanitizer} with the Jsoup parse for the image and the regular expressions
+ * of {@link HtmlUtil#removeTags(String, boolean)} which were used for the descriptions before.
+ * Run it with the main method, the test classpath and the compiled tests.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HtmlSanitizerBenchmark {
+
+	private static final String BASE_URL = "http://www.example.com/rss/feed.xml";
+
+	private static final String DESCRIPTION = "<div class=\"teaser\"><img src=\"/images/2015/01/teaser.jpg\" "
+			+ "alt=\"Der Bundesrat &amp; das Parlament\" width=\"300\" height=\"200\" />"
+			+ "<p>Der <b>Bundesrat</b> hat am Mittwoch &quot;die Vorlage&quot; zur Revision des Gesetzes "
+			+ "verabschiedet.<br><br />Die Kantone haben bis Ende M&auml;rz Zeit, um Stellung zu nehmen.</p>\n"
+			+ "<p>Weitere Informationen <a href=\"http://www.example.com/news/1234\">im Artikel</a> &#8211; "
+			+ "mit Bildern und Videos.</p><script type=\"text/javascript\">track('news-1234');</script>"
+			+ "<img src=\"http://stats.example.com/pixel.gif\" width=\"1\" height=\"1\" /></div>";
+
+	@Benchmark
+	public void sanitizer(final Blackhole blackhole) {
+		final HtmlSanitizer sanitizer = new HtmlSanitizer(BASE_URL, 10000);
+		blackhole.consume(sanitizer.sanitize(DESCRIPTION));
+		blackhole.consume(sanitizer.getImageUrl());
+	}
+
+	@Benchmark
+	public void jsoupAndRegex(final Blackhole blackhole) {
+		blackhole.consume(parseImage(DESCRIPTION));
+		blackhole.consume(HtmlUtil.removeTags(DESCRIPTION.trim(), true));
+	}
+
+	public static void main(final String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(HtmlSanitizerBenchmark.class.getSimpleName()).build()).run();
+	}
+
+	/**
+	 * The image parsing of RssItem before the {@link HtmlSanitizer} existed.
+	 */
+	private static String parseImage(final String description) {
+		final Document doc = Jsoup.parse(description);
+		for (final Element img : doc.getElementsByTag("img")) {
+			String src = img.attr("src");
+			if(StringUtils.isNotBlank(src)) {
+
+				if(src.startsWith("/")) {
+					try {
+						src = "//" + new URL(BASE_URL).getHost() + src;
+					} catch (final MalformedURLException e) {
+						continue;
+					}
+				}
+
+				return src;
+			}
+		}
+
+		return null;
+	}
+}
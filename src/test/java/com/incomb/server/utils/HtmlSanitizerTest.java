@@ -0,0 +1,43 @@
+package com.incomb.server.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HtmlSanitizerTest {
+
+	private static final String BASE_URL = "http://www.example.com/rss/feed.xml";
+
+	@Test
+	public void sanitize() {
+		final HtmlSanitizer sanitizer = new HtmlSanitizer(BASE_URL, 0);
+
+		Assert.assertEquals("content<br />moreContent", sanitizer.sanitize("<br><br>content<br /><br/>\n<p>moreContent</p><br>"));
+		Assert.assertEquals("a &lt; b and c &gt; d", new HtmlSanitizer(BASE_URL, 0).sanitize("<div>a < b and c > d</div>"));
+		Assert.assertEquals("\"f\u00fcr\" &amp; \u2013 end", new HtmlSanitizer(BASE_URL, 0).sanitize(
+				"&quot;f&uuml;r&quot; &amp; &#8211;<script>alert(1)</script><!-- x --> end"));
+		Assert.assertEquals("breaks and spaces", new HtmlSanitizer(BASE_URL, 0).sanitize("breaks \t  and&nbsp;spaces"));
+		Assert.assertEquals("", new HtmlSanitizer(BASE_URL, 0).sanitize(null));
+	}
+
+	@Test
+	public void maxLength() {
+		Assert.assertEquals("Der Bundesrat\u2026", new HtmlSanitizer(BASE_URL, 13).sanitize("<p>Der <b>Bundesrat</b> hat</p>"));
+		Assert.assertEquals("short", new HtmlSanitizer(BASE_URL, 5).sanitize("short"));
+	}
+
+	@Test
+	public void imageUrl() {
+		HtmlSanitizer sanitizer = new HtmlSanitizer(BASE_URL, 0);
+		sanitizer.sanitize("<img src=\"/pixel.gif\" width=\"1\" height=\"1\"><img src='data:image/png;base64,xx'>"
+				+ "<img alt=\"a > b\" src=\"../images/b.png?x=1&amp;y=2\"><img src=\"/c.png\">");
+		Assert.assertEquals("http://www.example.com/images/b.png?x=1&y=2", sanitizer.getImageUrl());
+
+		sanitizer = new HtmlSanitizer(null, 0);
+		sanitizer.sanitize("<img src=\"/relative.png\"><IMG SRC=\"http://cdn.example.com/a.jpg\">");
+		Assert.assertEquals("http://cdn.example.com/a.jpg", sanitizer.getImageUrl());
+
+		sanitizer = new HtmlSanitizer(BASE_URL, 0);
+		sanitizer.sanitize("no image");
+		Assert.assertNull(sanitizer.getImageUrl());
+	}
+}